@@ -66,7 +66,7 @@ this.ROW_ACTIONS&&(this.ROW_ACTIONS=[]),this.ROW_ACTIONS.push(new RowAction("ope
 function EditColumn(a,b,c){this.id=a;this.caption=b;this.formatter=c?c:"toText";this.editable=!0}function RowAction(a,b,c,d){this.id=a;this.caption=b;this.condition=c;this.uncondition=d}ListTemplate.prototype=new Template;ListTemplate.prototype.MAX_PAGES=500;ListTemplate.prototype.HALF_MAX_PAGES=250;ListTemplate.prototype.EDIT_METHOD="post";ListTemplate.prototype.init=function(a){return this.filter({},a)};
 ListTemplate.prototype.filter=function(a,b,c){return this.run({filter:a,baseFilter:a,url:this.SEARCH_PATH,exclusions:c},b,this.SEARCH_METHOD)};ListTemplate.prototype.filterX=function(a,b){return this.run({filter:a,baseFilter:a,url:this.SEARCH_PATH,extra:b},void 0,this.SEARCH_METHOD)};ListTemplate.prototype.getTitle=function(a){return a.parent?this.PARENT+" "+this.PLURAL+": "+a.parent.name:a.extra&&a.extra.name?this.PLURAL+": "+a.extra.name:this.PLURAL};
 ListTemplate.prototype.onPostLoad=function(a){if(a.isModal){var b=$(window),c=a.body;if(c.height()>b.height()){for(var d=a.tbody,e=d.rows,f=e[0].cells,g=[],h=0;h<f.length;h++)f[h].style.width=(g[h]=f[h].clientWidth)+"px";for(h=1;h<e.length;h++)for(var f=e[h].cells,k=0;k<g.length;k++)f[k].style.width=g[k]+"px";h=c.height()-d.offsetHeight+25;d.style.height=b.height()-h+"px";d.className=this.CSS_MODAL;a.table.style.display="inline";b=a.thead.rows[1].cells;for(h=0;h<g.length;h++)b[h].style.width=g[h]+
-"px"}}if(this.onListPostLoad)this.onListPostLoad(a)};ListTemplate.prototype.handleCancel=function(a){a.isModal&&a.body.closeMe()};ListTemplate.prototype.doPaging=function(a,b){var c=a.filter;c.page=b.nextPage;b.myPageToken&&(c.pageToken=b.myPageToken);this.run(a)};ListTemplate.prototype.doSort=function(a,b){var c=a.filter,d=a.value;c.sortOn=b.sortOn;d.sortOn==c.sortOn?c.sortDir="ASC"==d.sortDir?"DESC":"ASC":delete c.sortDir;this.run(a)};
+"px"}}if(this.onListPostLoad)this.onListPostLoad(a)};ListTemplate.prototype.handleCancel=function(a){a.isModal&&a.body.closeMe()};ListTemplate.prototype.doPaging=function(a,b){var c=a.filter;c.page=b.nextPage;b.myPageToken&&(c.pageToken=b.myPageToken);void 0!==b.myCursor&&(b.myCursor?c.cursor=b.myCursor:delete c.cursor);this.run(a)};ListTemplate.prototype.doSort=function(a,b){var c=a.filter,d=a.value;c.sortOn=b.sortOn;c.cursor&&(delete c.cursor,c.page=1);d.sortOn==c.sortOn?c.sortDir="ASC"==d.sortDir?"DESC":"ASC":delete c.sortDir;this.run(a)};
 ListTemplate.prototype.generate=function(a){var b=a.value;$.isArray(b)&&(a.value=b={total:b.length,pageSize:b.length,page:1,pages:1,records:b});b=b.records;if(!b||0==b.length)return this.createNoRecordsFoundMessage(a);b=a.table=document.createElement("table");this.appendHeader(a,b);this.appendBody(a,b);return b};
 ListTemplate.prototype.createNoRecordsFoundMessage=function(a){var b=a.value,b=this.createDiv(b.message?b.message:"No "+this.PLURAL+" found.","noRecordsFound"),c=this;this.CAN_ADD&&b.appendChild(this.createAnchor("Click here to add a new "+this.SINGULAR+".",function(b){c.handleAdd(a,this)}));this.search&&b.appendChild(this.createAnchor("Click here to apply a different search.",function(b){c.handleSearch(a,this)}));return b};
 ListTemplate.prototype.appendHeader=function(a,b){var c,d=a.thead=b.createTHead(),e,f=this.COLUMNS;this.insertPaging(b,d,a);c=this.insertRow(d);this.HAS_ROW_ACTIONS&&c.insertCell(0);for(var g=$.extend({},a.exclusions),h=0;h<f.length;h++)e=f[h],g[e.id]||this.insertHeader(c,e.id,e.caption,a);return d};
@@ -80,8 +80,9 @@ ListTemplate.prototype.clearMenuClose=function(a){a.myMenuCloseId&&(window.clear
 ListTemplate.prototype.insertRow=function(a){a=a.insertRow(a.rows.length);a.className=0==a.rowIndex%2?"even":"odd";return a};ListTemplate.prototype.insertPaging=function(a,b,c){this.insertPaging_(b,c);this.insertPaging_(c.tfoot=a.createTFoot(),c)};
 ListTemplate.prototype.insertPaging_=function(a,b){var c=this,d=b.value,e=this.insertRow(a),f=e.insertCell(0);f.colSpan=this.DESC_COLS;if(1==d.total)f.innerHTML="Showing only "+this.SINGULAR;else{var g=d.records.length;f.innerHTML=1==g?"Showing one "+this.SINGULAR:"Showing "+g+" "+this.PLURAL;f.innerHTML+=" out of "+d.total}this.CAN_ADD&&f.appendChild(this.createAnchor("Add Item",function(a){c.handleAdd(b,this)},"action"));this.search&&(f.appendChild(this.createAnchor("Search",function(a){c.handleSearch(b,
 this)},"action")),b.hasSearchFilter&&f.appendChild(this.createAnchor("Searched",function(a){c.handleSearched(b,this)},"action")));f.appendChild(this.createAnchor("Refresh",function(a){c.handleRefresh(b,this)},"action"));f.appendChild(this.createAnchor("Export",function(a){c.generateCSV(b,this)},"action"));if(this.ACTIONS)for(g=0;g<this.ACTIONS.length;g++){var h,k=this.ACTIONS[g];f.appendChild(h=this.createAnchor(k.caption,function(a){c[this.myId](b,this)},"action"));h.myId=k.id}f=e.insertCell(1);
-f.colSpan=this.NAV_COLS;f.className="right";if(!(2>d.pages)){1<d.page&&(f.appendChild(e=this.createAnchor("&lArr; prev",function(a){c.doPaging(b,this)})),e.nextPage=d.page-1,f.appendChild(document.createTextNode(" ")));g=1;h=d.pages;this.MAX_PAGES<d.pages&&(this.HALF_MAX_PAGES<d.page&&(g=d.page-this.HALF_MAX_PAGES),h=g+this.MAX_PAGES,h>d.pages&&(h=d.pages,g=h-this.MAX_PAGES));f.appendChild(e=document.createElement("select"));k=0;for(1<g&&(e.options[k++]=new Option(1,1,!1,1==d.page));g<=h;g++,k++)e.options[k]=
+f.colSpan=this.NAV_COLS;f.className="right";if(!(2>d.pages))if(d.cursor||d.filter.cursor)this.insertCursorPaging(b,f);else{1<d.page&&(f.appendChild(e=this.createAnchor("&lArr; prev",function(a){c.doPaging(b,this)})),e.nextPage=d.page-1,f.appendChild(document.createTextNode(" ")));g=1;h=d.pages;this.MAX_PAGES<d.pages&&(this.HALF_MAX_PAGES<d.page&&(g=d.page-this.HALF_MAX_PAGES),h=g+this.MAX_PAGES,h>d.pages&&(h=d.pages,g=h-this.MAX_PAGES));f.appendChild(e=document.createElement("select"));k=0;for(1<g&&(e.options[k++]=new Option(1,1,!1,1==d.page));g<=h;g++,k++)e.options[k]=
 new Option(g,g,!1,g==d.page);d.pages>h&&(e.options[k++]=new Option(d.pages,d.pages,!1,d.pages==d.page));e.onchange=function(a){this.nextPage=this.value;c.doPaging(b,this)};d.pages>d.page&&(f.appendChild(document.createTextNode(" ")),f.appendChild(e=this.createAnchor("next &rArr;",function(a){c.doPaging(b,this)})),e.nextPage=d.page+1,d.filter.pageToken&&(e.myPageToken=d.filter.pageToken))}};
+ListTemplate.prototype.insertCursorPaging=function(a,b){var c,d=this,e=a.value,f=a.cursors||(a.cursors=[]);f[e.page]=e.filter.cursor;1<e.page&&(b.appendChild(c=this.createAnchor("&lArr; prev",function(b){d.doPaging(a,this)})),c.nextPage=e.page-1,c.myCursor=f[e.page-1]||null,b.appendChild(document.createTextNode(" ")));b.appendChild(document.createTextNode("Page "+e.page));e.cursor&&(b.appendChild(document.createTextNode(" ")),b.appendChild(c=this.createAnchor("next &rArr;",function(b){d.doPaging(a,this)})),c.nextPage=e.page+1,c.myCursor=e.cursor)};
 ListTemplate.prototype.insertHeader=function(a,b,c,d){var e=this;a=a.insertCell(a.cells.length);a.appendChild(c=this.createAnchor(c,function(a){e.doSort(d,this)}));c.sortOn=b;c=d.value;b==c.sortOn&&a.appendChild(this.createSpan(" "+("ASC"==c.sortDir?"&uarr;":"&darr;")));return a};ListTemplate.prototype.insertCell=function(a,b,c){var d=a.insertCell(a.cells.length);d.className=b?b:a.className;void 0!=c&&(a=typeof c,"string"==a||"number"==a?d.innerHTML=c:d.appendChild(c));return d};
 ListTemplate.prototype.decorateOpenChildAnchor=function(a,b){if(void 0!=b.numberOfChildren)this.addSpan(a," ("+this.toWhole(b.numberOfChildren)+")");else{var c=this;this.COUNT_CHILDREN_URL&&Template.post(this.COUNT_CHILDREN_URL,{id:b.id},function(b){c.addSpan(a," ("+c.toWhole(b)+")")})}};ListTemplate.prototype.handleAdd=function(a,b){var c=this;this.EDITOR.doAdd(function(b){c.run(a,void 0,c.SEARCH_METHOD)},this.NO_EDITOR_MODAL?a.body:void 0,a.defaultValue,a.submitUrl)};
 ListTemplate.prototype.handleCopy=function(a,b){var c=this.cloneObject(b.myRecord);delete c[this.IDENTIFIER];var d=this;this.EDITOR.doAdd(function(b){d.run(a,void 0,d.SEARCH_METHOD)},this.NO_EDITOR_MODAL?a.body:void 0,c,a.submitUrl)};ListTemplate.prototype.handleSelect=function(a,b){var c=this;this.EDITOR.doEdit(b.myRecord[this.IDENTIFIER],function(b){c.run(a,void 0,c.SEARCH_METHOD)},this.NO_EDITOR_MODAL?a.body:void 0,a.submitUrl)};
@@ -188,6 +188,13 @@ ListTemplate.prototype.doPaging = function(criteria, elem)
 	f.page = elem.nextPage;
 	if (elem.myPageToken)	// For Google Profile search.
 		f.pageToken = elem.myPageToken;
+	if (undefined !== elem.myCursor)	// For cursor-based searches. The first page has no cursor.
+	{
+		if (elem.myCursor)
+			f.cursor = elem.myCursor;
+		else
+			delete f.cursor;
+	}
 
 	this.run(criteria);
 }
@@ -198,6 +205,11 @@ ListTemplate.prototype.doSort = function(criteria, elem)
 	var value = criteria.value;
 
 	filter.sortOn = elem.sortOn;
+	if (filter.cursor)	// Cursors are only valid for the ordering that produced them so start over.
+	{
+		delete filter.cursor;
+		filter.page = 1;
+	}
 
 	// If current sort, just reverse the direction.
 	if (value.sortOn == filter.sortOn)
@@ -559,6 +571,9 @@ ListTemplate.prototype.insertPaging_ = function(section, criteria)
 	if (2 > v.pages)
 		return;
 
+	if (v.cursor || v.filter.cursor)	// Cursor-based searches cannot jump to an arbitrary page.
+		return this.insertCursorPaging(criteria, c);
+
 	if (1 < v.page)
 	{
 		c.appendChild(e = this.createAnchor('&lArr; prev', function(ev) { me.doPaging(criteria, this); }));
@@ -604,6 +619,32 @@ ListTemplate.prototype.insertPaging_ = function(section, criteria)
 	}
 }
 
+ListTemplate.prototype.insertCursorPaging = function(criteria, c)
+{
+	var e, me = this;
+	var v = criteria.value;
+	var cursors = criteria.cursors || (criteria.cursors = []);	// Cursor used to fetch each visited page. The first page has none.
+	cursors[v.page] = v.filter.cursor;
+
+	if (1 < v.page)
+	{
+		c.appendChild(e = this.createAnchor('&lArr; prev', function(ev) { me.doPaging(criteria, this); }));
+		e.nextPage = v.page - 1;
+		e.myCursor = cursors[v.page - 1] || null;
+		c.appendChild(document.createTextNode(' '));
+	}
+
+	c.appendChild(document.createTextNode('Page ' + v.page));
+
+	if (v.cursor)
+	{
+		c.appendChild(document.createTextNode(' '));
+		c.appendChild(e = this.createAnchor('next &rArr;', function(ev) { me.doPaging(criteria, this); }));
+		e.nextPage = v.page + 1;
+		e.myCursor = v.cursor;
+	}
+}
+
 ListTemplate.prototype.insertHeader = function(row, field, caption, criteria)
 {
 	var a, me = this, o = row.insertCell(row.cells.length);
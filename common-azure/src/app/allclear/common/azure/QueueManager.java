@@ -1,23 +1,31 @@
 package app.allclear.common.azure;
 
 import static java.util.stream.Collectors.toList;
+import static com.codahale.metrics.MetricRegistry.name;
 import static com.azure.storage.common.policy.RetryPolicyType.EXPONENTIAL;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.*;
 
 import io.dropwizard.lifecycle.Managed;
 
+import com.azure.core.util.Context;
 import com.azure.storage.common.policy.RequestRetryOptions;
 import com.azure.storage.queue.*;
+import com.azure.storage.queue.models.QueueMessageItem;
+import com.codahale.metrics.*;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import app.allclear.common.errors.AbortException;
 import app.allclear.common.errors.ThrottledException;
 import app.allclear.common.jackson.JacksonUtils;
 import app.allclear.common.task.OperatorStats;
+import app.allclear.common.task.PollScheduler;
 import app.allclear.common.task.TaskOperator;
 
 /** A Dropwizard managed component that operates a background thread to process,
@@ -28,20 +36,36 @@ import app.allclear.common.task.TaskOperator;
  * @since 5/19/2016
  * 
  */
-public class QueueManager implements Managed, Runnable
+public class QueueManager implements Managed, MetricSet, Runnable
 {
 	private static final Logger logger = LoggerFactory.getLogger(QueueManager.class);
 	static final ObjectMapper MAPPER = JacksonUtils.createMapperMS();
 	private static final Base64.Decoder decoder = Base64.getDecoder();
 
 	// private static final int DELAY_AFTER_ERROR = 5 * 60;	// 5 minutes.
+	public static final Duration VISIBILITY_MAX = Duration.ofDays(7L);	// Longest visibility timeout that Azure accepts.
+
+	/** Gets the visibility timeout of a received batch. A message may wait for the attempts ahead of it before its own
+	 *  attempt runs, so the timeout covers those rounds plus its own attempt of at most the operator's timeout.
+	 *  Otherwise the message reappears while still pending and another worker processes it again.
+	 *
+	 * @param op
+	 * @param rounds number of attempts that may run ahead of a received message on the same worker.
+	 * @return never NULL.
+	 */
+	public static Duration visibility(final TaskOperator<?> op, final int rounds)
+	{
+		var o = Duration.ofSeconds(Math.max(1L, (long) op.timeout) * (rounds + 1L));
+
+		return (0 < o.compareTo(VISIBILITY_MAX)) ? VISIBILITY_MAX : o;
+	}
 
 	/** Indicates that the background thread should continue operation. This flag is used within
 	 *  the "run" method to indicate when to exit. The property should be checked frequently in
 	 *  the "run" method to exit as soon as possible.
 	 */
 	public boolean isAvailable() { return available; }
-	private boolean available = false;
+	private volatile boolean available = false;
 
 	public final String connectionString;
 
@@ -64,14 +88,29 @@ public class QueueManager implements Managed, Runnable
 	{
 		return operators.values()
 				.stream()
-				.map(v -> new OperatorStats(v.name, queue(v.name).getProperties().getApproximateMessagesCount(), 0, v.successes, v.skips, v.errors))
+				.map(v -> new OperatorStats(v.name, queue(v.name).getProperties().getApproximateMessagesCount(), 0, v.successes, v.skips, v.errors, scheduler().interval(v.name)))
 				.collect(toList());
 	}
 
 	/** Represents the duration that the thread should sleep between processing. */
 	public long getSleep() { return sleep; }
 	private long sleep = 0L;
-	public void setSleep(final long newValue) { sleep = newValue; }
+	public void setSleep(final long newValue) { sleep = newValue; scheduler = null; }
+
+	/** Represents the longest duration that the thread should wait between polls of an idle queue. */
+	public long getMaxSleep() { return maxSleep; }
+	private long maxSleep = PollScheduler.MAX_DEFAULT;
+	public QueueManager withMaxSleep(final long newValue) { maxSleep = newValue; scheduler = null; return this; }
+
+	/** Backs off the polling of idle queues to reduce the billed queue transactions. Rebuilt when the sleep settings change. */
+	private volatile PollScheduler scheduler = null;
+	PollScheduler scheduler()
+	{
+		var o = scheduler;
+		if (null == o) scheduler = o = new PollScheduler(sleep, Math.max(sleep, maxSleep));
+
+		return o;
+	}
 
 	/** Represents the number of threads available to process the queue items. */
 	public int getThreads() { return threads; }
@@ -91,6 +130,12 @@ public class QueueManager implements Managed, Runnable
 	/** Executor of the threads. */
 	private List<Thread> executor = null;
 
+	/** Dedicated pipelined consumers of the operators that specify a concurrency. */
+	private final Map<String, Consumer<?>> consumers = new ConcurrentHashMap<>();
+
+	/** Outcome of handling a single message. */
+	enum Outcome { PROCESSED, SKIPPED, FAILED, THROTTLED }
+
 	/** Populator.
 	 * 
 	 * @param queue
@@ -135,6 +180,10 @@ public class QueueManager implements Managed, Runnable
 	public void start() throws Exception
 	{
 		available = true;
+
+		for (var o : operators.values())
+			if (0 < o.concurrency) startConsumer(o, o.clazz);
+
 		Thread thread = null;
 		for (int i = 0; i < threads; i++)
 		{
@@ -167,6 +216,18 @@ public class QueueManager implements Managed, Runnable
 			Thread.sleep(100L);
 
 		executor.clear();
+
+		for (var o : consumers.values()) o.stop();
+		consumers.clear();
+	}
+
+	/** Starts the dedicated consumer of an operator. */
+	@SuppressWarnings("unchecked")
+	private synchronized <T> void startConsumer(final TaskOperator<?> operator, final Class<T> clazz)
+	{
+		var o = new Consumer<T>((TaskOperator<T>) operator, clazz);
+		consumers.put(operator.name, o);
+		o.start();
 	}
 
 	@Override
@@ -180,11 +241,12 @@ public class QueueManager implements Managed, Runnable
 		{
 			try
 			{
-				process();
+				var count = poll();
 
-				// Give CPU a short break otherwise pegs the processor. DLS on 11/29/2016.
-				if (0L < sleep)
-					Thread.sleep(sleep);
+				// Wait until the next queue is due. Idle queues back off so that they are polled less often.
+				var delay = scheduler().delay(operators.keySet());
+				if (0L < delay) Thread.sleep(delay);
+				else if (0 == count) Thread.sleep(PollScheduler.FLOOR);	// Due queues are busy on other threads.
 			}
 			catch (Throwable ex)	// Use Throwable to ensure that the thread never bombs out. DLS on 6/27/2016.
 			{
@@ -210,6 +272,8 @@ public class QueueManager implements Managed, Runnable
 				return count;
 
 			var operator = entry.getValue();
+			if (consumers.containsKey(operator.name)) continue;	// Handled by its dedicated consumer.
+
 			count+= process(operator, operator.clazz);
 		}
 
@@ -217,6 +281,28 @@ public class QueueManager implements Managed, Runnable
 		return count;
 	}
 
+	/** Processes the queues that are due to be polled and records their outcomes to adjust their poll intervals. */
+	public int poll() throws Exception
+	{
+		int count = 0;
+		var scheduler = scheduler();
+
+		for (var operator : operators.values())
+		{
+			// Check "available" property to ensure earliest possible exit when requested.
+			if (!available)
+				return count;
+
+			if (consumers.containsKey(operator.name) || !scheduler.due(operator.name)) continue;
+
+			int processed = 0;
+			try { count+= (processed = process(operator, operator.clazz)); }
+			finally { scheduler.record(operator.name, processed); }
+		}
+
+		return count;
+	}
+
 	/** Processes the entire queue. */
 	@SuppressWarnings("unchecked")
 	public <T> int process(final TaskOperator<?> operator, final Class<T> clazz) throws Exception
@@ -230,68 +316,16 @@ public class QueueManager implements Managed, Runnable
 		{
 			boolean throttled = false;
 			final int count_ = count;
-			for (var request : queue.receiveMessages(batchSize))
+			for (var request : queue.receiveMessages(batchSize, visibility(op, batchSize - 1), null, Context.NONE))	// Handled one after another.
 			{
-				if (logger.isDebugEnabled())
-					logger.debug("Process {}", request.getMessageText());
-	
-				try
-				{
-					final long time = System.currentTimeMillis();
-	
-					// Remove from queue if successful.
-					if (op.callback.process(deserialize(request.getMessageText(), clazz)))
-					{
-						op.successes++;
-						queue.deleteMessage(request.getMessageId(), request.getPopReceipt());
-					}
-					else
-						op.skips++;
-	
-					if (logger.isDebugEnabled())
-						logger.debug("Processed {} on thread '{}' in {} ms - {}.", op.name, Thread.currentThread().getName(), System.currentTimeMillis() - time, request.getMessageText());
-	
-					count++;
-				}
-	
-				catch (final ThrottledException ex)
+				var outcome = handle(op, clazz, queue, request);
+				if (Outcome.THROTTLED == outcome)
 				{
-					logger.warn("Throttled: {} - {}. Temporarily deferring execution.", op.name, ex.getMessage());
-					// queue.delayMessage(operator.name, request.getReceiptHandle(), DELAY_AFTER_ERROR);
-
 					throttled = true;
-					op.errors++;
 					break;
 				}
 
-				catch (final AbortException ex)
-				{
-					op.errors++;
-					logger.warn("Aborted: {} - {}.", op.name, ex.getMessage());
-					queue.deleteMessage(request.getMessageId(), request.getPopReceipt());
-				}
-
-				catch (final JsonParseException ex)
-				{
-					op.errors++;
-					logger.warn("UNPARSEABLE: {} - {}.", op.name, ex.getMessage());
-					queue.deleteMessage(request.getMessageId(), request.getPopReceipt());
-				}
-
-				catch (final Exception ex)
-				{
-					// Only log an error if this is at least the second try. Sometimes there is a timing issue with the first try
-					// before its originating transaction is complete.
-					if (1L < request.getDequeueCount())
-						logger.error("{} ({}): {} - {}", operator.name, clazz, ex.getMessage(), ex);
-					else
-						logger.warn("{} ({}): {}", operator.name, clazz, ex.getMessage());
-	
-					op.errors++;
-					// Increment the try count[0] & set a backoff delay.
-					// Also, put back on the queue.
-					// queue.delayMessage(operator.name, request.getReceiptHandle(), DELAY_AFTER_ERROR);
-				}
+				if (Outcome.FAILED != outcome) count++;
 			}
 
 			if (throttled || (count_ == count)) break;	// No new messages
@@ -300,6 +334,113 @@ public class QueueManager implements Managed, Runnable
 		return count;
 	}
 
+	/** Handles a single message and removes it from the queue when complete.
+	 *
+	 * @param op
+	 * @param clazz
+	 * @param queue
+	 * @param request
+	 * @return never NULL
+	 */
+	<T> Outcome handle(final TaskOperator<T> op, final Class<T> clazz, final QueueClient queue, final QueueMessageItem request)
+	{
+		if (logger.isDebugEnabled())
+			logger.debug("Process {}", request.getMessageText());
+
+		try
+		{
+			final long time = System.currentTimeMillis();
+			Outcome outcome;
+
+			// Remove from queue if successful.
+			if (op.callback.process(deserialize(request.getMessageText(), clazz)))
+			{
+				synchronized (op) { op.successes++; }
+				delete(queue, request);
+				outcome = Outcome.PROCESSED;
+			}
+			else
+			{
+				synchronized (op) { op.skips++; }
+				outcome = Outcome.SKIPPED;
+			}
+
+			if (logger.isDebugEnabled())
+				logger.debug("Processed {} on thread '{}' in {} ms - {}.", op.name, Thread.currentThread().getName(), System.currentTimeMillis() - time, request.getMessageText());
+
+			return outcome;
+		}
+
+		catch (final ThrottledException ex)
+		{
+			logger.warn("Throttled: {} - {}. Temporarily deferring execution.", op.name, ex.getMessage());
+			// queue.delayMessage(operator.name, request.getReceiptHandle(), DELAY_AFTER_ERROR);
+
+			synchronized (op) { op.errors++; }
+			return Outcome.THROTTLED;
+		}
+
+		catch (final AbortException ex)
+		{
+			synchronized (op) { op.errors++; }
+			logger.warn("Aborted: {} - {}.", op.name, ex.getMessage());
+			delete(queue, request);
+		}
+
+		catch (final JsonParseException ex)
+		{
+			synchronized (op) { op.errors++; }
+			logger.warn("UNPARSEABLE: {} - {}.", op.name, ex.getMessage());
+			delete(queue, request);
+		}
+
+		catch (final Exception ex)
+		{
+			// Only log an error if this is at least the second try. Sometimes there is a timing issue with the first try
+			// before its originating transaction is complete.
+			if (1L < request.getDequeueCount())
+				logger.error("{} ({}): {} - {}", op.name, clazz, ex.getMessage(), ex);
+			else
+				logger.warn("{} ({}): {}", op.name, clazz, ex.getMessage());
+
+			synchronized (op) { op.errors++; }
+			// Increment the try count[0] & set a backoff delay.
+			// Also, put back on the queue.
+			// queue.delayMessage(operator.name, request.getReceiptHandle(), DELAY_AFTER_ERROR);
+		}
+
+		return Outcome.FAILED;
+	}
+
+	/** Removes a handled message from the queue on the handling thread so that the removal keeps pace with the workers.
+	 *  A failure leaves the message to reappear after its visibility timeout.
+	 */
+	void delete(final QueueClient queue, final QueueMessageItem request)
+	{
+		queue.deleteMessage(request.getMessageId(), request.getPopReceipt());
+	}
+
+	/** Gets the number of messages held by each pipelined consumer for registration with a MetricRegistry. Messages are
+	 *  held from their receipt until they are handled & removed from the queue. Register after all the operators are added.
+	 */
+	@Override
+	public Map<String, Metric> getMetrics()
+	{
+		var o = new HashMap<String, Metric>();
+		for (var op : operators.values())
+			if (0 < op.concurrency)
+				o.put(name(QueueManager.class, op.name, "pending"), (Gauge<Integer>) () -> pending(op.name));
+
+		return o;
+	}
+
+	/** Gets the number of messages held by the pipelined consumer of an operator. Zero if the consumer is not running. */
+	public int pending(final String name)
+	{
+		var o = consumers.get(name);
+		return (null != o) ? o.pending.get() : 0;
+	}
+
 	<T> T deserialize(final String value, final Class<T> clazz) throws JsonParseException, IOException
 	{
 		try { return MAPPER.readValue(value, clazz); }
@@ -310,4 +451,118 @@ public class QueueManager implements Managed, Runnable
 			return MAPPER.readValue(decoder.decode(value), clazz);
 		}
 	}
+
+	/** Pipelined consumer of a single operator. A dedicated receive thread prefetches the next batch while a bounded pool of
+	 *  workers processes the current one. At most "concurrency + batchSize" messages are held at a time so that prefetched
+	 *  messages do not outlive their visibility timeouts. The before & after run actions wrap each worker thread.
+	 */
+	class Consumer<T> implements Runnable
+	{
+		private final TaskOperator<T> op;
+		private final Class<T> clazz;
+		private final QueueClient queue;
+		private final Semaphore permits;
+		private final ExecutorService workers;
+		private final Thread receiver;
+		private final List<String> names;
+		private final Duration visibility;
+		private final AtomicInteger pending = new AtomicInteger(0);	// Received messages not yet handled & removed.
+		private volatile long pausedUntil = 0L;
+
+		Consumer(final TaskOperator<T> op, final Class<T> clazz)
+		{
+			this.op = op;
+			this.clazz = clazz;
+			this.queue = queues.get(op.name);
+			this.names = List.of(op.name);
+			this.permits = new Semaphore(op.concurrency + batchSize);
+			this.visibility = visibility(op, (batchSize + op.concurrency - 1) / op.concurrency);	// The workers drain the messages held ahead in at most ceil(batchSize / concurrency) rounds.
+			this.workers = Executors.newFixedThreadPool(op.concurrency, new ThreadFactory() {
+				private int i = 0;
+				@Override public synchronized Thread newThread(final Runnable r)
+				{
+					var t = new Thread(() -> {
+						if (null != beforeRun) beforeRun.run();
+						try { r.run(); }
+						finally { if (null != afterRun) afterRun.run(); }
+					}, "QueueManager-" + op.name + "-" + (i++));
+					t.setDaemon(true);
+					return t;
+				}
+			});
+			this.receiver = new Thread(this, "QueueManager-" + op.name + "-receiver");
+			this.receiver.setDaemon(true);
+		}
+
+		void start() { receiver.start(); }
+
+		/** Stops receiving and waits for the in-flight messages to complete. */
+		void stop() throws InterruptedException
+		{
+			receiver.join();
+			workers.shutdown();
+			workers.awaitTermination(op.timeout + 30L, TimeUnit.SECONDS);
+		}
+
+		@Override
+		public void run()
+		{
+			logger.info("RUN: {} with {} workers", op.name, op.concurrency);
+
+			while (available)
+			{
+				try
+				{
+					var paused = pausedUntil - System.currentTimeMillis();
+					if (0L < paused)
+					{
+						Thread.sleep(Math.min(paused, PollScheduler.SLEEP_MAX));	// Re-check "available" at least every second.
+						continue;
+					}
+
+					var delay = scheduler().delay(names);
+					if (0L < delay)
+					{
+						Thread.sleep(delay);
+						continue;
+					}
+
+					// Wait for room for an entire batch. Returns early to re-check "available".
+					if (!permits.tryAcquire(batchSize, 1L, TimeUnit.SECONDS)) continue;
+
+					int received = 0;
+					try
+					{
+						for (var request : queue.receiveMessages(batchSize, visibility, null, Context.NONE))
+						{
+							received++;
+							pending.incrementAndGet();
+							workers.execute(() -> {
+								try
+								{
+									if (Outcome.THROTTLED == handle(op, clazz, queue, request))
+										pausedUntil = System.currentTimeMillis() + op.delayMS();
+								}
+								finally
+								{
+									pending.decrementAndGet();
+									permits.release();
+								}
+							});
+						}
+					}
+					finally { permits.release(batchSize - received); }
+
+					scheduler().record(op.name, received);	// Back off while the queue is idle. Received messages reset the interval.
+				}
+				catch (final InterruptedException ex) { break; }
+				catch (Throwable ex)	// Use Throwable to ensure that the thread never bombs out.
+				{
+					logger.error(ex.getMessage(), ex);
+				}
+			}
+
+			logger.info("DONE: {} - {}", op.name, available);
+		}
+	}
 }
@@ -0,0 +1,130 @@
+package app.allclear.common.azure;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.azure.storage.queue.QueueClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/** Sends messages to an Azure queue with a bounded number of concurrent requests instead of one blocking call at a time.
+ *  Each unit of work starts a Batch, sends its messages, and then flushes the batch to wait for all of them to complete.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class QueueProducer implements AutoCloseable
+{
+	public static final int CONCURRENCY_DEFAULT = 8;
+
+	public final int concurrency;
+	private final QueueClient queue;
+	private final ObjectMapper mapper;
+	private final ExecutorService executor;
+
+	/** Populator.
+	 *
+	 * @param queue
+	 * @param mapper serializes the message values.
+	 */
+	public QueueProducer(final QueueClient queue, final ObjectMapper mapper)
+	{
+		this(queue, mapper, CONCURRENCY_DEFAULT);
+	}
+
+	/** Populator.
+	 *
+	 * @param queue
+	 * @param mapper serializes the message values.
+	 * @param concurrency maximum number of messages in flight per batch.
+	 * @throws IllegalArgumentException if the concurrency is not positive.
+	 */
+	public QueueProducer(final QueueClient queue, final ObjectMapper mapper, final int concurrency) throws IllegalArgumentException
+	{
+		if (0 >= concurrency) throw new IllegalArgumentException("The concurrency must be greater than zero.");
+
+		this.queue = queue;
+		this.mapper = mapper;
+		this.concurrency = concurrency;
+		this.executor = Executors.newCachedThreadPool(r -> {
+			var t = new Thread(r, "QueueProducer");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/** Starts a new batch of messages. Batches are independent so that concurrent callers can share the producer. */
+	public Batch batch() { return new Batch(); }
+
+	@Override
+	public void close() { executor.shutdown(); }
+
+	/** Represents a set of messages that are sent concurrently and awaited together. */
+	public class Batch
+	{
+		private final Semaphore permits = new Semaphore(concurrency);
+		private final AtomicReference<RuntimeException> error = new AtomicReference<>();
+		private int count = 0;
+
+		/** Gets the number of messages sent. */
+		public int count() { return count; }
+
+		/** Sends a single message asynchronously. Blocks while the maximum number of messages are in flight.
+		 *
+		 * @param value
+		 * @return SELF
+		 * @throws IOException if the value cannot be serialized.
+		 * @throws InterruptedException
+		 * @throws RuntimeException if a prior send failed.
+		 */
+		public Batch send(final Object value) throws IOException, InterruptedException
+		{
+			check();
+
+			var message = mapper.writeValueAsString(value);
+			permits.acquire();
+			try
+			{
+				executor.execute(() -> {
+					try { queue.sendMessage(message); }
+					catch (final RuntimeException ex) { error.compareAndSet(null, ex); }
+					finally { permits.release(); }
+				});
+			}
+			catch (final RuntimeException ex)	// Rejected after close.
+			{
+				permits.release();
+				throw ex;
+			}
+
+			count++;
+
+			return this;
+		}
+
+		/** Waits for all the messages in flight to complete.
+		 *
+		 * @return the number of messages sent.
+		 * @throws InterruptedException
+		 * @throws RuntimeException if any send failed.
+		 */
+		public int flush() throws InterruptedException
+		{
+			permits.acquire(concurrency);
+			permits.release(concurrency);
+			check();
+
+			return count;
+		}
+
+		/** Helper method - rethrows the first failure. */
+		private void check()
+		{
+			var ex = error.get();
+			if (null != ex) throw ex;
+		}
+	}
+}
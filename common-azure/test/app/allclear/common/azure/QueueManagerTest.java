@@ -135,6 +135,28 @@ public class QueueManagerTest
 		queue_.clearMessages();
 	}
 
+	@Test
+	public void testConcurrency() throws Exception
+	{
+		var threads = java.util.concurrent.ConcurrentHashMap.<String>newKeySet();
+		var operator = new TaskOperator<Request>(QUEUE_NAME, x -> { threads.add(Thread.currentThread().getName()); Thread.sleep(100L); return true; }, Request.class)
+			.withConcurrency(4);
+		var queuer_ = new QueueManager(connectionString, 1000L, 1, operator);
+
+		var queue_ = queuer_.queue(QUEUE_NAME);
+		for (int j = 0; j < 40; j++) queue_.sendMessage("{ \"numOfFruits\": " + j + " }");
+
+		queuer_.start();
+		for (int j = 0; (j < 100) && (40 > operator.successes); j++) Thread.sleep(100L);
+		queuer_.stop();
+
+		Assertions.assertEquals(40, operator.successes, "Check successes");
+		Assertions.assertEquals(0, operator.errors, "Check errors");
+		assertThat(threads).as("Check threads").hasSize(4).contains("QueueManager-" + QUEUE_NAME + "-0");
+
+		queue_.clearMessages();
+	}
+
 	/** Value object that represents a test request. */
 	public static class Request
 	{
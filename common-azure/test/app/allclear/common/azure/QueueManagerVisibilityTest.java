@@ -0,0 +1,30 @@
+package app.allclear.common.azure;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.*;
+
+import app.allclear.common.task.TaskOperator;
+
+/** Unit test class that verifies the visibility timeouts of the QueueManager's received batches. Does not need an Azure queue.
+ * 
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class QueueManagerVisibilityTest
+{
+	private static TaskOperator<String> op(final int timeout) { return new TaskOperator<>("test", x -> true, String.class, 10, timeout, 60, 3600); }
+
+	@Test
+	public void visibility()
+	{
+		Assertions.assertEquals(Duration.ofSeconds(300L), QueueManager.visibility(op(300), 0), "Check own attempt only");
+		Assertions.assertEquals(Duration.ofSeconds(600L), QueueManager.visibility(op(300), 1), "Check one round ahead");
+		Assertions.assertEquals(Duration.ofSeconds(300L), QueueManager.visibility(op(30), 9), "Check serial batch of 10");
+		Assertions.assertEquals(Duration.ofSeconds(2L), QueueManager.visibility(op(0), 1), "Check minimum");
+		Assertions.assertEquals(QueueManager.VISIBILITY_MAX, QueueManager.visibility(op(86400), 10), "Check maximum");
+	}
+}
@@ -3,6 +3,9 @@ package app.allclear.common.hibernate;
 import static java.util.Objects.requireNonNull;
 import static javax.transaction.Status.*;
 
+import java.util.List;
+import java.util.function.Function;
+
 import javax.transaction.Synchronization;
 
 import org.hibernate.*;
@@ -67,6 +70,31 @@ public class AbstractDAO<E> extends io.dropwizard.hibernate.AbstractDAO<E>
 		return new HibernateQueryBuilder<E>(currentSession(), select, getEntityClass());
 	}
 
+	/** Creates a batch loader from a named query that accepts a list of identifiers. Used with the Hydrator.
+	 *
+	 * @param name the name of the query
+	 * @param clazz query entity or result class.
+	 * @param param name of the list parameter.
+	 * @return never NULL
+	 */
+	protected <K, T> Function<List<K>, List<T>> namedQueryIn(final String name, final Class<T> clazz, final String param)
+	{
+		requireNonNull(name);
+		requireNonNull(param);
+
+		return ids -> namedQuery(name, clazz).setParameterList(param, ids).list();
+	}
+
+	/** Creates a Hydrator to populate the children of a page of values with one query per child type.
+	 *
+	 * @param values page of parent values.
+	 * @return never NULL
+	 */
+	protected <V> Hydrator<V> hydrate(final List<V> values)
+	{
+		return new Hydrator<>(values);
+	}
+
 	/** Runs the specified action after the current transaction has completed successfully. */
 	protected void afterTrans(final Runnable fx)
 	{
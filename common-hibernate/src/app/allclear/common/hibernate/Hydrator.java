@@ -0,0 +1,136 @@
+package app.allclear.common.hibernate;
+
+import static java.util.stream.Collectors.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/** Populates the children and denormalized lookups of a page of values with one IN query per child type
+ *  instead of walking the lazy collections of each entity (N+1 selects).
+ *
+ *  Keys are loaded in batches of BATCH_SIZE to stay within the database's parameter limits.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ * @param <V> the value type of the parent records.
+ */
+
+public class Hydrator<V>
+{
+	public static final int BATCH_SIZE = 500;
+
+	public final List<V> values;
+	public final int batchSize;
+
+	public List<V> values() { return values; }
+
+	/** Populator.
+	 *
+	 * @param values page of parent values. Can be NULL.
+	 */
+	public Hydrator(final List<V> values)
+	{
+		this(values, BATCH_SIZE);
+	}
+
+	/** Populator.
+	 *
+	 * @param values page of parent values. Can be NULL.
+	 * @param batchSize maximum number of keys per IN query.
+	 * @throws IllegalArgumentException if the batch size is not positive.
+	 */
+	public Hydrator(final List<V> values, final int batchSize) throws IllegalArgumentException
+	{
+		if (0 >= batchSize) throw new IllegalArgumentException("The batch size must be greater than zero.");
+
+		this.values = values;
+		this.batchSize = batchSize;
+	}
+
+	/** Populates a child collection of each parent value. Parents without children receive NULL.
+	 *
+	 * @param key the parent identifier of each value.
+	 * @param loader retrieves the children of a batch of parent identifiers.
+	 * @param parentOf the parent identifier of each child.
+	 * @param fx sets the children on the parent value.
+	 * @return SELF
+	 */
+	public <K, C> Hydrator<V> children(final Function<V, K> key,
+		final Function<List<K>, List<C>> loader,
+		final Function<C, K> parentOf,
+		final BiConsumer<V, List<C>> fx)
+	{
+		return children(key, loader, parentOf, Function.identity(), fx);
+	}
+
+	/** Populates a child collection of each parent value after converting each child. Parents without children receive NULL.
+	 *
+	 * @param key the parent identifier of each value.
+	 * @param loader retrieves the children of a batch of parent identifiers.
+	 * @param parentOf the parent identifier of each child.
+	 * @param toValue converts each child, usually from an entity to a value object.
+	 * @param fx sets the children on the parent value.
+	 * @return SELF
+	 */
+	public <K, C, X> Hydrator<V> children(final Function<V, K> key,
+		final Function<List<K>, List<C>> loader,
+		final Function<C, K> parentOf,
+		final Function<C, X> toValue,
+		final BiConsumer<V, List<X>> fx)
+	{
+		if (empty()) return this;
+
+		var children = load(keys(key), loader).stream().collect(groupingBy(parentOf, mapping(toValue, toList())));
+		values.forEach(v -> fx.accept(v, children.get(key.apply(v))));
+
+		return this;
+	}
+
+	/** Populates a single referenced record (many-to-one) of each value. Values with a NULL or unknown reference are skipped.
+	 *
+	 * @param key the foreign key of each value.
+	 * @param loader retrieves the referenced records of a batch of foreign keys.
+	 * @param idOf the identifier of each referenced record.
+	 * @param fx sets the referenced record on the value.
+	 * @return SELF
+	 */
+	public <K, C> Hydrator<V> lookup(final Function<V, K> key,
+		final Function<List<K>, List<C>> loader,
+		final Function<C, K> idOf,
+		final BiConsumer<V, C> fx)
+	{
+		if (empty()) return this;
+
+		var records = load(keys(key), loader).stream().collect(toMap(idOf, o -> o, (a, b) -> a));
+		values.forEach(v -> {
+			var o = records.get(key.apply(v));
+			if (null != o) fx.accept(v, o);
+		});
+
+		return this;
+	}
+
+	/** Helper method - indicates that there are no values to populate. */
+	private boolean empty() { return (null == values) || values.isEmpty(); }
+
+	/** Helper method - gets the distinct non-null keys of the values. */
+	private <K> List<K> keys(final Function<V, K> key)
+	{
+		return values.stream().map(key).filter(Objects::nonNull).distinct().collect(toList());
+	}
+
+	/** Helper method - runs the loader over the keys in batches. */
+	private <K, C> List<C> load(final List<K> keys, final Function<List<K>, List<C>> loader)
+	{
+		if (keys.isEmpty()) return List.of();
+		if (keys.size() <= batchSize) return loader.apply(keys);
+
+		var results = new ArrayList<C>();
+		for (int i = 0; i < keys.size(); i+= batchSize)
+			results.addAll(loader.apply(keys.subList(i, Math.min(i + batchSize, keys.size()))));
+
+		return results;
+	}
+}
@@ -162,6 +162,48 @@ public class HibernateQueryBuilderTest
 			"SELECT OBJECT(o) FROM Country o", 245);
 	}
 
+	@Test
+	public void search()
+	{
+		var filter = new QueryFilter(3, 100);
+		var v = create().add("active", "o.active = :active", true).search(filter, COUNT, ORDER, records -> records);
+		Assert.assertEquals("Check total", 245L, v.total);
+		Assert.assertEquals("Check pages", 3, v.pages);
+		Assert.assertEquals("Check page", 3, v.page);
+		Assert.assertEquals("Check records", 45, v.records.size());
+		Assert.assertNull("Check more", v.more);
+	}
+
+	@Test
+	public void search_skipCount()
+	{
+		var filter = new QueryFilter(1, 100);
+		filter.skipCount = true;
+		var v = create().add("active", "o.active = :active", true).search(filter, COUNT, ORDER, records -> records);
+		Assert.assertEquals("Check total", 100L, v.total);
+		Assert.assertEquals("Check pages", 2, v.pages);
+		Assert.assertEquals("Check page", 1, v.page);
+		Assert.assertEquals("Check records", 100, v.records.size());
+		Assert.assertEquals("Check more", Boolean.TRUE, v.more);
+		Assert.assertEquals("Check sortOn", "id", v.sortOn);
+
+		filter.page = 3;
+		v = create().add("active", "o.active = :active", true).search(filter, COUNT, ORDER, records -> records);
+		Assert.assertEquals("Check total", 245L, v.total);
+		Assert.assertEquals("Check pages", 3, v.pages);
+		Assert.assertEquals("Check page", 3, v.page);
+		Assert.assertEquals("Check records", 45, v.records.size());
+		Assert.assertEquals("Check more", Boolean.FALSE, v.more);
+
+		filter.page = 4;
+		v = create().add("active", "o.active = :active", true).search(filter, COUNT, ORDER, records -> records);
+		Assert.assertEquals("Check total", 0L, v.total);
+		Assert.assertEquals("Check pages", 0, v.pages);
+		Assert.assertTrue("Check isEmpty", v.isEmpty());
+		Assert.assertNull("Check records", v.records);
+		Assert.assertEquals("Check more", Boolean.FALSE, v.more);
+	}
+
 	/** Helper method - checks the SQL and the number of records returned. */
 	private List<Country> check(final QueryBuilder<Country> value, final String sql, final int size)
 	{
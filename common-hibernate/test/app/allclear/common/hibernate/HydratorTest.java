@@ -0,0 +1,124 @@
+package app.allclear.common.hibernate;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.*;
+
+import org.junit.*;
+
+/** Unit test class that verifies the Hydrator.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class HydratorTest
+{
+	private static class Parent
+	{
+		public final Long id;
+		public final String ownerId;
+		public String ownerName;
+		public List<String> children;
+
+		public Parent(final Long id, final String ownerId) { this.id = id; this.ownerId = ownerId; }
+	}
+
+	private static class Child
+	{
+		public final Long parentId;
+		public final String name;
+
+		public Child(final Long parentId, final String name) { this.parentId = parentId; this.name = name; }
+	}
+
+	private final List<List<?>> calls = new ArrayList<>();
+
+	private List<Parent> parents()
+	{
+		return List.of(new Parent(1L, "a"), new Parent(2L, "b"), new Parent(3L, null), new Parent(4L, "a"), new Parent(5L, "z"));
+	}
+
+	private List<Child> children(final List<Long> ids)
+	{
+		calls.add(List.copyOf(ids));
+		return ids.stream().filter(id -> 3L != id).flatMap(id -> List.of(new Child(id, "first-" + id), new Child(id, "second-" + id)).stream()).collect(toList());
+	}
+
+	private List<String[]> owners(final List<String> ids)
+	{
+		calls.add(List.copyOf(ids));
+		return ids.stream().filter(id -> !"z".equals(id)).map(id -> new String[] { id, "Owner " + id }).collect(toList());
+	}
+
+	@Before
+	public void init()
+	{
+		calls.clear();
+	}
+
+	@Test
+	public void children()
+	{
+		var values = new Hydrator<>(parents())
+			.children(v -> v.id, this::children, c -> c.parentId, c -> c.name, (v, c) -> v.children = c)
+			.values();
+
+		Assert.assertEquals("Check calls", List.of(List.of(1L, 2L, 3L, 4L, 5L)), calls);
+		Assert.assertEquals("Check 1", List.of("first-1", "second-1"), values.get(0).children);
+		Assert.assertEquals("Check 2", List.of("first-2", "second-2"), values.get(1).children);
+		Assert.assertNull("Check 3", values.get(2).children);
+		Assert.assertEquals("Check 5", List.of("first-5", "second-5"), values.get(4).children);
+	}
+
+	@Test
+	public void children_batches()
+	{
+		var values = new Hydrator<>(parents(), 2)
+			.children(v -> v.id, this::children, c -> c.parentId, c -> c.name, (v, c) -> v.children = c)
+			.values();
+
+		Assert.assertEquals("Check calls", List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L)), calls);
+		Assert.assertEquals("Check 4", List.of("first-4", "second-4"), values.get(3).children);
+		Assert.assertEquals("Check 5", List.of("first-5", "second-5"), values.get(4).children);
+	}
+
+	@Test
+	public void children_skipNullKeys()
+	{
+		var values = new Hydrator<>(parents())
+			.children(v -> (1L == v.id) ? null : v.id, this::children, c -> c.parentId, (v, c) -> v.children = (null == c) ? null : c.stream().map(o -> o.name).collect(toList()))
+			.values();
+
+		Assert.assertEquals("Check calls", List.of(List.of(2L, 3L, 4L, 5L)), calls);
+		Assert.assertNull("Check 1", values.get(0).children);
+		Assert.assertEquals("Check 2", List.of("first-2", "second-2"), values.get(1).children);
+	}
+
+	@Test
+	public void lookup()
+	{
+		var values = new Hydrator<>(parents())
+			.lookup(v -> v.ownerId, this::owners, o -> o[0], (v, o) -> v.ownerName = o[1])
+			.values();
+
+		Assert.assertEquals("Check calls", List.of(List.of("a", "b", "z")), calls);	// Distinct & non-null.
+		Assert.assertEquals("Check names", Arrays.asList("Owner a", "Owner b", null, "Owner a", null), values.stream().map(v -> v.ownerName).collect(toList()));
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		Assert.assertNull("Check NULL", new Hydrator<Parent>(null).children(v -> v.id, this::children, c -> c.parentId, (v, c) -> v.children = null).values());
+		Assert.assertEquals("Check empty", List.of(), new Hydrator<Parent>(List.of()).lookup(v -> v.ownerId, this::owners, o -> o[0], (v, o) -> v.ownerName = o[1]).values());
+		Assert.assertEquals("Check calls", List.of(), calls);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalid()
+	{
+		new Hydrator<Parent>(List.of(), 0);
+	}
+}
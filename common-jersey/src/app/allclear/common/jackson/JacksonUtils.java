@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 /** Utility class that provides standard helpers for the Jackson parsers.
  * 
@@ -181,6 +182,18 @@ public class JacksonUtils
 	 */
 	public static final ObjectMapper createMapperDynamoDB() { return configureDynamoDB(Jackson.newObjectMapper()); }
 
+	/** Helper method - creates a mapper for the compact binary Smile format. Dates are written as epoch milliseconds.
+	 * 
+	 * @return never NULL.
+	 */
+	public static final ObjectMapper createMapperSmile()
+	{
+		return Jackson.newObjectMapper(new SmileFactory())
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+			.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+	}
+
 	/** Helper method - customizes the Jackson object-mapper.
 	 *
 	 * @param mapper
@@ -0,0 +1,106 @@
+package app.allclear.common.cache;
+
+import java.util.*;
+
+/** Bounded in-process cache whose entries expire after a time-to-live. When full, the least recently used entry is evicted.
+ *  Intended as a near-cache in front of a remote store so all methods are synchronized and cheap.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+
+public class LocalCache<K, V>
+{
+	/** Represents a single cached value with its expiration. */
+	private static class Entry<V>
+	{
+		public final V value;
+		public final long expiresAt;
+
+		public Entry(final V value, final long expiresAt)
+		{
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	public final int maxSize;
+	public final long ttl;	// Milliseconds
+	private final LinkedHashMap<K, Entry<V>> map;
+
+	/** Populator.
+	 *
+	 * @param maxSize maximum number of entries held before the least recently used is evicted.
+	 * @param ttl default milliseconds that an entry lives.
+	 * @throws IllegalArgumentException if either the size or time-to-live is not positive.
+	 */
+	public LocalCache(final int maxSize, final long ttl) throws IllegalArgumentException
+	{
+		if (0 >= maxSize) throw new IllegalArgumentException("The maximum size must be greater than zero.");
+		if (0L >= ttl) throw new IllegalArgumentException("The time-to-live must be greater than zero.");
+
+		this.maxSize = maxSize;
+		this.ttl = ttl;
+		this.map = new LinkedHashMap<>(16, 0.75f, true) {	// Access order for LRU eviction.
+			private static final long serialVersionUID = 1L;
+			@Override protected boolean removeEldestEntry(final Map.Entry<K, Entry<V>> eldest) { return size() > maxSize; }
+		};
+	}
+
+	/** Gets the number of entries including expired ones that have not yet been accessed. */
+	public synchronized int size() { return map.size(); }
+
+	/** Gets an unexpired value.
+	 *
+	 * @param key
+	 * @return NULL if not found or expired.
+	 */
+	public synchronized V get(final K key)
+	{
+		var o = map.get(key);
+		if (null == o) return null;
+		if (o.expiresAt <= System.currentTimeMillis())
+		{
+			map.remove(key);
+			return null;
+		}
+
+		return o.value;
+	}
+
+	/** Adds or replaces a value with the default time-to-live.
+	 *
+	 * @param key
+	 * @param value
+	 * @return the supplied value.
+	 */
+	public V put(final K key, final V value) { return put(key, value, ttl); }
+
+	/** Adds or replaces a value.
+	 *
+	 * @param key
+	 * @param value
+	 * @param ttl milliseconds that the entry lives. Capped by the default time-to-live.
+	 * @return the supplied value.
+	 */
+	public synchronized V put(final K key, final V value, final long ttl)
+	{
+		map.put(key, new Entry<>(value, System.currentTimeMillis() + Math.min(ttl, this.ttl)));
+
+		return value;
+	}
+
+	/** Removes a single entry.
+	 *
+	 * @param key
+	 * @return TRUE if the entry was cached.
+	 */
+	public synchronized boolean remove(final K key) { return null != map.remove(key); }
+
+	/** Removes all entries. */
+	public synchronized void clear() { map.clear(); }
+}
@@ -0,0 +1,74 @@
+package app.allclear.common.cache;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/** Coalesces concurrent loads of the same key. The first caller runs the loader while later callers of the same key
+ *  wait for and share its result or exception instead of running their own. Nothing is retained after the load
+ *  completes, so it is intended to sit between a cache miss and an expensive remote call.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+
+public class SingleFlight<K, V>
+{
+	private final ConcurrentMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+	private final AtomicLong shared = new AtomicLong(0L);
+
+	/** Gets the number of loads in progress. */
+	public int size() { return flights.size(); }
+
+	/** Gets the number of callers that shared another caller's load instead of running their own. */
+	public long shared() { return shared.get(); }
+
+	/** Loads the value of the key or waits for the load already in progress.
+	 *
+	 * @param key
+	 * @param loader runs only if no load of the key is in progress.
+	 * @return the loaded value.
+	 */
+	public V execute(final K key, final Supplier<V> loader)
+	{
+		var flight = new CompletableFuture<V>();
+		var existing = flights.putIfAbsent(key, flight);
+		if (null != existing)
+		{
+			shared.incrementAndGet();
+			return await(existing);
+		}
+
+		try
+		{
+			var o = loader.get();
+			flight.complete(o);
+
+			return o;
+		}
+		catch (final RuntimeException | Error ex)
+		{
+			flight.completeExceptionally(ex);
+			throw ex;
+		}
+		finally { flights.remove(key, flight); }
+	}
+
+	/** Helper method - waits for another caller's load and rethrows its failure as is. */
+	private V await(final CompletableFuture<V> flight)
+	{
+		try { return flight.join(); }
+		catch (final CompletionException ex)
+		{
+			var cause = ex.getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+
+			throw ex;
+		}
+	}
+}
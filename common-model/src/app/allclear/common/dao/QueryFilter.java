@@ -19,9 +19,12 @@ public class QueryFilter implements Serializable
 	public Integer pageSize = null;
 	public String sortOn = null;
 	public String sortDir = null;
+	public Boolean skipCount = null;	// Skips the separate COUNT query. The results then only indicate whether more pages exist.
+	public String cursor = null;	// Opaque token of the next page from the prior results. Only used by cursor-based searches.
 
 	// Accessors
 	public int page() { return ((null == page) || (1 > page)) ? 1 : page; }
+	public boolean skipCount() { return Boolean.TRUE.equals(skipCount); }
 
 	// Mutators
 	public int pageSize(int defaultValue)
@@ -78,6 +81,8 @@ public class QueryFilter implements Serializable
 			.append(", pageSize: ").append(pageSize)
 			.append(", sortOn: ").append(sortOn)
 			.append(", sortDir: ").append(sortDir)
+			.append(", skipCount: ").append(skipCount)
+			.append(", cursor: ").append(cursor)
 			.append(" }").toString();
 	}
 }
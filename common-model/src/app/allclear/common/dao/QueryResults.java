@@ -28,6 +28,8 @@ public class QueryResults<T, F extends QueryFilter> implements Serializable
 	public int pageSize = 0;
 	public String sortOn = null;
 	public String sortDir = null;
+	public Boolean more = null;	// Only populated when the filter skips the COUNT query. Indicates that at least one more page exists.
+	public String cursor = null;	// Only populated by cursor-based searches. Opaque token of the next page. NULL on the last page.
 	public F filter = null;
 	public List<T> records = null;
 
@@ -40,6 +42,45 @@ public class QueryResults<T, F extends QueryFilter> implements Serializable
 	/** Helper method - calculates the Hibernate Criteria.firstResult property based on the page and page size. */
 	public int firstResult() { return (0 < page) ? ((page - 1) * pageSize) : 0; }
 
+	/** Helper method - calculates the maximum number of records to fetch when the COUNT query is skipped.
+	 *  Fetches one record beyond the page to determine if more pages exist.
+	 */
+	public int maxResultsWithMore() { return pageSize + 1; }
+
+	/** Populates the totals from a page fetched with <tt>maxResultsWithMore</tt> instead of a separate COUNT query.
+	 *  The total is then a lower bound: the records before this page plus the records on this page.
+	 *
+	 * @param size number of records fetched.
+	 * @return number of records that belong on the current page.
+	 */
+	public int counted(final int size)
+	{
+		var count = Math.min(size, pageSize);
+		more = (pageSize < size);
+		total = (0 < count) ? ((long) (firstResult() + count)) : 0L;
+		pages = more ? (page + 1) : ((0 < count) ? page : 0);
+
+		return count;
+	}
+
+	/** Populates the totals from a page fetched by cursor instead of by offset. Like <tt>counted</tt>, the total is a
+	 *  lower bound: the records before this page plus the records on this page.
+	 *
+	 * @param records the page of records.
+	 * @param cursor opaque token of the next page. NULL on the last page.
+	 * @return this
+	 */
+	public QueryResults<T, F> cursored(final List<T> records, final String cursor)
+	{
+		this.cursor = cursor;
+		more = (null != cursor);
+		total = records.isEmpty() ? 0L : ((long) (firstResult() + records.size()));
+		pages = more ? (page + 1) : (records.isEmpty() ? 0 : page);
+		this.records = records.isEmpty() ? null : records;
+
+		return this;
+	}
+
 	@SuppressWarnings("rawtypes") public QueryResults withSortOn(String newValue) { sortOn = newValue; return this; }
 
 	@SuppressWarnings("rawtypes") public QueryResults withSortDir(String newValue) { sortDir = newValue; return this; }
@@ -79,6 +120,20 @@ public class QueryResults<T, F extends QueryFilter> implements Serializable
 			this.page = this.pages;
 	}
 
+	/** Populator - used when the filter skips the COUNT query. The totals are populated afterwards by <tt>counted</tt>.
+	 * 
+	 * @param filter
+	 * @param pageSizeDefault
+	 */
+	public QueryResults(final F filter, final int pageSizeDefault)
+	{
+		this.filter = filter;
+		this.sortOn = filter.sortOn;
+		this.sortDir = filter.sortDir;
+		this.pageSize = filter.pageSize(pageSizeDefault);
+		this.page = filter.page();
+	}
+
 	/** Populator.
 	 * 
 	 * @param records
@@ -0,0 +1,236 @@
+package app.allclear.common.geo;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** In-memory spatial index of points bucketed into a fixed latitude/longitude grid.
+ *  Radius searches only visit the grid cells that overlap the bounding box of the circle
+ *  and then apply the same spherical distance calculation as MySQL's ST_DISTANCE_SPHERE.
+ *
+ *  Writes are serialized. Reads are lock-free and may observe concurrent writes.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ * @param <K> the key type of each point.
+ */
+
+public class GeoIndex<K>
+{
+	public static final double CELL_DEGREES_DEFAULT = 0.5d;	// Roughly 55 kilometers of latitude.
+	public static final long EXPIRATION_DEFAULT = 5L * 60L * 1000L;	// Five minutes.
+	public static final double EARTH_RADIUS = 6370986d;	// Meters - same default as MySQL's ST_DISTANCE_SPHERE.
+	private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS / 180d;
+
+	/** Represents a single indexed point. */
+	public static class Point<K>
+	{
+		public final K key;
+		public final double latitude;
+		public final double longitude;
+
+		public Point(final K key, final double latitude, final double longitude)
+		{
+			this.key = key;
+			this.latitude = latitude;
+			this.longitude = longitude;
+		}
+
+		@Override
+		public String toString() { return "{ key: " + key + ", latitude: " + latitude + ", longitude: " + longitude + " }"; }
+	}
+
+	/** Represents a single search result with the distance from the search origin. */
+	public static class Hit<K> extends Point<K>
+	{
+		public final long meters;
+
+		public Hit(final Point<K> point, final long meters)
+		{
+			super(point.key, point.latitude, point.longitude);
+			this.meters = meters;
+		}
+
+		@Override
+		public String toString() { return "{ key: " + key + ", latitude: " + latitude + ", longitude: " + longitude + ", meters: " + meters + " }"; }
+	}
+
+	public final double cellDegrees;
+	public final long expiration;	// Milliseconds after a full load that the index is considered stale.
+	private final int columns;	// Number of longitude cells around the globe.
+	private volatile long loadedAt = 0L;
+	private volatile Map<K, Point<K>> points = new ConcurrentHashMap<>();
+	private volatile Map<Long, Map<K, Point<K>>> cells = new ConcurrentHashMap<>();
+
+	public long loadedAt() { return loadedAt; }
+	public int size() { return points.size(); }
+	public boolean contains(final K key) { return points.containsKey(key); }
+	public Point<K> get(final K key) { return points.get(key); }
+
+	/** Indicates that the index has never been loaded or that the last full load has expired. */
+	public boolean stale() { return (loadedAt + expiration) < System.currentTimeMillis(); }
+
+	/** Default populator - half degree cells that expire after five minutes. */
+	public GeoIndex()
+	{
+		this(CELL_DEGREES_DEFAULT, EXPIRATION_DEFAULT);
+	}
+
+	/** Populator.
+	 *
+	 * @param cellDegrees size of each grid cell in degrees. Must divide evenly into 360 degrees.
+	 * @param expiration milliseconds after a full load before the index is considered stale.
+	 * @throws IllegalArgumentException if the cell size is not positive.
+	 */
+	public GeoIndex(final double cellDegrees, final long expiration) throws IllegalArgumentException
+	{
+		if (0d >= cellDegrees) throw new IllegalArgumentException("The cell size must be greater than zero.");
+
+		this.cellDegrees = cellDegrees;
+		this.expiration = expiration;
+		this.columns = (int) Math.ceil(360d / cellDegrees);
+	}
+
+	/** Replaces the entire contents of the index.
+	 *
+	 * @param values
+	 * @return SELF
+	 */
+	public synchronized GeoIndex<K> load(final Collection<Point<K>> values)
+	{
+		var points = new ConcurrentHashMap<K, Point<K>>(values.size() * 2);
+		var cells = new ConcurrentHashMap<Long, Map<K, Point<K>>>();
+		values.forEach(v -> {
+			points.put(v.key, v);
+			cells.computeIfAbsent(cell(v.latitude, v.longitude), k -> new ConcurrentHashMap<>()).put(v.key, v);
+		});
+
+		this.points = points;
+		this.cells = cells;
+		this.loadedAt = System.currentTimeMillis();
+
+		return this;
+	}
+
+	/** Adds or moves a single point.
+	 *
+	 * @param key
+	 * @param latitude
+	 * @param longitude
+	 * @return SELF
+	 */
+	public synchronized GeoIndex<K> put(final K key, final double latitude, final double longitude)
+	{
+		remove(key);
+
+		var o = new Point<>(key, latitude, longitude);
+		points.put(key, o);
+		cells.computeIfAbsent(cell(latitude, longitude), k -> new ConcurrentHashMap<>()).put(key, o);
+
+		return this;
+	}
+
+	/** Removes a single point.
+	 *
+	 * @param key
+	 * @return TRUE if the point was indexed.
+	 */
+	public synchronized boolean remove(final K key)
+	{
+		var o = points.remove(key);
+		if (null == o) return false;
+
+		var cell = cells.get(cell(o.latitude, o.longitude));
+		if (null != cell) cell.remove(key);
+
+		return true;
+	}
+
+	/** Finds all points within the specified distance of the origin.
+	 *
+	 * @param latitude origin
+	 * @param longitude origin
+	 * @param meters maximum distance from the origin.
+	 * @return never NULL - sorted by distance with the closest first.
+	 */
+	public List<Hit<K>> near(final double latitude, final double longitude, final long meters)
+	{
+		var results = new ArrayList<Hit<K>>();
+		var cells = this.cells;
+
+		var dLat = meters / METERS_PER_DEGREE;
+		var latFrom = latitude - dLat;
+		var latTo = latitude + dLat;
+		var cosine = Math.cos(Math.toRadians(Math.max(Math.abs(latFrom), Math.abs(latTo))));
+		if ((-90d >= latFrom) || (90d <= latTo) || (0d >= cosine) || (180d <= (dLat / cosine)))	// Reaches a pole or wraps the globe so check every cell.
+			cells.values().forEach(c -> collect(c, latitude, longitude, meters, results));
+		else
+		{
+			var dLng = dLat / cosine;
+			var rowFrom = row(latFrom);
+			var rowTo = row(latTo);
+			var columnFrom = (long) Math.floor((longitude - dLng + 180d) / cellDegrees);
+			var columnTo = (long) Math.floor((longitude + dLng + 180d) / cellDegrees);
+			for (long r = rowFrom; r <= rowTo; r++)
+				for (long c = columnFrom; c <= columnTo; c++)
+				{
+					var cell = cells.get(key(r, Math.floorMod(c, (long) columns)));
+					if (null != cell) collect(cell, latitude, longitude, meters, results);
+				}
+		}
+
+		results.sort((a, b) -> Long.compare(a.meters, b.meters));
+
+		return results;
+	}
+
+	/** Finds all points within the specified distance of the origin.
+	 *
+	 * @param latitude origin
+	 * @param longitude origin
+	 * @param meters maximum distance from the origin.
+	 * @return never NULL - keys sorted by distance with the closest first.
+	 */
+	public List<K> nearKeys(final double latitude, final double longitude, final long meters)
+	{
+		return near(latitude, longitude, meters).stream().map(o -> o.key).collect(toList());
+	}
+
+	/** Helper method - adds the points of a single cell that fall within the radius. */
+	private void collect(final Map<K, Point<K>> cell, final double latitude, final double longitude, final long meters, final List<Hit<K>> results)
+	{
+		cell.values().forEach(o -> {
+			var d = Math.round(meters(latitude, longitude, o.latitude, o.longitude));
+			if (d <= meters) results.add(new Hit<>(o, d));
+		});
+	}
+
+	/** Helper method - gets the grid row of the latitude. */
+	private long row(final double latitude) { return (long) Math.floor((latitude + 90d) / cellDegrees); }
+
+	/** Helper method - gets the grid cell key of the coordinates. */
+	private long cell(final double latitude, final double longitude)
+	{
+		return key(row(latitude), Math.floorMod((long) Math.floor((longitude + 180d) / cellDegrees), (long) columns));
+	}
+
+	/** Helper method - combines the row and column into a single map key. */
+	private long key(final long row, final long column) { return (row << 32) | column; }
+
+	/** Calculates the spherical (haversine) distance between two coordinates.
+	 *
+	 * @return meters
+	 */
+	public static double meters(final double latitudeA, final double longitudeA, final double latitudeB, final double longitudeB)
+	{
+		var dLat = Math.toRadians(latitudeB - latitudeA);
+		var dLng = Math.toRadians(longitudeB - longitudeA);
+		var a = Math.pow(Math.sin(dLat / 2d), 2d) +
+			Math.cos(Math.toRadians(latitudeA)) * Math.cos(Math.toRadians(latitudeB)) * Math.pow(Math.sin(dLng / 2d), 2d);
+
+		return 2d * EARTH_RADIUS * Math.asin(Math.min(1d, Math.sqrt(a)));
+	}
+}
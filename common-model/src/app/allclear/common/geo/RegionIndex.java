@@ -0,0 +1,252 @@
+package app.allclear.common.geo;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/** Read-only point-in-polygon index of named regions such as counties. The boundaries are memory-mapped from a compact
+ *  binary file so that startup only reads the region headers; the polygon coordinates stay in the mapped file and are
+ *  only read when a lookup falls within a region's bounding box. Each region's bounding box is bucketed into a fixed
+ *  latitude/longitude grid, so a lookup only visits the few regions that share the point's grid cell.
+ *
+ *  A region may consist of several rings. A point is inside when it falls within an odd number of the rings, which
+ *  covers both multi-part regions and holes. Rings that cross the antimeridian are not supported.
+ *
+ *  Lookups are lock-free and safe for concurrent use.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class RegionIndex
+{
+	public static final int MAGIC = 0x41435249;	// "ACRI"
+	public static final int VERSION = 1;
+	public static final double CELL_DEGREES = 1d;
+
+	/** Represents a single region and its parent, e.g. a county within a state. */
+	public static class Region
+	{
+		public final String id;
+		public final String name;
+		public final String parentId;
+		public final String parentName;
+
+		public Region(final String id, final String name, final String parentId, final String parentName)
+		{
+			this.id = id;
+			this.name = name;
+			this.parentId = parentId;
+			this.parentName = parentName;
+		}
+
+		@Override
+		public String toString() { return "{ id: " + id + ", name: " + name + ", parentId: " + parentId + ", parentName: " + parentName + " }"; }
+	}
+
+	/** Represents a region with its boundary rings, used to write the index file. Each ring alternates latitude & longitude. */
+	public static class Shape
+	{
+		public final Region region;
+		public final List<double[]> rings;
+
+		public Shape(final Region region, final List<double[]> rings)
+		{
+			this.region = region;
+			this.rings = rings;
+		}
+	}
+
+	private final ByteBuffer buffer;	// Only absolute reads so that lookups can share it.
+	private final Region[] regions;
+	private final int[] offsets;	// Position of each region's ring count.
+	private final float[] bounds;	// Minimum latitude, minimum longitude, maximum latitude, & maximum longitude of each region.
+	private final Map<Long, int[]> cells;
+
+	public int size() { return regions.length; }
+
+	/** Opens the index file.
+	 *
+	 * @param file
+	 * @return never NULL
+	 * @throws IOException if the file cannot be read or is not an index file.
+	 */
+	public static RegionIndex open(final Path file) throws IOException
+	{
+		try (var channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			return new RegionIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size()));	// The mapping remains valid after the channel closes.
+		}
+	}
+
+	/** Populator.
+	 *
+	 * @param buffer contents of an index file.
+	 * @throws IOException if the buffer is not an index file.
+	 */
+	public RegionIndex(final ByteBuffer buffer) throws IOException
+	{
+		if ((12 > buffer.limit()) || (MAGIC != buffer.getInt(0))) throw new IOException("Not a region index file.");
+		if (VERSION != buffer.getInt(4)) throw new IOException("Unsupported region index version " + buffer.getInt(4) + ".");
+
+		var size = buffer.getInt(8);
+		this.buffer = buffer;
+		this.regions = new Region[size];
+		this.offsets = new int[size];
+		this.bounds = new float[size * 4];
+
+		var cells = new HashMap<Long, List<Integer>>();
+		var b = buffer.duplicate().position(12);
+		for (int i = 0; i < size; i++)
+		{
+			var length = b.getInt();
+			var end = b.position() + length;
+			for (int j = 0; j < 4; j++) bounds[(i * 4) + j] = b.getFloat();
+			regions[i] = new Region(readString(b), readString(b), readString(b), readString(b));
+			offsets[i] = b.position();
+			b.position(end);
+
+			for (long r = row(bounds[i * 4]); r <= row(bounds[(i * 4) + 2]); r++)
+				for (long c = column(bounds[(i * 4) + 1]); c <= column(bounds[(i * 4) + 3]); c++)
+					cells.computeIfAbsent(key(r, c), k -> new ArrayList<>()).add(i);
+		}
+
+		this.cells = new HashMap<>(cells.size() * 2);
+		cells.forEach((k, v) -> this.cells.put(k, v.stream().mapToInt(Integer::intValue).toArray()));
+	}
+
+	/** Finds the region that contains the point.
+	 *
+	 * @param latitude
+	 * @param longitude
+	 * @return NULL if no region contains the point.
+	 */
+	public Region find(final double latitude, final double longitude)
+	{
+		var candidates = cells.get(key(row(latitude), column(longitude)));
+		if (null == candidates) return null;
+
+		for (var i : candidates)
+		{
+			var o = i * 4;
+			if ((latitude < bounds[o]) || (longitude < bounds[o + 1]) || (latitude > bounds[o + 2]) || (longitude > bounds[o + 3])) continue;
+			if (contains(offsets[i], latitude, longitude)) return regions[i];
+		}
+
+		return null;
+	}
+
+	/** Helper method - even-odd ray cast over all of the region's rings. */
+	private boolean contains(final int offset, final double latitude, final double longitude)
+	{
+		var inside = false;
+		var position = offset + 4;
+		var rings = buffer.getInt(offset);
+		for (int r = 0; r < rings; r++)
+		{
+			var points = buffer.getInt(position);
+			var start = position + 4;
+			position = start + (points * 8);
+			if (0 == points) continue;
+
+			double latJ = buffer.getFloat(position - 8), lngJ = buffer.getFloat(position - 4);	// Closes the ring with the last point.
+			for (int p = start; p < position; p+= 8)
+			{
+				double latI = buffer.getFloat(p), lngI = buffer.getFloat(p + 4);
+				if (((latI > latitude) != (latJ > latitude)) &&
+				    (longitude < (((lngJ - lngI) * (latitude - latI)) / (latJ - latI)) + lngI))
+					inside = !inside;
+
+				latJ = latI;
+				lngJ = lngI;
+			}
+		}
+
+		return inside;
+	}
+
+	/** Writes the shapes as an index file.
+	 *
+	 * @param file
+	 * @param shapes
+	 * @throws IOException
+	 */
+	public static void write(final Path file, final Collection<Shape> shapes) throws IOException
+	{
+		try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file))))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(shapes.size());
+			for (var o : shapes)
+			{
+				var bytes = new ByteArrayOutputStream();
+				var record = new DataOutputStream(bytes);
+				float minLat = Float.MAX_VALUE, minLng = Float.MAX_VALUE, maxLat = -Float.MAX_VALUE, maxLng = -Float.MAX_VALUE;
+				for (var ring : o.rings)
+					for (int i = 0; i < ring.length; i+= 2)
+					{
+						minLat = Math.min(minLat, (float) ring[i]);
+						maxLat = Math.max(maxLat, (float) ring[i]);
+						minLng = Math.min(minLng, (float) ring[i + 1]);
+						maxLng = Math.max(maxLng, (float) ring[i + 1]);
+					}
+
+				record.writeFloat(minLat);
+				record.writeFloat(minLng);
+				record.writeFloat(maxLat);
+				record.writeFloat(maxLng);
+				writeString(record, o.region.id);
+				writeString(record, o.region.name);
+				writeString(record, o.region.parentId);
+				writeString(record, o.region.parentName);
+				record.writeInt(o.rings.size());
+				for (var ring : o.rings)
+				{
+					record.writeInt(ring.length / 2);
+					for (var v : ring) record.writeFloat((float) v);
+				}
+				record.flush();
+
+				out.writeInt(bytes.size());
+				bytes.writeTo(out);
+			}
+		}
+	}
+
+	/** Helper method - reads a length-prefixed UTF-8 string. A negative length represents NULL. */
+	private static String readString(final ByteBuffer buffer)
+	{
+		var length = buffer.getShort();
+		if (0 > length) return null;
+
+		var bytes = new byte[length];
+		buffer.get(bytes);
+
+		return new String(bytes, UTF_8);
+	}
+
+	/** Helper method - writes a length-prefixed UTF-8 string. */
+	private static void writeString(final DataOutputStream out, final String value) throws IOException
+	{
+		if (null == value)
+		{
+			out.writeShort(-1);
+			return;
+		}
+
+		var bytes = value.getBytes(UTF_8);
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+
+	private static long row(final double latitude) { return (long) Math.floor((latitude + 90d) / CELL_DEGREES); }
+	private static long column(final double longitude) { return (long) Math.floor((longitude + 180d) / CELL_DEGREES); }
+	private static long key(final long row, final long column) { return (row << 32) | column; }
+}
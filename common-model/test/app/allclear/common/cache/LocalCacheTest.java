@@ -0,0 +1,70 @@
+package app.allclear.common.cache;
+
+import org.junit.jupiter.api.*;
+
+import app.allclear.common.ThreadUtils;
+
+/** Unit test class that verifies the LocalCache.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class LocalCacheTest
+{
+	@Test
+	public void evict()
+	{
+		var o = new LocalCache<String, Integer>(2, 60000L);
+		o.put("a", 1);
+		o.put("b", 2);
+		Assertions.assertEquals(1, o.get("a"), "Check a");	// Makes "b" the least recently used.
+
+		o.put("c", 3);
+		Assertions.assertEquals(2, o.size(), "Check size");
+		Assertions.assertEquals(1, o.get("a"), "Check a");
+		Assertions.assertNull(o.get("b"), "Check b");
+		Assertions.assertEquals(3, o.get("c"), "Check c");
+	}
+
+	@Test
+	public void expire()
+	{
+		var o = new LocalCache<String, Integer>(10, 60000L);
+		o.put("a", 1, 50L);
+		o.put("b", 2, 120000L);	// Capped by the default.
+		o.put("c", 3);
+
+		ThreadUtils.sleep(100L);
+
+		Assertions.assertNull(o.get("a"), "Check a");
+		Assertions.assertEquals(2, o.get("b"), "Check b");
+		Assertions.assertEquals(3, o.get("c"), "Check c");
+		Assertions.assertEquals(2, o.size(), "Check size");
+	}
+
+	@Test
+	public void remove()
+	{
+		var o = new LocalCache<String, Integer>(10, 60000L);
+		o.put("a", 1);
+		o.put("b", 2);
+
+		Assertions.assertTrue(o.remove("a"), "Check remove");
+		Assertions.assertFalse(o.remove("a"), "Check remove again");
+		Assertions.assertNull(o.get("a"), "Check a");
+		Assertions.assertEquals(1, o.size(), "Check size");
+
+		o.clear();
+		Assertions.assertEquals(0, o.size(), "Check clear");
+	}
+
+	@Test
+	public void testInvalid()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new LocalCache<String, Integer>(0, 1000L));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new LocalCache<String, Integer>(10, 0L));
+	}
+}
@@ -0,0 +1,81 @@
+package app.allclear.common.cache;
+
+import java.util.ArrayList;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.*;
+
+/** Unit test class that verifies the SingleFlight.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class SingleFlightTest
+{
+	private final SingleFlight<String, Integer> flights = new SingleFlight<>();
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	@AfterEach
+	public void down()
+	{
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void execute() throws Exception
+	{
+		var calls = new AtomicInteger();
+		var started = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		var first = executor.submit(() -> flights.execute("a", () -> {
+			calls.incrementAndGet();
+			started.countDown();
+			try { release.await(); } catch (final InterruptedException ex) { throw new IllegalStateException(ex); }
+			return 1;
+		}));
+		started.await();
+
+		var others = new ArrayList<Future<Integer>>();
+		for (int i = 0; i < 5; i++) others.add(executor.submit(() -> flights.execute("a", () -> calls.incrementAndGet() + 100)));
+		while (5L > flights.shared()) Thread.sleep(10L);	// All five wait on the first load.
+
+		Assertions.assertEquals(1, flights.size(), "Check size: during");
+		Assertions.assertEquals(2, flights.execute("b", () -> 2), "Check other key");
+		release.countDown();
+
+		Assertions.assertEquals(1, first.get(5L, TimeUnit.SECONDS), "Check first");
+		for (var o : others) Assertions.assertEquals(1, o.get(5L, TimeUnit.SECONDS), "Check others");
+		Assertions.assertEquals(1, calls.get(), "Check calls");
+		Assertions.assertEquals(0, flights.size(), "Check size: after");
+		Assertions.assertEquals(3, flights.execute("a", () -> 3), "Check after completion");	// Results are not retained.
+	}
+
+	@Test
+	public void execute_failure() throws Exception
+	{
+		var started = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		var first = executor.submit(() -> flights.execute("a", () -> {
+			started.countDown();
+			try { release.await(); } catch (final InterruptedException ex) { throw new IllegalStateException(ex); }
+			throw new IllegalArgumentException("Failed");
+		}));
+		started.await();
+
+		var other = executor.submit(() -> flights.execute("a", () -> 1));
+		while (1L > flights.shared()) Thread.sleep(10L);
+		release.countDown();
+
+		for (var o : new Future<?>[] { first, other })
+		{
+			var ex = Assertions.assertThrows(ExecutionException.class, () -> o.get(5L, TimeUnit.SECONDS));
+			Assertions.assertEquals(IllegalArgumentException.class, ex.getCause().getClass(), "Check cause");
+			Assertions.assertEquals("Failed", ex.getCause().getMessage(), "Check message");
+		}
+		Assertions.assertEquals(0, flights.size(), "Check size");
+	}
+}
@@ -115,4 +115,39 @@ public class QueryResultsTest
 		Assert.assertFalse(value.isEmpty());
 		Assert.assertFalse(value.noRecords());
 	}
+
+	@Test
+	public void testCounted()
+	{
+		var value = new QueryResults<Integer, QueryFilter>(new QueryFilter(3, 10), QueryResults.PAGE_SIZE_DEFAULT);
+		Assert.assertEquals(0L, value.total);
+		Assert.assertEquals(0, value.pages);
+		Assert.assertEquals(3, value.page);
+		Assert.assertEquals(10, value.pageSize);
+		Assert.assertEquals(20, value.firstResult());
+		Assert.assertEquals(11, value.maxResultsWithMore());
+		Assert.assertNull(value.more);
+
+		Assert.assertEquals(10, value.counted(11));
+		Assert.assertEquals(30L, value.total);
+		Assert.assertEquals(4, value.pages);
+		Assert.assertEquals(Boolean.TRUE, value.more);
+		Assert.assertFalse(value.isEmpty());
+
+		Assert.assertEquals(10, value.counted(10));
+		Assert.assertEquals(30L, value.total);
+		Assert.assertEquals(3, value.pages);
+		Assert.assertEquals(Boolean.FALSE, value.more);
+
+		Assert.assertEquals(4, value.counted(4));
+		Assert.assertEquals(24L, value.total);
+		Assert.assertEquals(3, value.pages);
+		Assert.assertEquals(Boolean.FALSE, value.more);
+
+		Assert.assertEquals(0, value.counted(0));
+		Assert.assertEquals(0L, value.total);
+		Assert.assertEquals(0, value.pages);
+		Assert.assertEquals(Boolean.FALSE, value.more);
+		Assert.assertTrue(value.isEmpty());
+	}
 }
@@ -0,0 +1,108 @@
+package app.allclear.common.geo;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Unit test class that verifies the GeoIndex.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+public class GeoIndexTest
+{
+	private static final GeoIndex<Long> index = new GeoIndex<>();
+
+	@Test
+	public void add()
+	{
+		Assertions.assertTrue(index.stale(), "Check stale");
+
+		index.load(List.of(new GeoIndex.Point<>(1L, 45d, -35d),
+			new GeoIndex.Point<>(2L, 45.5d, -35.5d),
+			new GeoIndex.Point<>(3L, 40d, 179.9d)));
+		index.put(4L, 40d, -179.9d);
+
+		Assertions.assertFalse(index.stale(), "Check stale");
+		Assertions.assertEquals(4, index.size(), "Check size");
+	}
+
+	public static Stream<Arguments> near()
+	{
+		return Stream.of(
+			arguments(45.7d, -35.42d, 80000L, List.of(2L)),
+			arguments(45.7d, -35.42d, 90000L, List.of(2L, 1L)),
+			arguments(45.7d, -35.42d, 20000L, List.of()),
+			arguments(40d, 179.95d, 20000L, List.of(3L, 4L)),	// Crosses the anti-meridian.
+			arguments(40d, -179.95d, 5000L, List.of(4L)),
+			arguments(0d, 0d, 1000L, List.of()),
+			arguments(89.9d, -30d, 20000000L, List.of(2L, 1L, 4L, 3L)));	// Reaches the pole so checks every cell.
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void near(final double latitude, final double longitude, final long meters, final List<Long> expected)
+	{
+		Assertions.assertEquals(expected, index.nearKeys(latitude, longitude, meters));
+	}
+
+	@Test
+	public void near_meters()
+	{
+		var o = index.near(45.7d, -35.42d, 80000L);
+		Assertions.assertEquals(1, o.size(), "Check size");
+		Assertions.assertEquals(23093L, o.get(0).meters, "Check meters");
+	}
+
+	@Test
+	public void put()
+	{
+		index.put(2L, 45d, -35.1d);	// Move
+		Assertions.assertEquals(4, index.size(), "Check size");
+		Assertions.assertEquals(List.of(1L, 2L), index.nearKeys(45d, -35d, 10000L));
+		Assertions.assertEquals(List.of(), index.nearKeys(45.5d, -35.5d, 1000L), "Check old location");
+	}
+
+	@Test
+	public void remove()
+	{
+		Assertions.assertTrue(index.remove(2L), "Check remove");
+		Assertions.assertFalse(index.remove(2L), "Check remove again");
+		Assertions.assertFalse(index.contains(2L), "Check contains");
+		Assertions.assertEquals(3, index.size(), "Check size");
+		Assertions.assertEquals(List.of(1L), index.nearKeys(45d, -35d, 10000L));
+	}
+
+	@Test
+	public void testMeters()
+	{
+		Assertions.assertEquals(3935738L, Math.round(GeoIndex.meters(40.7128d, -74.0060d, 34.0522d, -118.2437d)), "New York to Los Angeles");
+		Assertions.assertEquals(0L, Math.round(GeoIndex.meters(40d, -74d, 40d, -74d)), "Same point");
+	}
+
+	@Test
+	public void testReload()
+	{
+		index.load(List.of(new GeoIndex.Point<>(5L, 10d, 10d)));
+
+		Assertions.assertEquals(1, index.size(), "Check size");
+		Assertions.assertEquals(List.of(5L), index.near(10d, 10d, 1L).stream().map(o -> o.key).collect(toList()));
+	}
+
+	@Test
+	public void testInvalid()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new GeoIndex<Long>(0d, 1000L));
+	}
+}
@@ -0,0 +1,94 @@
+package app.allclear.common.geo;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import app.allclear.common.geo.RegionIndex.*;
+
+/** Unit test class that verifies the RegionIndex.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class RegionIndexTest
+{
+	@TempDir
+	public static Path dir;
+
+	private static RegionIndex index;
+
+	@BeforeAll
+	public static void up() throws Exception
+	{
+		var file = dir.resolve("regions.idx");
+		RegionIndex.write(file, List.of(
+			new Shape(new Region("34017", "Hudson", "NJ", "New Jersey"),	// Rough triangle.
+				List.of(new double[] { 40.65d, -74.17d, 40.83d, -74.10d, 40.70d, -73.98d })),
+			new Shape(new Region("36061", "New York", "NY", "New York"),	// Square with a hole.
+				List.of(new double[] { 40.70d, -74.02d, 40.88d, -74.02d, 40.88d, -73.90d, 40.70d, -73.90d },
+					new double[] { 40.76d, -73.98d, 40.80d, -73.98d, 40.80d, -73.94d, 40.76d, -73.94d })),
+			new Shape(new Region("48167", "Galveston", "TX", "Texas"),	// Two parts that span several grid cells.
+				List.of(new double[] { 29.0d, -95.5d, 29.0d, -94.5d, 29.6d, -94.5d, 29.6d, -95.5d },
+					new double[] { 30.2d, -96.8d, 30.2d, -96.2d, 30.4d, -96.2d, 30.4d, -96.8d }))));
+
+		index = RegionIndex.open(file);
+	}
+
+	public static Stream<Arguments> find()
+	{
+		return Stream.of(arguments(40.7487855d, -74.0315385d, "34017"),	// Hoboken
+			arguments(40.85d, -73.95d, "36061"),
+			arguments(40.78d, -73.96d, null),	// Within the hole.
+			arguments(29.3066829d, -94.7970101d, "48167"),
+			arguments(30.3d, -96.5d, "48167"),	// Second part.
+			arguments(30.0d, -96.5d, null),
+			arguments(0d, 0d, null));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void find(final double latitude, final double longitude, final String expected)
+	{
+		var o = index.find(latitude, longitude);
+		Assertions.assertEquals(expected, (null != o) ? o.id : null, "Check id");
+	}
+
+	@Test
+	public void find_region()
+	{
+		var o = index.find(29.3066829d, -94.7970101d);
+		Assertions.assertEquals("Galveston", o.name, "Check name");
+		Assertions.assertEquals("TX", o.parentId, "Check parentId");
+		Assertions.assertEquals("Texas", o.parentName, "Check parentName");
+	}
+
+	@Test
+	public void size()
+	{
+		Assertions.assertEquals(3, index.size());
+	}
+
+	@Test
+	public void testInvalid() throws Exception
+	{
+		var file = dir.resolve("invalid.idx");
+		Files.writeString(file, "not an index file");
+
+		Assertions.assertThrows(IOException.class, () -> RegionIndex.open(file));
+		Assertions.assertThrows(IOException.class, () -> new RegionIndex(ByteBuffer.allocate(4)));
+	}
+}
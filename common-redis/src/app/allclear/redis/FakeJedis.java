@@ -1,11 +1,18 @@
 package app.allclear.redis;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import redis.clients.jedis.*;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.util.SafeEncoder;
 
 /** Implements the Jedis interface with internal Java collections. Primarily used for testing.
  * 
@@ -24,26 +31,124 @@ public class FakeJedis extends Jedis
 
 	/** Internal structures. */
 	private final Map<String, String> map = new HashMap<>();
+	private final Map<String, byte[]> bytes = new HashMap<>();	// Binary string values.
 	private final Map<String, Integer> expirations = new HashMap<>();
 	private final Map<String, Queue<String>> queues = new HashMap<>();
 	private final Map<String, Set<String>> sets = new HashMap<>();
 	private final Map<String, Map<String, String>> maps = new HashMap<>();
+	private final Map<String, List<JedisPubSub>> channels = new ConcurrentHashMap<>();
 
 	@Override
 	public void close() { /** Do NOT clear the cache since this is called after each usage of the fake Jedis pool. */ }
 
 	@Override
-	public String get(final String key) { return map.get(key); }
+	public Pipeline pipelined() { return new FakePipeline(this); }
+
+	@Override
+	public Transaction multi() { return new FakeTransaction(this); }
+
+	/** Creates a response that is already populated with the value. Used by the fake pipeline & transaction. */
+	static <T> Response<T> response(final T value)
+	{
+		var o = new Response<T>(new Builder<T>() {
+			@Override public T build(final Object data) { return value; }
+		});
+		o.set(Boolean.TRUE);	// Any non-NULL data so that the builder is invoked.
+
+		return o;
+	}
+
+	@Override
+	public String get(final String key)
+	{
+		var o = map.get(key);
+		if (null != o) return o;
+
+		var v = bytes.get(key);
+		return (null != v) ? new String(v, UTF_8) : null;
+	}
+
+	@Override
+	public byte[] get(final byte[] key)
+	{
+		var k = SafeEncoder.encode(key);
+		var o = bytes.get(k);
+		if (null != o) return o;
+
+		var v = map.get(k);
+		return (null != v) ? v.getBytes(UTF_8) : null;
+	}
+
+	@Override
+	public String set(final String key, final String value)
+	{
+		bytes.remove(key);
+
+		return map.put(key, value);
+	}
+
+	@Override
+	public String set(final String key, final String value, final SetParams params)
+	{
+		var args = Arrays.stream(params.getByteParams()).map(v -> SafeEncoder.encode(v).toLowerCase()).collect(Collectors.toList());
+		if (args.contains("nx") && exists(key)) return null;
+		if (args.contains("xx") && !exists(key)) return null;
+
+		set(key, value);
+
+		var i = args.indexOf("ex");
+		if (-1 < i) expirations.put(key, Integer.valueOf(args.get(i + 1)));
+		else if (-1 < (i = args.indexOf("px"))) expirations.put(key, (int) (Long.parseLong(args.get(i + 1)) / 1000L));
+
+		return "OK";
+	}
+
+	@Override
+	public List<String> mget(final String... keys)
+	{
+		return Arrays.stream(keys).map(k -> get(k)).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<byte[]> mget(final byte[]... keys)
+	{
+		return Arrays.stream(keys).map(k -> get(k)).collect(Collectors.toList());
+	}
 
 	@Override
-	public String set(final String key, final String value) { return map.put(key, value); }
+	public String mset(final String... keysvalues)
+	{
+		for (int i = 0; i < keysvalues.length; i+= 2) set(keysvalues[i], keysvalues[i + 1]);
+
+		return "OK";
+	}
+
+	@Override
+	public Long setnx(final String key, final String value)
+	{
+		if (exists(key)) return 0L;
+
+		set(key, value);
+		return 1L;
+	}
 
 	@Override
 	public String setex(final String key, final int seconds, final String value)
 	{
 		expirations.put(key, seconds);
 
-		return map.put(key, value);
+		return set(key, value);
+	}
+
+	@Override
+	public String setex(final byte[] key, final int seconds, final byte[] value)
+	{
+		var k = SafeEncoder.encode(key);
+		expirations.put(k, seconds);
+		map.remove(k);
+		bytes.put(k, value);
+
+		return "OK";
 	}
 
 	@Override
@@ -57,6 +162,7 @@ public class FakeJedis extends Jedis
 	public Long del(final String key)
 	{
 		if (null != map.remove(key)) return 1L;
+		if (null != bytes.remove(key)) return 1L;
 		if (null != maps.remove(key)) return 1L;
 		if (null != sets.remove(key)) return 1L;
 		if (null != queues.remove(key)) return 1L;
@@ -67,12 +173,14 @@ public class FakeJedis extends Jedis
 	@Override
 	public Boolean exists(final String key)
 	{
-		return map.containsKey(key) || maps.containsKey(key) || sets.containsKey(key) || queues.containsKey(key);
+		return map.containsKey(key) || bytes.containsKey(key) || maps.containsKey(key) || sets.containsKey(key) || queues.containsKey(key);
 	}
 
 	@Override
 	public Long expire(final String key, final int seconds)
 	{
+		if (!exists(key)) return 0L;
+
 		expirations.put(key, seconds);
 		return 1L;
 	}
@@ -89,10 +197,10 @@ public class FakeJedis extends Jedis
 		return Long.valueOf(map.compute(key, (k, v) -> (((null != v) ? Long.valueOf(v) : 0L) - 1L) + ""));
 	}
 
+	/** Pages through the sorted keys. The cursor is the offset of the next key and COUNT defaults to ten like Redis. */
 	@Override
 	public ScanResult<String> scan(final String cursor, final ScanParams params)
 	{
-		var keys = keySet();
 		var m = new HashMap<byte[], String>(2);
 		var l = new ArrayList<>(params.getParams());
 		for (int i = 0; i < l.size(); i+= 2)
@@ -101,8 +209,16 @@ public class FakeJedis extends Jedis
 		var key = m.get(Protocol.Keyword.MATCH.raw);
 		if ((null != key) && key.endsWith("*")) key = key.substring(0, key.length() - 1);	// Remove trailing asterisk (*).
 		var k = key;
+		var count = m.containsKey(Protocol.Keyword.COUNT.raw) ? Integer.parseInt(m.get(Protocol.Keyword.COUNT.raw)) : 10;
+		var offset = StringUtils.isEmpty(cursor) ? 0 : Integer.parseInt(cursor);
 
-		return new ScanResult<>("0", keys.stream().filter(v -> (null == k) || v.startsWith(k)).collect(Collectors.toList()));
+		var keys = new ArrayList<>(keySet());
+		keys.sort(null);
+		var end = Math.min(offset + count, keys.size());
+		var values = (offset < end) ? keys.subList(offset, end) : List.<String>of();
+
+		return new ScanResult<>((end < keys.size()) ? Integer.toString(end) : ScanParams.SCAN_POINTER_START,	// Filtered after paging like MATCH.
+			values.stream().filter(v -> (null == k) || v.startsWith(k)).collect(Collectors.toList()));
 	}
 
 	@Override
@@ -113,7 +229,7 @@ public class FakeJedis extends Jedis
 
 	public int size()
 	{
-		return map.size() + queues.size() + sets.size() + maps.size();
+		return map.size() + bytes.size() + queues.size() + sets.size() + maps.size();
 	}
 
 	@Override
@@ -126,6 +242,7 @@ public class FakeJedis extends Jedis
 	{
 		Set<String> values = new HashSet<>(size());
 		values.addAll(map.keySet());
+		values.addAll(bytes.keySet());
 		values.addAll(queues.keySet());
 		values.addAll(sets.keySet());
 		values.addAll(maps.keySet());
@@ -137,6 +254,7 @@ public class FakeJedis extends Jedis
 	public String flushDB()
 	{
 		map.clear();
+		bytes.clear();
 		queues.clear();
 		sets.clear();
 		maps.clear();
@@ -147,7 +265,7 @@ public class FakeJedis extends Jedis
 	@Override
 	public String type(final String key)
 	{
-		return map.containsKey(key) ? "string" : (queues.containsKey(key) ? "list" : (sets.containsKey(key) ? "set" : (maps.containsKey(key) ? "hash" : "none")));
+		return (map.containsKey(key) || bytes.containsKey(key)) ? "string" : (queues.containsKey(key) ? "list" : (sets.containsKey(key) ? "set" : (maps.containsKey(key) ? "hash" : "none")));
 	}
 
 	@Override
@@ -297,4 +415,22 @@ public class FakeJedis extends Jedis
 	{
 		return new ScanResult<Map.Entry<String, String>>("0", new ArrayList<>(maps.get(key).entrySet()));
 	}
+
+	@Override
+	public Long publish(final String channel, final String message)
+	{
+		var o = channels.get(channel);
+		if (null == o) return 0L;
+
+		o.forEach(v -> v.onMessage(channel, message));	// Delivered synchronously.
+
+		return (long) o.size();
+	}
+
+	@Override
+	public void subscribe(final JedisPubSub listener, final String... channels)
+	{
+		for (var channel : channels)	// Does NOT block like the real subscribe.
+			this.channels.computeIfAbsent(channel, k -> new CopyOnWriteArrayList<>()).add(listener);
+	}
 }
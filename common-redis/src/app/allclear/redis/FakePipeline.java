@@ -0,0 +1,43 @@
+package app.allclear.redis;
+
+import java.util.*;
+
+import redis.clients.jedis.*;
+
+/** Implements the Jedis pipeline with the FakeJedis internal collections. Commands are applied immediately and their
+ *  responses are available without a sync. Primarily used for testing.
+ * 
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class FakePipeline extends Pipeline
+{
+	private final FakeJedis jedis;
+
+	public FakePipeline(final FakeJedis jedis)
+	{
+		this.jedis = jedis;
+	}
+
+	@Override public void sync() { /** Responses are already available. */ }
+
+	@Override public Response<String> get(final String key) { return FakeJedis.response(jedis.get(key)); }
+	@Override public Response<byte[]> get(final byte[] key) { return FakeJedis.response(jedis.get(key)); }
+	@Override public Response<String> set(final String key, final String value) { return FakeJedis.response(jedis.set(key, value)); }
+	@Override public Response<String> setex(final String key, final int seconds, final String value) { return FakeJedis.response(jedis.setex(key, seconds, value)); }
+	@Override public Response<String> setex(final byte[] key, final int seconds, final byte[] value) { return FakeJedis.response(jedis.setex(key, seconds, value)); }
+	@Override public Response<Long> setnx(final String key, final String value) { return FakeJedis.response(jedis.setnx(key, value)); }
+	@Override public Response<Long> expire(final String key, final int seconds) { return FakeJedis.response(jedis.expire(key, seconds)); }
+	@Override public Response<Long> ttl(final String key) { return FakeJedis.response(jedis.ttl(key)); }
+	@Override public Response<Long> incr(final String key) { return FakeJedis.response(jedis.incr(key)); }
+	@Override public Response<Long> decr(final String key) { return FakeJedis.response(jedis.decr(key)); }
+	@Override public Response<Long> del(final String key) { return FakeJedis.response(jedis.del(key)); }
+	@Override public Response<Boolean> exists(final String key) { return FakeJedis.response(jedis.exists(key)); }
+	@Override public Response<Long> hset(final String key, final Map<String, String> hash) { return FakeJedis.response(jedis.hset(key, hash)); }
+	@Override public Response<Map<String, String>> hgetAll(final String key) { return FakeJedis.response(jedis.hgetAll(key)); }
+	@Override public Response<List<String>> mget(final String... keys) { return FakeJedis.response(jedis.mget(keys)); }
+	@Override public Response<String> mset(final String... keysvalues) { return FakeJedis.response(jedis.mset(keysvalues)); }
+}
@@ -0,0 +1,70 @@
+package app.allclear.redis;
+
+import java.util.*;
+
+import redis.clients.jedis.*;
+
+/** Implements the Jedis MULTI/EXEC transaction with the FakeJedis internal collections. Commands are applied
+ *  immediately and their responses are available without waiting for EXEC. Discarding does NOT roll back the
+ *  applied commands. Primarily used for testing.
+ * 
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class FakeTransaction extends Transaction
+{
+	private final FakeJedis jedis;
+	private final List<Object> results = new LinkedList<>();
+
+	public FakeTransaction(final FakeJedis jedis)
+	{
+		super((Client) null);
+
+		this.jedis = jedis;
+	}
+
+	@Override
+	public List<Object> exec()
+	{
+		inTransaction = false;
+
+		return new ArrayList<>(results);
+	}
+
+	@Override
+	public String discard()
+	{
+		inTransaction = false;
+		results.clear();
+
+		return "OK";
+	}
+
+	@Override public Response<String> get(final String key) { return add(jedis.get(key)); }
+	@Override public Response<byte[]> get(final byte[] key) { return add(jedis.get(key)); }
+	@Override public Response<String> set(final String key, final String value) { return add(jedis.set(key, value)); }
+	@Override public Response<String> setex(final String key, final int seconds, final String value) { return add(jedis.setex(key, seconds, value)); }
+	@Override public Response<String> setex(final byte[] key, final int seconds, final byte[] value) { return add(jedis.setex(key, seconds, value)); }
+	@Override public Response<Long> setnx(final String key, final String value) { return add(jedis.setnx(key, value)); }
+	@Override public Response<Long> expire(final String key, final int seconds) { return add(jedis.expire(key, seconds)); }
+	@Override public Response<Long> ttl(final String key) { return add(jedis.ttl(key)); }
+	@Override public Response<Long> incr(final String key) { return add(jedis.incr(key)); }
+	@Override public Response<Long> decr(final String key) { return add(jedis.decr(key)); }
+	@Override public Response<Long> del(final String key) { return add(jedis.del(key)); }
+	@Override public Response<Boolean> exists(final String key) { return add(jedis.exists(key)); }
+	@Override public Response<Long> hset(final String key, final Map<String, String> hash) { return add(jedis.hset(key, hash)); }
+	@Override public Response<Map<String, String>> hgetAll(final String key) { return add(jedis.hgetAll(key)); }
+	@Override public Response<List<String>> mget(final String... keys) { return add(jedis.mget(keys)); }
+	@Override public Response<String> mset(final String... keysvalues) { return add(jedis.mset(keysvalues)); }
+
+	/** Helper method - records the result for EXEC. */
+	private <T> Response<T> add(final T value)
+	{
+		results.add(value);
+
+		return FakeJedis.response(value);
+	}
+}
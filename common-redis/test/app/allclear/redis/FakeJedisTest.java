@@ -2,7 +2,10 @@ package app.allclear.redis;
 
 import org.junit.jupiter.api.*;
 
-import redis.clients.jedis.JedisPool;
+import java.util.*;
+
+import redis.clients.jedis.*;
+import redis.clients.jedis.params.SetParams;
 
 /** Functional test class that verifies the FakeJedis component.
  * 
@@ -37,4 +40,55 @@ public class FakeJedisTest
 			Assertions.assertTrue(j.exists("first"));
 		}
 	}
+
+	@Test
+	public void setnx()
+	{
+		try (var j = pool.getResource())
+		{
+			Assertions.assertEquals(1L, j.setnx("reserved", "1"), "Check first");
+			Assertions.assertEquals(0L, j.setnx("reserved", "2"), "Check second");
+			Assertions.assertEquals("1", j.get("reserved"), "Check value");
+		}
+	}
+
+	@Test
+	public void set_nx()
+	{
+		try (var j = pool.getResource())
+		{
+			Assertions.assertEquals("OK", j.set("reservedX", "1", SetParams.setParams().nx().ex(60)), "Check first");
+			Assertions.assertNull(j.set("reservedX", "2", SetParams.setParams().nx().ex(120)), "Check second");
+			Assertions.assertEquals("1", j.get("reservedX"), "Check value");
+			Assertions.assertEquals(60L, j.ttl("reservedX"), "Check TTL");
+
+			Assertions.assertNull(j.set("missingX", "1", SetParams.setParams().xx()), "Check missing");
+			Assertions.assertFalse(j.exists("missingX"), "Check not added");
+		}
+	}
+
+	@Test
+	public void scan()
+	{
+		try (var j = pool.getResource())
+		{
+			for (int i = 0; i < 5; i++) j.set("scan:" + i, "value");
+
+			var params = new ScanParams().match("scan:*").count(2);
+			var keys = new HashSet<String>();
+			var cursor = ScanParams.SCAN_POINTER_START;
+			int calls = 0;
+			do
+			{
+				var o = j.scan(cursor, params);
+				keys.addAll(o.getResult());
+				cursor = o.getCursor();
+				calls++;
+			}
+			while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+
+			Assertions.assertEquals(Set.of("scan:0", "scan:1", "scan:2", "scan:3", "scan:4"), keys, "Check keys");
+			Assertions.assertTrue(1 < calls, "Check paged");
+		}
+	}
 }
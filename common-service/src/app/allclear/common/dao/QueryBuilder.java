@@ -4,6 +4,7 @@ import static java.util.stream.Collectors.*;
 import static app.allclear.common.dao.OrderByBuilder.Sort;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -89,6 +90,9 @@ public abstract class QueryBuilder<T>
 	public QueryBuilder<T> and() { conjunction = AND; return this; }
 	public QueryBuilder<T> and(final boolean turnOn) { return turnOn ? and() : or(); }
 
+	/** Indicates that at least one criterion was added to the WHERE clause. */
+	public boolean hasCriteria() { return (0 < where.length()); }
+
 	/** Helper method - add to the WHERE clause. */
 	private void where(final String value)
 	{
@@ -363,4 +367,31 @@ public abstract class QueryBuilder<T>
 	 * @return the aggregate value.
 	 */
 	public abstract long aggregate(final String select);
+
+	/** Counts and retrieves a single page of records. If the filter skips the COUNT, the page is retrieved in a single
+	 *  query that fetches one extra record to determine if more pages exist.
+	 *
+	 * @param filter
+	 * @param count aggregate SELECT and FROM clause for the total count.
+	 * @param order sort definitions to normalize the filter's sort fields.
+	 * @param toValues converts the page of records to the output values.
+	 * @return never NULL.
+	 */
+	public <V, F extends QueryFilter> QueryResults<V, F> search(final F filter, final String count, final OrderByBuilder order, final Function<List<T>, List<V>> toValues)
+	{
+		if (!filter.skipCount())
+		{
+			var v = new QueryResults<V, F>(aggregate(count), filter);
+			if (v.isEmpty()) return v;
+
+			return v.withRecords(toValues.apply(orderBy(order.normalize(v)).run(v)));
+		}
+
+		var v = new QueryResults<V, F>(filter, QueryResults.PAGE_SIZE_DEFAULT);
+		var records = orderBy(order.normalize(v)).run(v.firstResult(), v.maxResultsWithMore());
+		var size = v.counted(records.size());
+		if (v.isEmpty()) return v;
+
+		return v.withRecords(toValues.apply((size < records.size()) ? records.subList(0, size) : records));
+	}
 }
@@ -1,5 +1,7 @@
 package app.allclear.common.redis;
 
+import java.util.function.Consumer;
+
 import app.allclear.redis.FakeJedisPool;
 
 /** RedisClient implementation that uses non-remote data structures. Used for unit tests.
@@ -23,6 +25,25 @@ public class FakeRedisClient extends RedisClient
 		clear();
 	}
 
+	/** Fake Jedis connections cannot evaluate Lua scripts. */
+	@Override
+	public boolean scripting() { return false; }
+
+	/** Registers the subscription on the calling thread since fake subscriptions do NOT block.
+	 *
+	 * @param channel
+	 * @param fx receives each message.
+	 * @return the subscription which must be closed to stop receiving messages.
+	 */
+	@Override
+	public Subscription subscribe(final String channel, final Consumer<String> fx)
+	{
+		var o = new Subscription(channel, fx);
+		o.run();
+
+		return o;
+	}
+
 	/** Sends a heart beat check to the Redis server.
 	 * 
 	 * @return textual heart beat message.
@@ -0,0 +1,45 @@
+package app.allclear.common.redis;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.allclear.common.jackson.JacksonUtils;
+
+/** Redis codec that stores values as JSON text. Used for values that must remain human readable.
+ * 
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ * @param <T> the value type.
+ */
+
+public class JsonCodec<T> implements RedisCodec<T>
+{
+	private final Class<T> clazz;
+	private final ObjectMapper mapper;
+
+	public JsonCodec(final Class<T> clazz) { this(clazz, JacksonUtils.createMapper()); }
+	public JsonCodec(final Class<T> clazz, final ObjectMapper mapper)
+	{
+		this.clazz = clazz;
+		this.mapper = mapper;
+	}
+
+	@Override
+	public byte[] encode(final T value)
+	{
+		try { return mapper.writeValueAsBytes(value); }
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+	}
+
+	@Override
+	public T decode(final byte[] value)
+	{
+		if ((null == value) || (0 == value.length)) return null;
+
+		try { return mapper.readValue(value, clazz); }
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+	}
+}
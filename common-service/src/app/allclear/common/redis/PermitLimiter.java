@@ -0,0 +1,149 @@
+package app.allclear.common.redis;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import java.util.*;
+
+import redis.clients.jedis.Jedis;
+
+import com.codahale.metrics.*;
+
+/** Bounds the number of outstanding permits per identifier, e.g. the unexpired confirmation codes of a phone number.
+ *  Each identifier keeps a single counter that expires one lifetime after its latest permit, so an identifier at its
+ *  limit can acquire again once its permits have expired. A permit is released when its resource is freed early, e.g.
+ *  a code is confirmed or fails to send. The check and the increment run as a single atomic Lua script.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class PermitLimiter implements MetricSet
+{
+	/** KEYS: counter. ARGV: limit, lifetime milliseconds. */
+	public static final String ACQUIRE =
+		"local limit = tonumber(ARGV[1]) " +
+		"local count = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+		"if count >= limit then return 0 end " +
+		"redis.call('INCR', KEYS[1]) " +
+		"redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+		"return 1";
+
+	/** KEYS: counter. Keeps the expiration of the remaining permits. */
+	public static final String RELEASE =
+		"local count = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+		"if count > 1 then redis.call('DECR', KEYS[1]) return 1 end " +
+		"if count == 1 then redis.call('DEL', KEYS[1]) return 1 end " +
+		"return 0";
+
+	public final String name;	// Prefix of the Redis keys.
+	public final long lifetime;	// Milliseconds
+
+	private final RedisClient redis;
+	private final Meter allowed = new Meter();
+	private final Meter denied = new Meter();
+	private final RedisScripts scripts = new RedisScripts();
+
+	/** Populator.
+	 *
+	 * @param redis
+	 * @param name prefix of the Redis keys.
+	 * @param lifetime milliseconds that a permit is outstanding unless released.
+	 * @throws IllegalArgumentException if the lifetime is not positive.
+	 */
+	public PermitLimiter(final RedisClient redis, final String name, final long lifetime) throws IllegalArgumentException
+	{
+		if (0L >= lifetime) throw new IllegalArgumentException("The lifetime must be greater than zero.");
+
+		this.redis = redis;
+		this.name = name;
+		this.lifetime = lifetime;
+	}
+
+	/** Gets the key of the counter. */
+	public String key(final String id) { return name + ":" + id; }
+
+	/** Acquires a single permit.
+	 *
+	 * @param id identifier being limited.
+	 * @param limit maximum outstanding permits.
+	 * @return TRUE if the permit was granted.
+	 */
+	public boolean acquire(final String id, final int limit) { return redis.operation(j -> acquire(j, id, limit)); }
+
+	/** Acquires a single permit with an existing connection.
+	 *
+	 * @param j
+	 * @param id identifier being limited.
+	 * @param limit maximum outstanding permits.
+	 * @return TRUE if the permit was granted.
+	 */
+	public boolean acquire(final Jedis j, final String id, final int limit)
+	{
+		var granted = acquireX(j, key(id), limit);
+		(granted ? allowed : denied).mark();
+
+		return granted;
+	}
+
+	/** Returns a single permit before it expires.
+	 *
+	 * @param id
+	 */
+	public void release(final String id) { redis.operation(j -> { release(j, id); return null; }); }
+	public void release(final Jedis j, final String id)
+	{
+		var key = key(id);
+		if (redis.scripting())
+		{
+			scripts.eval(j, RELEASE, List.of(key), List.of());
+			return;
+		}
+
+		synchronized (this)	// Non-atomic emulation for clients without Lua support.
+		{
+			var count = count(j.get(key));
+			if (1L < count) j.decr(key);
+			else if (1L == count) j.del(key);
+		}
+	}
+
+	/** Helper method - runs the check & increment. */
+	private boolean acquireX(final Jedis j, final String key, final int limit)
+	{
+		if (redis.scripting())
+			return 0L < ((Number) scripts.eval(j, ACQUIRE, List.of(key), List.of(Integer.toString(limit), Long.toString(lifetime)))).longValue();
+
+		synchronized (this)	// Non-atomic emulation for clients without Lua support.
+		{
+			var count = count(j.get(key));
+			if (limit <= count) return false;
+
+			j.setex(key, (int) Math.max(1L, lifetime / 1000L), Long.toString(count + 1L));
+
+			return true;
+		}
+	}
+
+	/** Helper method - parses a counter value. */
+	private static long count(final String value) { return (null != value) ? Long.parseLong(value) : 0L; }
+
+	/** Gets the allowed and denied decisions for registration with a MetricRegistry. */
+	@Override
+	public Map<String, Metric> getMetrics()
+	{
+		return Map.of(name(PermitLimiter.class, name, "allowed"), allowed,
+			name(PermitLimiter.class, name, "denied"), denied);
+	}
+
+	@Override
+	public String toString()
+	{
+		return new StringBuilder("{ name: ").append(name)
+			.append(", lifetime: ").append(lifetime)
+			.append(", allowed: ").append(allowed.getCount())
+			.append(", denied: ").append(denied.getCount())
+			.append(" }").toString();
+	}
+}
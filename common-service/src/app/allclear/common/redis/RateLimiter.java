@@ -0,0 +1,274 @@
+package app.allclear.common.redis;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import java.util.*;
+
+import redis.clients.jedis.Jedis;
+
+import com.codahale.metrics.*;
+
+import app.allclear.common.cache.LocalCache;
+
+/** Sliding window rate limiter backed by Redis. Each identifier keeps a counter per fixed window and the count of the
+ *  previous window is weighted by how much of it still overlaps the sliding window. The check and the increment run as
+ *  a single atomic Lua script so that each decision is one round trip and bursts at window boundaries are smoothed.
+ *  Since a permit also weighs on the following window, the limiter bounds the permits acquired per sliding window
+ *  rather than the number outstanding: an identifier at its limit can be refused for up to a window after its last
+ *  permit even if the resources that the permits guarded have already expired. Use the PermitLimiter to bound the
+ *  number outstanding instead.
+ *
+ *  Optionally, permits are leased in blocks for generous limits. The leased permits are counted in Redis up front and
+ *  then answered from memory until exhausted or until the window rolls over.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class RateLimiter implements MetricSet
+{
+	public static final int LEASE_FACTOR = 4;	// A block of leased permits may be at most a quarter of the limit.
+	public static final int LEASES_MAX = 10000;	// Maximum number of identifiers with leased permits.
+
+	/** KEYS: current window, previous window. ARGV: limit, window milliseconds, milliseconds elapsed in the current window, permits. */
+	public static final String ACQUIRE =
+		"local limit = tonumber(ARGV[1]) " +
+		"local window = tonumber(ARGV[2]) " +
+		"local elapsed = tonumber(ARGV[3]) " +
+		"local permits = tonumber(ARGV[4]) " +
+		"local current = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+		"local previous = tonumber(redis.call('GET', KEYS[2]) or '0') " +
+		"if math.floor(previous * (window - elapsed) / window) + current + permits > limit then return 0 end " +
+		"redis.call('INCRBY', KEYS[1], permits) " +
+		"redis.call('PEXPIRE', KEYS[1], window * 2) " +
+		"return permits";
+
+	/** KEYS: current window, previous window. Returns the permit to the previous window when the current window has none. */
+	public static final String RELEASE =
+		"for i = 1, 2 do " +
+		"local count = tonumber(redis.call('GET', KEYS[i]) or '0') " +
+		"if count > 1 then redis.call('DECR', KEYS[i]) return 1 end " +
+		"if count == 1 then redis.call('DEL', KEYS[i]) return 1 end " +
+		"end " +
+		"return 0";
+
+	public final String name;	// Prefix of the Redis keys.
+	public final long window;	// Milliseconds
+	public final int lease;	// Permits leased per round trip. One disables leasing.
+
+	private final RedisClient redis;
+	private final LocalCache<String, Lease> leases;
+	private final Meter allowed = new Meter();
+	private final Meter denied = new Meter();
+	private final Meter local = new Meter();
+	private final RedisScripts scripts = new RedisScripts();
+
+	/** Represents the leased permits of a single identifier for a single window. */
+	private static class Lease
+	{
+		public final long index;
+		public int remaining;
+
+		public Lease(final long index, final int remaining)
+		{
+			this.index = index;
+			this.remaining = remaining;
+		}
+	}
+
+	/** Populator.
+	 *
+	 * @param redis
+	 * @param name prefix of the Redis keys.
+	 * @param window milliseconds
+	 */
+	public RateLimiter(final RedisClient redis, final String name, final long window)
+	{
+		this(redis, name, window, 1);
+	}
+
+	/** Populator.
+	 *
+	 * @param redis
+	 * @param name prefix of the Redis keys.
+	 * @param window milliseconds
+	 * @param lease permits leased per round trip. One disables leasing.
+	 * @throws IllegalArgumentException if the window or lease is not positive.
+	 */
+	public RateLimiter(final RedisClient redis, final String name, final long window, final int lease) throws IllegalArgumentException
+	{
+		if (0L >= window) throw new IllegalArgumentException("The window must be greater than zero.");
+		if (0 >= lease) throw new IllegalArgumentException("The lease must be greater than zero.");
+
+		this.redis = redis;
+		this.name = name;
+		this.window = window;
+		this.lease = lease;
+		this.leases = (1 < lease) ? new LocalCache<>(LEASES_MAX, window) : null;
+	}
+
+	/** Gets the key of the current window. */
+	public String key(final String id) { return key(id, System.currentTimeMillis() / window); }
+	String key(final String id, final long index) { return name + ":" + id + ":" + index; }
+
+	/** Acquires a single permit.
+	 *
+	 * @param id identifier being limited.
+	 * @param limit maximum permits per sliding window.
+	 * @return TRUE if the permit was granted.
+	 */
+	public boolean acquire(final String id, final int limit) { return acquire(id, limit, System.currentTimeMillis()); }
+	boolean acquire(final String id, final int limit, final long now)
+	{
+		var index = now / window;
+		var size = leaseSize(limit);
+		if (1 < size)
+		{
+			var o = leases.get(id);
+			if ((null != o) && take(o, index))
+			{
+				local.mark();
+				allowed.mark();
+				return true;
+			}
+		}
+
+		return decide(redis.operation(j -> acquire(j, id, limit, size, now)), id, size, index);
+	}
+
+	/** Acquires a single permit with an existing connection. Permits are never leased.
+	 *
+	 * @param j
+	 * @param id identifier being limited.
+	 * @param limit maximum permits per sliding window.
+	 * @return TRUE if the permit was granted.
+	 */
+	public boolean acquire(final Jedis j, final String id, final int limit) { return acquire(j, id, limit, System.currentTimeMillis()); }
+	boolean acquire(final Jedis j, final String id, final int limit, final long now)
+	{
+		return decide(acquire(j, id, limit, 1, now), id, 1, now / window);
+	}
+
+	/** Returns a single permit. Used when the limited resource is freed before it expires, e.g. a confirmation code is
+	 *  redeemed. The permit is taken from the current window or, when the current window has none, from the previous
+	 *  window that still overlaps the sliding window.
+	 *
+	 * @param id
+	 */
+	public void release(final String id) { redis.operation(j -> { release(j, id); return null; }); }
+	public void release(final Jedis j, final String id) { release(j, id, System.currentTimeMillis()); }
+	void release(final Jedis j, final String id, final long now)
+	{
+		var index = now / window;
+		var keys = List.of(key(id, index), key(id, index - 1L));
+		if (redis.scripting())
+		{
+			scripts.eval(j, RELEASE, keys, List.of());
+			return;
+		}
+
+		synchronized (this)	// Non-atomic emulation for clients without Lua support.
+		{
+			for (var key : keys)
+			{
+				var count = count(j.get(key));
+				if (1L > count) continue;
+
+				if (1L < count) j.decr(key);
+				else j.del(key);
+
+				return;
+			}
+		}
+	}
+
+	/** Helper method - records the outcome and keeps any surplus permits of a lease. */
+	private boolean decide(final int granted, final String id, final int size, final long index)
+	{
+		if (0 >= granted)
+		{
+			denied.mark();
+			return false;
+		}
+
+		if (1 < granted) leases.put(id, new Lease(index, granted - 1));
+		allowed.mark();
+
+		return true;
+	}
+
+	/** Helper method - requests a block of permits and falls back to a single permit when the block does not fit. */
+	private int acquire(final Jedis j, final String id, final int limit, final int size, final long now)
+	{
+		var granted = acquireX(j, id, limit, size, now);
+		if ((0 == granted) && (1 < size)) granted = acquireX(j, id, limit, 1, now);
+
+		return granted;
+	}
+
+	/** Helper method - runs the sliding window check & increment. */
+	private int acquireX(final Jedis j, final String id, final int limit, final int permits, final long now)
+	{
+		var index = now / window;
+		var elapsed = now % window;
+		var current = key(id, index);
+		var previous = key(id, index - 1L);
+		if (redis.scripting())
+			return ((Number) scripts.eval(j, ACQUIRE, List.of(current, previous),
+				List.of(Integer.toString(limit), Long.toString(window), Long.toString(elapsed), Integer.toString(permits)))).intValue();
+
+		synchronized (this)	// Non-atomic emulation for clients without Lua support.
+		{
+			var count = count(j.get(current));
+			if (((count(j.get(previous)) * (window - elapsed)) / window) + count + permits > limit) return 0;
+
+			j.setex(current, (int) Math.max(1L, (window * 2L) / 1000L), Long.toString(count + permits));
+
+			return permits;
+		}
+	}
+
+	/** Helper method - gets the size of a block of leased permits for the specified limit. */
+	private int leaseSize(final int limit)
+	{
+		return (1 < lease) ? Math.max(1, Math.min(lease, limit / LEASE_FACTOR)) : 1;
+	}
+
+	/** Helper method - takes a leased permit if one remains in the current window. */
+	private boolean take(final Lease o, final long index)
+	{
+		synchronized (o)
+		{
+			if ((o.index != index) || (0 >= o.remaining)) return false;
+
+			o.remaining--;
+			return true;
+		}
+	}
+
+	/** Helper method - parses a counter value. */
+	private static long count(final String value) { return (null != value) ? Long.parseLong(value) : 0L; }
+
+	/** Gets the allowed, denied, and locally allowed decisions for registration with a MetricRegistry. */
+	@Override
+	public Map<String, Metric> getMetrics()
+	{
+		return Map.of(name(RateLimiter.class, name, "allowed"), allowed,
+			name(RateLimiter.class, name, "denied"), denied,
+			name(RateLimiter.class, name, "local"), local);
+	}
+
+	@Override
+	public String toString()
+	{
+		return new StringBuilder("{ name: ").append(name)
+			.append(", window: ").append(window)
+			.append(", lease: ").append(lease)
+			.append(", allowed: ").append(allowed.getCount())
+			.append(", denied: ").append(denied.getCount())
+			.append(", local: ").append(local.getCount())
+			.append(" }").toString();
+	}
+}
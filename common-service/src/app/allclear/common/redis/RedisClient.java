@@ -2,9 +2,17 @@ package app.allclear.common.redis;
 
 import java.io.Closeable;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.*;
+
+import org.slf4j.*;
 
 import redis.clients.jedis.*;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.SafeEncoder;
 
 import com.codahale.metrics.health.HealthCheck;
 
@@ -20,9 +28,20 @@ import app.allclear.redis.JedisConfig;
 
 public class RedisClient extends HealthCheck implements Closeable, Map<String, String>
 {
+	private static final Logger log = LoggerFactory.getLogger(RedisClient.class);
+
+	/** Represents the number of milliseconds to wait before re-establishing a failed subscription. */
+	public static final long SUBSCRIBE_RETRY = 1000L;
+
 	/** Represents the Redis failure code. */
 	public static final Long FAIL = Long.valueOf(0L);
 
+	/** Represents the default number of keys requested per SCAN call. */
+	public static final int SCAN_BATCH = 100;
+
+	/** Represents the format of a page cursor: the SCAN cursor optionally followed by the keys taken from its batch. */
+	private static final Pattern PATTERN_CURSOR = Pattern.compile("(\\d{1,20})(?:\\.(\\d{1,9}))?");
+
 	/** Represents the return value from the "remove" method if no keys were removed. */
 	public static final String EMPTY = "0";
 
@@ -86,14 +105,121 @@ public class RedisClient extends HealthCheck implements Closeable, Map<String, S
 	public boolean isEmpty() { return 0 == size(); }
 
 	@Override
-	public Set<String> keySet() { try (var cache = pool.getResource()) { return cache.keys("*"); } }
+	public Set<String> keySet() { return keys(""); }
+
+	/** Gets a set of keys by the specified search prefix. Iterates with SCAN instead of KEYS so the server is never blocked.
+	 *
+	 * @param startsWith wildcard search prefix.
+	 * @return never NULL
+	 */
+	public Set<String> keys(String startsWith) { return scan(startsWith, SCAN_BATCH).collect(Collectors.toSet()); }
+
+	/** Represents a single page of keys from a cursor-based scan. */
+	public static class KeyPage
+	{
+		public final List<String> keys;
+		public final String cursor;	// Opaque token of the next page. NULL on the last page.
+
+		public KeyPage(final List<String> keys, final String cursor)
+		{
+			this.keys = keys;
+			this.cursor = cursor;
+		}
+	}
+
+	/** Gets a single page of the keys that start with the prefix. Continues SCAN until the page is full or the keyspace
+	 *  is exhausted. The returned cursor pairs the SCAN cursor with the number of keys already taken from that batch,
+	 *  so no keys are skipped when a batch straddles two pages. Like SCAN, a key may appear on more than one page if
+	 *  the keyspace is resized between calls.
+	 *
+	 * @param prefix key prefix. Empty pages through every key.
+	 * @param cursor opaque token of the page from the prior call. NULL starts from the beginning.
+	 * @param pageSize maximum number of keys.
+	 * @return never NULL
+	 * @throws IllegalArgumentException if the cursor is invalid.
+	 */
+	public KeyPage page(final String prefix, final String cursor, final int pageSize) throws IllegalArgumentException
+	{
+		var scanCursor = ScanParams.SCAN_POINTER_START;
+		int skip = 0;
+		if (null != cursor)
+		{
+			var m = PATTERN_CURSOR.matcher(cursor);
+			if (!m.matches()) throw new IllegalArgumentException("The cursor '" + cursor + "' is invalid.");
+
+			scanCursor = m.group(1);
+			skip = (null != m.group(2)) ? Integer.parseInt(m.group(2)) : 0;
+		}
+
+		var keys = new ArrayList<String>(pageSize);
+		var params = new ScanParams().match(prefix + "*").count(Math.max(pageSize, SCAN_BATCH));
+		try (var cache = pool.getResource())
+		{
+			while (true)
+			{
+				var o = cache.scan(scanCursor, params);
+				var results = o.getResult();
+				var needed = pageSize - keys.size();
+				var from = Math.min(skip, results.size());
+				if (needed < (results.size() - from))	// The page ends within this batch.
+				{
+					keys.addAll(results.subList(from, from + needed));
+					return new KeyPage(keys, scanCursor + "." + (from + needed));
+				}
+
+				keys.addAll(results.subList(from, results.size()));
+				skip = 0;
+				scanCursor = o.getCursor();
+				if (ScanParams.SCAN_POINTER_START.equals(scanCursor)) return new KeyPage(keys, null);
+				if (keys.size() >= pageSize) return new KeyPage(keys, scanCursor);
+			}
+		}
+	}
+
+	/** Streams the keys that start with the prefix. Each batch is fetched with a single SCAN call on a connection that is
+	 *  returned to the pool before the batch is consumed, so the stream can be processed slowly without holding a
+	 *  connection or blocking the server. The stream is lazy: batches are only fetched as the stream is consumed.
+	 *  SCAN may return a key more than once, so the stream removes duplicates.
+	 *
+	 * @param prefix key prefix. Empty streams every key.
+	 * @param batch the COUNT hint of each SCAN call.
+	 * @return never NULL
+	 */
+	public Stream<String> scan(final String prefix, final int batch)
+	{
+		var params = new ScanParams().match(prefix + "*").count(batch);
+		var it = new Iterator<String>() {
+			private String cursor = ScanParams.SCAN_POINTER_START;
+			private Iterator<String> page = Collections.emptyIterator();
+			private boolean done = false;
+
+			@Override
+			public boolean hasNext()
+			{
+				while (!page.hasNext() && !done)	// A batch can be empty even though more keys follow.
+				{
+					ScanResult<String> o;
+					try (var cache = pool.getResource()) { o = cache.scan(cursor, params); }
+
+					cursor = o.getCursor();
+					done = ScanParams.SCAN_POINTER_START.equals(cursor);
+					page = o.getResult().iterator();
+				}
+
+				return page.hasNext();
+			}
+
+			@Override
+			public String next()
+			{
+				if (!hasNext()) throw new NoSuchElementException();
+
+				return page.next();
+			}
+		};
 
-    /** Gets a set of keys by the specified search prefix.
-     *
-     * @param startsWith wildcard search prefix.
-     * @return never NULL
-     */
-    public Set<String> keys(String startsWith) { try (var cache = pool.getResource()) { return cache.keys(startsWith + "*"); } }
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.NONNULL), false).distinct();
+	}
 
 	@Override
 	public String put(String key, String value) { try (var cache = pool.getResource()) { return cache.set(key, value); } }
@@ -109,6 +235,27 @@ public class RedisClient extends HealthCheck implements Closeable, Map<String, S
 		try (var cache = pool.getResource()) { return cache.setex(key, seconds, value); }
 	}
 
+	/** Gets a binary value.
+	 * 
+	 * @param key
+	 * @return NULL if not found.
+	 */
+	public byte[] getBytes(final String key)
+	{
+		try (var cache = pool.getResource()) { return cache.get(SafeEncoder.encode(key)); }
+	}
+
+	/** Put a binary value with an timeout.
+	 * 
+	 * @param key
+	 * @param value
+	 * @param seconds numbers later to expire the key/value pair.
+	 */
+	public String putBytes(final String key, final byte[] value, final int seconds)
+	{
+		try (var cache = pool.getResource()) { return cache.setex(SafeEncoder.encode(key), seconds, value); }
+	}
+
 	/** Sets a new expiration value for an existing key.
 	 * 
 	 * @param key
@@ -155,11 +302,7 @@ public class RedisClient extends HealthCheck implements Closeable, Map<String, S
 	@Override
 	public void putAll(Map<? extends String, ? extends String> newValues)
 	{
-		try (var cache = pool.getResource())
-		{
-			for (Map.Entry<? extends String, ? extends String> entry : newValues.entrySet())
-				cache.set(entry.getKey(), entry.getValue());
-		}
+		mset(newValues);
 	}
 
 	@Override
@@ -400,6 +543,195 @@ public class RedisClient extends HealthCheck implements Closeable, Map<String, S
 		try (var cache = pool.getResource()) { return fx.apply(cache); }
 	}
 
+	/** Runs the commands queued by the function in a single pipeline, i.e. one round trip. The function returns a
+	 *  supplier that reads its typed responses once the pipeline is synced.
+	 * 
+	 * @param <R>
+	 * @param fx queues the commands and returns the supplier of the result.
+	 * @return value of the supplier.
+	 */
+	public <R> R pipeline(final Function<Pipeline, Supplier<R>> fx)
+	{
+		try (var cache = pool.getResource())
+		{
+			var p = cache.pipelined();
+			var o = fx.apply(p);
+			p.sync();
+
+			return o.get();
+		}
+	}
+
+	/** Runs the commands queued by the function atomically in a MULTI/EXEC transaction. The function returns a
+	 *  supplier that reads its typed responses once the transaction is executed.
+	 * 
+	 * @param <R>
+	 * @param fx queues the commands and returns the supplier of the result.
+	 * @return value of the supplier.
+	 */
+	public <R> R transaction(final Function<Transaction, Supplier<R>> fx)
+	{
+		try (var cache = pool.getResource())
+		{
+			var t = cache.multi();
+			Supplier<R> o;
+			try { o = fx.apply(t); }
+			catch (final RuntimeException ex) { t.discard(); throw ex; }
+			t.exec();
+
+			return o.get();
+		}
+	}
+
+	/** Gets the values of multiple keys in one round trip.
+	 * 
+	 * @param keys
+	 * @return never NULL. Contains a NULL for each key that is not found in the same order as the keys.
+	 */
+	public List<String> mget(final Collection<String> keys)
+	{
+		if (keys.isEmpty()) return List.of();
+
+		try (var cache = pool.getResource()) { return cache.mget(keys.toArray(new String[keys.size()])); }
+	}
+
+	/** Gets the binary values of multiple keys in one round trip.
+	 * 
+	 * @param keys
+	 * @return never NULL. Contains a NULL for each key that is not found in the same order as the keys.
+	 */
+	public List<byte[]> mgetBytes(final Collection<String> keys)
+	{
+		if (keys.isEmpty()) return List.of();
+
+		try (var cache = pool.getResource()) { return cache.mget(keys.stream().map(SafeEncoder::encode).toArray(byte[][]::new)); }
+	}
+
+	/** Puts multiple key/value pairs in one round trip.
+	 * 
+	 * @param values
+	 */
+	public void mset(final Map<? extends String, ? extends String> values)
+	{
+		if (values.isEmpty()) return;
+
+		var o = new String[values.size() * 2];
+		int i = 0;
+		for (var e : values.entrySet())
+		{
+			o[i++] = e.getKey();
+			o[i++] = e.getValue();
+		}
+
+		try (var cache = pool.getResource()) { cache.mset(o); }
+	}
+
+	/** Puts multiple key/value pairs with the same timeout in one round trip.
+	 * 
+	 * @param values
+	 * @param seconds numbers later to expire the key/value pairs.
+	 */
+	public void mset(final Map<? extends String, ? extends String> values, final int seconds)
+	{
+		if (values.isEmpty()) return;
+
+		pipeline(p -> {
+			values.forEach((k, v) -> p.setex(k, seconds, v));
+			return () -> null;
+		});
+	}
+
+	/** Indicates that the server supports Lua scripts. Fake clients do NOT. */
+	public boolean scripting() { return true; }
+
+	/*******************************************************************************************************************
+	 * 
+	 * Pub/sub methods
+	 * 
+	 ******************************************************************************************************************/
+
+	/** Publishes a message to the specified channel.
+	 * 
+	 * @param channel
+	 * @param message
+	 * @return the number of subscribers that received the message.
+	 */
+	public long publish(final String channel, final String message)
+	{
+		try (var cache = pool.getResource()) { return cache.publish(channel, message); }
+	}
+
+	/** Subscribes to the specified channel. Subscriptions block a connection so each one runs on its own daemon thread
+	 *  and is re-established after connection failures until closed.
+	 * 
+	 * @param channel
+	 * @param fx receives each message.
+	 * @return the subscription which must be closed to stop receiving messages.
+	 */
+	public Subscription subscribe(final String channel, final Consumer<String> fx)
+	{
+		var o = new Subscription(channel, fx);
+		var t = new Thread(o, "redis-subscribe-" + channel);
+		t.setDaemon(true);
+		t.start();
+
+		return o;
+	}
+
+	/** Represents a single channel subscription. */
+	public class Subscription extends JedisPubSub implements Closeable, Runnable
+	{
+		public final String channel;
+		private final Consumer<String> fx;
+		private volatile boolean closed = false;
+
+		public boolean closed() { return closed; }
+
+		protected Subscription(final String channel, final Consumer<String> fx)
+		{
+			this.channel = channel;
+			this.fx = fx;
+		}
+
+		@Override
+		public void onMessage(final String channel, final String message)
+		{
+			if (!closed) fx.accept(message);
+		}
+
+		@Override
+		public void onSubscribe(final String channel, final int subscribedChannels)
+		{
+			if (closed) unsubscribe();	// Closed before the subscription was established.
+		}
+
+		@Override
+		public void run()
+		{
+			while (!closed)
+			{
+				try (var cache = pool.getResource())
+				{
+					cache.subscribe(this, channel);	// Blocks until unsubscribed.
+					return;
+				}
+				catch (final JedisException ex)
+				{
+					log.warn("SUBSCRIBE_FAILED: {} - {}", channel, ex.getMessage());
+					try { Thread.sleep(SUBSCRIBE_RETRY); }
+					catch (final InterruptedException iex) { return; }
+				}
+			}
+		}
+
+		@Override
+		public void close()
+		{
+			closed = true;
+			if (isSubscribed()) unsubscribe();
+		}
+	}
+
 	/*******************************************************************************************************************
 	 * 
 	 * HealthCheck methods
@@ -0,0 +1,27 @@
+package app.allclear.common.redis;
+
+/** Converts values to and from the binary representation stored in Redis.
+ * 
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ * @param <T> the value type.
+ */
+
+public interface RedisCodec<T>
+{
+	/** Converts the value to its stored representation.
+	 * 
+	 * @param value
+	 * @return never NULL.
+	 */
+	public byte[] encode(final T value);
+
+	/** Converts the stored representation back to a value.
+	 * 
+	 * @param value
+	 * @return NULL if the supplied value is NULL or empty.
+	 */
+	public T decode(final byte[] value);
+}
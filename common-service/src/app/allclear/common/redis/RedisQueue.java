@@ -1,13 +1,11 @@
 package app.allclear.common.redis;
 
-import java.io.*;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
 
-import app.allclear.common.task.TaskQueue;
-import app.allclear.common.task.TaskRequest;
+import app.allclear.common.task.*;
 
 /** Represents an in-memory Task Queue.
  * 
@@ -20,33 +18,42 @@ import app.allclear.common.task.TaskRequest;
 public class RedisQueue implements TaskQueue
 {
 	private final RedisClient client;
+	private final TaskCodec codec;
 
-	/** Populator.
+	/** Populator - stores requests with the EnvelopeTaskCodec.
 	 * 
 	 * @param client
 	 */
 	public RedisQueue(final RedisClient client)
+	{
+		this(client, new EnvelopeTaskCodec());
+	}
+
+	/** Populator.
+	 * 
+	 * @param client
+	 * @param codec converts requests to and from the queue entries.
+	 */
+	public RedisQueue(final RedisClient client, final TaskCodec codec)
 	{
 		this.client = client;
+		this.codec = codec;
 	}
 
 	@Override
 	public void pushTask(final String queueName, final TaskRequest<?> value)
 		throws Exception
 	{
-		// Use Java serialization instead of JSON because of the TaskRequest generics.
-		client.push(queueName, serialize(value));
+		client.push(queueName, codec.encode(value));
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public <T> TaskRequest<T> popTask(final String queueName, final Class<T> clazz)
 		throws Exception
 	{
-		// Use Java deserialization instead of JSON because of the TaskRequest generics.
 		var value = client.pop(queueName);
 		if (null != value)
-			return (TaskRequest<T>) deserialize(value);
+			return codec.decode(value, clazz);
 
 		return null;
 	}
@@ -64,7 +71,7 @@ public class RedisQueue implements TaskQueue
 		if (CollectionUtils.isEmpty(values))
 			return null;
 
-		return values.stream().map(v -> (TaskRequest<?>) deserialize(v)).collect(Collectors.toList());
+		return values.stream().map(v -> codec.decode(v)).collect(Collectors.toList());
 	}
 
 	@Override
@@ -75,11 +82,10 @@ public class RedisQueue implements TaskQueue
 		if (null == values)
 			return null;
 
-		return values.stream().map(v -> (TaskRequest<?>) deserialize(v)).collect(Collectors.toList());
+		return values.stream().map(v -> codec.decode(v)).collect(Collectors.toList());
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public <T> List<TaskRequest<T>> listRequests(final String queueName,
 		final Class<T> clazz) throws Exception
 	{
@@ -87,7 +93,7 @@ public class RedisQueue implements TaskQueue
 		if (CollectionUtils.isEmpty(values))
 			return null;
 
-		return values.stream().map(v -> (TaskRequest<T>) deserialize(v)).collect(Collectors.toList());
+		return values.stream().map(v -> codec.decode(v, clazz)).collect(Collectors.toList());
 	}
 
 	@Override
@@ -98,11 +104,10 @@ public class RedisQueue implements TaskQueue
 		if (CollectionUtils.isEmpty(values))
 			return false;
 
-		// Loop throug and, deserialize one at a time to compare the IDs. Most likely will NOT need to deserialize the entire list. DLS on 10/9/2015.
+		// Loop through and compare the IDs. The codec reads only the header so the request values are never decoded.
 		for (var value : values)
 		{
-			var request = (TaskRequest<?>) deserialize(value);
-			if (id.equals(request.id))
+			if (id.equals(codec.id(value)))
 			{
 				client.unqueue(queueName, value);
 				return true;
@@ -132,25 +137,4 @@ public class RedisQueue implements TaskQueue
 
 		return count;
 	}
-
-	/** Helper method - serialize the class to a String. */
-	private String serialize(final Serializable value) throws IOException
-	{
-		var out = new ByteArrayOutputStream();
-		(new ObjectOutputStream(out)).writeObject(value);
-
-		return Base64.getEncoder().encodeToString(out.toByteArray());
-	}
-
-	/** Helper method - deserialize a String to a class. */
-	private Object deserialize(final String value)
-	{
-		// Throw Runtime so that deserialize can be used within a Lambda.
-		try
-		{
-			return (new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(value)))).readObject();
-		}
-		catch (final IOException ex) { throw new RuntimeException(ex); }
-		catch (final ClassNotFoundException ex) { throw new RuntimeException(ex); }
-	}
 }
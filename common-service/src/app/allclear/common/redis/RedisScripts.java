@@ -0,0 +1,43 @@
+package app.allclear.common.redis;
+
+import java.util.*;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+/** Runs Lua scripts by their SHA1 digests and only sends a full script when Redis does not have it cached.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+class RedisScripts
+{
+	private final Map<String, String> shas = new HashMap<>(2);
+
+	/** Runs a script.
+	 *
+	 * @param j
+	 * @param script
+	 * @param keys
+	 * @param args
+	 * @return the script result.
+	 */
+	Object eval(final Jedis j, final String script, final List<String> keys, final List<String> args)
+	{
+		String sha;
+		synchronized (shas) { sha = shas.get(script); }
+		if (null != sha)
+		{
+			try { return j.evalsha(sha, keys, args); }
+			catch (final JedisNoScriptException ex) { /** Flushed or failed over - reload below. */ }
+		}
+
+		sha = j.scriptLoad(script);
+		synchronized (shas) { shas.put(script, sha); }
+
+		return j.evalsha(sha, keys, args);
+	}
+}
@@ -0,0 +1,62 @@
+package app.allclear.common.redis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.allclear.common.jackson.JacksonUtils;
+
+/** Redis codec that stores values in the compact binary Smile format prefixed with a version byte.
+ *  Legacy JSON values (starting with an open brace) are still readable so existing keys can migrate as they are rewritten.
+ * 
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ * @param <T> the value type.
+ */
+
+public class SmileCodec<T> implements RedisCodec<T>
+{
+	public static final byte VERSION = 1;
+	public static final byte JSON = '{';	// First byte of legacy JSON objects.
+
+	private final Class<T> clazz;
+	private final ObjectMapper mapper = JacksonUtils.createMapperSmile();
+	private final ObjectMapper json = JacksonUtils.createMapper();
+
+	public SmileCodec(final Class<T> clazz)
+	{
+		this.clazz = clazz;
+	}
+
+	@Override
+	public byte[] encode(final T value)
+	{
+		var o = new ByteArrayOutputStream(512);
+		o.write(VERSION);
+
+		try { mapper.writeValue(o, value); }
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+
+		return o.toByteArray();
+	}
+
+	@Override
+	public T decode(final byte[] value)
+	{
+		if ((null == value) || (0 == value.length)) return null;
+
+		try
+		{
+			switch (value[0])
+			{
+				case VERSION: return mapper.readValue(value, 1, value.length - 1, clazz);
+				case JSON: return json.readValue(value, clazz);
+				default: throw new IllegalArgumentException("The encoding version " + value[0] + " is not supported.");
+			}
+		}
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+	}
+}
@@ -0,0 +1,119 @@
+package app.allclear.common.task;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.allclear.common.jackson.JacksonUtils;
+
+/** Task codec that stores requests as a compact JSON header line followed by the JSON request value. The header carries
+ *  the identifier, tries, next run time, and value type so that metadata operations, such as finding a request by its
+ *  identifier, never decode the value. Compact JSON escapes line breaks so the first one always ends the header.
+ *
+ *  Entries that do not start with a header are treated as legacy Java serialized entries so that existing queues
+ *  drain after a deploy.
+ * 
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class EnvelopeTaskCodec implements TaskCodec
+{
+	public static final char SEPARATOR = '\n';
+	public static final char HEADER = '{';	// Base64 encoded legacy entries never start with an open brace.
+
+	/** Represents the request metadata that precedes the value. */
+	public static class Header
+	{
+		public final String id;
+		public final int tries;
+		public final Long nextRunAt;
+		public final String type;
+
+		public Header(@JsonProperty("id") final String id,
+			@JsonProperty("tries") final int tries,
+			@JsonProperty("nextRunAt") final Long nextRunAt,
+			@JsonProperty("type") final String type)
+		{
+			this.id = id;
+			this.tries = tries;
+			this.nextRunAt = nextRunAt;
+			this.type = type;
+		}
+	}
+
+	private final ObjectMapper mapper;
+	private final TaskCodec legacy = new JavaTaskCodec();
+
+	public EnvelopeTaskCodec() { this(JacksonUtils.createMapper()); }
+	public EnvelopeTaskCodec(final ObjectMapper mapper)
+	{
+		this.mapper = mapper;
+	}
+
+	@Override
+	public String encode(final TaskRequest<?> value)
+	{
+		var v = value.value;
+		try
+		{
+			return new StringBuilder(mapper.writeValueAsString(new Header(value.id, value.tries, value.nextRunAt, (null != v) ? v.getClass().getName() : null)))
+				.append(SEPARATOR)
+				.append(mapper.writeValueAsString(v))
+				.toString();
+		}
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+	}
+
+	@Override
+	public <T> TaskRequest<T> decode(final String value, final Class<T> clazz)
+	{
+		if (!enveloped(value)) return legacy.decode(value, clazz);
+
+		var i = value.indexOf(SEPARATOR);
+		var h = header(value, i);
+
+		return new TaskRequest<>(h.id, read(value, i, clazz), h.tries, h.nextRunAt);
+	}
+
+	@Override
+	public TaskRequest<?> decode(final String value)
+	{
+		if (!enveloped(value)) return legacy.decode(value);
+
+		var i = value.indexOf(SEPARATOR);
+		var h = header(value, i);
+		if (null == h.type) return new TaskRequest<>(h.id, null, h.tries, h.nextRunAt);
+
+		try { return new TaskRequest<>(h.id, read(value, i, Class.forName(h.type)), h.tries, h.nextRunAt); }
+		catch (final ClassNotFoundException ex) { throw new RuntimeException(ex); }
+	}
+
+	@Override
+	public String id(final String value)
+	{
+		return enveloped(value) ? header(value, value.indexOf(SEPARATOR)).id : legacy.id(value);
+	}
+
+	/** Helper method - indicates whether the entry starts with a header. */
+	private boolean enveloped(final String value) { return (0 < value.length()) && (HEADER == value.charAt(0)); }
+
+	/** Helper method - reads the header that ends at the separator. */
+	private Header header(final String value, final int separator)
+	{
+		if (0 > separator) throw new IllegalArgumentException("The task entry is missing its header separator.");
+
+		try { return mapper.readValue(value.substring(0, separator), Header.class); }
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+	}
+
+	/** Helper method - reads the value that follows the separator. */
+	private <T> T read(final String value, final int separator, final Class<T> clazz)
+	{
+		try { return mapper.readValue(value.substring(separator + 1), clazz); }
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+	}
+}
@@ -0,0 +1,54 @@
+package app.allclear.common.task;
+
+import java.io.*;
+import java.util.Base64;
+
+/** Task codec that stores requests with Base64 encoded Java serialization. Retained to read entries queued before
+ *  the EnvelopeTaskCodec was introduced.
+ * 
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class JavaTaskCodec implements TaskCodec
+{
+	@Override
+	public String encode(final TaskRequest<?> value)
+	{
+		try
+		{
+			var out = new ByteArrayOutputStream();
+			try (var o = new ObjectOutputStream(out)) { o.writeObject(value); }
+
+			return Base64.getEncoder().encodeToString(out.toByteArray());
+		}
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> TaskRequest<T> decode(final String value, final Class<T> clazz)
+	{
+		return (TaskRequest<T>) decode(value);
+	}
+
+	@Override
+	public TaskRequest<?> decode(final String value)
+	{
+		// Throw Runtime so that decode can be used within a Lambda.
+		try (var o = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(value))))
+		{
+			return (TaskRequest<?>) o.readObject();
+		}
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+		catch (final ClassNotFoundException ex) { throw new RuntimeException(ex); }
+	}
+
+	@Override
+	public String id(final String value)
+	{
+		return decode(value).id;	// The whole request must be deserialized.
+	}
+}
@@ -22,13 +22,25 @@ public class OperatorStats implements Serializable
 	public final int successes;
 	public final int skips;
 	public final int errors;
+	public final long pollInterval;	// Current milliseconds between polls of the queue. Grows while the queue is idle.
+
+	public OperatorStats(final String name,
+		final int queueSize,
+		final int dlqSize,
+		final int successes,
+		final int skips,
+		final int errors)
+	{
+		this(name, queueSize, dlqSize, successes, skips, errors, 0L);
+	}
 
 	public OperatorStats(@JsonProperty("name") final String name,
 		@JsonProperty("queueSize") final int queueSize,
 		@JsonProperty("dlqSize") final int dlqSize,
 		@JsonProperty("successes") final int successes,
 		@JsonProperty("skips") final int skips,
-		@JsonProperty("errors") final int errors)
+		@JsonProperty("errors") final int errors,
+		@JsonProperty("pollInterval") final long pollInterval)
 	{
 		this.name = name;
 		this.queueSize = queueSize;
@@ -36,6 +48,7 @@ public class OperatorStats implements Serializable
 		this.successes = successes;
 		this.skips = skips;
 		this.errors = errors;
+		this.pollInterval = pollInterval;
 	}
 
 	@Override
@@ -47,6 +60,7 @@ public class OperatorStats implements Serializable
 			.append(", successes: ").append(successes)
 			.append(", skips: ").append(skips)
 			.append(", errors: ").append(errors)
+			.append(", pollInterval: ").append(pollInterval)
 			.append(" }").toString();
 	}
 }
@@ -0,0 +1,110 @@
+package app.allclear.common.task;
+
+import java.util.*;
+
+/** Tracks when each task operator should next poll its queue. The interval doubles every time a poll comes back empty,
+ *  up to the maximum, and resets to the minimum as soon as a poll finds work. Idle queues are therefore polled
+ *  rarely while busy queues are drained without delay.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class PollScheduler
+{
+	public static final long FLOOR = 100L;	// Smallest backoff step in milliseconds when the minimum interval is zero.
+	public static final long MAX_DEFAULT = 30L * 1000L;	// Thirty seconds.
+	public static final long SLEEP_MAX = 1000L;	// Longest single sleep so that managers can exit promptly.
+
+	/** Represents the polling state of a single operator. */
+	private static class State
+	{
+		public long interval;
+		public long nextPollAt = 0L;
+
+		public State(final long interval) { this.interval = interval; }
+	}
+
+	public final long min;	// Interval in milliseconds after a poll finds work.
+	public final long max;	// Longest interval in milliseconds after consecutive empty polls.
+	private final Map<String, State> states = new HashMap<>();
+
+	/** Populator.
+	 *
+	 * @param min interval in milliseconds after a poll finds work.
+	 */
+	public PollScheduler(final long min)
+	{
+		this(min, Math.max(min, MAX_DEFAULT));
+	}
+
+	/** Populator.
+	 *
+	 * @param min interval in milliseconds after a poll finds work.
+	 * @param max longest interval in milliseconds after consecutive empty polls.
+	 * @throws IllegalArgumentException if the minimum is negative or greater than the maximum.
+	 */
+	public PollScheduler(final long min, final long max) throws IllegalArgumentException
+	{
+		if (0L > min) throw new IllegalArgumentException("The minimum interval cannot be negative.");
+		if (min > max) throw new IllegalArgumentException("The maximum interval must be at least the minimum interval.");
+
+		this.min = min;
+		this.max = max;
+	}
+
+	/** Indicates that the operator should poll now. Operators that have not polled yet are always due. */
+	public synchronized boolean due(final String name)
+	{
+		var o = states.get(name);
+
+		return (null == o) || (o.nextPollAt <= System.currentTimeMillis());
+	}
+
+	/** Records the outcome of a poll and schedules the next one.
+	 *
+	 * @param name operator name.
+	 * @param count number of requests processed by the poll.
+	 * @return the next interval in milliseconds.
+	 */
+	public synchronized long record(final String name, final int count)
+	{
+		var o = states.computeIfAbsent(name, k -> new State(min));
+		o.interval = (0 < count) ? min : Math.min(max, Math.max(o.interval * 2L, Math.max(min, FLOOR)));
+		o.nextPollAt = System.currentTimeMillis() + o.interval;
+
+		return o.interval;
+	}
+
+	/** Gets the current interval of the operator in milliseconds. Operators that have not polled yet use the minimum. */
+	public synchronized long interval(final String name)
+	{
+		var o = states.get(name);
+
+		return (null != o) ? o.interval : min;
+	}
+
+	/** Gets the milliseconds to wait until the next operator is due, capped by SLEEP_MAX.
+	 *
+	 * @param names operators to consider.
+	 * @return zero if an operator is already due.
+	 */
+	public synchronized long delay(final Collection<String> names)
+	{
+		var now = System.currentTimeMillis();
+		var next = now + SLEEP_MAX;
+		for (var name : names)
+		{
+			var o = states.get(name);
+			if (null == o) return 0L;
+			if (o.nextPollAt < next) next = o.nextPollAt;
+		}
+
+		return Math.max(0L, next - now);
+	}
+
+	/** Resets all the operators so that they poll immediately. */
+	public synchronized void reset() { states.clear(); }
+}
@@ -0,0 +1,41 @@
+package app.allclear.common.task;
+
+/** Converts task requests to and from the string entries stored by a TaskQueue.
+ * 
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public interface TaskCodec
+{
+	/** Converts the request to its stored representation.
+	 * 
+	 * @param value
+	 * @return never NULL.
+	 */
+	public String encode(final TaskRequest<?> value);
+
+	/** Converts the stored representation back to a request with a known value type.
+	 * 
+	 * @param value
+	 * @param clazz type of the request value.
+	 * @return never NULL.
+	 */
+	public <T> TaskRequest<T> decode(final String value, final Class<T> clazz);
+
+	/** Converts the stored representation back to a request whose value type is not known by the caller.
+	 * 
+	 * @param value
+	 * @return never NULL.
+	 */
+	public TaskRequest<?> decode(final String value);
+
+	/** Gets the request identifier from the stored representation. Implementations should avoid decoding the request value.
+	 * 
+	 * @param value
+	 * @return the request identifier.
+	 */
+	public String id(final String value);
+}
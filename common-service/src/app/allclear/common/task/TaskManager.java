@@ -57,7 +57,22 @@ public class TaskManager implements Managed, Runnable
 	/** Represents the duration that the thread should sleep between processing. */
 	public long getSleep() { return sleep; }
 	private long sleep = 0L;
-	public void setSleep(final long newValue) { sleep = newValue; }
+	public void setSleep(final long newValue) { sleep = newValue; scheduler = null; }
+
+	/** Represents the longest duration that the thread should wait between polls of an idle queue. */
+	public long getMaxSleep() { return maxSleep; }
+	private long maxSleep = PollScheduler.MAX_DEFAULT;
+	public TaskManager withMaxSleep(final long newValue) { maxSleep = newValue; scheduler = null; return this; }
+
+	/** Backs off the polling of idle queues. Rebuilt when the sleep settings change. */
+	private volatile PollScheduler scheduler = null;
+	PollScheduler scheduler()
+	{
+		var o = scheduler;
+		if (null == o) scheduler = o = new PollScheduler(sleep, Math.max(sleep, maxSleep));
+
+		return o;
+	}
 
 	/** Represents the number of threads available to process the queue items. */
 	public int getThreads() { return threads; }
@@ -167,10 +182,12 @@ public class TaskManager implements Managed, Runnable
 		{
 			try
 			{
-				process();
+				var count = poll();
 
-				// Give CPU a short break otherwise pegs the processor. DLS on 11/29/2016.
-				if (0L < sleep) Thread.sleep(sleep);
+				// Wait until the next queue is due. Idle queues back off so that they are polled less often.
+				var delay = scheduler().delay(operators.keySet());
+				if (0L < delay) Thread.sleep(delay);
+				else if (0 == count) Thread.sleep(PollScheduler.FLOOR);	// Due queues are busy on other threads.
 			}
 			catch (Throwable ex)	// Use Throwable to ensure that the thread never bombs out. DLS on 6/27/2016.
 			{
@@ -206,6 +223,36 @@ public class TaskManager implements Managed, Runnable
 		return count;
 	}
 
+	/** Processes the queues that are due to be polled and records their outcomes to adjust their poll intervals. */
+	public int poll() throws Exception
+	{
+		int count = 0;
+		var scheduler = scheduler();
+
+		for (var operator : operators.values())
+		{
+			// Check "available" property to ensure earliest possible exit when requested.
+			if (!available)
+				return count;
+
+			if (operator.available && scheduler.due(operator.name))
+			{
+				if (noSuffocating)
+					operator.available = false;
+
+				int processed = 0;
+				try { count+= (processed = process(operator, operator.clazz)); }
+				finally
+				{
+					operator.available = true;
+					scheduler.record(operator.name, processed);
+				}
+			}
+		}
+
+		return count;
+	}
+
 	/** Retrieves a list of Operator statistics. */
 	public List<OperatorStats> stats()
 	{
@@ -219,7 +266,7 @@ public class TaskManager implements Managed, Runnable
 			}
 			catch (final RuntimeException ex) { throw ex; }
 			catch (final Exception ex) { throw new RuntimeException(ex); }
-			return new OperatorStats(v.name, queueSize, dlqSize, v.successes, v.skips, v.errors);
+			return new OperatorStats(v.name, queueSize, dlqSize, v.successes, v.skips, v.errors, scheduler().interval(v.name));
 		})
 		.collect(Collectors.toList());
 	}
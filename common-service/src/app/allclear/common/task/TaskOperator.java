@@ -32,11 +32,13 @@ public class TaskOperator<T> implements Serializable
 	public int errors = 0;	// Represents the total number of errors that have occurred with this operation.
 	public int skips = 0;	// Represents the total number of skips that have occurred with this operation.
 	public boolean available = true;	// Indicates that the process is not yet taken by a background thread.
+	public int concurrency = 0;	// Represents the number of dedicated workers that process requests in parallel. Zero shares the manager's polling threads.
 
 	public long delayMS() { return (long) (delay * 1000); }	// Converted to milliseconds
 	public long maxDelayMS() { return (long) (maxDelay * 1000); }	// Converted to milliseconds
 
 	public TaskOperator<T> withAvailable(final boolean newValue) { available = newValue; return this; }	// Set to false to make unavailable for processing but available for reporting. DLS on 8/4/2017.
+	public TaskOperator<T> withConcurrency(final int newValue) { concurrency = newValue; return this; }
 
 	/** Populator.
 	 * 
@@ -3,6 +3,7 @@ package app.allclear.common.redis;
 import static org.fest.assertions.api.Assertions.assertThat;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.*;
 
 import org.junit.*;
@@ -352,4 +353,133 @@ public abstract class AbstractRedisClientTest
 		for (int i = 1; i <= 10; i+=2)
 			Assert.assertEquals("Check field_" + i, "value " + i, client.hash("hash:values", "field_" + i));
 	}
+
+	@Test
+	public void test_40_publish() throws Exception
+	{
+		var messages = new CopyOnWriteArrayList<String>();
+		try (var o = client.subscribe("channel:test", v -> messages.add(v)))
+		{
+			for (int i = 0; (i < 40) && messages.isEmpty(); i++)	// Real subscriptions are established asynchronously.
+			{
+				client.publish("channel:test", "first");
+				if (messages.isEmpty()) Thread.sleep(50L);
+			}
+			Assert.assertEquals("Check first", "first", messages.get(0));
+		}
+
+		messages.clear();
+		client.publish("channel:test", "second");
+		Thread.sleep(100L);
+		Assert.assertTrue("Check closed", messages.isEmpty());
+	}
+
+	@Test
+	public void test_50_mset()
+	{
+		client.mset(Map.of("batch:1", "one", "batch:2", "two"));
+		client.mset(Map.of("batch:3", "three"), 60);
+
+		Assert.assertEquals("Check batch:1", "one", client.get("batch:1"));
+		Assert.assertEquals("Check batch:2", "two", client.get("batch:2"));
+		Assert.assertEquals("Check batch:3", "three", client.get("batch:3"));
+		assertThat(client.ttl("batch:3")).as("Check batch:3 TTL").isGreaterThan(0L).isLessThanOrEqualTo(60L);
+	}
+
+	@Test
+	public void test_51_mget()
+	{
+		Assert.assertEquals("Check values", Arrays.asList("one", null, "three"), client.mget(List.of("batch:1", "batch:invalid", "batch:3")));
+		Assert.assertEquals("Check empty", List.of(), client.mget(List.of()));
+	}
+
+	@Test
+	public void test_52_pipeline()
+	{
+		var o = client.pipeline(p -> {
+			var a = p.incr("batch:counter");
+			p.expire("batch:counter", 60);
+			var b = p.get("batch:1");
+			return () -> a.get() + ":" + b.get();
+		});
+
+		Assert.assertEquals("Check result", "1:one", o);
+		assertThat(client.ttl("batch:counter")).as("Check TTL").isGreaterThan(0L).isLessThanOrEqualTo(60L);
+	}
+
+	@Test
+	public void test_53_transaction()
+	{
+		var o = client.transaction(t -> {
+			var a = t.incr("batch:counter");
+			t.del("batch:2");
+			var b = t.exists("batch:2");
+			return () -> a.get() + ":" + b.get();
+		});
+
+		Assert.assertEquals("Check result", "2:false", o);
+		Assert.assertFalse("Check batch:2", client.containsKey("batch:2"));
+	}
+
+	@Test
+	public void test_53_transaction_discard()
+	{
+		try
+		{
+			client.transaction(t -> { throw new IllegalStateException("Discard"); });
+			Assert.fail("Expected an exception");
+		}
+		catch (final IllegalStateException ex) { Assert.assertEquals("Check message", "Discard", ex.getMessage()); }
+
+		Assert.assertEquals("Check after", "one", client.get("batch:1"));
+	}
+
+	@Test
+	public void test_60_scan()
+	{
+		var expected = IntStream.range(0, 25).mapToObj(i -> "scan:" + i).collect(Collectors.toSet());
+		expected.forEach(k -> client.put(k, "value"));
+
+		Assert.assertEquals("Check keys", expected, client.scan("scan:", 5).collect(Collectors.toSet()));
+		Assert.assertEquals("Check count", 25L, client.scan("scan:", 5).count());
+		Assert.assertEquals("Check keys()", expected, client.keys("scan:"));
+		Assert.assertEquals("Check invalid", 0L, client.scan("invalid:", 5).count());
+		assertThat(client.keySet()).as("Check keySet").containsAll(expected);
+	}
+
+	@Test
+	public void test_61_page()
+	{
+		var expected = IntStream.range(0, 25).mapToObj(i -> "scan:" + i).collect(Collectors.toSet());
+		expected.forEach(k -> client.put(k, "value"));
+
+		var keys = new ArrayList<String>();
+		String cursor = null;
+		int pages = 0;
+		do
+		{
+			var o = client.page("scan:", cursor, 7);
+			assertThat(o.keys.size()).as("Check page size: " + pages).isLessThanOrEqualTo(7);
+			keys.addAll(o.keys);
+			cursor = o.cursor;
+			pages++;
+		}
+		while ((null != cursor) && (10 > pages));
+
+		Assert.assertNull("Check cursor", cursor);
+		Assert.assertEquals("Check keys", 25, keys.size());	// No duplicates while the keyspace is stable.
+		Assert.assertEquals("Check distinct keys", expected, new HashSet<>(keys));
+		Assert.assertEquals("Check all", expected, new HashSet<>(client.page("scan:", null, 100).keys));
+
+		var invalid = client.page("invalid:", null, 7);
+		assertThat(invalid.keys).as("Check invalid: keys").isEmpty();
+		Assert.assertNull("Check invalid: cursor", invalid.cursor);
+
+		try
+		{
+			client.page("scan:", "abc", 7);
+			Assert.fail("Check invalid cursor");
+		}
+		catch (final IllegalArgumentException ex) { Assert.assertEquals("Check invalid cursor", "The cursor 'abc' is invalid.", ex.getMessage()); }
+	}
 }
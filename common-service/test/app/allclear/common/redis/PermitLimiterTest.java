@@ -0,0 +1,114 @@
+package app.allclear.common.redis;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.*;
+
+import com.codahale.metrics.Meter;
+
+/** Unit test class that verifies the PermitLimiter.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class PermitLimiterTest
+{
+	protected static final long LIFETIME = 60L * 1000L;	// Long enough that the permits do NOT expire during the tests.
+
+	protected RedisClient redis = null;
+
+	/** Creates the client under test. Without Lua support, the limiter emulates its scripts. */
+	protected RedisClient createRedis() { return new FakeRedisClient(); }
+
+	@BeforeEach
+	public void up()
+	{
+		redis = createRedis();
+	}
+
+	@AfterEach
+	public void down()
+	{
+		redis.clear();
+	}
+
+	@Test
+	public void acquire()
+	{
+		var o = new PermitLimiter(redis, "test", LIFETIME);
+		Assertions.assertTrue(o.acquire("a", 2), "Check first");
+		Assertions.assertTrue(o.acquire("a", 2), "Check second");
+		Assertions.assertFalse(o.acquire("a", 2), "Check third");
+		Assertions.assertTrue(o.acquire("b", 2), "Check other");
+		Assertions.assertEquals("2", redis.get(o.key("a")), "Check count");
+
+		o.release("a");
+		Assertions.assertEquals("1", redis.get(o.key("a")), "Check released");
+		Assertions.assertTrue(o.acquire("a", 2), "Check after release");
+		Assertions.assertFalse(o.acquire("a", 2), "Check after release again");
+
+		Assertions.assertEquals(4L, meter(o, "allowed").getCount(), "Check allowed");
+		Assertions.assertEquals(2L, meter(o, "denied").getCount(), "Check denied");
+	}
+
+	@Test
+	public void acquire_connection()
+	{
+		var o = new PermitLimiter(redis, "test", LIFETIME);
+		Assertions.assertTrue(redis.operation(j -> o.acquire(j, "a", 1)), "Check first");
+		Assertions.assertFalse(redis.operation(j -> o.acquire(j, "a", 1)), "Check second");
+
+		redis.operation(j -> { o.release(j, "a"); return null; });
+		Assertions.assertFalse(redis.containsKey(o.key("a")), "Check released");
+	}
+
+	@Test
+	public void expiration()
+	{
+		var o = new PermitLimiter(redis, "test", LIFETIME);
+		Assertions.assertTrue(o.acquire("a", 3), "Check acquire");
+		Assertions.assertTrue(o.acquire("a", 3), "Check acquire again");
+
+		// The counter expires with the latest permit so that the limit lasts no longer than the permits.
+		assertThat(redis.ttl(o.key("a"))).as("Check ttl").isGreaterThan(0L).isLessThanOrEqualTo(LIFETIME / 1000L);
+
+		o.release("a");
+		assertThat(redis.ttl(o.key("a"))).as("Check ttl after release").isGreaterThan(0L).isLessThanOrEqualTo(LIFETIME / 1000L);
+	}
+
+	@Test
+	public void release_last()
+	{
+		var o = new PermitLimiter(redis, "test", LIFETIME);
+		Assertions.assertTrue(o.acquire("a", 1), "Check acquire");
+
+		o.release("a");
+		Assertions.assertFalse(redis.containsKey(o.key("a")), "Check removed");
+
+		o.release("a");
+		Assertions.assertFalse(redis.containsKey(o.key("a")), "Check release without permits");
+		Assertions.assertTrue(o.acquire("a", 1), "Check acquire after release");
+	}
+
+	@Test
+	public void testInvalid()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new PermitLimiter(redis, "test", 0L));
+	}
+
+	@Test
+	public void testMetrics()
+	{
+		assertThat(new PermitLimiter(redis, "test", LIFETIME).getMetrics().keySet()).containsOnly(
+			"app.allclear.common.redis.PermitLimiter.test.allowed",
+			"app.allclear.common.redis.PermitLimiter.test.denied");
+	}
+
+	private Meter meter(final PermitLimiter o, final String name)
+	{
+		return (Meter) o.getMetrics().get("app.allclear.common.redis.PermitLimiter.test." + name);
+	}
+}
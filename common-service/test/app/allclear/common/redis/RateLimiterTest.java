@@ -0,0 +1,202 @@
+package app.allclear.common.redis;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.*;
+
+import com.codahale.metrics.Meter;
+
+/** Unit test class that verifies the RateLimiter.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class RateLimiterTest
+{
+	protected static final long WINDOW = 60L * 1000L;	// Long enough that the tests do NOT cross a window.
+
+	protected RedisClient redis = null;
+
+	/** Creates the client under test. Without Lua support, the limiter emulates its scripts. */
+	protected RedisClient createRedis() { return new FakeRedisClient(); }
+
+	@BeforeEach
+	public void up()
+	{
+		redis = createRedis();
+	}
+
+	@AfterEach
+	public void down()
+	{
+		redis.clear();
+	}
+
+	@Test
+	public void acquire()
+	{
+		var o = new RateLimiter(redis, "test", WINDOW);
+		Assertions.assertTrue(o.acquire("a", 2), "Check first");
+		Assertions.assertTrue(o.acquire("a", 2), "Check second");
+		Assertions.assertFalse(o.acquire("a", 2), "Check third");
+		Assertions.assertTrue(o.acquire("b", 2), "Check other");
+		Assertions.assertEquals("2", redis.get(o.key("a")), "Check count");
+
+		o.release("a");
+		Assertions.assertEquals("1", redis.get(o.key("a")), "Check released");
+		Assertions.assertTrue(o.acquire("a", 2), "Check after release");
+		Assertions.assertFalse(o.acquire("a", 2), "Check after release again");
+
+		Assertions.assertEquals(4L, meter(o, "allowed").getCount(), "Check allowed");
+		Assertions.assertEquals(2L, meter(o, "denied").getCount(), "Check denied");
+		Assertions.assertEquals(0L, meter(o, "local").getCount(), "Check local");
+	}
+
+	@Test
+	public void acquire_previous()
+	{
+		var o = new RateLimiter(redis, "test", WINDOW);
+		var index = System.currentTimeMillis() / WINDOW;
+		redis.put(o.key("a", index - 1L), "1000000");	// The previous window still overlaps the sliding window.
+
+		Assertions.assertFalse(o.acquire("a", 10), "Check previous window");
+		Assertions.assertTrue(o.acquire("b", 10), "Check other");
+	}
+
+	@Test
+	public void lease()
+	{
+		var o = new RateLimiter(redis, "test", WINDOW, 5);
+		for (int i = 0; i < 5; i++) Assertions.assertTrue(o.acquire("a", 20), "Check acquire " + i);
+		Assertions.assertEquals("5", redis.get(o.key("a")), "Check leased block");
+		Assertions.assertEquals(4L, meter(o, "local").getCount(), "Check local");
+
+		Assertions.assertTrue(o.acquire("a", 20), "Check next block");
+		Assertions.assertEquals("10", redis.get(o.key("a")), "Check next leased block");
+	}
+
+	@Test
+	public void lease_partial()
+	{
+		var o = new RateLimiter(redis, "test", WINDOW, 5);
+		redis.put(o.key("a"), "18");
+
+		Assertions.assertTrue(o.acquire("a", 20), "Check single permit when the block does not fit");
+		Assertions.assertTrue(o.acquire("a", 20), "Check last permit");
+		Assertions.assertFalse(o.acquire("a", 20), "Check exhausted");
+		Assertions.assertEquals("20", redis.get(o.key("a")), "Check count");
+	}
+
+	@Test
+	public void lease_smallLimit()
+	{
+		var o = new RateLimiter(redis, "test", WINDOW, 5);
+		Assertions.assertTrue(o.acquire("a", 3), "Check acquire");
+		Assertions.assertEquals("1", redis.get(o.key("a")), "Check no lease below the factor");
+	}
+
+	@Test
+	public void release_last()
+	{
+		var o = new RateLimiter(redis, "test", WINDOW);
+		Assertions.assertTrue(o.acquire("a", 1), "Check acquire");
+
+		o.release("a");
+		Assertions.assertFalse(redis.containsKey(o.key("a")), "Check removed");
+
+		o.release("a");
+		Assertions.assertFalse(redis.containsKey(o.key("a")), "Check release without permits");
+	}
+
+	@Test
+	public void release_previous()
+	{
+		var o = new RateLimiter(redis, "test", WINDOW);
+		var index = System.currentTimeMillis() / WINDOW;
+		var start = index * WINDOW;
+		for (int i = 0; i < 3; i++) Assertions.assertTrue(o.acquire("a", 3, start + 54000L), "Check acquire " + i);
+
+		release(o, "a", start + 66000L);	// The current window is empty so the permit is returned to the previous window.
+		Assertions.assertEquals("2", redis.get(o.key("a", index)), "Check previous released");
+		Assertions.assertFalse(redis.containsKey(o.key("a", index + 1L)), "Check current");
+
+		Assertions.assertTrue(o.acquire("a", 3, start + 66000L), "Check after release");	// floor(2 * 0.9) + 0 + 1
+		Assertions.assertTrue(o.acquire("a", 3, start + 66000L), "Check after release again");	// floor(2 * 0.9) + 1 + 1
+		Assertions.assertFalse(o.acquire("a", 3, start + 66000L), "Check exhausted");
+
+		release(o, "a", start + 66000L);	// The current window is released first.
+		Assertions.assertEquals("1", redis.get(o.key("a", index + 1L)), "Check current released");
+		Assertions.assertEquals("2", redis.get(o.key("a", index)), "Check previous unchanged");
+	}
+
+	@Test
+	public void rollover()
+	{
+		var o = new RateLimiter(redis, "test", WINDOW);
+		var index = System.currentTimeMillis() / WINDOW;
+		var start = index * WINDOW;
+		for (int i = 0; i < 3; i++) Assertions.assertTrue(o.acquire("a", 3, start + 54000L), "Check first window " + i);
+		Assertions.assertFalse(o.acquire("a", 3, start + 54000L), "Check first window exhausted");
+
+		// Early in the next window, 90% of the previous window still overlaps: floor(3 * 0.9) = 2.
+		Assertions.assertTrue(o.acquire("a", 3, start + 66000L), "Check second window early");
+		Assertions.assertFalse(o.acquire("a", 3, start + 66000L), "Check second window early exhausted");
+
+		// Later in the next window, 30% of the previous window overlaps: floor(3 * 0.3) = 0.
+		Assertions.assertTrue(o.acquire("a", 3, start + 102000L), "Check second window late");
+		Assertions.assertTrue(o.acquire("a", 3, start + 102000L), "Check second window late again");
+		Assertions.assertFalse(o.acquire("a", 3, start + 102000L), "Check second window late exhausted");
+		Assertions.assertEquals("3", redis.get(o.key("a", index + 1L)), "Check second window count");
+
+		// Halfway through the third window: floor(3 * 0.5) = 1. The first window no longer counts.
+		Assertions.assertTrue(o.acquire("a", 3, start + 150000L), "Check third window");
+		Assertions.assertTrue(o.acquire("a", 3, start + 150000L), "Check third window again");
+		Assertions.assertFalse(o.acquire("a", 3, start + 150000L), "Check third window exhausted");
+		Assertions.assertEquals("2", redis.get(o.key("a", index + 2L)), "Check third window count");
+	}
+
+	@Test
+	public void rollover_lease()
+	{
+		var o = new RateLimiter(redis, "test", WINDOW, 5);
+		var index = System.currentTimeMillis() / WINDOW;
+		var start = index * WINDOW;
+		Assertions.assertTrue(o.acquire("a", 20, start + 54000L), "Check first window");
+		Assertions.assertEquals("5", redis.get(o.key("a", index)), "Check first window block");
+
+		Assertions.assertTrue(o.acquire("a", 20, start + 66000L), "Check second window");	// The leased permits expire with their window.
+		Assertions.assertEquals("5", redis.get(o.key("a", index + 1L)), "Check second window block");
+		Assertions.assertEquals(0L, meter(o, "local").getCount(), "Check local");
+	}
+
+	@Test
+	public void testInvalid()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new RateLimiter(redis, "test", 0L));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new RateLimiter(redis, "test", WINDOW, 0));
+	}
+
+	@Test
+	public void testMetrics()
+	{
+		assertThat(new RateLimiter(redis, "test", WINDOW).getMetrics().keySet()).containsOnly(
+			"app.allclear.common.redis.RateLimiter.test.allowed",
+			"app.allclear.common.redis.RateLimiter.test.denied",
+			"app.allclear.common.redis.RateLimiter.test.local");
+	}
+
+	/** Helper method - releases a permit at the specified time. */
+	private void release(final RateLimiter o, final String id, final long now)
+	{
+		redis.operation(j -> { o.release(j, id, now); return null; });
+	}
+
+	/** Helper method - gets a decision meter. */
+	private Meter meter(final RateLimiter o, final String name)
+	{
+		return (Meter) o.getMetrics().get("app.allclear.common.redis.RateLimiter.test." + name);
+	}
+}
@@ -0,0 +1,47 @@
+package app.allclear.common.redis;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
+
+import app.allclear.common.ThreadUtils;
+import app.allclear.junit.redis.RedisServerRule;
+import app.allclear.redis.JedisConfig;
+
+/** Functional test class that verifies the PermitLimiter Lua scripts against an embedded Redis server.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+@ExtendWith(DropwizardExtensionsSupport.class)
+public class RedisPermitLimiterTest extends PermitLimiterTest
+{
+	public static final RedisServerRule SERVER = new RedisServerRule();
+
+	@Override
+	protected RedisClient createRedis()
+	{
+		var o = new RedisClient(new JedisConfig("localhost", 6378, 200L, 5));
+		o.clear();	// Always start from scratch.
+
+		return o;
+	}
+
+	@Test
+	public void expired()
+	{
+		var o = new PermitLimiter(redis, "test", 500L);
+		for (int i = 0; i < 3; i++) Assertions.assertTrue(o.acquire("a", 3), "Check acquire " + i);
+		Assertions.assertFalse(o.acquire("a", 3), "Check limit");
+
+		ThreadUtils.sleep(700L);	// All the permits have expired.
+
+		Assertions.assertTrue(o.acquire("a", 3), "Check acquire after expiration");
+		Assertions.assertEquals("1", redis.get(o.key("a")), "Check count");
+	}
+}
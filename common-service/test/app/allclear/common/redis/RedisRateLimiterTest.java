@@ -0,0 +1,31 @@
+package app.allclear.common.redis;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
+
+import app.allclear.junit.redis.RedisServerRule;
+import app.allclear.redis.JedisConfig;
+
+/** Functional test class that verifies the RateLimiter Lua scripts against an embedded Redis server.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+@ExtendWith(DropwizardExtensionsSupport.class)
+public class RedisRateLimiterTest extends RateLimiterTest
+{
+	public static final RedisServerRule SERVER = new RedisServerRule();
+
+	@Override
+	protected RedisClient createRedis()
+	{
+		var o = new RedisClient(new JedisConfig("localhost", 6378, 200L, 5));
+		o.clear();	// Always start from scratch.
+
+		return o;
+	}
+}
@@ -0,0 +1,79 @@
+package app.allclear.common.redis;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+
+/** Unit test class that verifies the SmileCodec.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class SmileCodecTest
+{
+	public static class Value
+	{
+		public String id;
+		public Integer count;
+		public List<String> names;
+
+		public Value() {}
+		public Value(final String id, final Integer count, final List<String> names)
+		{
+			this.id = id;
+			this.count = count;
+			this.names = names;
+		}
+	}
+
+	private static final SmileCodec<Value> codec = new SmileCodec<>(Value.class);
+
+	@Test
+	public void decode()
+	{
+		var o = codec.decode(codec.encode(new Value("abc", 5, List.of("first", "second"))));
+
+		Assertions.assertEquals("abc", o.id, "Check id");
+		Assertions.assertEquals(5, o.count, "Check count");
+		Assertions.assertEquals(List.of("first", "second"), o.names, "Check names");
+	}
+
+	@Test
+	public void decode_json()
+	{
+		var o = codec.decode("{\"id\":\"def\",\"count\":7,\"extra\":true}".getBytes(UTF_8));
+
+		Assertions.assertEquals("def", o.id, "Check id");
+		Assertions.assertEquals(7, o.count, "Check count");
+		Assertions.assertNull(o.names, "Check names");
+	}
+
+	@Test
+	public void decode_empty()
+	{
+		Assertions.assertNull(codec.decode(null), "Check NULL");
+		Assertions.assertNull(codec.decode(new byte[0]), "Check empty");
+	}
+
+	@Test
+	public void decode_invalid()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[] { 9, 1, 2 }));
+	}
+
+	@Test
+	public void encode()
+	{
+		var json = new JsonCodec<>(Value.class);
+		var value = new Value("abc", 5, List.of("first", "second"));
+		var o = codec.encode(value);
+
+		Assertions.assertEquals(SmileCodec.VERSION, o[0], "Check version");
+		Assertions.assertTrue(o.length < json.encode(value).length, "Check smaller than JSON");
+	}
+}
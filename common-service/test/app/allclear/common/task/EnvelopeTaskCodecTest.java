@@ -0,0 +1,101 @@
+package app.allclear.common.task;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+
+/** Unit test class that verifies the EnvelopeTaskCodec.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class EnvelopeTaskCodecTest
+{
+	public static class Value implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		public String message;
+		public List<String> names;
+
+		public Value() {}
+		public Value(final String message, final List<String> names)
+		{
+			this.message = message;
+			this.names = names;
+		}
+	}
+
+	private static final EnvelopeTaskCodec codec = new EnvelopeTaskCodec();
+
+	private static TaskRequest<Value> request()
+	{
+		return new TaskRequest<>("abc\n123", new Value("First line\n{second line}", List.of("first", "second\nthird")), 3, 1000L);
+	}
+
+	private static void check(final TaskRequest<?> o)
+	{
+		var v = (Value) o.value;
+		Assertions.assertEquals("abc\n123", o.id, "Check id");
+		Assertions.assertEquals(3, o.tries, "Check tries");
+		Assertions.assertEquals(1000L, o.nextRunAt, "Check nextRunAt");
+		Assertions.assertEquals("First line\n{second line}", v.message, "Check value.message");
+		Assertions.assertEquals(List.of("first", "second\nthird"), v.names, "Check value.names");
+	}
+
+	@Test
+	public void decode()
+	{
+		check(codec.decode(codec.encode(request()), Value.class));
+	}
+
+	@Test
+	public void decode_untyped()
+	{
+		check(codec.decode(codec.encode(request())));
+	}
+
+	@Test
+	public void decode_legacy()
+	{
+		var value = new JavaTaskCodec().encode(request());
+
+		check(codec.decode(value, Value.class));
+		check(codec.decode(value));
+		Assertions.assertEquals("abc\n123", codec.id(value), "Check id");
+	}
+
+	@Test
+	public void decode_null()
+	{
+		var o = codec.decode(codec.encode(new TaskRequest<Value>("def", null)));
+		Assertions.assertEquals("def", o.id, "Check id");
+		Assertions.assertNull(o.value, "Check value");
+		Assertions.assertEquals(0, o.tries, "Check tries");
+		Assertions.assertNull(o.nextRunAt, "Check nextRunAt");
+	}
+
+	@Test
+	public void encode()
+	{
+		var value = codec.encode(request());
+		var header = value.substring(0, value.indexOf(EnvelopeTaskCodec.SEPARATOR));
+		Assertions.assertTrue(header.contains("\"id\":\"abc\\n123\""), "Check header.id: " + header);
+		Assertions.assertTrue(header.contains("\"tries\":3"), "Check header.tries: " + header);
+		Assertions.assertTrue(header.contains("\"nextRunAt\":1000"), "Check header.nextRunAt: " + header);
+		Assertions.assertTrue(header.contains("\"type\":\"" + Value.class.getName() + "\""), "Check header.type: " + header);
+		Assertions.assertTrue(value.length() < new JavaTaskCodec().encode(request()).length(), "Check smaller than legacy");
+	}
+
+	@Test
+	public void id()
+	{
+		Assertions.assertEquals("abc\n123", codec.id(codec.encode(request())), "Check encoded");
+		Assertions.assertEquals("ghi", codec.id("{\"id\":\"ghi\",\"tries\":0}\nnot a decodable value"), "Check value not decoded");
+		Assertions.assertThrows(IllegalArgumentException.class, () -> codec.id("{\"id\":\"ghi\"}"));
+	}
+}
@@ -0,0 +1,75 @@
+package app.allclear.common.task;
+
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+
+import app.allclear.common.ThreadUtils;
+
+/** Unit test class that verifies the PollScheduler.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class PollSchedulerTest
+{
+	@Test
+	public void backoff()
+	{
+		var o = new PollScheduler(0L, 1000L);
+		Assertions.assertTrue(o.due("a"), "Check due: before");
+		Assertions.assertEquals(0L, o.interval("a"), "Check interval: before");
+
+		Assertions.assertEquals(100L, o.record("a", 0), "Check record: first empty");
+		Assertions.assertEquals(200L, o.record("a", 0), "Check record: second empty");
+		Assertions.assertEquals(400L, o.record("a", 0), "Check record: third empty");
+		Assertions.assertEquals(800L, o.record("a", 0), "Check record: fourth empty");
+		Assertions.assertEquals(1000L, o.record("a", 0), "Check record: capped");
+		Assertions.assertEquals(1000L, o.interval("a"), "Check interval");
+		Assertions.assertFalse(o.due("a"), "Check due");
+
+		Assertions.assertEquals(0L, o.record("a", 5), "Check record: reset on work");
+		Assertions.assertTrue(o.due("a"), "Check due: after work");
+	}
+
+	@Test
+	public void backoff_min()
+	{
+		var o = new PollScheduler(250L);
+		Assertions.assertEquals(PollScheduler.MAX_DEFAULT, o.max, "Check max");
+		Assertions.assertEquals(250L, o.interval("a"), "Check interval: before");
+		Assertions.assertEquals(500L, o.record("a", 0), "Check record: first empty");
+		Assertions.assertEquals(250L, o.record("a", 1), "Check record: reset on work");
+	}
+
+	@Test
+	public void delay()
+	{
+		var o = new PollScheduler(0L, 60000L);
+		Assertions.assertEquals(0L, o.delay(List.of("a", "b")), "Check never polled");
+
+		for (int i = 0; i < 10; i++) o.record("a", 0);
+		o.record("b", 0);
+		Assertions.assertTrue(0L < o.delay(List.of("a", "b")), "Check waiting for b");
+		Assertions.assertTrue(100L >= o.delay(List.of("a", "b")), "Check b is next");
+		Assertions.assertTrue(PollScheduler.SLEEP_MAX >= o.delay(List.of("a")), "Check capped");
+
+		ThreadUtils.sleep(150L);
+		Assertions.assertEquals(0L, o.delay(List.of("a", "b")), "Check b is due");
+		Assertions.assertTrue(o.due("b"), "Check due: b");
+		Assertions.assertFalse(o.due("a"), "Check due: a");
+
+		o.reset();
+		Assertions.assertTrue(o.due("a"), "Check due: reset");
+	}
+
+	@Test
+	public void testInvalid()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new PollScheduler(-1L, 1000L));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new PollScheduler(1000L, 999L));
+	}
+}
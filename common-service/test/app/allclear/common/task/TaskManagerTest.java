@@ -384,6 +384,22 @@ public class TaskManagerTest
 		Assertions.assertEquals(8, onSuccess, "Check onSuccess");
 	}
 
+	@Test
+	public void testPoll() throws Exception
+	{
+		manager.turnOn();
+		Assertions.assertEquals(0, manager.poll(), "Check poll: empty");
+		Assertions.assertEquals(PollScheduler.FLOOR, manager.stats().get(0).pollInterval, "Check pollInterval: backed off");
+
+		addRequests();
+		Assertions.assertEquals(0, manager.poll(), "Check poll: not due yet");
+
+		ThreadUtils.sleep(PollScheduler.FLOOR + 50L);
+		Assertions.assertEquals(SIZE, manager.poll(), "Check poll: due");
+		Assertions.assertEquals(0L, manager.stats().get(0).pollInterval, "Check pollInterval: reset on work");
+		manager.turnOff();
+	}
+
 	@Test
 	public void testThrottling() throws Exception
 	{
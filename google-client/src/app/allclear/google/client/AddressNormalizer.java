@@ -0,0 +1,77 @@
+package app.allclear.google.client;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+/** Normalizes textual addresses into cache keys so that trivially different spellings of the same address share a
+ *  single geocode. Folds case, punctuation, and whitespace, canonicalizes the common USPS street suffix, unit, and
+ *  directional abbreviations, and replaces a trailing state name with its postal code.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class AddressNormalizer
+{
+	private static final Pattern PATTERN_PUNCTUATION = Pattern.compile("[.,;:#!?\"'()\\[\\]{}]");
+	private static final Pattern PATTERN_WHITESPACE = Pattern.compile("\\s+");
+
+	/** Full words to their USPS abbreviations. Only whole tokens are replaced. */
+	private static final Map<String, String> ABBREVIATIONS = Map.ofEntries(
+		Map.entry("alley", "aly"), Map.entry("avenue", "ave"), Map.entry("av", "ave"), Map.entry("boulevard", "blvd"),
+		Map.entry("circle", "cir"), Map.entry("court", "ct"), Map.entry("drive", "dr"), Map.entry("expressway", "expy"),
+		Map.entry("freeway", "fwy"), Map.entry("highway", "hwy"), Map.entry("lane", "ln"), Map.entry("parkway", "pkwy"),
+		Map.entry("place", "pl"), Map.entry("plaza", "plz"), Map.entry("road", "rd"), Map.entry("square", "sq"),
+		Map.entry("street", "st"), Map.entry("str", "st"), Map.entry("terrace", "ter"), Map.entry("trail", "trl"),
+		Map.entry("turnpike", "tpke"), Map.entry("apartment", "apt"), Map.entry("building", "bldg"), Map.entry("floor", "fl"),
+		Map.entry("room", "rm"), Map.entry("suite", "ste"),
+		Map.entry("north", "n"), Map.entry("south", "s"), Map.entry("east", "e"), Map.entry("west", "w"),
+		Map.entry("northeast", "ne"), Map.entry("northwest", "nw"), Map.entry("southeast", "se"), Map.entry("southwest", "sw"));
+
+	/** State names to their postal codes. */
+	private static final Map<String, String> STATES = Map.ofEntries(
+		Map.entry("alabama", "al"), Map.entry("alaska", "ak"), Map.entry("arizona", "az"), Map.entry("arkansas", "ar"),
+		Map.entry("california", "ca"), Map.entry("colorado", "co"), Map.entry("connecticut", "ct"), Map.entry("delaware", "de"),
+		Map.entry("district of columbia", "dc"), Map.entry("florida", "fl"), Map.entry("georgia", "ga"), Map.entry("hawaii", "hi"),
+		Map.entry("idaho", "id"), Map.entry("illinois", "il"), Map.entry("indiana", "in"), Map.entry("iowa", "ia"),
+		Map.entry("kansas", "ks"), Map.entry("kentucky", "ky"), Map.entry("louisiana", "la"), Map.entry("maine", "me"),
+		Map.entry("maryland", "md"), Map.entry("massachusetts", "ma"), Map.entry("michigan", "mi"), Map.entry("minnesota", "mn"),
+		Map.entry("mississippi", "ms"), Map.entry("missouri", "mo"), Map.entry("montana", "mt"), Map.entry("nebraska", "ne"),
+		Map.entry("nevada", "nv"), Map.entry("new hampshire", "nh"), Map.entry("new jersey", "nj"), Map.entry("new mexico", "nm"),
+		Map.entry("new york", "ny"), Map.entry("north carolina", "nc"), Map.entry("north dakota", "nd"), Map.entry("ohio", "oh"),
+		Map.entry("oklahoma", "ok"), Map.entry("oregon", "or"), Map.entry("pennsylvania", "pa"), Map.entry("puerto rico", "pr"),
+		Map.entry("rhode island", "ri"), Map.entry("south carolina", "sc"), Map.entry("south dakota", "sd"), Map.entry("tennessee", "tn"),
+		Map.entry("texas", "tx"), Map.entry("utah", "ut"), Map.entry("vermont", "vt"), Map.entry("virginia", "va"),
+		Map.entry("washington", "wa"), Map.entry("west virginia", "wv"), Map.entry("wisconsin", "wi"), Map.entry("wyoming", "wy"));
+
+	/** Matches a state name only at the end of the address or just before the trailing ZIP code, so that streets and
+	 *  cities named after states (e.g. "Washington Ave") are left alone. Longer names are tried first.
+	 */
+	private static final Pattern PATTERN_STATE = Pattern.compile("(?<![^ ])(" +
+		STATES.keySet().stream().sorted(Comparator.comparing(String::length).reversed()).collect(joining("|")) +
+		")(?=( \\d{5}(-\\d{4})?)?( usa?| united states)?$)");
+
+	/** Normalizes the address.
+	 *
+	 * @param address
+	 * @return empty if the address is NULL or blank.
+	 */
+	public static String normalize(final String address)
+	{
+		if (StringUtils.isBlank(address)) return "";
+
+		var value = PATTERN_PUNCTUATION.matcher(address.toLowerCase(Locale.ROOT)).replaceAll(" ");
+		value = PATTERN_WHITESPACE.matcher(value.trim()).replaceAll(" ");
+
+		var m = PATTERN_STATE.matcher(value);
+		if (m.find()) value = value.substring(0, m.start()) + STATES.get(m.group(1)) + value.substring(m.end());
+
+		return Arrays.stream(value.split(" ")).map(v -> ABBREVIATIONS.getOrDefault(v, v)).collect(joining(" "));
+	}
+}
@@ -1,6 +1,11 @@
 package app.allclear.google.client;
 
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static com.codahale.metrics.MetricRegistry.name;
+
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -10,17 +15,24 @@ import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.codahale.metrics.*;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.json.JsonReadFeature;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 
-import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 
+import app.allclear.common.cache.LocalCache;
+import app.allclear.common.cache.SingleFlight;
 import app.allclear.google.model.*;
 
 /** Jersey RESTful client that wraps the Google Maps endpoints.
+ *  Geocodes are cached in two tiers keyed by the normalized address: a bounded in-process cache of parsed responses
+ *  in front of Redis. Only the fields of the first result that the callers use are kept in either tier. Concurrent
+ *  misses of the same normalized address wait for a single lookup.
  * 
  * @author smalleyd
  * @version 1.0.55
@@ -29,7 +41,7 @@ import app.allclear.google.model.*;
  *
  */
 
-public class MapClient implements AutoCloseable
+public class MapClient implements AutoCloseable, MetricSet
 {
 	public static final String BASE_URL = "https://maps.googleapis.com/maps/api";
 	public static final String PATH_GEOCODE = "geocode";
@@ -37,6 +49,8 @@ public class MapClient implements AutoCloseable
 	public static final String FORMAT = "json";
 	public static final String GEOCODE_KEY = "geocode:%s";
 	public static final int GEOCODE_EXPIRATION = 30 * 24 * 60 * 60;	// 30 days in seconds.
+	public static final int CACHE_SIZE_DEFAULT = 1000;
+	public static final long CACHE_TTL = 60L * 60L * 1000L;	// One hour in-process.
 
 	public static final String PARAM_KEY = "key";
 	public static final String PARAM_ADDRESS = "address";
@@ -45,23 +59,43 @@ public class MapClient implements AutoCloseable
 		.enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS.mappedFeature())
 		.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
 		.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+	private static final ObjectMapper writer = new ObjectMapper()
+		.disable(MapperFeature.AUTO_DETECT_IS_GETTERS)	// Skips the isEmpty/isNotEmpty helpers.
+		.setSerializationInclusion(JsonInclude.Include.NON_NULL);
 
 	private final String key;
 	private final Client client;
 	private final JedisPool redis;
 	private final WebTarget geocode;
+	private final LocalCache<String, GeocodeResponse> cache;	// NULL when the in-process tier is disabled.
+	private final SingleFlight<String, GeocodeResponse> flights = new SingleFlight<>();
 	private final AtomicInteger geocodeCacheHits = new AtomicInteger(0);
+	private final Meter localHits = new Meter();
+	private final Meter localMisses = new Meter();
+	private final Meter redisHits = new Meter();
+	private final Meter redisMisses = new Meter();
 
 	public Long cacheSize() { try (var j = redis.getResource()) { return j.dbSize(); } }
-	public int geocodeCacheHits() { return geocodeCacheHits.get(); }
+	public int geocodeCacheHits() { return geocodeCacheHits.get(); }	// Hits from either tier.
+	public long geocodeShared() { return flights.shared(); }	// Callers that waited on another caller's lookup.
 
 	public MapClient(final JedisPool redis) { this(System.getenv(KEY), redis); }	// Construct with key in environment variable.
-	public MapClient(final String key, final JedisPool redis)
+	public MapClient(final String key, final JedisPool redis) { this(key, redis, CACHE_SIZE_DEFAULT); }
+
+	/** Populator.
+	 *
+	 * @param key Google Maps API key.
+	 * @param redis pool of the shared geocode cache.
+	 * @param cacheSize maximum number of geocodes held in-process. Zero disables the in-process tier.
+	 * @throws IllegalArgumentException if the key is missing.
+	 */
+	public MapClient(final String key, final JedisPool redis, final int cacheSize) throws IllegalArgumentException
 	{
 		this.key = StringUtils.trimToNull(key);
 		if (null == this.key) throw new IllegalArgumentException("The key is required.");
 
 		this.redis = redis;
+		this.cache = (0 < cacheSize) ? new LocalCache<>(cacheSize, CACHE_TTL) : null;
 		this.client = ClientBuilder.newBuilder()
 			.connectTimeout(20L, TimeUnit.SECONDS)
 			.readTimeout(20L, TimeUnit.SECONDS)
@@ -76,7 +110,7 @@ public class MapClient implements AutoCloseable
 		this.client.close();
 	}
 
-	/** Sends a textual address to Google Maps API to geocode.
+	/** Sends a textual address to Google Maps API to geocode. Checks the in-process tier and then Redis first.
 	 * 
 	 * @param address
 	 * @return never NULL
@@ -84,20 +118,73 @@ public class MapClient implements AutoCloseable
 	 */
 	public GeocodeResponse geocode(final String address) throws MapException
 	{
+		var normalized = AddressNormalizer.normalize(address);
+		if (null != cache)
+		{
+			var o = cache.get(normalized);
+			if (null != o)
+			{
+				localHits.mark();
+				geocodeCacheHits.incrementAndGet();
+
+				return o;
+			}
+
+			localMisses.mark();
+		}
+
+		return flights.execute(normalized, () -> load(address, normalized));	// Concurrent misses of the same address share one lookup.
+	}
+
+	/** Helper method - geocodes the address from Redis or else from Google, and caches it in both tiers. */
+	private GeocodeResponse load(final String address, final String normalized) throws MapException
+	{
+		var key = String.format(GEOCODE_KEY, normalized);
 		try (var j = redis.getResource())
 		{
-			var key = String.format(GEOCODE_KEY, address.toLowerCase());
 			var v = j.get(key);
 			if (StringUtils.isNotEmpty(v))
 			{
-				var o = toJSON(v, GeocodeResponse.class);
+				redisHits.mark();
 				geocodeCacheHits.incrementAndGet();
 
-				return o;
+				return local(normalized, compact(toJSON(v, GeocodeResponse.class)));	// Compacts entries stored before the compact form.
 			}
 
-			return response(request(geocode.queryParam(PARAM_ADDRESS, address)).get(), GeocodeResponse.class, key, j);
+			redisMisses.mark();
 		}
+
+		var o = compact(response(request(geocode.queryParam(PARAM_ADDRESS, address)).get(), GeocodeResponse.class));	// Redis connection is NOT held during the call.
+		try (var j = redis.getResource()) { j.setex(key, GEOCODE_EXPIRATION, toJSON(o)); }
+
+		return local(normalized, o);
+	}
+
+	/** Reduces the response to the fields of the first result that the callers use: the formatted address, the
+	 *  street number, route, city, county, state, country, & postal code components, and the location.
+	 *
+	 * @param value
+	 * @return never NULL
+	 */
+	public static GeocodeResponse compact(final GeocodeResponse value)
+	{
+		if (value.isEmpty()) return new GeocodeResponse(value.status, List.of(), value.errorMessage);
+
+		var o = value.results.get(0);
+		var components = (null != o.addressComponents) ?
+			o.addressComponents.stream()
+				.filter(v -> v.streetNumber() || v.streetName() || v.city() || v.county() || v.state() || v.country() || v.postalCode())
+				.collect(toUnmodifiableList()) : null;
+		var geometry = (null != o.geometry) ? new Geometry(o.geometry.location, null, null) : null;
+
+		return new GeocodeResponse(value.status, List.of(new GeocodeResult(components, o.formattedAddress, geometry, null, null, null)), value.errorMessage);
+	}
+
+	private GeocodeResponse local(final String normalized, final GeocodeResponse value)
+	{
+		if (null != cache) cache.put(normalized, value);
+
+		return value;
 	}
 
 	private Invocation.Builder request(final WebTarget target) throws MapException
@@ -105,7 +192,7 @@ public class MapClient implements AutoCloseable
 		return target.queryParam(PARAM_KEY, key).request(MediaType.APPLICATION_JSON_TYPE);
 	}
 
-	private <T extends MapResponse> T response(final Response response, final Class<T> clazz, final String key, final Jedis jedis) throws MapException
+	private <T extends MapResponse> T response(final Response response, final Class<T> clazz) throws MapException
 	{
 		int status = response.getStatus();
 		var payload = response.readEntity(String.class);
@@ -114,14 +201,29 @@ public class MapClient implements AutoCloseable
 		var o = toJSON(payload, clazz);
 		if (!(o.ok() || o.zeroResults())) throw new MapException(status, o.status, o.errorMessage);
 
-		jedis.setex(key, GEOCODE_EXPIRATION, payload);
-
 		return o;
 	}
 
+	private String toJSON(final Object value)
+	{
+		try { return writer.writeValueAsString(value); }
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+	}
+
 	private <T extends MapResponse> T toJSON(final String payload, final Class<T> clazz)
 	{
 		try { return mapper.readValue(payload, clazz); }
 		catch (final IOException ex) { throw new RuntimeException(ex); }
 	}
+
+	/** Gets the hits & misses of each cache tier and the shared lookups for registration with a MetricRegistry. */
+	@Override
+	public Map<String, Metric> getMetrics()
+	{
+		return Map.of(name(MapClient.class, "geocode", "local", "hits"), localHits,
+			name(MapClient.class, "geocode", "local", "misses"), localMisses,
+			name(MapClient.class, "geocode", "redis", "hits"), redisHits,
+			name(MapClient.class, "geocode", "redis", "misses"), redisMisses,
+			name(MapClient.class, "geocode", "shared"), (Gauge<Long>) flights::shared);
+	}
 }
@@ -0,0 +1,43 @@
+package app.allclear.google.client;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Unit test class that verifies the AddressNormalizer.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class AddressNormalizerTest
+{
+	public static Stream<Arguments> normalize()
+	{
+		return Stream.of(arguments(null, ""),
+			arguments("   ", ""),
+			arguments("924 Willow Ave, Hoboken, NJ", "924 willow ave hoboken nj"),
+			arguments("924  WILLOW   Avenue.,Hoboken , New Jersey", "924 willow ave hoboken nj"),
+			arguments("123 Main St.", "123 main st"),
+			arguments("123  main street", "123 main st"),
+			arguments("100 North Washington Blvd., Suite #5, Seattle, Washington 98101", "100 n washington blvd ste 5 seattle wa 98101"),
+			arguments("1 West Virginia Ave, Charleston, West Virginia 25301-1234, USA", "1 w virginia ave charleston wv 25301-1234 usa"),
+			arguments("20200 54th Ave W, Lynnwood, WA 98036", "20200 54th ave w lynnwood wa 98036"),
+			arguments("5 Court Rd, Hartford, Connecticut", "5 ct rd hartford ct"),
+			arguments("New York Ave, Newark", "new york ave newark"));	// State names within the street are left alone.
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void normalize(final String address, final String expected)
+	{
+		Assertions.assertEquals(expected, AddressNormalizer.normalize(address));
+	}
+}
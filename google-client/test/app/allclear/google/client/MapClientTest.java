@@ -4,6 +4,8 @@ import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.concurrent.*;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.*;
@@ -11,6 +13,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import com.codahale.metrics.Meter;
+
+import app.allclear.google.model.GeocodeResponse;
 import app.allclear.redis.FakeJedisPool;
 
 /** Functional test class that verifies the MapClient component.
@@ -25,19 +30,20 @@ import app.allclear.redis.FakeJedisPool;
 @TestMethodOrder(MethodOrderer.Alphanumeric.class)
 public class MapClientTest
 {
-	private static final MapClient client = new MapClient(new FakeJedisPool());
+	private static final FakeJedisPool pool = new FakeJedisPool();
+	private static final MapClient client = new MapClient(pool);
 
 	public static Stream<Arguments> success()
 	{
-		// Alternates for the cache.
+		// Alternates normalize to the same key so only the first costs a Google call.
 		return Stream.of(arguments("924 Willow Ave, Hoboken, NJ", 0, 1L),
 			arguments("924 willow ave, hoboken, nj", 1, 1L),
 			arguments("924 WILLOW AVE, HOBOKEN, NJ", 2, 1L),
-			arguments("924 willow ave, hoboken, new jersey", 2, 2L),
-			arguments("924 willow avenue, hoboken, nj", 2, 3L),
-			arguments("924 Willow AVE, Hoboken, NJ", 3, 3L),
-			arguments("924 willow ave, hoboken, New Jersey", 4, 3L),
-			arguments("924 willow avenue, hoboken, nj", 5, 3L));
+			arguments("924 willow ave, hoboken, new jersey", 3, 1L),
+			arguments("924 willow avenue, hoboken, nj", 4, 1L),
+			arguments("924 Willow AVE., Hoboken,  NJ", 5, 1L),
+			arguments("924 willow ave, hoboken, New Jersey", 6, 1L),
+			arguments("924 willow avenue hoboken nj", 7, 1L));
 	}
 
 	@Test
@@ -82,7 +88,54 @@ public class MapClientTest
 	@Test
 	public void success_00_check()
 	{
-		Assertions.assertEquals(4L, client.cacheSize(), "Check cacheSize");
-		Assertions.assertEquals(5, client.geocodeCacheHits());	// No change
+		Assertions.assertEquals(2L, client.cacheSize(), "Check cacheSize");
+		Assertions.assertEquals(7, client.geocodeCacheHits());	// No change
+		Assertions.assertEquals(7L, count("local.hits"), "Check local.hits");
+		Assertions.assertEquals(2L, count("local.misses"), "Check local.misses");
+		Assertions.assertEquals(0L, count("redis.hits"), "Check redis.hits");
+		Assertions.assertEquals(2L, count("redis.misses"), "Check redis.misses");
+	}
+
+	@Test
+	public void success_01_redis()
+	{
+		try (var o = new MapClient(System.getenv(MapClient.KEY), pool, 0))	// Shares the Redis tier only.
+		{
+			assertThat(o.geocode("924 Willow Avenue, Hoboken, New Jersey").results).as("Check results").hasSize(1);
+			Assertions.assertEquals(1, o.geocodeCacheHits(), "Check geocodeCacheHits");
+			Assertions.assertEquals(2L, client.cacheSize(), "Check cacheSize");
+		}
+	}
+
+	@Test
+	public void success_02_concurrent() throws Exception
+	{
+		var executor = Executors.newFixedThreadPool(8);
+		try (var o = new MapClient(System.getenv(MapClient.KEY), pool, 0))
+		{
+			var futures = new ArrayList<Future<GeocodeResponse>>();
+			for (int i = 0; i < 8; i++) futures.add(executor.submit(() -> o.geocode("1600 Pennsylvania Avenue NW, Washington, DC")));
+			for (var f : futures) Assertions.assertTrue(f.get(30L, TimeUnit.SECONDS).ok(), "Check ok");
+
+			Assertions.assertEquals(1L, ((Meter) o.getMetrics().get("app.allclear.google.client.MapClient.geocode.redis.misses")).getCount(), "Check Google calls");	// The rest shared the call or hit Redis.
+			Assertions.assertEquals(3L, client.cacheSize(), "Check cacheSize");
+		}
+		finally { executor.shutdownNow(); }
+	}
+
+	@Test
+	public void testMetrics()
+	{
+		assertThat(client.getMetrics().keySet()).containsOnly(
+			"app.allclear.google.client.MapClient.geocode.local.hits",
+			"app.allclear.google.client.MapClient.geocode.local.misses",
+			"app.allclear.google.client.MapClient.geocode.redis.hits",
+			"app.allclear.google.client.MapClient.geocode.redis.misses",
+			"app.allclear.google.client.MapClient.geocode.shared");
+	}
+
+	private long count(final String name)
+	{
+		return ((Meter) client.getMetrics().get("app.allclear.google.client.MapClient.geocode." + name)).getCount();
 	}
 }
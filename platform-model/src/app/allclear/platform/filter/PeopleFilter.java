@@ -101,6 +101,7 @@ public class PeopleFilter extends QueryFilter
 	public String visibilityConditions = null;
 	public String visibilityExposures = null;
 	public String visibilitySymptoms = null;
+	public Boolean includeChildren = null;	// Populates the conditions, exposures, symptoms, & favorite facilities of each record.
 
 	// Mutators
 	public PeopleFilter withId(final String newValue) { id = newValue; return this; }
@@ -189,6 +190,8 @@ public class PeopleFilter extends QueryFilter
 	public PeopleFilter withVisibilityConditions(final String newValue) { visibilityConditions = newValue; return this; }
 	public PeopleFilter withVisibilityExposures(final String newValue) { visibilityExposures = newValue; return this; }
 	public PeopleFilter withVisibilitySymptoms(final String newValue) { visibilitySymptoms = newValue; return this; }
+	public PeopleFilter withIncludeChildren(final Boolean newValue) { includeChildren = newValue; return this; }
+	public boolean includeChildren() { return Boolean.TRUE.equals(includeChildren); }
 
 	public PeopleFilter notAdmin()	// NULLing admin-only filter fields.
 	{
@@ -22,10 +22,18 @@ public class AlertInitRequest implements Serializable
 	private static final long serialVersionUID = 1L;
 
 	public final String timezoneId;
+	public final String lastId;	// Resumes the timezone after this person. NULL starts from the beginning.
 
-	public AlertInitRequest(@JsonProperty("timezoneId") final String timezoneId)
+	public AlertInitRequest(final String timezoneId)
+	{
+		this(timezoneId, null);
+	}
+
+	public AlertInitRequest(@JsonProperty("timezoneId") final String timezoneId,
+		@JsonProperty("lastId") final String lastId)
 	{
 		this.timezoneId = StringUtils.trimToNull(timezoneId);
+		this.lastId = StringUtils.trimToNull(lastId);
 	}
 
 	@Override
@@ -34,11 +42,12 @@ public class AlertInitRequest implements Serializable
 		if (!(o instanceof AlertInitRequest)) return false;
 
 		var v = (AlertInitRequest) o;
-		return Objects.equals(timezoneId, v.timezoneId);
+		return Objects.equals(timezoneId, v.timezoneId) &&
+			Objects.equals(lastId, v.lastId);
 	}
 
 	@Override
-	public int hashCode() { return Objects.hashCode(timezoneId); }
+	public int hashCode() { return Objects.hash(timezoneId, lastId); }
 
 	@Override
 	public String toString() { return ObjectUtils.toString(this); }
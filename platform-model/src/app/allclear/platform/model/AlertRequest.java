@@ -1,13 +1,15 @@
 package app.allclear.platform.model;
 
 import java.io.Serializable;
-import java.util.Objects;
+import java.util.*;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import app.allclear.common.ObjectUtils;
 
 /** Value object that represents a request to run the Facility Alert task for the specific user.
+ *  Can also carry a batch of users so that the Alert-Init task sends one message per batch instead of one per user.
  * 
  * @author smalleyd
  * @version 1.0.109
@@ -20,10 +22,37 @@ public class AlertRequest implements Serializable
 	private static final long serialVersionUID = 1L;
 
 	public final String personId;
+	public final List<String> personIds;
 
-	public AlertRequest(@JsonProperty("personId") final String personId)
+	/** Gets all the users of the request whether single or batched. */
+	public List<String> personIds()
+	{
+		if (null == personIds) return (null != personId) ? List.of(personId) : List.of();
+		if (null == personId) return personIds;
+
+		var o = new ArrayList<String>(personIds.size() + 1);
+		o.add(personId);
+		o.addAll(personIds);
+
+		return o;
+	}
+
+	public AlertRequest(final String personId)
+	{
+		this(personId, null);
+	}
+
+	public AlertRequest(final List<String> personIds)
+	{
+		this(null, personIds);
+	}
+
+	@JsonCreator
+	public AlertRequest(@JsonProperty("personId") final String personId,
+		@JsonProperty("personIds") final List<String> personIds)
 	{
 		this.personId = personId;
+		this.personIds = personIds;
 	}
 
 	@Override
@@ -32,11 +61,11 @@ public class AlertRequest implements Serializable
 		if (!(o instanceof AlertRequest)) return false;
 
 		var v = (AlertRequest) o;
-		return Objects.equals(personId, v.personId);
+		return Objects.equals(personId, v.personId) && Objects.equals(personIds, v.personIds);
 	}
 
 	@Override
-	public int hashCode() { return Objects.hashCode(personId); }
+	public int hashCode() { return Objects.hash(personId, personIds); }
 
 	@Override
 	public String toString() { return ObjectUtils.toString(this); }
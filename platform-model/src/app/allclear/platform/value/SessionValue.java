@@ -59,6 +59,15 @@ public class SessionValue implements Serializable
 		return this;
 	}
 
+	// Copies the session with its own timestamps so that a shared instance is never mutated by accessed().
+	public SessionValue copy()
+	{
+		return new SessionValue(id, rememberMe, duration, admin, person, customer, registration,
+			(null != expiresAt) ? new Date(expiresAt.getTime()) : null,
+			(null != lastAccessedAt) ? new Date(lastAccessedAt.getTime()) : null,
+			createdAt);
+	}
+
 	// Promotes an existing Registration session into a Person session.
 	public SessionValue promote(final boolean rememberMe, final PeopleValue person)
 	{
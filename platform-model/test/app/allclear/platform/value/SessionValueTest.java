@@ -344,4 +344,28 @@ public class SessionValueTest
 		assertThat(o.accessed().expiresAt).as("Check accessed: expiresAt").isAfter(expiresAt);
 		assertThat(o.accessed().lastAccessedAt).as("Check accessed: lastAccessedAt").isAfter(lastAccessedAt);
 	}
+
+	@Test
+	public void copy()
+	{
+		var o = new SessionValue(true, new AdminValue("randy", false));
+		var v = o.copy();
+		Assertions.assertEquals(o.id, v.id, "Check id");
+		Assertions.assertEquals(o.duration, v.duration, "Check duration");
+		Assertions.assertSame(o.admin, v.admin, "Check admin");
+		Assertions.assertEquals(o.expiresAt, v.expiresAt, "Check expiresAt");
+		Assertions.assertEquals(o.lastAccessedAt, v.lastAccessedAt, "Check lastAccessedAt");
+		Assertions.assertEquals(o.createdAt, v.createdAt, "Check createdAt");
+		Assertions.assertEquals(o.type, v.type, "Check type");
+		Assertions.assertEquals(o.name, v.name, "Check name");
+
+		ThreadUtils.sleep(10L);
+
+		var expiresAt = new Date(o.expiresAt.getTime());
+		var lastAccessedAt = new Date(o.lastAccessedAt.getTime());
+		v.accessed();
+		Assertions.assertEquals(expiresAt, o.expiresAt, "Check original expiresAt NOT mutated");
+		Assertions.assertEquals(lastAccessedAt, o.lastAccessedAt, "Check original lastAccessedAt NOT mutated");
+		assertThat(v.lastAccessedAt).as("Check copy lastAccessedAt").isAfter(lastAccessedAt);
+	}
 }
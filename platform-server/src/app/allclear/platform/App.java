@@ -1,5 +1,6 @@
 package app.allclear.platform;
 
+import java.nio.file.Paths;
 import java.util.List;
 
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
@@ -21,6 +22,8 @@ import liquibase.resource.ClassLoaderResourceAccessor;
 import app.allclear.common.AutoCloseableManager;
 import app.allclear.common.azure.QueueManager;
 import app.allclear.common.errors.*;
+import app.allclear.common.geo.GeoIndex;
+import app.allclear.common.geo.RegionIndex;
 import app.allclear.common.hibernate.HibernateBundle;
 import app.allclear.common.jackson.ObjectMapperProvider;
 import app.allclear.common.jersey.CrossDomainHeadersFilter;
@@ -30,6 +33,7 @@ import app.allclear.common.task.TaskOperator;
 import app.allclear.google.client.MapClient;
 import app.allclear.platform.dao.*;
 import app.allclear.platform.entity.*;
+import app.allclear.platform.fcc.GeoClient;
 import app.allclear.platform.model.*;
 import app.allclear.platform.rest.*;
 import app.allclear.platform.task.*;
@@ -51,7 +55,11 @@ public class App extends Application<Config>
 	public static final String APP_NAME = "AllClear Platform";
 	public static final String QUEUE_ALERT = "alert";
 	public static final String QUEUE_ALERT_INIT = "alert-init";
+	public static final String QUEUE_ALERT_ZONE = "alert-zone";	// Alternative to "alert-init" that evaluates an entire timezone in memory.
 	public static final String QUEUE_FACILITATE = "facilitate";
+	public static final int QUEUE_ALERT_CONCURRENCY = 16;	// Dedicated workers that drain the nightly alert run without starving the other queues.
+	public static final int QUEUE_ALERT_TIMEOUT = 300;	// Seconds per alert attempt. Each request covers up to AlertInitTask.BATCH_SIZE people, each needing a geo query & an SMS send.
+	public static final int QUEUE_ALERT_ZONE_TIMEOUT = 300;	// Seconds per alert-zone attempt. Each message stops after AlertZoneTask.BUDGET & continues the timezone in a new message.
 	public static final String SESSION = "session-cache";
 
 	public static final Class<?>[] ENTITIES = new Class<?>[] { Conditions.class, CountByBoolean.class, CountById.class, CountByName.class, CountByNameAndDate.class, Created.class, Experiences.class, ExperiencesTag.class, Exposures.class, Facility.class, FacilityX.class, FacilityPeople.class, FacilityTestType.class, Friend.class, Friendship.class, Name.class, Named.class, Patient.class, People.class, PeopleFacility.class, PeopleField.class, Symptoms.class, SymptomsLog.class, Tests.class, Total.class };
@@ -97,33 +105,57 @@ public class App extends Application<Config>
 		log.info("Migrations: completed");
 
 		var lifecycle = env.lifecycle();
-		var map = new MapClient(conf.geocode.pool());
+		var geocode = conf.geocode.pool();
+		var map = new MapClient(geocode);
+		var geo = new GeoClient(geocode, conf.blockPrecision, GeoClient.CACHE_SIZE_DEFAULT);
+		var counties = (null != conf.counties) ? RegionIndex.open(Paths.get(conf.counties)) : null;
+		if (null != counties) log.info("Counties: loaded {} from {}", counties.size(), conf.counties);
 		var session = new RedisClient(conf.session.pool());
 		var twilio = new TwilioClient(conf.twilio);
 
 		lifecycle.manage(new AutoCloseableManager(map));
+		lifecycle.manage(new AutoCloseableManager(geo));
 		lifecycle.manage(new AutoCloseableManager(session));
 		lifecycle.manage(new AutoCloseableManager(twilio));
 
 		var factory = transHibernateBundle.getSessionFactory();
 		var adminDao = new AdminDAO(conf.admins);
-		var sessionDao = new SessionDAO(session, twilio, conf);
-		var auditor = new AuditLogDAO(factory, sessionDao, conf.auditLog);
-		var customerDao = new CustomerDAO(conf.env, conf.admins, session);
-		var facilityDao = new FacilityDAO(factory, auditor);
+		var sessionDao = new SessionDAO(session, twilio, conf, SessionDAO.CACHE_SIZE_DEFAULT);
+		var auditor = new AuditLogDAO(factory, sessionDao, conf.auditLog, AuditLogWriter.CAPACITY_DEFAULT, AuditLogWriter.spillFile(conf.auditLogSpill));
+		var customerDao = new CustomerDAO(conf.env, conf.admins, session, CustomerDAO.CACHE_SIZE_DEFAULT, CustomerDAO.FLUSH_INTERVAL);
+		var facilityDao = new FacilityDAO(factory, auditor, new GeoIndex<>(), session);
 		var patientDao = new PatientDAO(factory, sessionDao);
 		var peopleDao = new PeopleDAO(factory);
 		var registrationDao = new RegistrationDAO(session, twilio, conf);
 
+		lifecycle.manage(new AutoCloseableManager(customerDao));
+		lifecycle.manage(new AutoCloseableManager(sessionDao));
+		lifecycle.manage(new AutoCloseableManager(facilityDao));
+		lifecycle.manage(new AutoCloseableManager(auditor.writer()));
+
+		var facilitateTask = new FacilitateTask(adminDao, twilio, conf);
+
+		var alertZoneTask = new AlertZoneTask(factory, peopleDao, facilityDao, sessionDao);
 		var task = new QueueManager(conf.queue, conf.task(), 2,
-			new TaskOperator<>(QUEUE_ALERT, new AlertTask(factory, peopleDao, facilityDao, sessionDao), AlertRequest.class, 10, 5, 60, 3600),
-			new TaskOperator<>(QUEUE_FACILITATE, new FacilitateTask(adminDao, twilio, conf), FacilitateValue.class, 3, 30, 60, 3600));
+			new TaskOperator<>(QUEUE_ALERT, new AlertTask(factory, peopleDao, facilityDao, sessionDao), AlertRequest.class, 10, QUEUE_ALERT_TIMEOUT, 60, 3600).withConcurrency(QUEUE_ALERT_CONCURRENCY),
+			new TaskOperator<>(QUEUE_ALERT_ZONE, alertZoneTask, AlertInitRequest.class, 10, QUEUE_ALERT_ZONE_TIMEOUT, 60, 3600),
+			new TaskOperator<>(QUEUE_FACILITATE, facilitateTask, FacilitateValue.class, 3, 30, 60, 3600));
+		alertZoneTask.withQueue(task.queue(QUEUE_ALERT_ZONE));	// Receives the remainder of each timezone.
 
 		lifecycle.manage(task.addOperator(new TaskOperator<>(QUEUE_ALERT_INIT, new AlertInitTask(factory, peopleDao, task.queue(QUEUE_ALERT)), AlertInitRequest.class, 10, 120, 60, 3600)));
 
 		var hc = env.healthChecks();
 		hc.register(SESSION, session);
 
+		var metrics = env.metrics();
+		metrics.registerAll(map);
+		metrics.registerAll(geo);
+		metrics.registerAll(customerDao.limiter());
+		metrics.registerAll(registrationDao.limiter());
+		metrics.registerAll(sessionDao.limiter());
+		metrics.registerAll(auditor.writer());
+		metrics.registerAll(task);	// After all of its operators are added.
+
 		var jersey = env.jersey();
         jersey.register(MultiPartFeature.class);
         jersey.register(new ObjectMapperProvider());
@@ -146,9 +178,9 @@ public class App extends Application<Config>
         jersey.register(new CustomerResource(customerDao));
         jersey.register(new ExperiencesResource(new ExperiencesDAO(factory, sessionDao)));
         jersey.register(new FacilitateResource(new FacilitateDAO(conf.auditLog, facilityDao, sessionDao, task.queue(QUEUE_FACILITATE))));
-        jersey.register(new FacilityResource(facilityDao, sessionDao, map));
+        jersey.register(new FacilityResource(facilityDao, sessionDao, map, counties));
         jersey.register(new FriendResource(new FriendDAO(factory), sessionDao));
-        jersey.register(new MapResource(map));
+        jersey.register(new MapResource(map, geo, counties));
         jersey.register(new PatientResource(patientDao));
 		jersey.register(new PeopleResource(peopleDao, registrationDao, sessionDao, task.queue(QUEUE_ALERT)));
 		jersey.register(new app.allclear.common.azure.QueueResource(task));
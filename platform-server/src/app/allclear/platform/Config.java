@@ -13,6 +13,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import app.allclear.common.DWUtil;
 import app.allclear.common.ManifestUtils;
 import app.allclear.common.value.ManifestValue;
+import app.allclear.platform.fcc.GeoClient;
 import app.allclear.redis.JedisConfig;
 import app.allclear.twilio.client.TwilioConfig;
 
@@ -56,7 +57,10 @@ public class Config extends Configuration implements Serializable
 	public final String queue;	// Connection string to the queue space.
 	public final String admins;
 	public final String auditLog;
+	public final String auditLogSpill;	// Directory of the audit log spill files. Should be a persistent volume. Defaults to the temporary directory when missing.
 	public final JedisConfig geocode;
+	public final int blockPrecision;	// Decimal places that FCC block lookups are snapped to. Negative disables snapping.
+	public final String counties;	// Path of the optional county boundaries index file. Offline county resolution is disabled when missing.
 	public final JedisConfig session;
 	public final TwilioConfig twilio;
 
@@ -76,7 +80,10 @@ public class Config extends Configuration implements Serializable
 		@JsonProperty("queue") final String queue,
 		@JsonProperty("admins") final String admins,
 		@JsonProperty("auditLog") final String auditLog,
+		@JsonProperty("auditLogSpill") final String auditLogSpill,
 		@JsonProperty("geocode") final JedisConfig geocode,
+		@JsonProperty("blockPrecision") final Integer blockPrecision,
+		@JsonProperty("counties") final String counties,
 		@JsonProperty("session") final JedisConfig session,
 		@JsonProperty("twilio") final TwilioConfig twilio)
 	{
@@ -110,7 +117,10 @@ public class Config extends Configuration implements Serializable
 		this.queue = queue;
 		this.admins = admins;
 		this.auditLog = auditLog;
+		this.auditLogSpill = StringUtils.trimToNull(auditLogSpill);
 		this.geocode = geocode;
+		this.blockPrecision = (null != blockPrecision) ? blockPrecision : GeoClient.PRECISION_DEFAULT;
+		this.counties = StringUtils.trimToNull(counties);
 		this.session = session;
 		this.twilio = twilio;
 	}
@@ -17,6 +17,7 @@ import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.table.CloudTable;
 import com.microsoft.azure.storage.table.TableQuery;
 
+import app.allclear.common.cache.LocalCache;
 import app.allclear.common.dao.QueryResults;
 import app.allclear.common.errors.*;
 import app.allclear.platform.entity.Admin;
@@ -38,9 +39,13 @@ public class AdminDAO
 	private static final Logger log = LoggerFactory.getLogger(AdminDAO.class);
 	public static final String TABLE = "admins";
 	public static final String PARTITION_DEFAULT = "ADMIN";
+	public static final long ALERTABLE_TTL = 5L * 60L * 1000L;	// Five minutes - bounds the staleness when another node changes the admins.
+	private static final String ALERTABLE_KEY = "alertable";
 
 	private final CloudTable table;
 	private final String partition;
+	private final TablePager<Admin> pager;
+	private final LocalCache<String, Set<String>> alertables = new LocalCache<>(1, ALERTABLE_TTL);
 
 	public AdminDAO(final String connectionString) throws InvalidKeyException, StorageException, URISyntaxException { this(connectionString, PARTITION_DEFAULT); }
 	public AdminDAO(final String connectionString, final String partition)
@@ -50,6 +55,7 @@ public class AdminDAO
 		log.info("TABLE: " + table);
 
 		this.partition = partition;
+		this.pager = new TablePager<>(table, TablePager.PAGE_SIZE_ALL);	// Returns every record unless the caller supplies a page size.
 	}
 
 	/** Adds a single Admin value.
@@ -131,6 +137,8 @@ public class AdminDAO
 			{
 				table.execute(replace(record.update(value)));
 			}
+
+			clear();
 		}
 		catch (final StorageException ex) { throw new RuntimeException(ex); }
 
@@ -185,6 +193,7 @@ public class AdminDAO
 			if (null == record) return false;
 	
 			table.execute(delete(record));
+			clear();
 		}
 		catch (final StorageException ex) { throw new RuntimeException(ex); }
 
@@ -241,20 +250,31 @@ public class AdminDAO
 		return findWithException(id).toValue();
 	}
 
-	/** Gets a set of phone number for Alertable admins.
+	/** Gets a set of phone number for Alertable admins. The set is cached until the admins change or the TTL expires.
 	 * 
 	 * @return never NULL.
 	 */
 	public Set<String> getAlertablePhoneNumbers()
 	{
+		var values = alertables.get(ALERTABLE_KEY);
+		if (null != values) return values;
+
 		var it = table.execute(from(Admin.class).select(new String[] { "Phone" }).where(generateFilterCondition("Alertable", EQUAL, true)));
 
-		var values = new HashSet<String>();
-		it.forEach(o -> { if (null != o.getPhone()) values.add(o.getPhone()); });
+		var o = new HashSet<String>();
+		it.forEach(v -> { if (null != v.getPhone()) o.add(v.getPhone()); });
+		alertables.put(ALERTABLE_KEY, values = Collections.unmodifiableSet(o));
 
 		return values;
 	}
 
+	/** Helper method - clears the cached pages and alertable phone numbers after the admins change. */
+	private void clear()
+	{
+		pager.clear();
+		alertables.clear();
+	}
+
 	/** Searches the Admin entity based on the supplied filter.
 	 *
 	 * @param filter
@@ -263,10 +283,7 @@ public class AdminDAO
 	 */
 	public QueryResults<AdminValue, AdminFilter> search(final AdminFilter filter) throws ValidationException
 	{
-		var values = new LinkedList<AdminValue>();
-		for (var o : table.execute(createQueryBuilder(filter))) values.add(o.toValue());
-
-		return values.isEmpty() ? new QueryResults<>(0L, filter) : new QueryResults<>(values, filter);
+		return pager.search(createQueryBuilder(filter), filter, o -> o.toValue());
 	}
 
 	/** Counts the number of Admin entities based on the supplied filter.
@@ -275,13 +292,9 @@ public class AdminDAO
 	 * @return zero if none found.
 	 * @throws ValidationException
 	 */
-	@SuppressWarnings("unused")
 	public long count(final AdminFilter filter) throws ValidationException
 	{
-		long i = 0;
-		for (var o : table.execute(createQueryBuilder(filter))) i++;
-
-		return i;
+		return pager.count(createQueryBuilder(filter));
 	}
 
 	public TableQuery<Admin> createQueryBuilder(final AdminFilter filter) throws ValidationException
@@ -8,8 +8,10 @@ import static com.microsoft.azure.storage.table.TableQuery.QueryComparisons.*;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.security.InvalidKeyException;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -58,16 +60,36 @@ public class AuditLogDAO extends AbstractDAO<AuditLog> implements Auditor
 	private final CloudTableClient client;
 	private final ObjectMapper mapper = JacksonUtils.createMapperMS();
 	private final Map<String, CloudTable> tables = new ConcurrentHashMap<>();
+	private final Map<String, TablePager<AuditLog>> pagers = new ConcurrentHashMap<>();
+	private final AuditLogWriter writer;
 
 	public AuditLogDAO(final SessionFactory factory, final SessionDAO sessionDao, final String connectionString)
 		throws InvalidKeyException, URISyntaxException
+	{
+		this(factory, sessionDao, connectionString, 0, null);
+	}
+
+	/** Populator.
+	 *
+	 * @param factory
+	 * @param sessionDao
+	 * @param connectionString
+	 * @param capacity maximum number of entries buffered by the write-behind. Zero writes each entry synchronously.
+	 * @param spill local file that receives the entries that cannot be buffered or written.
+	 */
+	public AuditLogDAO(final SessionFactory factory, final SessionDAO sessionDao, final String connectionString, final int capacity, final Path spill)
+		throws InvalidKeyException, URISyntaxException
 	{
 		super(factory);	// Need the SessionFactory for the afterTrans handler.
 
 		this.sessionDao = sessionDao;
 		this.client = CloudStorageAccount.parse(connectionString).createCloudTableClient();
+		this.writer = (0 < capacity) ? new AuditLogWriter(this::write, capacity, AuditLogWriter.MAX_WAIT_DEFAULT, spill) : null;
 	}
 
+	/** Gets the write-behind. NULL if the entries are written synchronously. */
+	public AuditLogWriter writer() { return writer; }
+
 	private CloudTable table_(final String name)
 	{
 		try
@@ -80,6 +102,7 @@ public class AuditLogDAO extends AbstractDAO<AuditLog> implements Auditor
 		catch (final StorageException | URISyntaxException ex) { throw new RuntimeException(ex); }
 	}
 	private CloudTable table(final String name) { return tables.computeIfAbsent(name, k -> table_(k)); }
+	private TablePager<AuditLog> pager(final String name) { return pagers.computeIfAbsent(name, k -> new TablePager<>(table(k), TablePager.PAGE_SIZE_ALL)); }
 	@Override public AuditLogValue add(final Auditable value) { return insert(value, "add"); }
 	@Override public AuditLogValue update(final Auditable value) { return insert(value, "update"); }
 	@Override public AuditLogValue remove(final Auditable value) { return insert(value, "remove"); }
@@ -94,14 +117,35 @@ public class AuditLogDAO extends AbstractDAO<AuditLog> implements Auditor
 			json(value),
 			value.updatedAt());
 
-		afterTrans(() -> {
-			try { table(value.tableName()).execute(TableOperation.insert(new AuditLog(o))); }
-			catch (final StorageException ex) { throw new RuntimeException(ex); }
-		});
+		if (null != writer)
+			afterTrans(() -> writer.add(value.tableName(), o));
+		else
+			afterTrans(() -> {
+				try { table(value.tableName()).execute(TableOperation.insert(new AuditLog(o))); pager(value.tableName()).clear(); }
+				catch (final StorageException ex) { throw new RuntimeException(ex); }
+			});
 
 		return o;
 	}
 
+	/** Helper method - writes values of the same table & partition key with a single batch operation. */
+	private void write(final String tableName, final List<AuditLogValue> values) throws StorageException
+	{
+		var table = table(tableName);
+		if (1 == values.size())
+		{
+			table.execute(TableOperation.insert(new AuditLog(values.get(0))));
+		}
+		else
+		{
+			var batch = new TableBatchOperation();
+			values.forEach(v -> batch.insert(new AuditLog(v)));
+			table.execute(batch);
+		}
+
+		pager(tableName).clear();
+	}
+
 	private String json(final Auditable value)
 	{
 		try { return mapper.writeValueAsString(value); }
@@ -117,10 +161,7 @@ public class AuditLogDAO extends AbstractDAO<AuditLog> implements Auditor
 	 */
 	public QueryResults<AuditLogValue, AuditLogFilter> search(final String name, final AuditLogFilter filter) throws ValidationException
 	{
-		var values = new LinkedList<AuditLogValue>();
-		for (var o : table(name).execute(createQueryBuilder(filter))) values.add(o.toValue());
-
-		return values.isEmpty() ? new QueryResults<>(0L, filter) : new QueryResults<>(values, filter);
+		return pager(name).search(createQueryBuilder(filter), filter, o -> o.toValue());
 	}
 
 	/** Counts the number of AuditLog entities based on the supplied filter.
@@ -130,13 +171,9 @@ public class AuditLogDAO extends AbstractDAO<AuditLog> implements Auditor
 	 * @return zero if none found.
 	 * @throws ValidationException
 	 */
-	@SuppressWarnings("unused")
 	public long count(final String name, final AuditLogFilter filter) throws ValidationException
 	{
-		long i = 0;
-		for (var o : table(name).execute(createQueryBuilder(filter))) i++;
-
-		return i;
+		return pager(name).count(createQueryBuilder(filter));
 	}
 
 	/** Helper method - creates the a standard Hibernate query builder. */
@@ -173,6 +210,8 @@ public class AuditLogDAO extends AbstractDAO<AuditLog> implements Auditor
 			table.execute(TableOperation.delete(o));
 		}
 
+		pager(name).clear();
+
 		return i;
 	}
 }
@@ -0,0 +1,354 @@
+package app.allclear.platform.dao;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.*;
+import static com.codahale.metrics.MetricRegistry.name;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.slf4j.*;
+
+import com.codahale.metrics.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.storage.StorageException;
+
+import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.platform.value.AuditLogValue;
+
+/** Write-behind pipeline for the audit log. Entries are accepted into a bounded buffer and a background worker drains
+ *  them, grouped by table and partition key, into Table batch operations. Callers block for at most the maximum wait
+ *  when the buffer is full. Entries that cannot be buffered or hit a retryable failure are appended to a local spill
+ *  file, which is replayed into the buffer when the writer starts and then periodically by the worker. Entries rejected by storage with a client
+ *  error (4xx), e.g. a conflicting row key, would fail again on replay so they are logged as dead letters instead.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class AuditLogWriter implements AutoCloseable, MetricSet
+{
+	private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+
+	public static final int BATCH_SIZE = 100;	// Maximum number of operations in a Table batch.
+	public static final int CAPACITY_DEFAULT = 10000;
+	public static final long MAX_WAIT_DEFAULT = 1000L;	// Milliseconds that a caller waits for space in a full buffer.
+	public static final long POLL_TIMEOUT = 100L;
+	public static final long CLOSE_TIMEOUT = 30L * 1000L;	// Milliseconds to wait for the worker to drain the buffer on close.
+	public static final long REPLAY_INTERVAL = 60L * 1000L;	// Milliseconds between replays of the spill file by the worker.
+	public static final String REPLAYING = ".replaying";	// Suffix of the spill file while its entries are replayed.
+	public static final String SPILL_PREFIX = "allclear-audit-log-";
+
+	/** Gets the spill file of this instance. The host name keeps the instances that share a directory from replaying each other's files.
+	 *
+	 * @param dir directory of the spill files. Should be a persistent volume. Defaults to the temporary directory, which may not survive a restart.
+	 * @return never NULL.
+	 */
+	public static Path spillFile(final String dir)
+	{
+		String host;
+		try { host = InetAddress.getLocalHost().getHostName(); }
+		catch (final IOException ex) { host = "localhost"; }
+
+		return Paths.get((null != dir) ? dir : System.getProperty("java.io.tmpdir")).resolve(SPILL_PREFIX + host + ".spill");
+	}
+
+	/** Indicates whether a failed write may succeed later. Client errors (4xx) other than timeouts and throttling are permanent.
+	 *
+	 * @param ex
+	 * @return FALSE if the write would fail again.
+	 */
+	public static boolean retryable(final Exception ex)
+	{
+		if (!(ex instanceof StorageException)) return true;
+
+		var code = ((StorageException) ex).getHttpStatusCode();
+
+		return (400 > code) || (500 <= code) || (408 == code) || (429 == code);
+	}
+
+	/** Writes a batch of audit log values that share the same table and partition key. */
+	@FunctionalInterface
+	public interface Sink
+	{
+		void write(final String tableName, final List<AuditLogValue> values) throws Exception;
+	}
+
+	/** Represents a single buffered audit log value. */
+	public static class Entry
+	{
+		public String tableName;
+		public AuditLogValue value;
+
+		public Entry() {}
+		public Entry(final String tableName, final AuditLogValue value)
+		{
+			this.tableName = tableName;
+			this.value = value;
+		}
+	}
+
+	public final int capacity;
+	public final long maxWait;
+	public final Path spill;
+	public final Path replaying;
+	public final long replayInterval;
+
+	private final Sink sink;
+	private final BlockingQueue<Entry> buffer;
+	private final ObjectMapper mapper = JacksonUtils.createMapper();
+	private final Meter written = new Meter();
+	private final Meter spilled = new Meter();
+	private final Meter dropped = new Meter();
+	private final Meter batches = new Meter();
+	private final Thread worker;
+	private volatile boolean running = true;
+
+	/** Populator.
+	 *
+	 * @param sink writes each batch to storage.
+	 * @param capacity maximum number of buffered entries.
+	 * @param maxWait milliseconds that a caller waits for space in a full buffer before the entry is spilled.
+	 * @param spill local file that receives the entries that cannot be buffered or written.
+	 * @throws IllegalArgumentException if the capacity is not positive.
+	 */
+	public AuditLogWriter(final Sink sink, final int capacity, final long maxWait, final Path spill) throws IllegalArgumentException
+	{
+		this(sink, capacity, maxWait, spill, REPLAY_INTERVAL);
+	}
+
+	/** Populator.
+	 *
+	 * @param sink writes each batch to storage.
+	 * @param capacity maximum number of buffered entries.
+	 * @param maxWait milliseconds that a caller waits for space in a full buffer before the entry is spilled.
+	 * @param spill local file that receives the entries that cannot be buffered or written.
+	 * @param replayInterval milliseconds between replays of the spill file by the worker.
+	 * @throws IllegalArgumentException if the capacity or replay interval is not positive.
+	 */
+	public AuditLogWriter(final Sink sink, final int capacity, final long maxWait, final Path spill, final long replayInterval) throws IllegalArgumentException
+	{
+		if (0 >= capacity) throw new IllegalArgumentException("The capacity must be greater than zero.");
+		if (0L >= replayInterval) throw new IllegalArgumentException("The replay interval must be greater than zero.");
+
+		this.sink = sink;
+		this.spill = spill;
+		this.replaying = spill.resolveSibling(spill.getFileName() + REPLAYING);
+		this.maxWait = maxWait;
+		this.capacity = capacity;
+		this.replayInterval = replayInterval;
+		this.buffer = new LinkedBlockingQueue<>(capacity);
+
+		try { if (null != spill.getParent()) Files.createDirectories(spill.getParent()); }
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+
+		recover();
+
+		(worker = new Thread(this::run, "AuditLogWriter")).setDaemon(true);
+		worker.start();
+	}
+
+	/** Gets the number of buffered entries. */
+	public int depth() { return buffer.size(); }
+
+	/** Buffers a single value. Blocks while the buffer is full up to the maximum wait and then spills the value.
+	 *
+	 * @param tableName
+	 * @param value
+	 * @return TRUE if buffered, FALSE if spilled.
+	 */
+	public boolean add(final String tableName, final AuditLogValue value)
+	{
+		var o = new Entry(tableName, value);
+		try
+		{
+			if (running && buffer.offer(o, maxWait, TimeUnit.MILLISECONDS)) return true;
+		}
+		catch (final InterruptedException ex) { Thread.currentThread().interrupt(); }
+
+		spill(List.of(o));
+
+		return false;
+	}
+
+	/** Stops the worker after it drains the buffer. Anything left is spilled. */
+	@Override
+	public void close() throws InterruptedException
+	{
+		running = false;
+		worker.join(CLOSE_TIMEOUT);
+
+		var remaining = new ArrayList<Entry>(buffer.size());
+		buffer.drainTo(remaining);
+		if (!remaining.isEmpty()) spill(remaining);
+	}
+
+	/** Helper method - drains the buffer until closed. Replays the spill file periodically while the buffer is at most half full. */
+	private void run()
+	{
+		var entries = new ArrayList<Entry>(BATCH_SIZE * 10);
+		var replayAt = System.currentTimeMillis() + replayInterval;
+		while (running || !buffer.isEmpty())
+		{
+			try
+			{
+				if (running && (System.currentTimeMillis() >= replayAt))
+				{
+					replayAt = System.currentTimeMillis() + replayInterval;
+					if (buffer.size() <= buffer.remainingCapacity()) recover();	// Leaves room for new entries.
+				}
+
+				var o = buffer.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+				if (null == o) continue;
+
+				entries.add(o);
+				buffer.drainTo(entries, (BATCH_SIZE * 10) - 1);
+				write(entries);
+			}
+			catch (final InterruptedException ex) { break; }
+			catch (final RuntimeException ex) { log.error("WRITE_FAILED: {}", ex.getMessage(), ex); spill(entries); }
+			finally { entries.clear(); }
+		}
+	}
+
+	/** Writes the entries grouped by table & partition key in batches. Failed batches are retried one value at a time. */
+	void write(final List<Entry> entries)
+	{
+		var groups = new LinkedHashMap<String, Map<String, List<AuditLogValue>>>();
+		for (var o : entries) groups.computeIfAbsent(o.tableName, k -> new LinkedHashMap<>()).computeIfAbsent(o.value.id, k -> new ArrayList<>()).add(o.value);
+
+		for (var t : groups.entrySet())
+		{
+			var tableName = t.getKey();
+			for (var values : t.getValue().values())
+			{
+				for (int i = 0; i < values.size(); i+= BATCH_SIZE)
+				{
+					var batch = values.subList(i, Math.min(i + BATCH_SIZE, values.size()));
+					try
+					{
+						sink.write(tableName, batch);
+						batches.mark();
+						written.mark(batch.size());
+					}
+					catch (final Exception ex)
+					{
+						log.warn("BATCH_FAILED ({}): {} - {}", tableName, batch.size(), ex.getMessage());
+						if (1 == batch.size())
+						{
+							failed(tableName, batch.get(0), ex);
+							continue;
+						}
+
+						for (var v : batch)	// A single duplicate row key fails the whole batch.
+						{
+							try
+							{
+								sink.write(tableName, List.of(v));
+								written.mark();
+							}
+							catch (final Exception e) { failed(tableName, v, e); }
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/** Helper method - spills a single value that failed to write unless the failure is permanent. */
+	private void failed(final String tableName, final AuditLogValue value, final Exception ex)
+	{
+		if (retryable(ex))
+		{
+			spill(List.of(new Entry(tableName, value)));
+			return;
+		}
+
+		dropped.mark();
+		log.error("DEAD_LETTER ({}): {} - {}", tableName, value, ex.getMessage());
+	}
+
+	/** Helper method - appends entries to the spill file as JSON lines. */
+	synchronized void spill(final List<Entry> entries)
+	{
+		try { append(entries); }
+		catch (final IOException ex)
+		{
+			log.error("SPILL_FAILED: {} entries - {}", entries.size(), ex.getMessage(), ex);	// Last resort - the entries are at least logged.
+			entries.forEach(o -> log.error("LOST: {} - {}", o.tableName, o.value));
+		}
+	}
+
+	/** Helper method - appends entries to the spill file as JSON lines. */
+	private void append(final List<Entry> entries) throws IOException
+	{
+		var lines = new ArrayList<String>(entries.size());
+		for (var o : entries) lines.add(mapper.writeValueAsString(o));
+		Files.write(spill, lines, UTF_8, CREATE, APPEND, WRITE, SYNC);
+		spilled.mark(entries.size());
+	}
+
+	/** Helper method - moves the spilled entries into the buffer. Entries beyond the capacity are spilled again.
+	 *  The spill file is first renamed so that it is only deleted after each of its entries is buffered or spilled again.
+	 *  A replay that fails part way leaves the renamed file to be finished by the next replay. Lines that cannot be
+	 *  parsed, e.g. one cut short by a crash while spilling, are logged as dead letters.
+	 */
+	synchronized void recover()
+	{
+		try
+		{
+			if (!Files.exists(replaying))	// Otherwise, finish the interrupted replay first.
+			{
+				if (!Files.exists(spill)) return;
+
+				Files.move(spill, replaying, ATOMIC_MOVE);
+			}
+
+			int count = 0;
+			var overflow = new ArrayList<Entry>();
+			try (var reader = Files.newBufferedReader(replaying, UTF_8))
+			{
+				String line = null;
+				while (null != (line = reader.readLine()))
+				{
+					if (line.isBlank()) continue;
+
+					Entry o = null;
+					try { o = mapper.readValue(line, Entry.class); }
+					catch (final IOException ex)
+					{
+						dropped.mark();
+						log.error("DEAD_LETTER (unreadable): {} - {}", line, ex.getMessage());
+						continue;
+					}
+
+					if (buffer.offer(o)) count++;
+					else overflow.add(o);
+				}
+			}
+
+			if (!overflow.isEmpty()) append(overflow);
+			Files.delete(replaying);
+
+			log.info("RECOVERED: {} entries from {}, {} still spilled", count, spill, overflow.size());
+		}
+		catch (final IOException ex) { log.error("RECOVER_FAILED: {} - {}", replaying, ex.getMessage(), ex); }
+	}
+
+	/** Gets the buffer depth and the written, spilled, dropped, and batch counts for registration with a MetricRegistry. */
+	@Override
+	public Map<String, Metric> getMetrics()
+	{
+		return Map.of(name(AuditLogWriter.class, "depth"), (Gauge<Integer>) this::depth,
+			name(AuditLogWriter.class, "written"), written,
+			name(AuditLogWriter.class, "spilled"), spilled,
+			name(AuditLogWriter.class, "dropped"), dropped,
+			name(AuditLogWriter.class, "batches"), batches);
+	}
+}
@@ -1,5 +1,6 @@
 package app.allclear.platform.dao;
 
+import static java.net.HttpURLConnection.HTTP_PRECONDITION_FAILED;
 import static com.microsoft.azure.storage.table.TableOperation.*;
 import static com.microsoft.azure.storage.table.TableQuery.*;
 import static com.microsoft.azure.storage.table.TableQuery.Operators.*;
@@ -8,6 +9,7 @@ import static com.microsoft.azure.storage.table.TableQuery.QueryComparisons.*;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -18,8 +20,10 @@ import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.table.CloudTable;
 import com.microsoft.azure.storage.table.TableQuery;
 
+import app.allclear.common.cache.LocalCache;
 import app.allclear.common.dao.QueryResults;
 import app.allclear.common.errors.*;
+import app.allclear.common.redis.RateLimiter;
 import app.allclear.common.redis.RedisClient;
 import app.allclear.platform.entity.Customer;
 import app.allclear.platform.filter.CustomerFilter;
@@ -33,24 +37,85 @@ import app.allclear.platform.value.CustomerValue;
  *
  */
 
-public class CustomerDAO
+public class CustomerDAO implements AutoCloseable
 {
 	private static final Logger log = LoggerFactory.getLogger(CustomerDAO.class);
 	public static final String TABLE = "customers";
-	public static final String LIMIT_KEY = "customer:%s:%d";
+	public static final String LIMIT_KEY = "customer";	// Prefix of the rate limiter keys.
+	public static final long LIMIT_WINDOW = 1000L;	// Limits are requests per second.
+	public static final int LIMIT_LEASE = 5;	// Generous limits are answered locally from leased blocks of permits.
+	public static final int CACHE_SIZE_DEFAULT = 1000;
+	public static final long CACHE_TTL = 60L * 1000L;	// One minute - bounds staleness of customer changes made by other instances.
+	public static final long FLUSH_INTERVAL = 5L * 1000L;	// Write-behind interval of the access statistics.
+	public static final int FLUSH_TRIES = 3;	// Attempts per customer when a concurrent change wins the optimistic update.
 
 	private final String env;
 	private final CloudTable table;
-	private final RedisClient redis;
+	private final RateLimiter limiter;
+	private final TablePager<Customer> pager;
+	private final LocalCache<String, Customer> cache;
+	private final Map<String, Accessed> accesses = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService flusher;
+
+	/** Represents the access statistics of a single customer that have not been written yet. */
+	private static class Accessed
+	{
+		public long at = 0L;
+		public long count = 0L;
+	}
 
 	public CustomerDAO(final String env,  final String connectionString, final RedisClient redis)
 		throws InvalidKeyException, StorageException, URISyntaxException
+	{
+		this(env, connectionString, redis, 0, 0L);
+	}
+
+	/** Populator.
+	 *
+	 * @param env
+	 * @param connectionString
+	 * @param redis
+	 * @param cacheSize maximum number of customers held in-process. Zero disables the cache and the write-behind.
+	 * @param flushInterval milliseconds between writes of the access statistics.
+	 */
+	public CustomerDAO(final String env,  final String connectionString, final RedisClient redis, final int cacheSize, final long flushInterval)
+		throws InvalidKeyException, StorageException, URISyntaxException
 	{
 		(table = CloudStorageAccount.parse(connectionString).createCloudTableClient().getTableReference(TABLE)).createIfNotExists();
 		log.info("TABLE: " + table);
 
 		this.env = env;
-		this.redis = redis;
+		this.pager = new TablePager<>(table, TablePager.PAGE_SIZE_ALL);	// Returns every record unless the caller supplies a page size.
+		this.limiter = new RateLimiter(redis, LIMIT_KEY, LIMIT_WINDOW, LIMIT_LEASE);
+
+		if (0 < cacheSize)
+		{
+			cache = new LocalCache<>(cacheSize, CACHE_TTL);
+			flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+				var t = new Thread(r, "CustomerDAO-flusher");
+				t.setDaemon(true);
+				return t;
+			});
+			flusher.scheduleWithFixedDelay(() -> {
+				try { flush(); }
+				catch (final RuntimeException ex) { log.warn("FLUSH_FAILED: {}", ex.getMessage()); }
+			}, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+		}
+		else
+		{
+			cache = null;
+			flusher = null;
+		}
+	}
+
+	/** Stops the write-behind after writing any pending access statistics. */
+	@Override
+	public void close()
+	{
+		if (null == flusher) return;
+
+		flusher.shutdown();
+		flush();
 	}
 
 	/** Adds a single Customer value.
@@ -63,7 +128,7 @@ public class CustomerDAO
 	{
 		_validate(value);
 
-		try { table.execute(insert(new Customer(env, value.withId(UUID.randomUUID().toString())))); }
+		try { table.execute(insert(new Customer(env, value.withId(UUID.randomUUID().toString())))); pager.clear(); }
 		catch (final StorageException ex) { throw new RuntimeException(ex); }
 
 		return value;
@@ -80,29 +145,90 @@ public class CustomerDAO
 	{
 		try
 		{
-			var record = _findWithException(id);
+			var record = (null != cache) ? cached(id) : _findWithException(id);
 			var limit = record.getLimit();
 			if (0 < limit)	// Limit exists
 			{
-				var count = redis.operation(j -> {
-					var key = limitKey(id);	// Create a key to the second.
-					var o = j.incr(key);
-					j.expire(key, 5);	// Make sure that it self clears when not needed anymore.
+				if (!limiter.acquire(id, limit)) throw new ThrottledException("Client '" + record.getName() + "' has exceeded its limit of '" + limit + "' requests per second.");
+			}
 
-					return o.intValue();
-				});
+			if (null == cache)
+			{
+				table.execute(merge(record.accessed()));
 
-				if (count > limit) throw new ThrottledException("Client '" + record.getName() + "' has exceeded its limit of '" + limit + "' requests per second.");
+				return record.toValue();
 			}
 
-			table.execute(merge(record.accessed()));
+			// The cached entity is shared so only the returned value reflects this access. The table is updated by the write-behind.
+			var now = System.currentTimeMillis();
+			accesses.compute(id, (k, v) -> {
+				if (null == v) v = new Accessed();
+				v.at = Math.max(v.at, now);
+				v.count++;
+				return v;
+			});
+
+			var value = record.toValue();
+			value.lastAccessedAt = new Date(now);
 
-			return record.toValue();
+			return value;
 		}
 		catch (final StorageException ex) { throw new RuntimeException(ex); }
 	}
 
-	public String limitKey(final String id) { return String.format(LIMIT_KEY, id, System.currentTimeMillis() / 1000L); }
+	/** Helper method - gets the Customer from the cache or the table. */
+	private Customer cached(final String id) throws StorageException, ObjectNotFoundException
+	{
+		var o = cache.get(id);
+		if (null == o) cache.put(id, o = _findWithException(id));
+
+		return o;
+	}
+
+	/** Writes the pending access statistics to the table. Each customer is re-read and updated with its ETag so that
+	 *  concurrent changes, including the statistics of other instances, are not overwritten.
+	 *
+	 * @return number of customers updated.
+	 */
+	public int flush()
+	{
+		int count = 0;
+		for (var id : accesses.keySet())
+		{
+			var o = accesses.remove(id);
+			if (null == o) continue;
+
+			try
+			{
+				for (int i = 1; ; i++)
+				{
+					var record = find(id);
+					if (null == record) break;	// Removed since accessed.
+
+					try
+					{
+						table.execute(merge(record.accessed(o.at, o.count)));	// Merges with the retrieved ETag.
+						count++;
+						break;
+					}
+					catch (final StorageException ex)
+					{
+						if ((HTTP_PRECONDITION_FAILED != ex.getHttpStatusCode()) || (FLUSH_TRIES <= i)) throw ex;
+					}
+				}
+			}
+			catch (final StorageException ex)
+			{
+				log.warn("FLUSH_FAILED ({}): {}", id, ex.getMessage());
+				accesses.merge(id, o, (a, b) -> { a.at = Math.max(a.at, b.at); a.count+= b.count; return a; });	// Try again on the next flush.
+			}
+		}
+
+		return count;
+	}
+
+	public String limitKey(final String id) { return limiter.key(id); }
+	public RateLimiter limiter() { return limiter; }
 
 	/** Updates a single Customer value.
 	 *
@@ -118,6 +244,8 @@ public class CustomerDAO
 		try
 		{
 			table.execute(merge(_findWithException(value.id).update(value)));
+			pager.clear();
+			if (null != cache) cache.remove(value.id);
 		}
 		catch (final StorageException ex) { throw new RuntimeException(ex); }
 
@@ -179,6 +307,8 @@ public class CustomerDAO
 			if (null == record) return false;
 	
 			table.execute(delete(record));
+			pager.clear();
+			if (null != cache) cache.remove(id);
 		}
 		catch (final StorageException ex) { throw new RuntimeException(ex); }
 
@@ -266,10 +396,7 @@ public class CustomerDAO
 	 */
 	public QueryResults<CustomerValue, CustomerFilter> search(final CustomerFilter filter) throws ValidationException
 	{
-		var values = new LinkedList<CustomerValue>();
-		for (var o : table.execute(createQueryBuilder(filter))) values.add(o.toValue());
-
-		return values.isEmpty() ? new QueryResults<>(0L, filter) : new QueryResults<>(values, filter);
+		return pager.search(createQueryBuilder(filter), filter, o -> o.toValue());
 	}
 
 	/** Counts the number of Customer entities based on the supplied filter.
@@ -278,13 +405,9 @@ public class CustomerDAO
 	 * @return zero if none found.
 	 * @throws ValidationException
 	 */
-	@SuppressWarnings("unused")
 	public long count(final CustomerFilter filter) throws ValidationException
 	{
-		long i = 0;
-		for (var o : table.execute(createQueryBuilder(filter))) i++;
-
-		return i;
+		return pager.count(createQueryBuilder(filter));
 	}
 
 	public TableQuery<Customer> createQueryBuilder(final CustomerFilter filter) throws ValidationException
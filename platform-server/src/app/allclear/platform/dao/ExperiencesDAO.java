@@ -346,11 +346,8 @@ public class ExperiencesDAO extends AbstractDAO<Experiences>
 	 */
 	public QueryResults<ExperiencesValue, ExperiencesFilter> search(final ExperiencesFilter filter) throws ValidationException
 	{
-		var builder = createQueryBuilder(filter.clean(), SELECT);
-		var v = new QueryResults<ExperiencesValue, ExperiencesFilter>(builder.aggregate(COUNT), filter);
-		if (v.isEmpty()) return v;
-
-		return v.withRecords(cmr(builder.orderBy(ORDER.normalize(v)).run(v).stream().map(o -> o.toValue()).collect(toList())));
+		return createQueryBuilder(filter.clean(), SELECT)
+			.search(filter, COUNT, ORDER, records -> cmr(records.stream().map(o -> o.toValue()).collect(toList())));
 	}
 
 	/** Counts the number of Experiences entities based on the supplied filter.
@@ -386,21 +383,10 @@ public class ExperiencesDAO extends AbstractDAO<Experiences>
 
 	private List<ExperiencesValue> cmr(final List<ExperiencesValue> values)
 	{
-		if (CollectionUtils.isEmpty(values)) return values;
-
-		var ids = values.stream().map(v -> v.id).collect(toList());
-		var people = namedQuery("getPeopleNamesByIds", Named.class)
-			.setParameterList("ids", values.stream().map(v -> v.personId).distinct().collect(toList()))
-			.stream().collect(toMap(o -> o.id, o -> o.name));
-		var facilities = namedQuery("getFacilityNamesByIds", Name.class)
-			.setParameterList("ids", values.stream().map(v -> v.facilityId).distinct().collect(toList()))
-			.stream().collect(toMap(o -> o.id, o -> o.name));
-		var tags = namedQuery("findExperiencesTagsByIds", ExperiencesTag.class)
-			.setParameterList("ids", ids)
-			.stream().collect(groupingBy(o -> o.getExperienceId(), mapping(o -> o.toValue(), toList())));
-
-		values.forEach(v -> v.denormalize(people.get(v.personId), facilities.get(v.facilityId)).withTags(tags.get(v.id)));
-
-		return values;
+		return hydrate(values)
+			.lookup(v -> v.personId, namedQueryIn("getPeopleNamesByIds", Named.class, "ids"), o -> o.id, (v, o) -> v.withPersonName(o.name))
+			.lookup(v -> v.facilityId, namedQueryIn("getFacilityNamesByIds", Name.class, "ids"), o -> o.id, (v, o) -> v.withFacilityName(o.name))
+			.children(v -> v.id, namedQueryIn("findExperiencesTagsByIds", ExperiencesTag.class, "ids"), o -> o.getExperienceId(), o -> o.toValue(), (v, o) -> v.withTags(o))
+			.values();
 	}
 }
@@ -51,6 +51,7 @@ public class FacilitateDAO
 	private final QueueClient queue;
 	private final SessionDAO sessionDao;
 	private final FacilityDAO facilityDao;
+	private final TablePager<Facilitate> pager;
 
 	public FacilitateDAO(final String connectionString, final FacilityDAO facilityDao, final SessionDAO sessionDao, final QueueClient queue)
 		throws InvalidKeyException, StorageException, URISyntaxException
@@ -61,6 +62,7 @@ public class FacilitateDAO
 		this.queue = queue;
 		this.sessionDao = sessionDao;
 		this.facilityDao = facilityDao;
+		this.pager = new TablePager<>(table);
 	}
 
 	public FacilitateValue addByCitizen(final FacilitateValue value) throws ValidationException
@@ -97,7 +99,7 @@ public class FacilitateDAO
 	{
 		validate(value);
 
-		try { table.execute(insert(new Facilitate(value.withStatus(CrowdsourceStatus.OPEN)))); }
+		try { table.execute(insert(new Facilitate(value.withStatus(CrowdsourceStatus.OPEN)))); pager.clear(); }
 		catch (final StorageException ex) { throw new RuntimeException(ex); }
 
 		try { queue.sendMessage(mapper.writeValueAsString(value)); }
@@ -161,6 +163,7 @@ public class FacilitateDAO
 
 			table.execute(delete(record));	// MUST remove the existing value. When the status changes, the partition key will change too making this a remove and insert operation. DLS on 5/22/2020.
 			table.execute(insert(record.promote(auth.id, v.id)));
+			pager.clear();
 
 			return record.toValue().withValue(v);	// Perform toValue after promoted.
 		}
@@ -184,6 +187,7 @@ public class FacilitateDAO
 			var record = findWithException(statusId, createdAt);
 			table.execute(delete(record));	// MUST remove the existing value. When the status changes, the partition key will change too making this a remove and insert operation. DLS on 5/22/2020.
 			table.execute(insert(record.reject(auth.id)));
+			pager.clear();
 
 			return record.toValue();
 		}
@@ -207,6 +211,7 @@ public class FacilitateDAO
 			if (null == record) return false;
 	
 			table.execute(delete(record));
+			pager.clear();
 		}
 		catch (final StorageException ex) { throw new RuntimeException(ex); }
 
@@ -278,15 +283,7 @@ public class FacilitateDAO
 	 */
 	public QueryResults<FacilitateValue, FacilitateFilter> search(final FacilitateFilter filter) throws ValidationException
 	{
-		var pageSize = filter.pageSize(100);
-		var values = new LinkedList<FacilitateValue>();
-		for (var o : table.execute(createQueryBuilder(filter)))
-		{
-			if (1 > pageSize--) break;
-			values.add(o.toValue());
-		}
-
-		return values.isEmpty() ? new QueryResults<>(0L, filter) : new QueryResults<>(values, filter);
+		return pager.search(createQueryBuilder(filter), filter, o -> o.toValue());
 	}
 
 	/** Counts the number of Facilitate entities based on the supplied filter.
@@ -295,13 +292,9 @@ public class FacilitateDAO
 	 * @return zero if none found.
 	 * @throws ValidationException
 	 */
-	@SuppressWarnings("unused")
 	public long count(final FacilitateFilter filter) throws ValidationException
 	{
-		long i = 0;
-		for (var o : table.execute(createQueryBuilder(filter))) i++;
-
-		return i;
+		return pager.count(createQueryBuilder(filter));
 	}
 
 	/** Helper method - creates the a standard Hibernate query builder. */
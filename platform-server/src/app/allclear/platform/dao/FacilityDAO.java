@@ -14,8 +14,11 @@ import org.slf4j.*;
 
 import app.allclear.common.dao.*;
 import app.allclear.common.errors.*;
+import app.allclear.common.geo.GeoIndex;
 import app.allclear.common.hibernate.AbstractDAO;
+import app.allclear.common.hibernate.HibernateQueryBuilder;
 import app.allclear.common.hibernate.NativeQueryBuilder;
+import app.allclear.common.redis.RedisClient;
 import app.allclear.common.time.StopWatch;
 import app.allclear.common.value.Constants;
 import app.allclear.common.value.CreatedValue;
@@ -35,7 +38,7 @@ import app.allclear.platform.value.PeopleValue;
 *
 **********************************************************************************/
 
-public class FacilityDAO extends AbstractDAO<Facility>
+public class FacilityDAO extends AbstractDAO<Facility> implements AutoCloseable
 {
 	private static final Logger log = LoggerFactory.getLogger(FacilityDAO.class);
 
@@ -92,15 +95,49 @@ public class FacilityDAO extends AbstractDAO<Facility>
 	/** Native SQL clauses. */
 	public static final String FROM_ALIAS = "o";
 
-	private static final Map<Long, List<CreatedValue>> EMPTY = Map.of();
+	/** GEO index search constants. */
+	private static final String SELECT_ID = "SELECT o.id FROM Facility o";
+	public static final int INDEX_MAX_CANDIDATES = 1000;	// Larger candidate lists with additional criteria fall back to the native query.
+	public static final String CHANNEL = "facilities:indexed";	// Pub/sub channel of the GEO index changes: "id" removes and "id,latitude,longitude" puts.
+
 
 	private final Auditor auditor;
+	private final GeoIndex<Long> index;	// Optional in-memory index of the active facility coordinates.
+	private final RedisClient redis;	// Optional - shares the GEO index changes with the other nodes.
+	private final RedisClient.Subscription subscription;
 
 	public FacilityDAO(final SessionFactory factory, final Auditor auditor)
+	{
+		this(factory, auditor, null);
+	}
+
+	public FacilityDAO(final SessionFactory factory, final Auditor auditor, final GeoIndex<Long> index)
+	{
+		this(factory, auditor, index, null);
+	}
+
+	/** Populator.
+	 *
+	 * @param factory
+	 * @param auditor
+	 * @param index optional in-memory index of the active facility coordinates.
+	 * @param redis optional - publishes this node's GEO index changes to, and receives them from, the other nodes.
+	 */
+	public FacilityDAO(final SessionFactory factory, final Auditor auditor, final GeoIndex<Long> index, final RedisClient redis)
 	{
 		super(factory);
 
+		this.index = index;
 		this.auditor = auditor;
+		this.redis = (null != index) ? redis : null;
+		this.subscription = (null != this.redis) ? redis.subscribe(CHANNEL, this::indexed) : null;
+	}
+
+	/** Stops receiving the GEO index changes of the other nodes. */
+	@Override
+	public void close()
+	{
+		if (null != subscription) subscription.close();
 	}
 
 	/** Adds a single Facility value.
@@ -140,6 +177,7 @@ public class FacilityDAO extends AbstractDAO<Facility>
 				update(s, record, record.getPeople(), value.people, v -> new FacilityPeople(rec, person(s, v.id, validator), v), "deleteFacilityPeople");
 
 			auditor.update(value.withId(record.getId()));
+			index(record);
 		}
 		else
 		{
@@ -158,6 +196,7 @@ public class FacilityDAO extends AbstractDAO<Facility>
 				add(s, value.people, v -> new FacilityPeople(rec, person(s, v.id, validator), v));
 
 			auditor.add(value.withId(record.getId()));
+			index(record);
 		}
 
 		return value;
@@ -275,6 +314,7 @@ public class FacilityDAO extends AbstractDAO<Facility>
 		currentSession().delete(record);
 
 		auditor.remove(value);
+		if (null != index) afterTrans(() -> publish(id.toString()));
 
 		return true;
 	}
@@ -389,6 +429,7 @@ public class FacilityDAO extends AbstractDAO<Facility>
 			update(s, o, o.getPeople(), value.people, v -> new FacilityPeople(rec, person(s, v.id, validator), v), "deleteFacilityPeople");
 
 		auditor.review(value.withId(o.getId()));
+		index(o);
 
 		return value;
 	}
@@ -403,6 +444,71 @@ public class FacilityDAO extends AbstractDAO<Facility>
 		return (null != namedQuery("existFacilityById", Long.class).setParameter("id", id).uniqueResult());
 	}
 
+	/** Helper method - refreshes the GEO index entry of the facility on every node after the current transaction commits. */
+	private void index(final Facility record)
+	{
+		if (null == index) return;
+
+		var message = record.isActive() ? record.getId() + "," + record.getLatitude() + "," + record.getLongitude() : record.getId().toString();
+		afterTrans(() -> publish(message));
+	}
+
+	/** Helper method - applies the GEO index change to this node and then publishes it to the other nodes.
+	 *  A missed message is caught by the stale page check in search or by the periodic reload.
+	 */
+	private void publish(final String message)
+	{
+		indexed(message);
+		if (null == redis) return;
+
+		try { redis.publish(CHANNEL, message); }
+		catch (final RuntimeException ex) { log.warn("PUBLISH_FAILED: {} - {}", message, ex.getMessage()); }
+	}
+
+	/** Applies a single GEO index change: "id" removes the facility and "id,latitude,longitude" adds or moves it.
+	 *
+	 * @param message
+	 */
+	void indexed(final String message)
+	{
+		try
+		{
+			var o = message.split(",");
+			var id = Long.valueOf(o[0]);
+			if (3 == o.length) index.put(id, Double.parseDouble(o[1]), Double.parseDouble(o[2]));
+			else index.remove(id);
+		}
+		catch (final NumberFormatException ex) { log.warn("INDEX_INVALID: {} - {}", message, ex.getMessage()); }
+	}
+
+	/** Helper method - gets the GEO index and fully reloads it from the database if stale.
+	 *  The periodic reload picks up changes committed by other nodes without publishing them.
+	 */
+	private GeoIndex<Long> index()
+	{
+		if (index.stale()) reload(index.loadedAt());
+
+		return index;
+	}
+
+	/** Helper method - fully reloads the GEO index from the database unless another thread has already reloaded it.
+	 *
+	 * @param loadedAt the load time of the index that was found stale.
+	 */
+	private void reload(final long loadedAt)
+	{
+		synchronized (index)
+		{
+			if (loadedAt != index.loadedAt()) return;
+
+			var timer = new StopWatch();
+			index.load(namedQuery("findActiveFacilityPoints", Object[].class).stream()
+				.map(o -> new GeoIndex.Point<>((Long) o[0], ((BigDecimal) o[1]).doubleValue(), ((BigDecimal) o[2]).doubleValue()))
+				.collect(toList()));
+			log.info("INDEX_LOADED: {} facilities in {}", index.size(), timer.split());
+		}
+	}
+
 	/** Finds a single Facility entity by identifier.
 	 *
 	 * @param id
@@ -499,6 +605,16 @@ public class FacilityDAO extends AbstractDAO<Facility>
 		return findActiveByNameAndDistance(name, latitude, longitude, meters).stream().map(o -> o.toValue()).collect(toList());
 	}
 
+	/** Gets the coordinates and activation timestamp of every facility that has been activated.
+	 *  Used by the AlertZoneTask to evaluate the facility alerts of an entire timezone in memory.
+	 * 
+	 * @return never NULL - each row is the ID, latitude, longitude, and activatedAt.
+	 */
+	public List<Object[]> getActivatedPoints()
+	{
+		return namedQuery("findActivatedFacilityPoints", Object[].class).list();
+	}
+
 	/** Gets the Activated timestamps for facilities within the specified range. Used by the AlertTask to determine if a user has new facilities in their area.
 	 * 
 	 * @param latitude
@@ -578,32 +694,95 @@ public class FacilityDAO extends AbstractDAO<Facility>
 		if ((null != filter.from) && filter.from.valid())
 		{
 			filter.sortOn = "meters";	// Only sort by meters. Default to returning the closest first. DLS on 4/3/2020.
+			var v = indexable(filter) ? searchIndex(filter.clean(), admin, timer) : null;
+			if (null != v) return v;
+
 			var builder = createNativeQuery(filter.clean(), SELECT_, FacilityX.class, admin);
 			log.info("BUILT_QUERY: {}", timer.split());
-			var v = new QueryResults<FacilityValue, FacilityFilter>(builder.aggregate(COUNT_), filter);
-			log.info("COUNT: {}", timer.split());
-			if (v.isEmpty()) return v;
-
-			var records = builder.orderBy(ORDER.normalize(v)).run(v);
+			v = builder.search(filter, COUNT_, ORDER, records -> cmr(records.stream().map(o -> o.toValue()).collect(toList()), admin));
 			log.info("QUERIED: {}", timer.split());
 
-			return v.withRecords(cmr(records.stream().map(o -> o.toValue()).collect(toList()), admin));
+			return v;
 		}
 		else
 		{
 			var builder = createQueryBuilder(filter.clean(), SELECT, admin);
 			log.info("BUILT_QUERY: {}", timer.split());
-			var v = new QueryResults<FacilityValue, FacilityFilter>(builder.aggregate(COUNT), filter);
-			log.info("COUNT: {}", timer.split());
+			var v = builder.search(filter, COUNT, ORDER, records -> cmr(records.stream().map(o -> o.toValue()).collect(toList()), admin));
+			log.info("QUERIED: {}", timer.split());
+
+			return v;
+		}
+	}
+
+	/** Indicates that the GEO index can service the search. The index only contains active facilities. */
+	private boolean indexable(final FacilityFilter filter)
+	{
+		return (null != index) && Boolean.TRUE.equals(filter.active);
+	}
+
+	/** Helper method - pages through the GEO index hits. A page that holds facilities removed or deactivated by another
+	 *  node means that the index missed changes so it is reloaded and searched once more. The reload keeps those facilities
+	 *  out of the total and pages, refills the page from the next hits, and adds facilities activated by another node.
+	 *
+	 * @param filter
+	 * @param admin
+	 * @param timer
+	 * @return NULL if the candidate list is too large to apply the additional criteria.
+	 */
+	private QueryResults<FacilityValue, FacilityFilter> searchIndex(final FacilityFilter filter, final boolean admin, final StopWatch timer)
+	{
+		for (int tries = 0; ; tries++)
+		{
+			var hits = searchIndex(filter, admin);
+			if (null == hits) return null;
+
+			var loadedAt = index.loadedAt();
+			log.info("INDEX_SEARCHED: {}", timer.split());
+			var v = new QueryResults<FacilityValue, FacilityFilter>((long) hits.size(), filter);
 			if (v.isEmpty()) return v;
 
-			var records = builder.orderBy(ORDER.normalize(v)).run(v);
+			ORDER.normalize(v);
+			var page = hits.subList(v.firstResult(), Math.min(v.firstResult() + v.pageSize, hits.size()));
+			var records = currentSession().byMultipleIds(Facility.class).multiLoad(page.stream().map(o -> o.key).collect(toList()));	// Leverages the second level cache.
 			log.info("QUERIED: {}", timer.split());
 
-			return v.withRecords(cmr(records.stream().map(o -> o.toValue()).collect(toList()), admin));
+			var values = new ArrayList<FacilityValue>(page.size());
+			for (int i = 0; i < page.size(); i++)
+			{
+				var o = records.get(i);
+				if ((null != o) && filter.active.equals(o.isActive())) values.add(o.toValue().withMeters(page.get(i).meters));
+			}
+
+			if ((values.size() == page.size()) || (0 < tries)) return v.withRecords(cmr(values, admin));	// Only reload once per search.
+
+			log.warn("INDEX_STALE: {} of {} facilities on the page were removed or deactivated by another node", page.size() - values.size(), page.size());
+			reload(loadedAt);
 		}
 	}
 
+	/** Helper method - performs the distance search against the in-memory GEO index instead of calculating the distance to every row in the database.
+	 *  Any additional criteria are applied by the database against the candidate IDs.
+	 *
+	 * @param filter
+	 * @param admin
+	 * @return NULL if the candidate list is too large to apply the additional criteria.
+	 */
+	private List<GeoIndex.Hit<Long>> searchIndex(final FacilityFilter filter, final boolean admin)
+	{
+		var hits = index().near(filter.from.latitude.doubleValue(), filter.from.longitude.doubleValue(), filter.from.meters());
+		if (hits.isEmpty()) return hits;
+
+		var builder = (HibernateQueryBuilder<Facility>) createQueryBuilder(filter, SELECT_ID, admin, null);	// The index & the loaded records' active check satisfy the active criterion.
+		if (!builder.hasCriteria()) return hits;
+		if (INDEX_MAX_CANDIDATES < hits.size()) return null;
+
+		builder.addIn("ids", "o.id IN {}", hits.stream().map(o -> o.key).collect(toList()));	// Apply the additional criteria to the candidates.
+		var ids = new HashSet<>(builder.bind(builder.create(SELECT_ID, Long.class), Long.class).list());
+
+		return hits.stream().filter(o -> ids.contains(o.key)).collect(toList());
+	}
+
 	/** Counts the number of Facility entities based on the supplied filter.
 	 *
 	 * @param filter
@@ -614,7 +793,12 @@ public class FacilityDAO extends AbstractDAO<Facility>
 	public long count(final FacilityFilter filter, final boolean admin) throws ValidationException
 	{
 		if ((null != filter.from) && filter.from.valid())
+		{
+			var hits = indexable(filter) ? searchIndex(filter.clean(), admin) : null;
+			if (null != hits) return (long) hits.size();
+
 			return createNativeQuery(filter.clean(), null, FacilityX.class, admin).aggregate(COUNT_);
+		}
 		else
 			return createQueryBuilder(filter.clean(), null, admin).aggregate(COUNT);
 	}
@@ -622,6 +806,13 @@ public class FacilityDAO extends AbstractDAO<Facility>
 	/** Helper method - creates the a standard Hibernate query builder. */
 	private QueryBuilder<Facility> createQueryBuilder(final FacilityFilter filter, final String select, final boolean admin)
 		throws ValidationException
+	{
+		return createQueryBuilder(filter, select, admin, filter.active);
+	}
+
+	/** Helper method - creates the a standard Hibernate query builder with an explicit active criterion. */
+	private QueryBuilder<Facility> createQueryBuilder(final FacilityFilter filter, final String select, final boolean admin, final Boolean active)
+		throws ValidationException
 	{
 		return createQueryBuilder(select)
 			.add("id", "o.id = :id", filter.id)
@@ -696,7 +887,7 @@ public class FacilityDAO extends AbstractDAO<Facility>
 			.add("lockedTillTo", "o.lockedTill <= :lockedTillTo", filter.lockedTillTo)
 			.addContains("lockedBy", "o.lockedBy LIKE :lockedBy", filter.lockedBy)
 			.addNotNull("o.lockedBy", filter.hasLockedBy)
-			.add("active", "o.active = :active", filter.active)
+			.add("active", "o.active = :active", active)
 			.addNotNull("o.activatedAt", filter.hasActivatedAt)
 			.add("activatedAtFrom", "o.activatedAt >= :activatedAtFrom", filter.activatedAtFrom)
 			.add("activatedAtTo", "o.activatedAt <= :activatedAtTo", filter.activatedAtTo)
@@ -817,16 +1008,11 @@ public class FacilityDAO extends AbstractDAO<Facility>
 
 	private List<FacilityValue> cmr(final List<FacilityValue> values, final boolean admin)	// Populate children entities.
 	{
-		if (values.isEmpty()) return values;
-
-		var ids = values.stream().map(v -> v.id).collect(toList());
-		var people = admin ? namedQuery("findFacilityPeopleByFacilities", Created.class).setParameterList("facilityIds", ids).stream()
-			.collect(groupingBy(o -> o.parentId, mapping(o -> o.toValue(), toList()))) : EMPTY;	
-		var testTypes = namedQuery("findFacilityTestTypes", FacilityTestType.class).setParameterList("facilityIds", ids).stream()
-		 	.collect(groupingBy(o -> o.getFacilityId(), mapping(o -> o.toValue(), toList())));
-
-		values.forEach(v -> v.withPeople(people.get(v.id)).withTestTypes(testTypes.get(v.id)));
+		var o = hydrate(values);
+		if (admin)
+			o.children(v -> v.id, namedQueryIn("findFacilityPeopleByFacilities", Created.class, "facilityIds"), c -> c.parentId, c -> c.toValue(), (v, c) -> v.withPeople(c));
 
-		return values;
+		return o.children(v -> v.id, namedQueryIn("findFacilityTestTypes", FacilityTestType.class, "facilityIds"), c -> c.getFacilityId(), c -> c.toValue(), (v, c) -> v.withTestTypes(c))
+			.values();
 	}
 }
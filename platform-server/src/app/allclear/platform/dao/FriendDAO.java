@@ -295,11 +295,8 @@ public class FriendDAO extends AbstractDAO<Friend>
 	 */
 	public QueryResults<FriendValue, FriendFilter> search(final FriendFilter filter) throws ValidationException
 	{
-		var builder = createQueryBuilder(filter.clean(), SELECT);
-		var v = new QueryResults<FriendValue, FriendFilter>(builder.aggregate(COUNT), filter);
-		if (v.isEmpty()) return v;
-
-		return v.withRecords(builder.orderBy(ORDER.normalize(v)).run(v).stream().map(o -> o.toValue()).collect(Collectors.toList()));
+		return createQueryBuilder(filter.clean(), SELECT)
+			.search(filter, COUNT, ORDER, records -> cmr(records.stream().map(o -> o.toValue(null, null)).collect(Collectors.toList())));
 	}
 
 	/** Counts the number of Friend entities based on the supplied filter.
@@ -330,4 +327,13 @@ public class FriendDAO extends AbstractDAO<Friend>
 			.add("createdAtFrom", "o.createdAt >= :createdAtFrom", filter.createdAtFrom)
 			.add("createdAtTo", "o.createdAt <= :createdAtTo", filter.createdAtTo);
 	}
+
+	/** Helper method - populates the denormalized names with one query per relation instead of one per record. */
+	private List<FriendValue> cmr(final List<FriendValue> values)
+	{
+		return hydrate(values)
+			.lookup(v -> v.personId, namedQueryIn("getPeopleNamesByIds", Named.class, "ids"), o -> o.id, (v, o) -> v.withPersonName(o.name))
+			.lookup(v -> v.inviteeId, namedQueryIn("getPeopleNamesByIds", Named.class, "ids"), o -> o.id, (v, o) -> v.withInviteeName(o.name))
+			.values();
+	}
 }
@@ -379,11 +379,8 @@ public class PatientDAO extends AbstractDAO<Patient>
 	 */
 	public QueryResults<PatientValue, PatientFilter> search(final PatientFilter filter) throws ValidationException
 	{
-		var builder = createQueryBuilder(filter.clean(), SELECT);
-		var v = new QueryResults<PatientValue, PatientFilter>(builder.aggregate(COUNT), filter);
-		if (v.isEmpty()) return v;
-
-		return v.withRecords(builder.orderBy(ORDER.normalize(v)).run(v).stream().map(o -> o.toValue()).collect(toList()));
+		return createQueryBuilder(filter.clean(), SELECT)
+			.search(filter, COUNT, ORDER, records -> cmr(records.stream().map(o -> o.toValue(null, null)).collect(toList())));
 	}
 
 	/** Counts the number of Patient entities based on the supplied filter.
@@ -427,4 +424,13 @@ public class PatientDAO extends AbstractDAO<Patient>
 			.add("updatedAtFrom", "o.updatedAt >= :updatedAtFrom", filter.updatedAtFrom)
 			.add("updatedAtTo", "o.updatedAt <= :updatedAtTo", filter.updatedAtTo);
 	}
+
+	/** Helper method - populates the denormalized names with one query per relation instead of one per record. */
+	private List<PatientValue> cmr(final List<PatientValue> values)
+	{
+		return hydrate(values)
+			.lookup(v -> v.facilityId, namedQueryIn("getFacilityNamesByIds", Name.class, "ids"), o -> o.id, (v, o) -> v.withFacilityName(o.name))
+			.lookup(v -> v.personId, namedQueryIn("getPeopleNamesByIds", Named.class, "ids"), o -> o.id, (v, o) -> v.withPersonName(o.name))
+			.values();
+	}
 }
@@ -3,6 +3,8 @@ package app.allclear.platform.dao;
 import static java.util.stream.Collectors.*;
 import static app.allclear.common.dao.OrderByBuilder.*;
 
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.*;
 import java.util.function.Function;
 
@@ -36,9 +38,26 @@ import app.allclear.platform.value.*;
 
 public class PeopleDAO extends AbstractDAO<People>
 {
+	/** Represents the outcome of a single facility alert check. */
+	public static class Alerted
+	{
+		public final String id;
+		public final int alertedOf;
+		public final Date alertedAt;
+
+		public Alerted(final String id, final int alertedOf, final Date alertedAt)
+		{
+			this.id = id;
+			this.alertedOf = alertedOf;
+			this.alertedAt = alertedAt;
+		}
+	}
+
 	public static final int MAX_FACILITIES = 20;
+	public static final int ALERTED_BATCH_SIZE = 500;
 
 	private static final String SELECT = "SELECT OBJECT(o) FROM People o";
+	private static final String UPDATE_ALERTED = "UPDATE people SET alerted_of = ?, alerted_at = ?, updated_at = ? WHERE id = ?";
 	private static final String SELECT_NAMES = "SELECT o.id, o.name FROM people o";
 	private static final String COUNT = "SELECT COUNT(o.id) FROM People o";
 	private static final OrderByBuilder.Sort SORT_NAME = new OrderByBuilder.Sort("name", "o.name", "ASC", true, null);
@@ -727,6 +746,98 @@ public class PeopleDAO extends AbstractDAO<People>
 			.list();
 	}
 
+	/** Gets the fields needed to evaluate facility alerts of People that are active, alertable, and within a specific timezone.
+	 * 
+	 * @param lastId
+	 * @param zone
+	 * @param pageSize
+	 * @return never NULL - each row is the ID, phone, latitude, longitude, alertedAt, and authAt.
+	 */
+	public List<Object[]> getActiveAlertableByLongitude(final String lastId, final Timezone zone, final int pageSize)
+	{
+		return namedQuery("getActiveAlertablePeopleByLongitude", Object[].class)
+			.setParameter("lastId", lastId)
+			.setParameter("longitudeFrom", zone.longitudeFrom)
+			.setParameter("longitudeTo", zone.longitudeTo)
+			.setMaxResults(pageSize)
+			.list();
+	}
+
+	/** Gets the fields needed to evaluate facility alerts of specific People in a single query.
+	 * 
+	 * @param ids
+	 * @return never NULL - each row is the ID, phone, latitude, longitude, alertedAt, and authAt. Invalid IDs are omitted.
+	 */
+	public List<Object[]> getAlertsByIds(final List<String> ids)
+	{
+		if (CollectionUtils.isEmpty(ids)) return List.of();
+
+		return namedQuery("getPeopleAlertsByIds", Object[].class).setParameterList("ids", ids).list();
+	}
+
+	/** Gets the earliest date from which facility alerts are checked across the active, alertable People within a specific timezone.
+	 * 
+	 * @param zone
+	 * @return NULL if no People have alerted or authenticated.
+	 */
+	public Date getEarliestAlertedAtByLongitude(final Timezone zone)
+	{
+		return namedQuery("getEarliestAlertedAtByLongitude", Date.class)
+			.setParameter("longitudeFrom", zone.longitudeFrom)
+			.setParameter("longitudeTo", zone.longitudeTo)
+			.uniqueResult();
+	}
+
+	/** Records the outcomes of facility alert checks with JDBC batch updates instead of loading and dirtying each entity.
+	 *  The cached entities are evicted after the commit since the updates bypass Hibernate. Evicting before the commit
+	 *  would let a concurrent read cache the prior values again.
+	 * 
+	 * @param values
+	 * @param batchSize number of updates per JDBC batch.
+	 * @return number of People updated.
+	 */
+	public int updateAlerted(final List<Alerted> values) { return updateAlerted(values, ALERTED_BATCH_SIZE); }
+	public int updateAlerted(final List<Alerted> values, final int batchSize)
+	{
+		if (CollectionUtils.isEmpty(values)) return 0;
+
+		var count = new int[] { 0 };
+		var s = currentSession();
+		s.doWork(c -> {
+			try (var stmt = c.prepareStatement(UPDATE_ALERTED))
+			{
+				int i = 0;
+				for (var v : values)
+				{
+					var at = new Timestamp(v.alertedAt.getTime());
+					stmt.setInt(1, v.alertedOf);
+					stmt.setTimestamp(2, at);
+					stmt.setTimestamp(3, at);
+					stmt.setString(4, v.id);
+					stmt.addBatch();
+
+					if (0 == (++i % batchSize)) count[0]+= updated(stmt.executeBatch());
+				}
+
+				if (0 != (i % batchSize)) count[0]+= updated(stmt.executeBatch());
+			}
+		});
+
+		var cache = s.getSessionFactory().getCache();
+		afterTrans(() -> values.forEach(v -> cache.evictEntityData(People.class, v.id)));
+
+		return count[0];
+	}
+
+	/** Helper method - counts the successful statements of a JDBC batch. */
+	private int updated(final int[] results)
+	{
+		int i = 0;
+		for (var o : results) if ((0 < o) || (Statement.SUCCESS_NO_INFO == o)) i++;
+
+		return i;
+	}
+
 	/** Gets a list of active People by wildcard ID and/or name search.
 	 * 
 	 * @param name
@@ -763,11 +874,11 @@ public class PeopleDAO extends AbstractDAO<People>
 	 */
 	public QueryResults<PeopleValue, PeopleFilter> search(final PeopleFilter filter) throws ValidationException
 	{
-		var builder = createQueryBuilder(filter.clean(), SELECT);
-		var v = new QueryResults<PeopleValue, PeopleFilter>(builder.aggregate(COUNT), filter);
-		if (v.isEmpty()) return v;
-
-		return v.withRecords(builder.orderBy(ORDER.normalize(v)).run(v).stream().map(o -> o.toValue(filter.who())).collect(toList()));
+		return createQueryBuilder(filter.clean(), SELECT)
+			.search(filter, COUNT, ORDER, records -> {
+				var values = records.stream().map(o -> o.toValue(filter.who())).collect(toList());
+				return filter.includeChildren() ? cmr(records, values, filter.who()) : values;
+			});
 	}
 
 	/** Counts the number of People entities based on the supplied filter.
@@ -886,4 +997,28 @@ public class PeopleDAO extends AbstractDAO<People>
 
 		return o;
 	}
+
+	/** Helper method - populates the children of a page of people with one query per child type instead of walking the lazy collections of each record.
+	 *  Child collections that are not visible to the caller are left NULL.
+	 */
+	private List<PeopleValue> cmr(final List<People> records, final List<PeopleValue> values, final Visibility who)
+	{
+		var fields = records.stream().collect(toMap(o -> o.getId(), o -> o.getField()));
+		var o = hydrate(values)
+			.children(visible(fields, f -> f.visibilityConditions(), who), namedQueryIn("findConditionsByPeople", Conditions.class, "personIds"), c -> c.getPersonId(), c -> c.toValue(), (v, c) -> v.withConditions(c))
+			.children(visible(fields, f -> f.visibilityExposures(), who), namedQueryIn("findExposuresByPeople", Exposures.class, "personIds"), c -> c.getPersonId(), c -> c.toValue(), (v, c) -> v.withExposures(c))
+			.children(visible(fields, f -> f.visibilitySymptoms(), who), namedQueryIn("findSymptomsByPeople", Symptoms.class, "personIds"), c -> c.getPersonId(), c -> c.toValue(), (v, c) -> v.withSymptoms(c))
+			.children(v -> v.id, namedQueryIn("findPeopleFacilitiesByPeople", PeopleFacility.class, "personIds"), c -> c.getPersonId(), c -> c.toFacility().withFavorite(true), (v, c) -> v.withFacilities(c));
+
+		if (Visibility.ME.equals(who))	// Facility associations are only part of the full profile.
+			o.children(v -> v.id, namedQueryIn("findFacilityPeopleByPeople", FacilityPeople.class, "personIds"), c -> c.getPersonId(), c -> c.toCreate(), (v, c) -> v.withAssociations(c));
+
+		return o.values();
+	}
+
+	/** Helper method - gets the person identifier only when the child collection is visible to the caller. */
+	private Function<PeopleValue, String> visible(final Map<String, PeopleField> fields, final Function<PeopleField, Visibility> visibility, final Visibility who)
+	{
+		return v -> visibility.apply(fields.get(v.id)).available(who) ? v.id : null;
+	}
 }
@@ -4,16 +4,19 @@ import static java.net.URLEncoder.encode;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
 import redis.clients.jedis.Jedis;
-import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.params.SetParams;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -22,6 +25,7 @@ import app.allclear.common.dao.QueryResults;
 import app.allclear.common.errors.Validator;
 import app.allclear.common.errors.ValidationException;
 import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.common.redis.PermitLimiter;
 import app.allclear.common.redis.RedisClient;
 import app.allclear.platform.Config;
 import app.allclear.platform.filter.RegistrationFilter;
@@ -43,10 +47,12 @@ import app.allclear.twilio.model.*;
 public class RegistrationDAO
 {
 	private static final String ID = "registration:%s:%s";
-	private static final String MATCH = "registration:*";
+	private static final String PREFIX = "registration:";
+	private static final String RESERVED = "";	// Placeholder value of a reserved code until the registration is committed.
 	public static final int MAX_TRIES = 3;
 	public static final int CODE_LENGTH = 6;
 	public static final int EXPIRATION = 10 * 60;	// Ten minutes
+	public static final String LIMIT_KEY = "limit:registration";	// Prefix of the outstanding code counters.
 	private static final ObjectMapper mapper = JacksonUtils.createMapper();
 	private static final TypeReference<Map<String, String>> TYPE_MAP = new TypeReference<Map<String, String>>() {};
 
@@ -55,17 +61,20 @@ public class RegistrationDAO
 	private final String message;
 	private final RedisClient redis;
 	private final TwilioClient twilio;
+	private final PermitLimiter limiter;
 
 	public RegistrationDAO(final RedisClient redis, final TwilioClient twilio, final Config conf)
 	{
 		this.redis = redis;
 		this.twilio = twilio;
+		this.limiter = new PermitLimiter(redis, LIMIT_KEY, EXPIRATION * 1000L);
 		this.sid = conf.registrationSid;
 		this.from = conf.registrationPhone;
 		this.message = conf.registrationSMSMessage;
 	}
 
 	public String key(final String phone, final String code) { return String.format(ID, phone, code); }
+	public PermitLimiter limiter() { return limiter; }
 
 	/** Initiates registration & phone number confirmation process.
 	 *  Used for the legacy 3-step registration process.
@@ -80,24 +89,12 @@ public class RegistrationDAO
 			.ensurePattern("phone", "Phone", request.phone, Validator.PATTERN_PHONE)
 			.check();
 		
-		return redis.operation(c -> {
-			limit(c, request.phone);	// Ensure that the max current tries has not been exceeded. DLS on 4/19/2020.
-
-			int i = 0;
-			var code = RandomStringUtils.randomNumeric(CODE_LENGTH).toUpperCase();
-			var key = key(request.phone, code);
-			while (c.exists(key))
-			{
-				if (10 < i++) throw new IllegalArgumentException("CanNOT generate identifier - 10 tries.");
-				key = key(request.phone, code = RandomStringUtils.randomNumeric(CODE_LENGTH).toUpperCase());
-			}
-
-			twilio.send(new SMSRequest(sid, from, String.format(message, code, encode(request.phone, UTF_8), encode(code, UTF_8)), request.phone));
-			c.hset(key, mapper.convertValue(request, TYPE_MAP));
-			c.expire(key, EXPIRATION);
-
-			return code;
-		});
+		return start(request.phone, key -> redis.transaction(t -> {
+			t.del(key);	// Replace the reservation.
+			t.hset(key, mapper.convertValue(request, TYPE_MAP));
+			t.expire(key, EXPIRATION);
+			return () -> null;
+		}));
 	}
 
 	/** Accepts registration details, caches the details, and sends a confirmation code message.
@@ -113,23 +110,64 @@ public class RegistrationDAO
 			.ensurePattern("phone", "Phone", request.phone, Validator.PATTERN_PHONE)
 			.check();
 
-		return redis.operation(c -> {
-			limit(c, request.phone);	// Ensure that the max current tries has not been exceeded. DLS on 4/19/2020.
+		return start(request.phone, key -> {
+			try { redis.put(key, mapper.writeValueAsString(request), EXPIRATION); }
+			catch (final IOException ex) { throw new RuntimeException(ex); }
+		});
+	}
 
-			int i = 0;
-			var code = RandomStringUtils.randomNumeric(CODE_LENGTH).toUpperCase();
-			var key = key(request.phone, code);
-			while (c.exists(key))
+	/** Helper method - sends a confirmation code without holding a Redis connection during the SMS round trip.
+	 *  A try and a unique code are reserved first, then the message is sent, and then the registration is committed.
+	 *  The reservations are returned if the message cannot be sent.
+	 * 
+	 * @param phone
+	 * @param commit stores the registration under the reserved key.
+	 * @return the confirmation code
+	 * @throws ValidationException if the max current tries has been exceeded.
+	 */
+	private String start(final String phone, final Consumer<String> commit) throws ValidationException
+	{
+		limit(phone);	// Ensure that the max current tries has not been exceeded. DLS on 4/19/2020.
+
+		String code = null;
+		try
+		{
+			code = reserve(phone);
+			twilio.send(new SMSRequest(sid, from, String.format(message, code, encode(phone, UTF_8), encode(code, UTF_8)), phone));
+		}
+		catch (final RuntimeException ex)
+		{
+			var key = (null != code) ? key(phone, code) : null;
+			redis.operation(c -> {
+				if (null != key) c.del(key);
+				limiter.release(c, phone);
+				return null;
+			});
+			throw ex;
+		}
+
+		commit.accept(key(phone, code));
+
+		return code;
+	}
+
+	/** Helper method - reserves a unique confirmation code for the phone number.
+	 * 
+	 * @param phone
+	 * @return the confirmation code
+	 * @throws IllegalArgumentException if a unique code cannot be generated.
+	 */
+	private String reserve(final String phone) throws IllegalArgumentException
+	{
+		return redis.operation(c -> {
+			for (int i = 0; i < 10; i++)
 			{
-				if (10 < i++) throw new IllegalArgumentException("CanNOT generate identifier - 10 tries.");
-				key = key(request.phone, code = RandomStringUtils.randomNumeric(CODE_LENGTH).toUpperCase());
+				var code = RandomStringUtils.randomNumeric(CODE_LENGTH).toUpperCase();
+				var key = key(phone, code);
+				if (null != c.set(key, RESERVED, SetParams.setParams().nx().ex(EXPIRATION))) return code;	// Reserves & expires atomically so that a failure never leaves a reservation without an expiration.
 			}
 
-			twilio.send(new SMSRequest(sid, from, String.format(message, code, encode(request.phone, UTF_8), encode(code, UTF_8)), request.phone));
-			try { c.setex(key, EXPIRATION, mapper.writeValueAsString(request)); }
-			catch (final IOException ex) { throw new RuntimeException(ex); }
-
-			return code;
+			throw new IllegalArgumentException("CanNOT generate identifier - 10 tries.");
 		});
 	}
 
@@ -143,15 +181,17 @@ public class RegistrationDAO
 	 */
 	public StartRequest confirm(final String phone, final String code) throws ValidationException
 	{
-		return redis.operation(j -> {
-			var key = key(phone, code);
-			var o = request(j, key);
-			if (null == o) throw new ValidationException("code", "The supplied code is invalid.");
+		var key = key(phone, code);
+		var o = request(redis.transaction(t -> {	// Once confirmed, delete the key in the same round trip.
+			var v = t.hgetAll(key);
+			t.del(key);
+			return v::get;
+		}));
+		if (null == o) throw new ValidationException("code", "The supplied code is invalid.");
 
-			j.del(key);	// Once confirmed, delete the key.
+		limiter.release(phone);
 
-			return o;
-		});
+		return o;
 	}
 
 	/** Confirms the phone and registration code. Retrieves the original request.
@@ -163,15 +203,17 @@ public class RegistrationDAO
 	 */
 	public PeopleValue confirm(final StartResponse value) throws ValidationException
 	{
-		return redis.operation(j -> {
-			var key = key(value.phone, value.code);
-			var o = requestX(j, key);
-			if (null == o) throw new ValidationException("code", "The supplied code is invalid.");
+		var key = key(value.phone, value.code);
+		var o = requestX(redis.transaction(t -> {	// Once confirmed, delete the key in the same round trip.
+			var v = t.get(key);
+			t.del(key);
+			return v::get;
+		}));
+		if (null == o) throw new ValidationException("code", "The supplied code is invalid.");
 
-			j.del(key);	// Once confirmed, delete the key.
+		limiter.release(value.phone);
 
-			return o;
-		});
+		return o;
 	}
 
 	/** Gets the original start request based on the phone number and registration confirmation code.
@@ -207,7 +249,12 @@ public class RegistrationDAO
 	 */
 	StartRequest request(final Jedis jedis, final String key)
 	{
-		var map = jedis.hgetAll(key);
+		return request(jedis.hgetAll(key));
+	}
+
+	/** Helper method - converts the stored hash to a start request. */
+	private StartRequest request(final Map<String, String> map)
+	{
 		if (MapUtils.isEmpty(map)) return null;
 
 		return mapper.convertValue(map, StartRequest.class);
@@ -222,7 +269,12 @@ public class RegistrationDAO
 	 */
 	PeopleValue requestX(final Jedis jedis, final String key)
 	{
-		var v = jedis.get(key);
+		return requestX(jedis.get(key));
+	}
+
+	/** Helper method - converts the stored JSON to a person. Reserved codes are empty and treated as not found. */
+	private PeopleValue requestX(final String v)
+	{
 		if (StringUtils.isEmpty(v)) return null;
 
 		try { return mapper.readValue(v, PeopleValue.class); }
@@ -246,23 +298,49 @@ public class RegistrationDAO
 	public QueryResults<RegistrationValue, RegistrationFilter> search(final RegistrationFilter filter)
 	{
 		filter.clean();
-		return redis.operation(j -> {
-			var cursor = (filter.page() - 1) + "";
-			var match = (null != filter.phone) ? key(filter.phone, "*") : MATCH;
-			var o = j.scan(cursor, new ScanParams().count(filter.pageSize(100)).match(match));
-
-			if (CollectionUtils.isEmpty(o.getResult())) return new QueryResults<RegistrationValue, RegistrationFilter>(0L, filter);
-
-			var v = o.getResult().stream().map(i -> {
-				var ttl = j.ttl(i);
-				return ("hash".equals(j.type(i))) ? new RegistrationValue(i, request(j, i), ttl) : new RegistrationValue(i, requestX(j, i), ttl);
-			}).collect(Collectors.toList());
-			var r = new QueryResults<RegistrationValue, RegistrationFilter>(v, filter);
-			r.page = Integer.parseInt(o.getCursor());
-			r.pages++;	// Always add one.
-
-			return r;
+		if ((1 < filter.page()) && (null == filter.cursor))	// SCAN cannot seek to a page so later pages require the prior results' cursor.
+			throw new ValidationException("cursor", "Page " + filter.page() + " requires the cursor from the prior page.");
+		var results = new QueryResults<RegistrationValue, RegistrationFilter>(filter, 100);
+		RedisClient.KeyPage page = null;
+		try { page = redis.page((null != filter.phone) ? key(filter.phone, "") : PREFIX, filter.cursor, filter.pageSize(100)); }
+		catch (final IllegalArgumentException ex) { throw new ValidationException("cursor", ex.getMessage()); }
+
+		if (page.keys.isEmpty()) return results.cursored(List.of(), page.cursor);
+
+		var keys = page.keys;
+		var o = redis.pipeline(p -> {	// Values & TTLs in one round trip.
+			var values = p.mget(keys.toArray(new String[keys.size()]));
+			var ttls = keys.stream().map(p::ttl).collect(Collectors.toList());
+			return () -> Pair.of(values.get(), ttls.stream().map(Response::get).collect(Collectors.toList()));
 		});
+
+		var values = o.getLeft();
+		var ttls = o.getRight();
+		var hashKeys = IntStream.range(0, keys.size()).filter(i -> null == values.get(i)).mapToObj(keys::get).collect(Collectors.toList());
+		var maps = hashKeys.isEmpty() ? Map.<String, Map<String, String>>of() : redis.pipeline(p -> {	// Legacy requests are stored as hashes, which MGET does not return.
+			var v = hashKeys.stream().collect(Collectors.toMap(k -> k, p::hgetAll));
+			return () -> v.entrySet().stream().filter(e -> null != e.getValue().get()).collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue().get()));
+		});
+
+		var records = new ArrayList<RegistrationValue>(keys.size());
+		for (int i = 0; i < keys.size(); i++)
+		{
+			var key = keys.get(i);
+			var ttl = ttls.get(i);
+			var value = values.get(i);
+			if (null != value)
+			{
+				var person = requestX(value);
+				if (null != person) records.add(new RegistrationValue(key, person, ttl));	// Skips reservations of in-flight starts.
+			}
+			else
+			{
+				var request = request(maps.get(key));
+				if (null != request) records.add(new RegistrationValue(key, request, ttl));	// Skips requests that expired after the SCAN.
+			}
+		}
+
+		return results.cursored(records, page.cursor);
 	}
 
 	/** Counts the number of registration requests currently available for the specified phone number.
@@ -272,16 +350,11 @@ public class RegistrationDAO
 	 */
 	public long count(final String phone)
 	{
-		return (long) redis.operation(j -> count(j, phone));
-	}
-
-	int count(final Jedis j, final String phone)
-	{
-		return CollectionUtils.size(j.scan("", new ScanParams().count(100).match(key(phone, "*"))).getResult());
+		return redis.scan(key(phone, ""), RedisClient.SCAN_BATCH).count();
 	}
 
-	void limit(final Jedis j, final String phone) throws ValidationException
+	void limit(final String phone) throws ValidationException
 	{
-		if (MAX_TRIES <= count(j, phone)) throw new ValidationException("phone", "Too many registration requests for phone number '" + phone + "'");
+		if (!limiter.acquire(phone, MAX_TRIES)) throw new ValidationException("phone", "Too many registration requests for phone number '" + phone + "'");
 	}
 }
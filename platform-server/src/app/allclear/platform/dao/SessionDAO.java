@@ -4,30 +4,27 @@ import static java.net.URLEncoder.encode;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static app.allclear.common.jackson.JacksonUtils.timestamp;
 
-import java.io.IOException;
 import java.util.Date;
 import java.util.stream.Collectors;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.util.SafeEncoder;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import app.allclear.common.cache.LocalCache;
 import app.allclear.common.dao.QueryResults;
 import app.allclear.common.errors.*;
-import app.allclear.common.jackson.JacksonUtils;
-import app.allclear.common.redis.RedisClient;
+import app.allclear.common.redis.*;
 import app.allclear.platform.Config;
 import app.allclear.platform.filter.SessionFilter;
 import app.allclear.platform.model.StartRequest;
 import app.allclear.platform.value.*;
 import app.allclear.twilio.client.TwilioClient;
 import app.allclear.twilio.model.SMSRequest;
-import redis.clients.jedis.ScanParams;
 
-/** Data access object that manages user sessions.
+/** Data access object that manages user sessions. When the near-cache is enabled, the session's last access time
+ *  is only tracked locally and is not written back to Redis.
  * 
  * @author smalleyd
  * @version 1.0.0
@@ -35,32 +32,97 @@ import redis.clients.jedis.ScanParams;
  *
  */
 
-public class SessionDAO
+public class SessionDAO implements AutoCloseable
 {
 	private static final String ID = "session:%s";
-	private static final String MATCH = "session:*";
 	public static final int MAX_TRIES = 3;
 	private static final int AUTH_DURATION = 5 * 60;	// Five minutes
 	private static final int ALERT_DURATION = 24 * 60 * 60;	// 24 hours
 	private static final String AUTH_KEY = "authentication:%s:%s";
-	private final ObjectMapper mapper = JacksonUtils.createMapper();
+	public static final String LIMIT_KEY = "limit:authentication";	// Prefix of the outstanding token counters.
+	public static final String CHANNEL = "sessions:invalidated";	// Pub/sub channel of session IDs removed from the near-caches.
+	public static final int CACHE_SIZE_DEFAULT = 10000;
+	public static final long CACHE_TTL = 60L * 1000L;	// One minute - bounds staleness if an invalidation message is missed.
+	public static final long EXTEND_INTERVAL = 60L * 1000L;	// Extend the Redis expiration at most once a minute per session.
 	public static final int TOKEN_LENGTH = RegistrationDAO.CODE_LENGTH;
 	public static final SessionValue ANONYMOUS = SessionValue.anonymous();
 
 	public static String key(final String id) { return String.format(ID, id); }
 	public static String authKey(final String phone, final String token) { return String.format(AUTH_KEY, phone, token); }
+	public PermitLimiter limiter() { return limiter; }
 
 	private final Config conf;
 	private final RedisClient redis;
 	private final TwilioClient twilio;
 	private final ThreadLocal<SessionValue> current = new ThreadLocal<>();
+	private final LocalCache<String, Cached> cache;
+	private final RedisClient.Subscription subscription;	// Invalidations of the near-cache. NULL if the near-cache is disabled.
+	private final RedisCodec<SessionValue> codec;
+	private final PermitLimiter limiter;
+
+	/** Represents a near-cached session along with the last time its Redis expiration was extended. The value is
+	 *  shared across threads so it is never mutated - each access receives a copy.
+	 */
+	private static class Cached
+	{
+		public final SessionValue value;
+		public volatile long extendedAt;
+
+		public Cached(final SessionValue value, final long extendedAt)
+		{
+			this.value = value;
+			this.extendedAt = extendedAt;
+		}
+	}
 
 	public SessionDAO(final RedisClient redis, final Config conf) { this(redis, null, conf); }
-	public SessionDAO(final RedisClient redis, final TwilioClient twilio, final Config conf)
+	public SessionDAO(final RedisClient redis, final TwilioClient twilio, final Config conf) { this(redis, twilio, conf, 0); }
+
+	/** Populator.
+	 *
+	 * @param redis
+	 * @param twilio
+	 * @param conf
+	 * @param cacheSize maximum number of sessions held in-process. Zero disables the near-cache.
+	 */
+	public SessionDAO(final RedisClient redis, final TwilioClient twilio, final Config conf, final int cacheSize)
+	{
+		this(redis, twilio, conf, cacheSize, new SmileCodec<>(SessionValue.class));
+	}
+
+	/** Populator.
+	 *
+	 * @param redis
+	 * @param twilio
+	 * @param conf
+	 * @param cacheSize maximum number of sessions held in-process. Zero disables the near-cache.
+	 * @param codec converts sessions to and from their stored representation.
+	 */
+	public SessionDAO(final RedisClient redis, final TwilioClient twilio, final Config conf, final int cacheSize, final RedisCodec<SessionValue> codec)
 	{
 		this.conf = conf;
+		this.codec = codec;
 		this.redis = redis;
 		this.twilio = twilio;
+		this.limiter = new PermitLimiter(redis, LIMIT_KEY, AUTH_DURATION * 1000L);
+
+		if (0 < cacheSize)
+		{
+			cache = new LocalCache<>(cacheSize, CACHE_TTL);
+			subscription = redis.subscribe(CHANNEL, id -> cache.remove(id));
+		}
+		else
+		{
+			cache = null;
+			subscription = null;
+		}
+	}
+
+	/** Stops receiving the near-cache invalidations. */
+	@Override
+	public void close()
+	{
+		if (null != subscription) subscription.close();
 	}
 
 	/** Adds a short-term registration session.
@@ -97,13 +159,7 @@ public class SessionDAO
 
 	SessionValue add(final SessionValue value)
 	{
-		try
-		{
-			redis.put(key(value.id), mapper.writeValueAsString(value), value.seconds());
-		}
-		catch (final IOException ex) { throw new RuntimeException(ex); }
-
-		return value;
+		return put(value);
 	}
 
 	/** Sends an authentication token to the specified phone number/user.
@@ -113,16 +169,20 @@ public class SessionDAO
 	 */
 	public String auth(final String phone)
 	{
-		return redis.operation(j -> {
-			limit(j, phone);
+		limit(phone);	// Reserve a try with a single round trip.
+
+		var token = RandomStringUtils.randomNumeric(TOKEN_LENGTH).toUpperCase();
 
-			var token = RandomStringUtils.randomNumeric(TOKEN_LENGTH).toUpperCase();
+		try { twilio.send(new SMSRequest(conf.authSid, conf.authPhone, String.format(conf.authSMSMessage, token, encode(phone, UTF_8), encode(token, UTF_8)), phone)); }	// No Redis connection is held during the send.
+		catch (final RuntimeException ex)
+		{
+			limiter.release(phone);	// An unsent token does NOT count against the tries.
+			throw ex;
+		}
 
-			twilio.send(new SMSRequest(conf.authSid, conf.authPhone, String.format(conf.authSMSMessage, token, encode(phone, UTF_8), encode(token, UTF_8)), phone));
-			j.setex(authKey(phone, token), AUTH_DURATION, phone);
+		redis.put(authKey(phone, token), phone, AUTH_DURATION);
 
-			return token;
-		});
+		return token;
 	}
 
 	/** Sends an alert message with an authentication token to the specified phone number/user.
@@ -135,7 +195,7 @@ public class SessionDAO
 	{
 		var token = RandomStringUtils.randomNumeric(TOKEN_LENGTH).toUpperCase();
 
-		twilio.send(new SMSRequest(conf.alertSid, conf.alertPhone,
+		twilio.sendBatch(new SMSRequest(conf.alertSid, conf.alertPhone,	// Waits behind the other batch sends instead of the interactive sends.
 			String.format(conf.alertSMSMessage, encode(timestamp(lastAlertedAt), UTF_8), encode(phone, UTF_8), encode(token, UTF_8)), phone));
 		redis.put(authKey(phone, token), phone, ALERT_DURATION);
 
@@ -152,8 +212,9 @@ public class SessionDAO
 	{
 		var key = authKey(phone, token);
 		redis.operation(j -> {
-			if (!j.exists(key)) throw new ValidationException("Confirmation failed.");	// Do NOT give too much information on bad authentication requests.
-			return j.del(key);
+			if (0L == j.del(key)) throw new ValidationException("Confirmation failed.");	// Do NOT give too much information on bad authentication requests.
+			limiter.release(j, phone);
+			return null;
 		});
 	}
 
@@ -165,14 +226,10 @@ public class SessionDAO
 	 */
 	public SessionValue promote(final PeopleValue person, final boolean rememberMe)
 	{
-		try
-		{
-			var o = get().promote(rememberMe, person);
-			redis.put(key(o.id), mapper.writeValueAsString(o), o.seconds());
+		var o = put(get().promote(rememberMe, person));
+		invalidate(o.id);
 
-			return o;
-		}
-		catch (final IOException ex) { throw new RuntimeException(ex); }
+		return o;
 	}
 
 	/** Gets the session value associated with the current thread.
@@ -316,10 +373,15 @@ public class SessionDAO
 	public SessionValue find(final String id) { return redis.operation(j -> findByKey(j, key(id))); }
 	private SessionValue findByKey(final Jedis jedis, final String key)
 	{
-		var v = jedis.get(key);
+		return codec.decode(jedis.get(SafeEncoder.encode(key)));
+	}
+
+	/** Helper method - stores the session with its full expiration. */
+	private SessionValue put(final SessionValue value)
+	{
+		redis.putBytes(key(value.id), codec.encode(value), value.seconds());
 
-		try { return (null != v) ? mapper.readValue(v, SessionValue.class) : null; }
-		catch (final IOException ex) { throw new RuntimeException(ex); }
+		return value;
 	}
 
 	/** Gets the current session.
@@ -343,22 +405,63 @@ public class SessionDAO
 	 */
 	public SessionValue get(final String id) throws NotAuthenticatedException
 	{
+		if (null != cache) return getCached(id);
+
 		return redis.operation(j -> {
-			var key = key(id);
-			var v = j.get(key);
-			if (null == v) throw new NotAuthenticatedException("The ID '" + id + "' is invalid.");
+			var key = SafeEncoder.encode(key(id));
+			var o = codec.decode(j.get(key));
+			if (null == o) throw new NotAuthenticatedException("The ID '" + id + "' is invalid.");
 
-			try
-			{
-				var o = mapper.readValue(v, SessionValue.class);
+			o.accessed();
+			j.setex(key, o.seconds(), codec.encode(o));
 
-				o.accessed();
-				j.setex(key, o.seconds(), mapper.writeValueAsString(o));
+			return o;
+		});
+	}
 
-				return o;
+	/** Helper method - gets the session from the near-cache. Instead of rewriting the session on each access,
+	 *  the Redis expiration is extended at most once per EXTEND_INTERVAL.
+	 */
+	private SessionValue getCached(final String id) throws NotAuthenticatedException
+	{
+		var now = System.currentTimeMillis();
+		var key = key(id);
+		var o = cache.get(id);
+		if (null != o)
+		{
+			if ((o.extendedAt + EXTEND_INTERVAL) <= now)
+			{
+				if (!redis.expire(key, o.value.seconds()))	// Removed or expired remotely.
+				{
+					cache.remove(id);
+					throw new NotAuthenticatedException("The ID '" + id + "' is invalid.");
+				}
+				o.extendedAt = now;
 			}
-			catch (final IOException ex) { throw new RuntimeException(ex); }
+
+			return o.value.copy().accessed();
+		}
+
+		var v = redis.operation(j -> {
+			var value = findByKey(j, key);
+			if (null != value) j.expire(key, value.seconds());
+
+			return value;
 		});
+		if (null == v) throw new NotAuthenticatedException("The ID '" + id + "' is invalid.");
+
+		cache.put(id, new Cached(v.accessed(), now));
+
+		return v.copy();
+	}
+
+	/** Helper method - removes the session from the near-cache of this and all other nodes. */
+	private void invalidate(final String id)
+	{
+		if (null == cache) return;
+
+		cache.remove(id);
+		redis.publish(CHANNEL, id);
 	}
 
 	/** Removes the current session. */
@@ -375,6 +478,7 @@ public class SessionDAO
 	public void remove(final String id)
 	{
 		redis.remove(key(id));
+		invalidate(id);
 	}
 
 	/** Updates a session - called when an application user updates their profile.
@@ -396,8 +500,8 @@ public class SessionDAO
 			value.lastAccessedAt,
 			value.createdAt);
 
-		try { redis.put(key(o.id), mapper.writeValueAsString(o), o.seconds()); }
-		catch (final IOException ex) { throw new RuntimeException(ex); }
+		put(o);
+		invalidate(o.id);
 
 		return o;
 	}
@@ -410,20 +514,15 @@ public class SessionDAO
 	public QueryResults<SessionValue, SessionFilter> search(final SessionFilter filter)
 	{
 		filter.clean();
-		return redis.operation(j -> {
-			var cursor = (filter.page() - 1) + "";
-			var match = (null != filter.id) ? key(filter.id + "*") : MATCH;
-			var o = j.scan(cursor, new ScanParams().count(filter.pageSize(100)).match(match));
-
-			if (CollectionUtils.isEmpty(o.getResult())) return new QueryResults<SessionValue, SessionFilter>(0L, filter);
+		if ((1 < filter.page()) && (null == filter.cursor))	// SCAN cannot seek to a page so later pages require the prior results' cursor.
+			throw new ValidationException("cursor", "Page " + filter.page() + " requires the cursor from the prior page.");
+		RedisClient.KeyPage page = null;
+		try { page = redis.page(key((null != filter.id) ? filter.id : ""), filter.cursor, filter.pageSize(100)); }
+		catch (final IllegalArgumentException ex) { throw new ValidationException("cursor", ex.getMessage()); }
 
-			var v = o.getResult().stream().map(i -> findByKey(j, i)).collect(Collectors.toList());
-			var r = new QueryResults<SessionValue, SessionFilter>(v, filter);
-			r.page = Integer.parseInt(o.getCursor());
-			r.pages++;	// Always add one.
+		var values = redis.mgetBytes(page.keys).stream().map(codec::decode).filter(o -> null != o).collect(Collectors.toList());	// Sessions may expire between the SCAN & the MGET.
 
-			return r;
-		});
+		return new QueryResults<SessionValue, SessionFilter>(filter, 100).cursored(values, page.cursor);
 	}
 
 	/** Counts the number of authentication requests currently available for the specified phone number.
@@ -433,16 +532,11 @@ public class SessionDAO
 	 */
 	public long count(final String phone)
 	{
-		return (long) redis.operation(j -> count(j, phone));
-	}
-
-	int count(final Jedis j, final String phone)
-	{
-		return CollectionUtils.size(j.scan("", new ScanParams().count(100).match(authKey(phone, "*"))).getResult());
+		return redis.scan(authKey(phone, ""), RedisClient.SCAN_BATCH).count();
 	}
 
-	void limit(final Jedis j, final String phone) throws ValidationException
+	void limit(final String phone) throws ValidationException
 	{
-		if (MAX_TRIES <= count(j, phone)) throw new ValidationException("phone", "Too many authentication requests for phone number '" + phone + "'");
+		if (!limiter.acquire(phone, MAX_TRIES)) throw new ValidationException("phone", "Too many authentication requests for phone number '" + phone + "'");
 	}
 }
@@ -2,6 +2,7 @@ package app.allclear.platform.dao;
 
 import static app.allclear.common.dao.OrderByBuilder.*;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 import org.hibernate.SessionFactory;
@@ -159,11 +160,8 @@ public class SymptomsLogDAO extends AbstractDAO<SymptomsLog>
 	 */
 	public QueryResults<SymptomsLogValue, SymptomsLogFilter> search(final SymptomsLogFilter filter) throws ValidationException
 	{
-		var builder = createQueryBuilder(filter.clean(), SELECT);
-		var v = new QueryResults<SymptomsLogValue, SymptomsLogFilter>(builder.aggregate(COUNT), filter);
-		if (v.isEmpty()) return v;
-
-		return v.withRecords(builder.orderBy(ORDER.normalize(v)).run(v).stream().map(o -> o.toValueX()).collect(Collectors.toList()));
+		return createQueryBuilder(filter.clean(), SELECT)
+			.search(filter, COUNT, ORDER, records -> cmr(records.stream().map(o -> o.toValueX(null)).collect(Collectors.toList())));
 	}
 
 	/** Counts the number of SymptomsLog entities based on the supplied filter.
@@ -191,4 +189,12 @@ public class SymptomsLogDAO extends AbstractDAO<SymptomsLog>
 			.add("endedAtFrom", "o.endedAt >= :endedAtFrom", filter.endedAtFrom)
 			.add("endedAtTo", "o.endedAt <= :endedAtTo", filter.endedAtTo);
 	}
+
+	/** Helper method - populates the denormalized names with one query instead of one per record. */
+	private List<SymptomsLogValue> cmr(final List<SymptomsLogValue> values)
+	{
+		return hydrate(values)
+			.lookup(v -> v.personId, namedQueryIn("getPeopleNamesByIds", Named.class, "ids"), o -> o.id, (v, o) -> v.withPersonName(o.name))
+			.values();
+	}
 }
@@ -0,0 +1,194 @@
+package app.allclear.platform.dao;
+
+import java.util.*;
+import java.util.function.Function;
+
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.table.*;
+
+import app.allclear.common.cache.LocalCache;
+import app.allclear.common.dao.QueryFilter;
+import app.allclear.common.dao.QueryResults;
+
+/** Pages Table Storage queries with continuation tokens instead of reading every matching entity.
+ *  Each page is fetched with <i>$top</i> limited to the page size. The continuation token that follows each page is
+ *  cached so that the next page starts where the previous one ended. Pages without a cached token are reached by
+ *  skipping the preceding entities with a keys-only projection. Totals are counted with the same projection and cached
+ *  briefly, so they are approximate while the table changes. Pagers created with PAGE_SIZE_ALL return every matching
+ *  entity on a single page unless the filter supplies a page size.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ * @param <T> the table entity type.
+ */
+
+public class TablePager<T extends TableEntity>
+{
+	public static final int PAGE_SIZE_DEFAULT = 100;
+	public static final int PAGE_SIZE_ALL = 0;	// Unpaged unless the filter supplies a page size.
+	public static final int TOP_MAX = 1000;	// Largest $top accepted by Table Storage.
+	public static final int CACHE_SIZE = 1000;
+	public static final long CACHE_TTL = 60L * 1000L;	// One minute - bounds the staleness of the approximate totals.
+	public static final String[] KEYS = new String[] { "PartitionKey", "RowKey" };
+
+	private final CloudTable table;
+	private final int pageSizeDefault;
+	private final LocalCache<String, Long> counts = new LocalCache<>(CACHE_SIZE, CACHE_TTL);
+	private final LocalCache<String, ResultContinuation> tokens = new LocalCache<>(CACHE_SIZE, CACHE_TTL);
+
+	public TablePager(final CloudTable table) { this(table, PAGE_SIZE_DEFAULT); }
+
+	/** Populator.
+	 *
+	 * @param table
+	 * @param pageSizeDefault page size used when the filter does not supply one. PAGE_SIZE_ALL returns every matching entity.
+	 */
+	public TablePager(final CloudTable table, final int pageSizeDefault)
+	{
+		this.table = table;
+		this.pageSizeDefault = pageSizeDefault;
+	}
+
+	/** Clears the cached totals and continuation tokens. Called after the table changes. */
+	public void clear()
+	{
+		counts.clear();
+		tokens.clear();
+	}
+
+	/** Counts the entities that match the query with a keys-only projection. Always queries the table and refreshes the cached total.
+	 *
+	 * @param query
+	 * @return zero if none found.
+	 */
+	public long count(final TableQuery<T> query)
+	{
+		long i = 0L;
+		for (@SuppressWarnings("unused") var o : table.execute(keys(query))) i++;
+
+		counts.put(query.getFilterString() + "", i);
+
+		return i;
+	}
+
+	/** Gets a single page of values.
+	 *
+	 * @param query
+	 * @param filter supplies the page, page size, and whether to skip the total count.
+	 * @param toValue converts each entity to its value.
+	 * @return never NULL.
+	 */
+	public <V, F extends QueryFilter> QueryResults<V, F> search(final TableQuery<T> query, final F filter, final Function<T, V> toValue)
+	{
+		var key = query.getFilterString() + "";
+		if ((PAGE_SIZE_ALL == pageSizeDefault) && ((null == filter.pageSize) || (1 > filter.pageSize))) return all(query, key, filter, toValue);
+
+		if (filter.skipCount())
+		{
+			var results = new QueryResults<V, F>(filter, pageSizeDefault);
+			var values = page(query, results.page, results.pageSize, results.maxResultsWithMore(), toValue);
+			var size = results.counted(values.size());
+
+			return values.isEmpty() ? results : results.withRecords(values.subList(0, size));
+		}
+
+		var total = counts.get(key);
+		if (null == total) total = count(query);
+
+		var results = new QueryResults<V, F>(total, filter, pageSizeDefault);
+		if (results.isEmpty()) return results;
+
+		var values = page(query, results.page, results.pageSize, results.pageSize, toValue);
+		if (!values.isEmpty()) results.withRecords(values);
+
+		return results;
+	}
+
+	/** Helper method - fetches every matching entity on a single page. The total is then exact. */
+	private <V, F extends QueryFilter> QueryResults<V, F> all(final TableQuery<T> query, final String key, final F filter, final Function<T, V> toValue)
+	{
+		var values = new LinkedList<V>();
+		for (var o : table.execute(query)) values.add(toValue.apply(o));
+
+		counts.put(key, (long) values.size());
+
+		return values.isEmpty() ? new QueryResults<>(0L, filter) : new QueryResults<>(values, filter);
+	}
+
+	/** Helper method - fetches up to the maximum entities of the specified page. */
+	private <V> List<V> page(final TableQuery<T> query, final int page, final int pageSize, final int max, final Function<T, V> toValue)
+	{
+		try
+		{
+			var filterString = query.getFilterString() + "";
+			var token = skip(query, filterString, page, pageSize);
+			if ((1 < page) && (null == token)) return List.of();	// Fewer entities than the preceding pages.
+
+			var values = new ArrayList<V>(Math.min(max, TOP_MAX));
+			do
+			{
+				var segment = table.executeSegmented(query.take(Math.min(max - values.size(), TOP_MAX)), token);
+				segment.getResults().forEach(o -> values.add(toValue.apply(o)));
+				token = segment.getContinuationToken();
+			}
+			while ((null != token) && (values.size() < max));
+
+			if (max == pageSize)
+			{
+				if (null != token) tokens.put(tokenKey(filterString, page + 1, pageSize), token);
+				else counts.put(filterString, (long) (((page - 1) * pageSize) + values.size()));	// The end is reached so the total is exact.
+			}
+
+			return values;
+		}
+		catch (final StorageException ex) { throw new RuntimeException(ex); }
+	}
+
+	/** Helper method - gets the continuation token of the page. Skips the preceding entities with a keys-only projection when not cached.
+	 *
+	 * @return NULL for the first page or if the page is beyond the last.
+	 */
+	private ResultContinuation skip(final TableQuery<T> query, final String filterString, final int page, final int pageSize) throws StorageException
+	{
+		if (1 >= page) return null;
+
+		var token = tokens.get(tokenKey(filterString, page, pageSize));
+		if (null != token) return token;
+
+		// Start from the closest preceding page with a cached token.
+		int from = page - 1;
+		while ((1 < from) && (null == (token = tokens.get(tokenKey(filterString, from, pageSize))))) from--;
+
+		var keys = keys(query);
+		long remaining = ((long) (page - from)) * pageSize;
+		do
+		{
+			var segment = table.executeSegmented(keys.take((int) Math.min(remaining, TOP_MAX)), token);
+			remaining-= segment.getResults().size();
+			token = segment.getContinuationToken();
+		}
+		while ((null != token) && (0L < remaining));
+
+		if (null != token) tokens.put(tokenKey(filterString, page, pageSize), token);
+
+		return token;
+	}
+
+	/** Helper method - creates a keys-only projection of the query. */
+	private TableQuery<T> keys(final TableQuery<T> query)
+	{
+		var o = TableQuery.from(query.getClazzType()).select(KEYS);
+		if (null != query.getFilterString()) o.where(query.getFilterString());
+
+		return o;
+	}
+
+	/** Helper method - creates the cache key of a page's continuation token. */
+	private String tokenKey(final String filterString, final int page, final int pageSize)
+	{
+		return filterString + "|" + pageSize + "|" + page;
+	}
+}
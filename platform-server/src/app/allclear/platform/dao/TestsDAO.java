@@ -313,7 +313,7 @@ public class TestsDAO extends AbstractDAO<Tests>
 	 */
 	public List<TestsValue> getByPerson(final String personId)
 	{
-		return findByPerson(personId).stream().map(o -> o.toValue()).collect(Collectors.toList());
+		return cmr(findByPerson(personId).stream().map(o -> o.toValue(null, null)).collect(Collectors.toList()));
 	}
 
 	/** Searches the Tests entity based on the supplied filter.
@@ -324,11 +324,8 @@ public class TestsDAO extends AbstractDAO<Tests>
 	 */
 	public QueryResults<TestsValue, TestsFilter> search(final TestsFilter filter) throws ValidationException
 	{
-		var builder = createQueryBuilder(filter.clean(), SELECT);
-		var v = new QueryResults<TestsValue, TestsFilter>(builder.aggregate(COUNT), filter);
-		if (v.isEmpty()) return v;
-
-		return v.withRecords(builder.orderBy(ORDER.normalize(v)).run(v).stream().map(o -> o.toValue()).collect(Collectors.toList()));
+		return createQueryBuilder(filter.clean(), SELECT)
+			.search(filter, COUNT, ORDER, records -> cmr(records.stream().map(o -> o.toValue(null, null)).collect(Collectors.toList())));
 	}
 
 	/** Counts the number of Tests entities based on the supplied filter.
@@ -370,4 +367,13 @@ public class TestsDAO extends AbstractDAO<Tests>
 			.add("updatedAtFrom", "o.updatedAt >= :updatedAtFrom", filter.updatedAtFrom)
 			.add("updatedAtTo", "o.updatedAt <= :updatedAtTo", filter.updatedAtTo);
 	}
+
+	/** Helper method - populates the denormalized names with one query per relation instead of one per record. */
+	private List<TestsValue> cmr(final List<TestsValue> values)
+	{
+		return hydrate(values)
+			.lookup(v -> v.personId, namedQueryIn("getPeopleNamesByIds", Named.class, "ids"), o -> o.id, (v, o) -> v.withPersonName(o.name))
+			.lookup(v -> v.facilityId, namedQueryIn("getFacilityNamesByIds", Name.class, "ids"), o -> o.id, (v, o) -> v.withFacilityName(o.name))
+			.values();
+	}
 }
@@ -26,7 +26,8 @@ import app.allclear.platform.type.Condition;
 @DynamicUpdate
 @Table(name="conditions")
 @Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="conditions")
-@NamedQueries({@NamedQuery(name="deleteConditionsByPerson", query="DELETE FROM Conditions o WHERE o.personId = :personId")})
+@NamedQueries({@NamedQuery(name="deleteConditionsByPerson", query="DELETE FROM Conditions o WHERE o.personId = :personId"),
+	@NamedQuery(name="findConditionsByPeople", query="SELECT OBJECT(o) FROM Conditions o WHERE o.personId IN (:personIds) ORDER BY o.personId, o.conditionId")})
 public class Conditions implements PeopleChild
 {
 	private final static long serialVersionUID = 1L;
@@ -42,7 +42,12 @@ public class Customer extends TableServiceEntity implements Serializable
 	public long lastAccessedAt;
 	public void setLastAccessedAt(final long newValue) { lastAccessedAt = newValue; }
 	public Date lastAccessedAt() { return (0L < lastAccessedAt) ? new Date(lastAccessedAt) : null; }
-	public Customer accessed() { lastAccessedAt = System.currentTimeMillis(); return this; }
+	public Customer accessed() { lastAccessedAt = System.currentTimeMillis(); accessCount++; return this; }
+	public Customer accessed(final long at, final long count) { lastAccessedAt = Math.max(lastAccessedAt, at); accessCount+= count; return this; }
+
+	public long getAccessCount() { return accessCount; }	// Number of authenticated calls.
+	public long accessCount;
+	public void setAccessCount(final long newValue) { accessCount = newValue; }
 
 	public Date getCreatedAt() { return createdAt; }
 	public Date createdAt;
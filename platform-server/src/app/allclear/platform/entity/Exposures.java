@@ -26,7 +26,8 @@ import app.allclear.platform.type.Exposure;
 @DynamicUpdate
 @Table(name="exposures")
 @Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="exposures")
-@NamedQueries({@NamedQuery(name="deleteExposuresByPerson", query="DELETE FROM Exposures o WHERE o.personId = :personId")})
+@NamedQueries({@NamedQuery(name="deleteExposuresByPerson", query="DELETE FROM Exposures o WHERE o.personId = :personId"),
+	@NamedQuery(name="findExposuresByPeople", query="SELECT OBJECT(o) FROM Exposures o WHERE o.personId IN (:personIds) ORDER BY o.personId, o.exposureId")})
 public class Exposures implements PeopleChild
 {
 	private final static long serialVersionUID = 1L;
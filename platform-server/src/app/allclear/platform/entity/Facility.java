@@ -35,7 +35,9 @@ import app.allclear.platform.value.FacilityValue;
 @Table(name="facility", uniqueConstraints=@UniqueConstraint(name="unq_facility", columnNames="name"))
 @Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="facility")
 @NamedQueries({@NamedQuery(name="existFacilityById", query="SELECT o.id FROM Facility o WHERE o.id = :id"),
+	@NamedQuery(name="findActivatedFacilityPoints", query="SELECT o.id, o.latitude, o.longitude, o.activatedAt FROM Facility o WHERE o.activatedAt IS NOT NULL"),
 	@NamedQuery(name="findActiveFacilitiesByName", query="SELECT OBJECT(o) FROM Facility o WHERE o.name LIKE :name AND o.active = TRUE ORDER BY o.name"),
+	@NamedQuery(name="findActiveFacilityPoints", query="SELECT o.id, o.latitude, o.longitude FROM Facility o WHERE o.active = TRUE"),
 	@NamedQuery(name="findFacility", query="SELECT OBJECT(o) FROM Facility o WHERE o.name = :name"),
 	@NamedQuery(name="findLockedFacility", query="SELECT OBJECT(o) FROM Facility o WHERE o.lockedBy = :lockedBy ORDER BY o.lockedTill ASC"),
 	@NamedQuery(name="findReviewableFacility", query="SELECT OBJECT(o) FROM Facility o WHERE o.reviewedAt < :reviewedAt AND ((o.lockedTill IS NULL) OR (o.lockedTill <= CURRENT_TIMESTAMP)) AND o.active = TRUE ORDER BY o.reviewedAt ASC")})
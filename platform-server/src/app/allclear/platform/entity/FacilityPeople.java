@@ -28,7 +28,8 @@ import app.allclear.common.value.CreatedValue;
 @Table(name="facility_people")
 @Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="facility_people")
 @NamedQueries({@NamedQuery(name="deleteFacilityPeople", query="DELETE FROM FacilityPeople o WHERE o.facilityId = :facilityId"),
-	@NamedQuery(name="deleteFacilityPeopleByPerson", query="DELETE FROM FacilityPeople o WHERE o.personId = :personId")})
+	@NamedQuery(name="deleteFacilityPeopleByPerson", query="DELETE FROM FacilityPeople o WHERE o.personId = :personId"),
+	@NamedQuery(name="findFacilityPeopleByPeople", query="SELECT OBJECT(o) FROM FacilityPeople o INNER JOIN FETCH o.facility WHERE o.personId IN (:personIds) ORDER BY o.personId, o.facilityId")})
 @NamedNativeQueries({@NamedNativeQuery(name="findFacilityPeopleByFacility", query="SELECT p.id, p.name, o.created_at, o.facility_id AS parent_id FROM facility_people o INNER JOIN people p ON o.person_id = p.id WHERE o.facility_id = :facilityId ORDER BY p.name", resultClass=Created.class),
 	@NamedNativeQuery(name="findFacilityPeopleByFacilities", query="SELECT p.id, p.name, o.created_at, o.facility_id AS parent_id FROM facility_people o INNER JOIN people p ON o.person_id = p.id WHERE o.facility_id IN (:facilityIds) ORDER BY o.facility_id, p.name", resultClass=Created.class)})
 public class FacilityPeople implements FacilityChild
@@ -138,12 +138,19 @@ public class Friend implements Serializable
 
 	@Transient
 	public FriendValue toValue()
+	{
+		return toValue(getPerson().getName(), getInvitee().getName());
+	}
+
+	/** Converts without touching the lazy person & invitee relations - the names are supplied by the caller. */
+	@Transient
+	public FriendValue toValue(final String personName, final String inviteeName)
 	{
 		return new FriendValue(
 			getPersonId(),
-			getPerson().getName(),
+			personName,
 			getInviteeId(),
-			getInvitee().getName(),
+			inviteeName,
 			getAcceptedAt(),
 			getRejectedAt(),
 			getCreatedAt());
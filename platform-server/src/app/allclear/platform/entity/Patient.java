@@ -150,6 +150,13 @@ public class Patient implements Serializable
 
 	@Transient
 	public PatientValue toValue()
+	{
+		return toValue(getFacility().getName(), getPerson().getName());
+	}
+
+	/** Converts without touching the lazy facility & person relations - the names are supplied by the caller. */
+	@Transient
+	public PatientValue toValue(final String facilityName, final String personName)
 	{
 		return new PatientValue(
 			getId(),
@@ -159,6 +166,6 @@ public class Patient implements Serializable
 			getEnrolledAt(),
 			getRejectedAt(),
 			getCreatedAt(),
-			getUpdatedAt()).denormalize(getFacility().getName(), getPerson().getName());
+			getUpdatedAt()).denormalize(facilityName, personName);
 	}
 }
@@ -40,7 +40,10 @@ import app.allclear.platform.value.PeopleValue;
 	@NamedQuery(name="findPeopleByEmail", query="SELECT OBJECT(o) FROM People o WHERE o.email = :email"),
 	@NamedQuery(name="findPeopleByPhone", query="SELECT OBJECT(o) FROM People o WHERE o.phone = :phone"),
 	@NamedQuery(name="findPeopleViaFriendship", query="SELECT OBJECT(o) FROM Friendship f INNER JOIN f.friend o WHERE f.personId = :personId AND f.friendId = :friendId AND o.active = TRUE"),
+	@NamedQuery(name="getActiveAlertablePeopleByLongitude", query="SELECT o.id, o.phone, o.latitude, o.longitude, o.alertedAt, o.authAt FROM People o WHERE o.id > :lastId AND o.latitude IS NOT NULL AND ((o.longitude >= :longitudeFrom) AND (o.longitude < :longitudeTo)) AND o.alertable = TRUE AND o.active = TRUE ORDER BY o.id"),
 	@NamedQuery(name="getActiveAlertablePeopleIdsByLongitude", query="SELECT o.id FROM People o WHERE o.id > :lastId AND o.latitude IS NOT NULL AND ((o.longitude >= :longitudeFrom) AND (o.longitude < :longitudeTo)) AND o.alertable = TRUE AND o.active = TRUE ORDER BY o.id"),
+	@NamedQuery(name="getEarliestAlertedAtByLongitude", query="SELECT MIN(COALESCE(o.alertedAt, o.authAt)) FROM People o WHERE o.latitude IS NOT NULL AND ((o.longitude >= :longitudeFrom) AND (o.longitude < :longitudeTo)) AND o.alertable = TRUE AND o.active = TRUE"),
+	@NamedQuery(name="getPeopleAlertsByIds", query="SELECT o.id, o.phone, o.latitude, o.longitude, o.alertedAt, o.authAt FROM People o WHERE o.id IN (:ids)"),
 	@NamedQuery(name="getPeopleIdByEmail", query="SELECT o.id FROM People o WHERE o.email = :email"),
 	@NamedQuery(name="getPeopleIdByPhone", query="SELECT o.id FROM People o WHERE o.phone = :phone")})
 @NamedNativeQueries({@NamedNativeQuery(name="findActivePeopleByIdOrName", query="SELECT * FROM people o WHERE o.id LIKE :name AND o.active = TRUE UNION DISTINCT SELECT * FROM people oo WHERE oo.name LIKE :name AND oo.active = TRUE UNION DISTINCT SELECT * FROM people p WHERE p.phone LIKE :name AND p.active = TRUE UNION DISTINCT SELECT * FROM people e WHERE e.email LIKE :name AND e.active = TRUE ORDER BY name", resultClass=People.class),	// Leverages all indices with 4 SELECTs as opposed to a single SELECT with an OR conjunction. DLS on 4/28/2020.
@@ -29,6 +29,7 @@ import app.allclear.platform.value.PeopleValue;
 @Table(name="people_facility")
 @Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="people_facility")
 @NamedQueries({@NamedQuery(name="findPeopleFacility", query="SELECT OBJECT(o) FROM PeopleFacility o WHERE o.personId = :personId AND o.facilityId = :facilityId"),	// In lieu of creating a PK class. Not needed since not cached. DLS on 4/13/2020.
+	@NamedQuery(name="findPeopleFacilitiesByPeople", query="SELECT OBJECT(o) FROM PeopleFacility o INNER JOIN FETCH o.facility WHERE o.personId IN (:personIds) ORDER BY o.personId, o.facilityId"),
 	@NamedQuery(name="getFacilityIdsByPerson", query="SELECT o.facilityId FROM PeopleFacility o WHERE o.personId = :personId")})
 public class PeopleFacility implements Serializable
 {
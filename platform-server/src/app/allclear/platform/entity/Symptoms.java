@@ -26,7 +26,8 @@ import app.allclear.platform.type.Symptom;
 @DynamicUpdate
 @Table(name="symptoms")
 @Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="symptoms")
-@NamedQueries({@NamedQuery(name="deleteSymptomsByPerson", query="DELETE FROM Symptoms o WHERE o.personId = :personId")})
+@NamedQueries({@NamedQuery(name="deleteSymptomsByPerson", query="DELETE FROM Symptoms o WHERE o.personId = :personId"),
+	@NamedQuery(name="findSymptomsByPeople", query="SELECT OBJECT(o) FROM Symptoms o WHERE o.personId IN (:personIds) ORDER BY o.personId, o.symptomId")})
 public class Symptoms implements PeopleChild
 {
 	private final static long serialVersionUID = 1L;
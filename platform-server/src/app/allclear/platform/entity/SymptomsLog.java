@@ -127,11 +127,18 @@ public class SymptomsLog implements PeopleChild
 
 	@Transient
 	public SymptomsLogValue toValueX()
+	{
+		return toValueX(getPerson().getName());
+	}
+
+	/** Converts without touching the lazy person relation - the name is supplied by the caller. */
+	@Transient
+	public SymptomsLogValue toValueX(final String personName)
 	{
 		return new SymptomsLogValue(
 			getId(),
 			getPersonId(),
-			getPerson().getName(),
+			personName,
 			getSymptomId(),
 			Symptom.get(getSymptomId()),
 			getStartedAt(),
@@ -178,16 +178,23 @@ public class Tests implements Serializable
 
 	@Transient
 	public TestsValue toValue()
+	{
+		return toValue(getPerson().getName(), getFacility().getName());
+	}
+
+	/** Converts without touching the lazy person & facility relations - the names are supplied by the caller. */
+	@Transient
+	public TestsValue toValue(final String personName, final String facilityName)
 	{
 		return new TestsValue(
 			getId(),
 			getPersonId(),
-			getPerson().getName(),
+			personName,
 			getTypeId(),
 			TestType.get(getTypeId()),
 			getTakenOn(),
 			getFacilityId(),
-			getFacility().getName(),
+			facilityName,
 			getRemoteId(),
 			isPositive(),
 			getNotes(),
@@ -1,21 +1,35 @@
 package app.allclear.platform.fcc;
 
+import static com.codahale.metrics.MetricRegistry.name;
+
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.client.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import org.apache.commons.lang3.StringUtils;
+
+import com.codahale.metrics.*;
 import com.fasterxml.jackson.core.json.JsonReadFeature;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 
+import redis.clients.jedis.JedisPool;
+
+import app.allclear.common.cache.LocalCache;
+import app.allclear.common.cache.SingleFlight;
 import app.allclear.google.client.MapException;
 
-/** Jersey RESTful client that wraps the FCC Block endpoints.
+/** Jersey RESTful client that wraps the FCC Block endpoints. Concurrent lookups of the same point wait for a single call.
+ *  Census blocks are stable so, like the MapClient geocodes, blocks can be cached in two tiers: a bounded in-process
+ *  cache in front of an optional Redis. The coordinates are snapped to a grid of the configured precision so that
+ *  nearby lookups share a single entry. The snapped point is what the FCC receives.
  * 
  * @author smalleyd
  * @version 1.1.113
@@ -24,7 +38,7 @@ import app.allclear.google.client.MapException;
  *
  */
 
-public class GeoClient implements AutoCloseable
+public class GeoClient implements AutoCloseable, MetricSet
 {
 	public static final String BASE_URL = "https://geo.fcc.gov/api/census/block/find";
 	public static final String FORMAT = "json";
@@ -34,6 +48,13 @@ public class GeoClient implements AutoCloseable
 	public static final String PARAM_LONGITUDE = "longitude";
 	public static final String PARAM_SHOWALL = "showall";
 
+	public static final String BLOCK_KEY = "block:%s";
+	public static final int BLOCK_EXPIRATION = 30 * 24 * 60 * 60;	// 30 days in seconds.
+	public static final int CACHE_SIZE_DEFAULT = 10000;
+	public static final long CACHE_TTL = 24L * 60L * 60L * 1000L;	// One day in-process.
+	public static final int PRECISION_EXACT = -1;	// Disables snapping.
+	public static final int PRECISION_DEFAULT = 4;	// Four decimal places - about 11 meters.
+
 	private static final ObjectMapper mapper = new ObjectMapper()
 		.enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS.mappedFeature())
 		.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
@@ -41,9 +62,31 @@ public class GeoClient implements AutoCloseable
 
 	private final Client client;
 	private final WebTarget target;
-
-	public GeoClient()
+	private final JedisPool redis;	// NULL when the Redis tier is disabled.
+	private final int precision;
+	private final LocalCache<String, GeoResponse> cache;	// NULL when the in-process tier is disabled.
+	private final SingleFlight<String, GeoResponse> flights = new SingleFlight<>();
+	private final Meter localHits = new Meter();
+	private final Meter localMisses = new Meter();
+	private final Meter redisHits = new Meter();
+	private final Meter redisMisses = new Meter();
+
+	public long shared() { return flights.shared(); }	// Callers that waited on another caller's lookup.
+
+	public GeoClient() { this(null, PRECISION_EXACT, 0); }	// No caching.
+
+	/** Populator.
+	 *
+	 * @param redis pool of the shared block cache. NULL disables the Redis tier.
+	 * @param precision number of decimal places that the coordinates are snapped to. PRECISION_EXACT disables snapping.
+	 * @param cacheSize maximum number of blocks held in-process. Zero disables the in-process tier.
+	 */
+	public GeoClient(final JedisPool redis, final int precision, final int cacheSize)
 	{
+		this.redis = redis;
+		this.precision = precision;
+		this.cache = (0 < cacheSize) ? new LocalCache<>(cacheSize, CACHE_TTL) : null;
+
 		this.client = ClientBuilder.newBuilder()
 			.connectTimeout(20L, TimeUnit.SECONDS)
 			.readTimeout(20L, TimeUnit.SECONDS)
@@ -58,7 +101,7 @@ public class GeoClient implements AutoCloseable
 		this.client.close();
 	}
 
-	/** Sends a latitude and longitude to FCC Block API to geocode.
+	/** Sends a latitude and longitude to FCC Block API to geocode. Checks the in-process tier and then Redis first.
 	 * 
 	 * @param latitude
 	 * @param longitude
@@ -67,7 +110,70 @@ public class GeoClient implements AutoCloseable
 	 */
 	public GeoResponse find(final BigDecimal latitude, final BigDecimal longitude) throws MapException
 	{
-		return response(request(target.queryParam(PARAM_LATITUDE, latitude).queryParam(PARAM_LONGITUDE, longitude)).get());
+		var lat = snap(latitude);
+		var lng = snap(longitude);
+		var key = key(lat, lng);
+		if (null != cache)
+		{
+			var o = cache.get(key);
+			if (null != o)
+			{
+				localHits.mark();
+				return o;
+			}
+
+			localMisses.mark();
+		}
+
+		return flights.execute(key, () -> load(key, lat, lng));	// Concurrent misses of the same point share one lookup.
+	}
+
+	/** Helper method - finds the block from Redis or else from the FCC, and caches it in both tiers. */
+	private GeoResponse load(final String key, final BigDecimal latitude, final BigDecimal longitude) throws MapException
+	{
+		var redisKey = String.format(BLOCK_KEY, key);
+		if (null != redis)
+		{
+			try (var j = redis.getResource())
+			{
+				var v = j.get(redisKey);
+				if (StringUtils.isNotEmpty(v))
+				{
+					redisHits.mark();
+					return local(key, toJSON(v, GeoResponse.class));
+				}
+
+				redisMisses.mark();
+			}
+		}
+
+		var o = response(request(target.queryParam(PARAM_LATITUDE, latitude).queryParam(PARAM_LONGITUDE, longitude)).get());	// Redis connection is NOT held during the call.
+		if (null != redis)
+		{
+			try (var j = redis.getResource()) { j.setex(redisKey, BLOCK_EXPIRATION, toJSON(o)); }
+		}
+
+		return local(key, o);
+	}
+
+	private GeoResponse local(final String key, final GeoResponse value)
+	{
+		if (null != cache) cache.put(key, value);
+
+		return value;
+	}
+
+	/** Helper method - snaps the coordinate to the grid. */
+	BigDecimal snap(final BigDecimal value)
+	{
+		return ((null == value) || (0 > precision)) ? value : value.setScale(precision, RoundingMode.HALF_UP);
+	}
+
+	/** Helper method - creates the key of a point so that equal coordinates with different scales match. */
+	static String key(final BigDecimal latitude, final BigDecimal longitude)
+	{
+		return ((null != latitude) ? latitude.stripTrailingZeros().toPlainString() : "") + "," +
+			((null != longitude) ? longitude.stripTrailingZeros().toPlainString() : "");
 	}
 
 	private Invocation.Builder request(final WebTarget target)
@@ -91,9 +197,26 @@ public class GeoClient implements AutoCloseable
 		return o;
 	}
 
+	private String toJSON(final Object value)
+	{
+		try { return mapper.writeValueAsString(value); }
+		catch (final IOException ex) { throw new RuntimeException(ex); }
+	}
+
 	private <T> T toJSON(final String payload, final Class<T> clazz)
 	{
 		try { return mapper.readValue(payload, clazz); }
 		catch (final IOException ex) { throw new RuntimeException(ex); }
 	}
+
+	/** Gets the hits & misses of each cache tier and the shared lookups for registration with a MetricRegistry. */
+	@Override
+	public Map<String, Metric> getMetrics()
+	{
+		return Map.of(name(GeoClient.class, "find", "local", "hits"), localHits,
+			name(GeoClient.class, "find", "local", "misses"), localMisses,
+			name(GeoClient.class, "find", "redis", "hits"), redisHits,
+			name(GeoClient.class, "find", "redis", "misses"), redisMisses,
+			name(GeoClient.class, "find", "shared"), (Gauge<Long>) flights::shared);
+	}
 }
@@ -19,6 +19,7 @@ import com.codahale.metrics.annotation.Timed;
 import app.allclear.common.dao.QueryResults;
 import app.allclear.common.errors.ObjectNotFoundException;
 import app.allclear.common.errors.ValidationException;
+import app.allclear.common.geo.RegionIndex;
 import app.allclear.common.mediatype.UTF8MediaType;
 import app.allclear.common.resources.Headers;
 import app.allclear.common.time.StopWatch;
@@ -53,16 +54,30 @@ public class FacilityResource
 	private final FacilityDAO dao;
 	private final SessionDAO sessionDao;
 	private final MapClient map;
+	private final RegionIndex counties;
 
-	/** Populator.
+	/** Populator - without offline county resolution.
 	 * 
 	 * @param dao
 	 */
 	public FacilityResource(final FacilityDAO dao, final SessionDAO sessionDao, final MapClient map)
+	{
+		this(dao, sessionDao, map, null);
+	}
+
+	/** Populator.
+	 * 
+	 * @param dao
+	 * @param sessionDao
+	 * @param map
+	 * @param counties optional county boundaries index. NULL disables offline county resolution.
+	 */
+	public FacilityResource(final FacilityDAO dao, final SessionDAO sessionDao, final MapClient map, final RegionIndex counties)
 	{
 		this.dao = dao;
 		this.sessionDao = sessionDao;
 		this.map = map;
+		this.counties = counties;
 	}
 
 	@GET
@@ -244,6 +259,7 @@ public class FacilityResource
 
 	FacilityValue populate(final FacilityValue value)
 	{
+		county(value);	// Resolving the state locally first may avoid the Google call.
 		if ((null != value.address) &&
 		    ((null == value.city) || (null == value.state) || (null == value.postalCode) || (null == value.latitude) || (null == value.longitude)))
 		{
@@ -256,11 +272,27 @@ public class FacilityResource
 				if (null == value.latitude) value.latitude = o.geometry.location.lat;
 				if (null == value.longitude) value.longitude = o.geometry.location.lng;
 			}
+
+			county(value);
 		}
 
 		return value;
 	}
 
+	/** Helper method - fills in the missing county & state from the offline county boundaries index. */
+	void county(final FacilityValue value)
+	{
+		if ((null == counties) || (null == value.latitude) || (null == value.longitude) ||
+		    ((null != value.countyId) && (null != value.countyName) && (null != value.state))) return;
+
+		var o = counties.find(value.latitude.doubleValue(), value.longitude.doubleValue());
+		if (null == o) return;
+
+		if (null == value.countyId) value.countyId = o.id;
+		if (null == value.countyName) value.countyName = o.name;
+		if (null == value.state) value.state = o.parentName;
+	}
+
 	GeocodeResult geocode(final String location)
 	{
 		try
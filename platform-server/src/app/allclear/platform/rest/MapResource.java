@@ -13,6 +13,7 @@ import com.codahale.metrics.annotation.Timed;
 import app.allclear.common.errors.ObjectNotFoundException;
 import app.allclear.common.errors.ValidationException;
 import app.allclear.common.errors.Validator;
+import app.allclear.common.geo.RegionIndex;
 import app.allclear.common.mediatype.UTF8MediaType;
 import app.allclear.google.client.MapClient;
 import app.allclear.platform.fcc.GeoClient;
@@ -36,15 +37,39 @@ import app.allclear.platform.model.GeocodedResponse;
 public class MapResource
 {
 	private final MapClient map;
-	private final GeoClient geo = new GeoClient();
+	private final GeoClient geo;
+	private final RegionIndex counties;
 
-	/** Populator.
+	/** Populator - uses its own uncached GeoClient.
 	 * 
-	 * @param dao
+	 * @param map
 	 */
 	public MapResource(final MapClient map)
+	{
+		this(map, new GeoClient());
+	}
+
+	/** Populator.
+	 * 
+	 * @param map
+	 * @param geo shared FCC client.
+	 */
+	public MapResource(final MapClient map, final GeoClient geo)
+	{
+		this(map, geo, null);
+	}
+
+	/** Populator.
+	 * 
+	 * @param map
+	 * @param geo shared FCC client.
+	 * @param counties optional county boundaries index. NULL disables the offline county lookup.
+	 */
+	public MapResource(final MapClient map, final GeoClient geo, final RegionIndex counties)
 	{
 		this.map = map;
+		this.geo = geo;
+		this.counties = counties;
 	}
 
 	@GET
@@ -62,6 +87,31 @@ public class MapResource
 		return geo.find(latitude, longitude);
 	}
 
+	@GET
+	@Path("/county") @Timed
+	@ApiOperation(value="getCounty", notes="Gets the County & State from the offline county boundaries index without calling the FCC API.", response=GeoResponse.class)
+	public GeoResponse getCounty(@QueryParam("latitude") @ApiParam(name="latitude", value="GEO latitude") final BigDecimal latitude,
+		@QueryParam("longitude") @ApiParam(name="longitude", value="GEO longitude") final BigDecimal longitude) 
+			throws ObjectNotFoundException, ValidationException
+	{
+		new Validator()
+			.ensureExistsAndLatitude("latitude", "Latitude", latitude)
+			.ensureExistsAndLongitude("longitude", "Longitude", longitude)
+			.check();
+
+		if (null == counties) throw new ObjectNotFoundException("The county boundaries index is not available.");
+
+		var o = counties.find(latitude.doubleValue(), longitude.doubleValue());
+		if (null == o) throw new ObjectNotFoundException("No county contains the location " + latitude + ", " + longitude + ".");
+
+		return new GeoResponse(null,
+			new GeoResponse.County(o.id, o.name),
+			new GeoResponse.State(StringUtils.left(o.id, 2), o.parentId, o.parentName),
+			GeoResponse.STATUS_OK,
+			null,
+			null);
+	}
+
 	@GET
 	@Path("/geocode") @Timed
 	@ApiOperation(value="geocode", notes="Geocodes the supplied location via Google Maps.", response=GeocodedResponse.class)
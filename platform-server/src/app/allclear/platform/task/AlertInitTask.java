@@ -6,8 +6,8 @@ import org.hibernate.*;
 import org.slf4j.*;
 
 import com.azure.storage.queue.QueueClient;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
+import app.allclear.common.azure.QueueProducer;
 import app.allclear.common.errors.AbortException;
 import app.allclear.common.hibernate.DualSessionFactory;
 import app.allclear.common.jackson.JacksonUtils;
@@ -30,26 +30,33 @@ public class AlertInitTask extends AbstractHibernateTask<AlertInitRequest>
 {
 	private static final Logger log = LoggerFactory.getLogger(AlertInitTask.class);
 
-	private static final int PAGE_SIZE = 100;
+	public static final int PAGE_SIZE = 1000;
+	public static final int BATCH_SIZE = 100;	// Number of people per Alert request message. Must complete within the alert operator's timeout (App.QUEUE_ALERT_TIMEOUT) which sets the message visibility.
 
 	private final PeopleDAO dao;
-	private final QueueClient queue;
-	private final ObjectMapper mapper = JacksonUtils.createMapperAzure();
+	private final int batchSize;
+	private final QueueProducer producer;
 
 	@Override public boolean readOnly() { return true; }
 	@Override public boolean transactional() { return false; }
 
-	AlertInitTask(final SessionFactory factory, final PeopleDAO dao, final QueueClient queue)	// For tests
+	AlertInitTask(final SessionFactory factory, final PeopleDAO dao, final QueueClient queue, final int batchSize)	// For tests
 	{
-		this(new DualSessionFactory(factory), dao, queue);
+		this(new DualSessionFactory(factory), dao, queue, batchSize);
 	}
 
 	public AlertInitTask(final DualSessionFactory factory, final PeopleDAO dao, final QueueClient queue)
+	{
+		this(factory, dao, queue, BATCH_SIZE);
+	}
+
+	public AlertInitTask(final DualSessionFactory factory, final PeopleDAO dao, final QueueClient queue, final int batchSize)
 	{
 		super(factory);
 
 		this.dao = dao;
-		this.queue = queue;
+		this.batchSize = batchSize;
+		this.producer = new QueueProducer(queue, JacksonUtils.createMapperAzure());
 
 		log.info("INITIALIZED");
 	}
@@ -68,17 +75,21 @@ public class AlertInitTask extends AbstractHibernateTask<AlertInitRequest>
 		List<String> ids = null;
 		int count = 0, batches = 0;
 		var timer = new StopWatch();
+		var messages = producer.batch();
 		while (!(ids = dao.getActiveAlertableIdsByLongitude(lastId, zone, PAGE_SIZE)).isEmpty())
 		{
-			for (var id : ids)
-				queue.sendMessage(mapper.writeValueAsString(new AlertRequest(lastId = id)));
-
 			int size = ids.size();
+			for (int i = 0; i < size; i+= batchSize)
+				messages.send(new AlertRequest(List.copyOf(ids.subList(i, Math.min(i + batchSize, size)))));
+
+			lastId = ids.get(size - 1);
 			count+= size;
-			log.info("BATCH ({}): {} - {} out of {} in {} - {}", zone, ++batches, size, count, timer.split(), ids);
+			log.info("BATCH ({}): {} - {} out of {} in {}", zone, ++batches, size, count, timer.split());
 		}
 
-		log.info("PROCESSED ({}): {} in {}", zone, count, timer.total());
+		messages.flush();
+
+		log.info("PROCESSED ({}): {} in {} messages in {}", zone, count, messages.count(), timer.total());
 
 		return true;
 	}
@@ -1,10 +1,12 @@
 package app.allclear.platform.task;
 
-import java.util.Date;
+import java.math.BigDecimal;
+import java.util.*;
 
 import org.hibernate.Session;
 import org.slf4j.*;
 
+import app.allclear.common.errors.ObjectNotFoundException;
 import app.allclear.common.hibernate.AbstractHibernateRunner;
 import app.allclear.common.hibernate.DualSessionFactory;
 import app.allclear.common.task.AbstractHibernateTask;
@@ -32,14 +34,22 @@ public class AlertTask extends AbstractHibernateTask<AlertRequest>
 	private final SessionDAO sessionDao;
 	private final AbstractHibernateRunner<FacilityFilter, Long> facilitySearch;	// Ensure using read-replica instead of transaction data source.
 
+	private final int batchSize;	// Number of alert results per JDBC batch update.
+
 	@Override public boolean readOnly() { return false; }
-	@Override public boolean transactional() { return true; }
+	@Override public boolean transactional() { return false; }	// Only the batch update of the results is transactional.
 
 	public AlertTask(final DualSessionFactory factory, final PeopleDAO dao, final FacilityDAO facilityDao, final SessionDAO sessionDao)
+	{
+		this(factory, dao, facilityDao, sessionDao, PeopleDAO.ALERTED_BATCH_SIZE);
+	}
+
+	public AlertTask(final DualSessionFactory factory, final PeopleDAO dao, final FacilityDAO facilityDao, final SessionDAO sessionDao, final int batchSize)
 	{
 		super(factory);
 
 		this.dao = dao;
+		this.batchSize = batchSize;
 		this.sessionDao = sessionDao;
 		this.facilitySearch = new AbstractHibernateRunner<FacilityFilter, Long>(factory) {
 			@Override public boolean readOnly() { return true; }
@@ -56,26 +66,61 @@ public class AlertTask extends AbstractHibernateTask<AlertRequest>
 	@Override
 	public boolean process(final AlertRequest request, final Session s) throws Exception
 	{
-		var record = dao.findWithException(request.personId);
-		var lastAlertedAt = record.alertedAt();
+		var personIds = request.personIds();
+		var records = dao.getAlertsByIds(personIds);
+		if ((null == request.personIds) && records.isEmpty())
+			throw new ObjectNotFoundException("Could not find the People because id '" + request.personId + "' is invalid.");
 
-		var count = facilitySearch.run(new FacilityFilter().withActivatedAtFrom(lastAlertedAt).withFrom(new GeoFilter(record.getLatitude(), record.getLongitude(), MILES_DEFAULT)));
+		// Batched requests: a failure for one person must not prevent recording the alerts already sent to the others.
+		int errors = personIds.size() - records.size();
+		var results = new ArrayList<PeopleDAO.Alerted>(records.size());
+		for (var o : records)
+		{
+			var personId = (String) o[0];
+			try { results.add(process(personId, (String) o[1], (BigDecimal) o[2], (BigDecimal) o[3], (null != o[4]) ? (Date) o[4] : (Date) o[5])); }
+			catch (final Exception ex)
+			{
+				if (null == request.personIds)
+					throw ex;
 
-		if (0L < count)
+				errors++;
+				log.warn("FAILED ({}): {}", personId, ex.getMessage());
+			}
+		}
+
+		// Write the bookkeeping with JDBC batches in a short transaction instead of dirtying each loaded entity.
+		var trans = s.beginTransaction();
+		try
 		{
-			log.info("FOUND ({}): {} new facilities.", request.personId, count);
-			sessionDao.alert(record.getPhone(), lastAlertedAt);
+			dao.updateAlerted(results, batchSize);
+			trans.commit();
 		}
-		else
+		catch (final RuntimeException ex)
 		{
-			log.info("NOT_FOUND ({}): no new facilities.", request.personId);
+			trans.rollback();
+			throw ex;
 		}
 
-		var now = new Date();	// Get date right after checking facility search.
-		record.setAlertedOf(count.intValue());
-		record.setAlertedAt(now);	// Always mark that the user was checked for a possible facility alert.
-		record.setUpdatedAt(now);
+		if (0 < errors) log.warn("PROCESSED: {} of {} people failed or were not found.", errors, personIds.size());
 
 		return true;
 	}
+
+	/** Helper method - checks a single person for new nearby facilities. */
+	private PeopleDAO.Alerted process(final String personId, final String phone, final BigDecimal latitude, final BigDecimal longitude, final Date lastAlertedAt)
+	{
+		var count = facilitySearch.run(new FacilityFilter().withActivatedAtFrom(lastAlertedAt).withFrom(new GeoFilter(latitude, longitude, MILES_DEFAULT)));
+
+		if (0L < count)
+		{
+			log.info("FOUND ({}): {} new facilities.", personId, count);
+			sessionDao.alert(phone, lastAlertedAt);
+		}
+		else
+		{
+			log.info("NOT_FOUND ({}): no new facilities.", personId);
+		}
+
+		return new PeopleDAO.Alerted(personId, count.intValue(), new Date());	// Always mark that the user was checked for a possible facility alert.
+	}
 }
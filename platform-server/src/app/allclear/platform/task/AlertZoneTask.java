@@ -0,0 +1,228 @@
+package app.allclear.platform.task;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import org.hibernate.*;
+import org.slf4j.*;
+
+import com.azure.storage.queue.QueueClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.allclear.common.errors.AbortException;
+import app.allclear.common.geo.GeoIndex;
+import app.allclear.common.hibernate.DualSessionFactory;
+import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.common.task.AbstractHibernateTask;
+import app.allclear.common.time.StopWatch;
+import app.allclear.common.value.Constants;
+import app.allclear.platform.dao.*;
+import app.allclear.platform.model.AlertInitRequest;
+import app.allclear.platform.type.Timezone;
+import app.allclear.twilio.client.TwilioClient;
+
+/** Task callback that evaluates the Facility Alerts of an entire timezone in a single pass.
+ *  Instead of one distance query per person (AlertTask), the activated facilities are loaded once into an in-memory
+ *  GEO index and the alertable people are streamed by longitude band and matched against it.
+ *  The same rule applies: a person is alerted when any of the PAGE_SIZE closest activated facilities within
+ *  MILES_DEFAULT were activated since the person was last alerted.
+ *
+ *  A single message does NOT run an entire timezone. Once the BUDGET elapses, the People evaluated so far are committed
+ *  and the rest of the timezone is sent as a new message that resumes after the last evaluated person. Each message then
+ *  finishes well within its visibility timeout so that it does not reappear while still running and alert the same
+ *  People again from another worker.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class AlertZoneTask extends AbstractHibernateTask<AlertInitRequest>
+{
+	private static final Logger log = LoggerFactory.getLogger(AlertZoneTask.class);
+
+	public static final int PAGE_SIZE = 1000;	// Number of people per page & per batch of updates.
+	public static final long METERS = Constants.milesToMeters(AlertTask.MILES_DEFAULT);
+	public static final long BUDGET = 180L;	// Seconds after which no more People are evaluated by the current message.
+	public static final long OVERRUN = (2L * TwilioClient.TIMEOUT) + 30L;	// Seconds - the SMS send in progress at the BUDGET (connect & read timeouts) plus the commit of its page.
+	public static final long RUN_MAX = BUDGET + OVERRUN;	// Seconds - longest run of a single message. Must be within the operator's timeout (App.QUEUE_ALERT_ZONE_TIMEOUT).
+
+	private final PeopleDAO dao;
+	private final FacilityDAO facilityDao;
+	private final SessionDAO sessionDao;
+	private final int pageSize;
+	private final long budget;	// Milliseconds
+	private final ObjectMapper mapper = JacksonUtils.createMapperAzure();
+
+	/** Represents the queue that receives the remainder of a timezone. Set after the operator is added to the QueueManager. */
+	public AlertZoneTask withQueue(final QueueClient newValue) { queue = newValue; return this; }
+	private volatile QueueClient queue = null;
+
+	@Override public boolean readOnly() { return false; }
+	@Override public boolean transactional() { return false; }	// Each page of updates is committed separately.
+
+	public AlertZoneTask(final DualSessionFactory factory, final PeopleDAO dao, final FacilityDAO facilityDao, final SessionDAO sessionDao)
+	{
+		this(factory, dao, facilityDao, sessionDao, PAGE_SIZE, BUDGET * 1000L);
+	}
+
+	/** Populator.
+	 *
+	 * @param factory
+	 * @param dao
+	 * @param facilityDao
+	 * @param sessionDao
+	 * @param pageSize number of people per page & per batch of updates.
+	 * @param budget milliseconds after which no more People are evaluated by the current message.
+	 */
+	public AlertZoneTask(final DualSessionFactory factory, final PeopleDAO dao, final FacilityDAO facilityDao, final SessionDAO sessionDao, final int pageSize, final long budget)
+	{
+		super(factory);
+
+		this.dao = dao;
+		this.facilityDao = facilityDao;
+		this.sessionDao = sessionDao;
+		this.pageSize = pageSize;
+		this.budget = budget;
+
+		log.info("INITIALIZED");
+	}
+
+	@Override
+	public boolean process(final AlertInitRequest request, final Session s) throws Exception
+	{
+		if (null == request.timezoneId) throw new AbortException("The request is missing the timezoneId.");
+
+		var zone = Timezone.get(request.timezoneId);
+		if (null == zone) throw new AbortException("The timezone '" + request.timezoneId + "' does not receive alerts.");
+
+		log.info("PROCESSING: {} after '{}'", zone, request.lastId);
+
+		var timer = new StopWatch();
+		var until = System.currentTimeMillis() + budget;	// Includes the load.
+		var facilities = new Facilities(facilityDao.getActivatedPoints(), dao.getEarliestAlertedAtByLongitude(zone));
+		log.info("LOADED ({}): {} facilities, {} recent in {}", zone, facilities.all.size(), facilities.recent.size(), timer.split());
+
+		var lastId = (null != request.lastId) ? request.lastId : "";
+		List<Object[]> people = null;
+		int count = 0, alerted = 0, batches = 0;
+		boolean expired = false;
+		while (!expired && !(people = dao.getActiveAlertableByLongitude(lastId, zone, pageSize)).isEmpty())
+		{
+			var results = new ArrayList<PeopleDAO.Alerted>(people.size());
+			for (var o : people)
+			{
+				if (expired = ((0 < count) && (System.currentTimeMillis() >= until))) break;	// Each message evaluates at least one person.
+
+				count++;
+				var id = (String) o[0];
+				var lastAlertedAt = (null != o[4]) ? (Date) o[4] : (Date) o[5];	// Same as People.alertedAt().
+				var found = facilities.count(((BigDecimal) o[2]).doubleValue(), ((BigDecimal) o[3]).doubleValue(), lastAlertedAt);
+				if (0 < found)
+				{
+					try
+					{
+						sessionDao.alert((String) o[1], lastAlertedAt);
+						alerted++;
+					}
+					catch (final RuntimeException ex)
+					{
+						log.warn("FAILED ({}): {}", id, ex.getMessage());
+						lastId = id;
+						continue;	// Leave the alertedAt unchanged so that the next run tries again.
+					}
+				}
+
+				results.add(new PeopleDAO.Alerted(id, found, new Date()));
+				lastId = id;
+			}
+
+			var trans = s.beginTransaction();
+			try
+			{
+				dao.updateAlerted(results, pageSize);
+				trans.commit();
+			}
+			catch (final RuntimeException ex)
+			{
+				trans.rollback();
+				throw ex;
+			}
+
+			log.info("BATCH ({}): {} - {} out of {}, {} alerted in {}", zone, ++batches, results.size(), count, alerted, timer.split());
+		}
+
+		// Committed People are NOT alerted again if the continuation fails to send. The retry of this message
+		// starts from the same cursor but finds that they were alerted after the activations.
+		if (expired)
+		{
+			if (null == queue) throw new IllegalStateException("The queue for the remainder of the timezone is not set.");
+
+			queue.sendMessage(mapper.writeValueAsString(new AlertInitRequest(zone.id, lastId)));
+			log.info("CONTINUED ({}): after '{}'", zone, lastId);
+		}
+
+		log.info("PROCESSED ({}): {}, {} alerted in {}", zone, count, alerted, timer.total());
+
+		return true;
+	}
+
+	/** Represents the activated facilities of a single run. */
+	static class Facilities
+	{
+		final GeoIndex<Long> all = new GeoIndex<>(GeoIndex.CELL_DEGREES_DEFAULT, Long.MAX_VALUE);
+		final GeoIndex<Long> recent = new GeoIndex<>(GeoIndex.CELL_DEGREES_DEFAULT, Long.MAX_VALUE);	// Activated since the earliest last alert of the zone.
+		final Map<Long, Long> activatedAt;
+
+		/** Populator.
+		 *
+		 * @param rows each row is the ID, latitude, longitude, and activatedAt.
+		 * @param earliest activations before this time cannot alert anyone in the run. NULL if no one can be alerted.
+		 */
+		Facilities(final List<Object[]> rows, final Date earliest)
+		{
+			activatedAt = new HashMap<>(rows.size() * 2);
+
+			var all = new ArrayList<GeoIndex.Point<Long>>(rows.size());
+			var recent = new ArrayList<GeoIndex.Point<Long>>();
+			var from = (null != earliest) ? earliest.getTime() : Long.MAX_VALUE;
+			for (var o : rows)
+			{
+				if ((null == o[1]) || (null == o[2])) continue;
+
+				var id = (Long) o[0];
+				var at = ((Date) o[3]).getTime();
+				var point = new GeoIndex.Point<>(id, ((BigDecimal) o[1]).doubleValue(), ((BigDecimal) o[2]).doubleValue());
+				activatedAt.put(id, at);
+				all.add(point);
+				if (at >= from) recent.add(point);
+			}
+
+			this.all.load(all);
+			this.recent.load(recent);
+		}
+
+		/** Counts the closest activated facilities that were activated since the last alert.
+		 *
+		 * @param latitude
+		 * @param longitude
+		 * @param lastAlertedAt NULL never matches.
+		 * @return zero if none found.
+		 */
+		int count(final double latitude, final double longitude, final Date lastAlertedAt)
+		{
+			if ((null == lastAlertedAt) || (0 == recent.size())) return 0;
+
+			// Most people have no recent activations nearby so check the small index first.
+			var from = lastAlertedAt.getTime();
+			if (recent.near(latitude, longitude, METERS).stream().noneMatch(o -> activatedAt.get(o.key) >= from)) return 0;
+
+			return (int) all.near(latitude, longitude, METERS)
+				.stream()
+				.limit(AlertTask.PAGE_SIZE)
+				.filter(o -> activatedAt.get(o.key) >= from)
+				.count();
+		}
+	}
+}
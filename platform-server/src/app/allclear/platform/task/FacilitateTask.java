@@ -1,5 +1,7 @@
 package app.allclear.platform.task;
 
+import java.util.concurrent.*;
+
 import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.*;
 
@@ -8,11 +10,12 @@ import app.allclear.platform.Config;
 import app.allclear.platform.dao.AdminDAO;
 import app.allclear.platform.value.FacilitateValue;
 import app.allclear.twilio.client.TwilioClient;
-import app.allclear.twilio.model.SMSRequest;
+import app.allclear.twilio.model.*;
 
 /** Task callback that handles notifications for new Facilitate requests.
  *  
  *  Sends SMS messages to select Admins when new Facility change requests are received.
+ *  The messages are sent concurrently as batch sends of the TwilioClient, which bounds their concurrency.
  * 
  * @author smalleyd
  * @version 1.1.93
@@ -56,14 +59,25 @@ public class FacilitateTask implements TaskCallback<FacilitateValue>
 			value.originator.name + who,
 			conf.adminUrl) ;
 
-		phones.forEach(phone -> {
-			try { twilio.send(new SMSRequest(conf.alertSid, conf.alertPhone, message, phone)); }
-			catch (final Exception ex)
-			{
-				log.error("Could NOT send Facilitate Request notification {} to {}: {} - {} - {}", value, phone, ex.getClass(), ex.getMessage(), ex.getStackTrace());
-			}
-		});
+		// Wait for all the sends so that the fan-out takes as long as the slowest send.
+		CompletableFuture.allOf(phones.stream()
+			.map(phone -> send(value, message, phone))
+			.toArray(CompletableFuture[]::new)).join();
 
 		return true;
 	}
+
+	/** Helper method - sends a single notification. Failures are logged so that the other admins are still notified. */
+	private CompletableFuture<SMSResponse> send(final FacilitateValue value, final String message, final String phone)
+	{
+		CompletableFuture<SMSResponse> o;
+		try { o = twilio.sendAsync(new SMSRequest(conf.alertSid, conf.alertPhone, message, phone)); }
+		catch (final RuntimeException ex) { o = CompletableFuture.failedFuture(ex); }	// Rejected before it is queued.
+
+		return o.exceptionally(ex -> {
+			var e = (ex instanceof CompletionException) ? ex.getCause() : ex;
+			log.error("Could NOT send Facilitate Request notification {} to {}: {} - {} - {}", value, phone, e.getClass(), e.getMessage(), e.getStackTrace());
+			return null;
+		});
+	}
 }
@@ -18,6 +18,7 @@ import io.dropwizard.util.Duration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import app.allclear.platform.fcc.GeoClient;
 import app.allclear.redis.JedisConfig;
 import app.allclear.twilio.client.TwilioConfig;
 
@@ -68,6 +69,9 @@ public class ConfigTest
 		assertThat(o.auditLog).as("Check auditLog").startsWith("DefaultEndpointsProtocol=https;AccountName=allclear-audit-dev;AccountKey=").endsWith(";TableEndpoint=https://allclear-audit-dev.table.cosmos.azure.com:443/;");
 		Assertions.assertNotNull(o.geocode, "Check geocode");
 		Assertions.assertEquals("allclear-dev-mapcache.redis.cache.windows.net", o.geocode.host, "Check geocode.host");
+		Assertions.assertEquals(GeoClient.PRECISION_DEFAULT, o.blockPrecision, "Check blockPrecision");
+		Assertions.assertNull(o.counties, "Check counties");
+		Assertions.assertNull(o.auditLogSpill, "Check auditLogSpill");
 		Assertions.assertEquals(6380, o.geocode.port, "Check geocode.port");
 		Assertions.assertEquals(200L, o.geocode.timeout, "Check geocode.timeout");
 		Assertions.assertEquals(10, o.geocode.poolSize, "Check geocode.poolSize");
@@ -91,6 +95,10 @@ public class ConfigTest
 		Assertions.assertEquals(TwilioConfig.BASE_URL, o.twilio.baseUrl, "Check twilio.baseUrl");
 		Assertions.assertNotNull(o.twilio.accountId, "Check twilio.accountId");	// Could be the real account ID if the environment variable is set.
 		Assertions.assertNotNull(o.twilio.authToken, "Check twilio.authToken");	// Could be the real authorization token if the environment variable is set.
+		Assertions.assertEquals(TwilioConfig.CONCURRENCY_DEFAULT, o.twilio.concurrency, "Check twilio.concurrency");
+		Assertions.assertEquals(TwilioConfig.INTERACTIVE_DEFAULT, o.twilio.interactive, "Check twilio.interactive");
+		Assertions.assertEquals(TwilioConfig.RATE_DEFAULT, o.twilio.rate, "Check twilio.rate");
+		Assertions.assertEquals(TwilioConfig.LEASE_TIMEOUT_DEFAULT, o.twilio.leaseTimeout, "Check twilio.leaseTimeout");
 
 		Assertions.assertEquals("com.mysql.jdbc.Driver", o.trans.getDriverClass(), "Check trans.driverClass");
 		Assertions.assertEquals("allclear", o.trans.getUser(), "Check trans.user");
@@ -145,6 +153,9 @@ public class ConfigTest
 		assertThat(o.auditLog).as("Check auditLog").startsWith("DefaultEndpointsProtocol=https;AccountName=allclear-audit-dev;AccountKey=").endsWith(";TableEndpoint=https://allclear-audit-dev.table.cosmos.azure.com:443/;");
 		Assertions.assertNotNull(o.geocode, "Check geocode");
 		Assertions.assertEquals("localhost", o.geocode.host, "Check geocode.host");
+		Assertions.assertEquals(GeoClient.PRECISION_DEFAULT, o.blockPrecision, "Check blockPrecision");
+		Assertions.assertNull(o.counties, "Check counties");
+		Assertions.assertNull(o.auditLogSpill, "Check auditLogSpill");
 		Assertions.assertEquals(JedisConfig.PORT_DEFAULT, o.geocode.port, "Check geocode.port");
 		Assertions.assertEquals(200L, o.geocode.timeout, "Check geocode.timeout");
 		Assertions.assertEquals(10, o.geocode.poolSize, "Check geocode.poolSize");
@@ -168,6 +179,10 @@ public class ConfigTest
 		Assertions.assertEquals(TwilioConfig.BASE_URL, o.twilio.baseUrl, "Check twilio.baseUrl");
 		Assertions.assertNotNull(o.twilio.accountId, "Check twilio.accountId");	// Could be the real account ID if the environment variable is set.
 		Assertions.assertNotNull(o.twilio.authToken, "Check twilio.authToken");	// Could be the real authorization token if the environment variable is set.
+		Assertions.assertEquals(TwilioConfig.CONCURRENCY_DEFAULT, o.twilio.concurrency, "Check twilio.concurrency");
+		Assertions.assertEquals(TwilioConfig.INTERACTIVE_DEFAULT, o.twilio.interactive, "Check twilio.interactive");
+		Assertions.assertEquals(TwilioConfig.RATE_DEFAULT, o.twilio.rate, "Check twilio.rate");
+		Assertions.assertEquals(TwilioConfig.LEASE_TIMEOUT_DEFAULT, o.twilio.leaseTimeout, "Check twilio.leaseTimeout");
 
 		Assertions.assertEquals("com.mysql.jdbc.Driver", o.trans.getDriverClass(), "Check trans.driverClass");
 		Assertions.assertEquals("allclear", o.trans.getUser(), "Check trans.user");
@@ -222,6 +237,9 @@ public class ConfigTest
 		assertThat(o.auditLog).as("Check auditLog").startsWith("DefaultEndpointsProtocol=https;AccountName=allclear-audit-prod;AccountKey=").endsWith(";TableEndpoint=https://allclear-audit-prod.table.cosmos.azure.com:443/;");
 		Assertions.assertNotNull(o.geocode, "Check geocode");
 		Assertions.assertEquals("allclear-prod-mapcache.redis.cache.windows.net", o.geocode.host, "Check geocode.host");
+		Assertions.assertEquals(GeoClient.PRECISION_DEFAULT, o.blockPrecision, "Check blockPrecision");
+		Assertions.assertNull(o.counties, "Check counties");
+		Assertions.assertNull(o.auditLogSpill, "Check auditLogSpill");
 		Assertions.assertEquals(6380, o.geocode.port, "Check geocode.port");
 		Assertions.assertEquals(200L, o.geocode.timeout, "Check geocode.timeout");
 		Assertions.assertEquals(10, o.geocode.poolSize, "Check geocode.poolSize");
@@ -245,6 +263,10 @@ public class ConfigTest
 		Assertions.assertEquals(TwilioConfig.BASE_URL, o.twilio.baseUrl, "Check twilio.baseUrl");
 		Assertions.assertNotNull(o.twilio.accountId, "Check twilio.accountId");	// Could be the real account ID if the environment variable is set.
 		Assertions.assertNotNull(o.twilio.authToken, "Check twilio.authToken");	// Could be the real authorization token if the environment variable is set.
+		Assertions.assertEquals(20, o.twilio.concurrency, "Check twilio.concurrency");
+		Assertions.assertEquals(10, o.twilio.interactive, "Check twilio.interactive");
+		Assertions.assertEquals(10, o.twilio.rate, "Check twilio.rate");
+		Assertions.assertEquals(5000L, o.twilio.leaseTimeout, "Check twilio.leaseTimeout");
 
 		Assertions.assertEquals("com.mysql.jdbc.Driver", o.trans.getDriverClass(), "Check trans.driverClass");
 		Assertions.assertEquals("allclear", o.trans.getUser(), "Check trans.user");
@@ -299,6 +321,9 @@ public class ConfigTest
 		assertThat(o.auditLog).as("Check auditLog").startsWith("DefaultEndpointsProtocol=https;AccountName=allclear-audit-staging;AccountKey=").endsWith(";TableEndpoint=https://allclear-audit-staging.table.cosmos.azure.com:443/;");
 		Assertions.assertNotNull(o.geocode, "Check geocode");
 		Assertions.assertEquals("allclear-staging2-mapcache.redis.cache.windows.net", o.geocode.host, "Check geocode.host");
+		Assertions.assertEquals(GeoClient.PRECISION_DEFAULT, o.blockPrecision, "Check blockPrecision");
+		Assertions.assertNull(o.counties, "Check counties");
+		Assertions.assertNull(o.auditLogSpill, "Check auditLogSpill");
 		Assertions.assertEquals(6380, o.geocode.port, "Check geocode.port");
 		Assertions.assertEquals(200L, o.geocode.timeout, "Check geocode.timeout");
 		Assertions.assertEquals(10, o.geocode.poolSize, "Check geocode.poolSize");
@@ -322,6 +347,10 @@ public class ConfigTest
 		Assertions.assertEquals(TwilioConfig.BASE_URL, o.twilio.baseUrl, "Check twilio.baseUrl");
 		Assertions.assertNotNull(o.twilio.accountId, "Check twilio.accountId");	// Could be the real account ID if the environment variable is set.
 		Assertions.assertNotNull(o.twilio.authToken, "Check twilio.authToken");	// Could be the real authorization token if the environment variable is set.
+		Assertions.assertEquals(20, o.twilio.concurrency, "Check twilio.concurrency");
+		Assertions.assertEquals(10, o.twilio.interactive, "Check twilio.interactive");
+		Assertions.assertEquals(10, o.twilio.rate, "Check twilio.rate");
+		Assertions.assertEquals(5000L, o.twilio.leaseTimeout, "Check twilio.leaseTimeout");
 
 		Assertions.assertEquals("com.mysql.jdbc.Driver", o.trans.getDriverClass(), "Check trans.driverClass");
 		Assertions.assertEquals("allclear", o.trans.getUser(), "Check trans.user");
@@ -376,6 +405,9 @@ public class ConfigTest
 		assertThat(o.auditLog).as("Check auditLog").startsWith("DefaultEndpointsProtocol=https;AccountName=allclear-audit-dev;AccountKey=").endsWith(";TableEndpoint=https://allclear-audit-dev.table.cosmos.azure.com:443/;");
 		Assertions.assertNotNull(o.geocode, "Check geocode");
 		Assertions.assertNull(o.geocode.host, "Check geocode.host");
+		Assertions.assertEquals(GeoClient.PRECISION_DEFAULT, o.blockPrecision, "Check blockPrecision");
+		Assertions.assertNull(o.counties, "Check counties");
+		Assertions.assertNull(o.auditLogSpill, "Check auditLogSpill");
 		Assertions.assertEquals(JedisConfig.PORT_DEFAULT, o.geocode.port, "Check geocode.port");
 		Assertions.assertNull(o.geocode.timeout, "Check geocode.timeout");
 		Assertions.assertNull(o.geocode.poolSize, "Check geocode.poolSize");
@@ -399,6 +431,10 @@ public class ConfigTest
 		Assertions.assertEquals(TwilioConfig.BASE_URL, o.twilio.baseUrl, "Check twilio.baseUrl");
 		Assertions.assertNotNull(o.twilio.accountId, "Check twilio.accountId");	// Could be the real account ID if the environment variable is set.
 		Assertions.assertNotNull(o.twilio.authToken, "Check twilio.authToken");	// Could be the real authorization token if the environment variable is set.
+		Assertions.assertEquals(TwilioConfig.CONCURRENCY_DEFAULT, o.twilio.concurrency, "Check twilio.concurrency");
+		Assertions.assertEquals(TwilioConfig.INTERACTIVE_DEFAULT, o.twilio.interactive, "Check twilio.interactive");
+		Assertions.assertEquals(TwilioConfig.RATE_DEFAULT, o.twilio.rate, "Check twilio.rate");
+		Assertions.assertEquals(TwilioConfig.LEASE_TIMEOUT_DEFAULT, o.twilio.leaseTimeout, "Check twilio.leaseTimeout");
 
 		Assertions.assertEquals("org.h2.Driver", o.trans.getDriverClass(), "Check trans.driverClass");
 		Assertions.assertNull(o.trans.getUser(), "Check trans.user");
@@ -0,0 +1,260 @@
+package app.allclear.platform.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.codahale.metrics.Meter;
+import com.microsoft.azure.storage.StorageException;
+
+import app.allclear.common.ThreadUtils;
+import app.allclear.platform.value.AuditLogValue;
+
+/** Unit test class that verifies the AuditLogWriter.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class AuditLogWriterTest
+{
+	@TempDir
+	public Path dir;
+
+	private final List<String> writes = Collections.synchronizedList(new LinkedList<>());
+
+	private static AuditLogValue value(final String id, final long actionAt)
+	{
+		return new AuditLogValue(id, actionAt, "Admin", "tim", "update", "{}", new Date());
+	}
+
+	/** Records each batch as "table:partition:size". Fails batches from the "bad", "conflict", and "busy" partitions. */
+	private void sink(final String tableName, final List<AuditLogValue> values) throws Exception
+	{
+		var id = values.get(0).id;
+		if ("bad".equals(id)) throw new IllegalStateException("Bad partition");
+		if ("conflict".equals(id)) throw new StorageException("EntityAlreadyExists", "Conflict", 409, null, null);
+		if ("busy".equals(id)) throw new StorageException("ServerBusy", "Busy", 503, null, null);
+		if ("duplicate".equals(id) && (1 < values.size())) throw new IllegalStateException("Duplicate row key");
+
+		writes.add(tableName + ":" + id + ":" + values.size());
+	}
+
+	@Test
+	public void add() throws Exception
+	{
+		var spill = dir.resolve("audit.spill");
+		var o = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		for (int i = 0; i < 3; i++) Assertions.assertTrue(o.add("facility", value("1", i)), "Check add " + i);
+		o.close();
+
+		assertThat(writes).as("Check writes").isNotEmpty();
+		Assertions.assertEquals(3, writes.stream().mapToInt(v -> Integer.parseInt(v.substring(v.lastIndexOf(':') + 1))).sum(), "Check written");
+		Assertions.assertFalse(Files.exists(spill), "Check spill");
+		Assertions.assertEquals(0, o.depth(), "Check depth");
+	}
+
+	@Test
+	public void add_afterClose() throws Exception
+	{
+		var spill = dir.resolve("audit.spill");
+		var o = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		o.close();
+
+		Assertions.assertFalse(o.add("facility", value("1", 1L)), "Check add");
+		Assertions.assertEquals(1, Files.readAllLines(spill).size(), "Check spill");
+	}
+
+	@Test
+	public void recover() throws Exception
+	{
+		var spill = dir.resolve("audit.spill");
+		var o = new AuditLogWriter((t, v) -> { throw new IllegalStateException("Down"); }, 1000, 1000L, spill);
+		o.add("facility", value("1", 1L));
+		o.add("facility", value("2", 2L));
+		ThreadUtils.sleep(500L);
+		o.close();
+		Assertions.assertEquals(2, Files.readAllLines(spill).size(), "Check spill");
+
+		var oo = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		oo.close();
+		Assertions.assertFalse(Files.exists(spill), "Check spill: after");
+		assertThat(writes).as("Check writes").containsOnly("facility:1:1", "facility:2:1");
+	}
+
+	@Test
+	public void recover_unreadable() throws Exception
+	{
+		var spill = dir.resolve("audit.spill");
+		var o = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		o.close();
+
+		o.spill(List.of(new AuditLogWriter.Entry("facility", value("1", 1L)), new AuditLogWriter.Entry("facility", value("2", 2L))));
+		var lines = Files.readAllLines(spill);
+		Files.write(spill, List.of(lines.get(0), lines.get(1).substring(0, lines.get(1).length() / 2), lines.get(1)));	// Cut short by a crash.
+
+		var oo = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		oo.close();
+		Assertions.assertFalse(Files.exists(spill), "Check spill: after");
+		Assertions.assertFalse(Files.exists(oo.replaying), "Check replaying: after");
+		assertThat(writes).as("Check writes").containsOnly("facility:1:1", "facility:2:1");
+		Assertions.assertEquals(1L, ((Meter) oo.getMetrics().get("app.allclear.platform.dao.AuditLogWriter.dropped")).getCount(), "Check dropped");
+	}
+
+	@Test
+	public void recover_replaying() throws Exception
+	{
+		var spill = dir.resolve("audit.spill");
+		var o = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		o.close();
+
+		o.spill(List.of(new AuditLogWriter.Entry("facility", value("1", 1L))));
+		Files.move(spill, o.replaying);	// Interrupted replay.
+		o.spill(List.of(new AuditLogWriter.Entry("facility", value("2", 2L))));	// Spilled afterwards.
+
+		var oo = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		oo.close();
+		Assertions.assertFalse(Files.exists(oo.replaying), "Check replaying: after");
+		assertThat(writes).as("Check writes").containsOnly("facility:1:1");
+		Assertions.assertEquals(1, Files.readAllLines(spill).size(), "Check spill: left for the next replay");
+	}
+
+	@Test
+	public void recover_overflow() throws Exception
+	{
+		var spill = dir.resolve("audit.spill");
+		var o = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		o.close();
+
+		var entries = new ArrayList<AuditLogWriter.Entry>();
+		for (int i = 0; i < 5; i++) entries.add(new AuditLogWriter.Entry("facility", value("1", i)));
+		o.spill(entries);
+
+		var oo = new AuditLogWriter((t, v) -> { throw new IllegalStateException("Down"); }, 2, 1000L, spill);
+		Assertions.assertFalse(Files.exists(oo.replaying), "Check replaying");
+		assertThat(Files.readAllLines(spill).size()).as("Check spill: beyond the capacity").isGreaterThanOrEqualTo(3);
+		oo.close();
+		Assertions.assertEquals(5, Files.readAllLines(spill).size(), "Check spill: after");	// Failed writes are spilled again.
+	}
+
+	@Test
+	public void recover_periodic() throws Exception
+	{
+		var down = new AtomicBoolean(true);
+		var spill = dir.resolve("audit.spill");
+		var o = new AuditLogWriter((t, v) -> { if (down.get()) throw new IllegalStateException("Down"); sink(t, v); }, 1000, 1000L, spill, 100L);
+		o.add("facility", value("1", 1L));
+		o.add("facility", value("2", 2L));
+		ThreadUtils.sleep(300L);
+		assertThat(writes).as("Check writes: down").isEmpty();
+
+		down.set(false);
+		ThreadUtils.sleep(500L);	// Replayed without a restart.
+		assertThat(writes).as("Check writes: up").containsOnly("facility:1:1", "facility:2:1");
+		Assertions.assertFalse(Files.exists(spill), "Check spill: up");
+		Assertions.assertFalse(Files.exists(o.replaying), "Check replaying: up");
+
+		o.close();
+	}
+
+	@Test
+	public void write() throws Exception
+	{
+		var spill = dir.resolve("audit.spill");
+		var o = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		o.close();	// Stop the worker to call write directly.
+
+		var entries = new ArrayList<AuditLogWriter.Entry>();
+		for (int i = 0; i < 250; i++) entries.add(new AuditLogWriter.Entry("facility", value("1", i)));
+		for (int i = 0; i < 3; i++) entries.add(new AuditLogWriter.Entry("tests", value("1", i)));
+		for (int i = 0; i < 2; i++) entries.add(new AuditLogWriter.Entry("facility", value("duplicate", i)));
+		entries.add(new AuditLogWriter.Entry("facility", value("bad", 1L)));
+
+		o.write(entries);
+		assertThat(writes).as("Check writes").containsExactly("facility:1:100", "facility:1:100", "facility:1:50", "facility:duplicate:1", "facility:duplicate:1", "tests:1:3");
+		Assertions.assertEquals(1, Files.readAllLines(spill).size(), "Check spill");
+	}
+
+	@Test
+	public void write_permanent() throws Exception
+	{
+		var spill = dir.resolve("audit.spill");
+		var o = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		o.close();	// Stop the worker to call write directly.
+
+		var entries = new ArrayList<AuditLogWriter.Entry>();
+		for (int i = 0; i < 3; i++) entries.add(new AuditLogWriter.Entry("facility", value("conflict", i)));
+		for (int i = 0; i < 2; i++) entries.add(new AuditLogWriter.Entry("facility", value("busy", i)));
+
+		o.write(entries);
+		assertThat(writes).as("Check writes").isEmpty();
+		Assertions.assertEquals(2, Files.readAllLines(spill).size(), "Check spill: only the retryable failures");
+		Assertions.assertEquals(2L, ((Meter) o.getMetrics().get("app.allclear.platform.dao.AuditLogWriter.spilled")).getCount(), "Check spilled");
+		Assertions.assertEquals(3L, ((Meter) o.getMetrics().get("app.allclear.platform.dao.AuditLogWriter.dropped")).getCount(), "Check dropped");
+	}
+
+	@Test
+	public void write_permanent_recover() throws Exception
+	{
+		var spill = dir.resolve("audit.spill");
+		var o = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		o.close();
+
+		o.spill(List.of(new AuditLogWriter.Entry("facility", value("conflict", 1L))));	// Spilled by an earlier release.
+
+		var oo = new AuditLogWriter(this::sink, 1000, 1000L, spill);
+		oo.close();
+		Assertions.assertFalse(Files.exists(spill), "Check spill: not replayed again");
+		assertThat(writes).as("Check writes").isEmpty();
+	}
+
+	@Test
+	public void retryable()
+	{
+		Assertions.assertTrue(AuditLogWriter.retryable(new IllegalStateException("Down")), "Check other");
+		Assertions.assertTrue(AuditLogWriter.retryable(new StorageException("ServerBusy", "Busy", 503, null, null)), "Check 503");
+		Assertions.assertTrue(AuditLogWriter.retryable(new StorageException("OperationTimedOut", "Timeout", 408, null, null)), "Check 408");
+		Assertions.assertTrue(AuditLogWriter.retryable(new StorageException("TooManyRequests", "Throttled", 429, null, null)), "Check 429");
+		Assertions.assertTrue(AuditLogWriter.retryable(new StorageException("IOException", "Connection reset", 306, null, null)), "Check client-side");
+		Assertions.assertFalse(AuditLogWriter.retryable(new StorageException("EntityAlreadyExists", "Conflict", 409, null, null)), "Check 409");
+		Assertions.assertFalse(AuditLogWriter.retryable(new StorageException("InvalidInput", "Bad request", 400, null, null)), "Check 400");
+	}
+
+	@Test
+	public void spillFile()
+	{
+		var o = AuditLogWriter.spillFile(dir.toString());
+		Assertions.assertEquals(dir, o.getParent(), "Check directory");
+		assertThat(o.getFileName().toString()).as("Check name").startsWith(AuditLogWriter.SPILL_PREFIX).endsWith(".spill");
+
+		Assertions.assertEquals(Paths.get(System.getProperty("java.io.tmpdir")), AuditLogWriter.spillFile(null).getParent(), "Check default");
+	}
+
+	@Test
+	public void testInvalid()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new AuditLogWriter(this::sink, 0, 1000L, dir.resolve("audit.spill")));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new AuditLogWriter(this::sink, 1000, 1000L, dir.resolve("audit.spill"), 0L));
+	}
+
+	@Test
+	public void testMetrics() throws Exception
+	{
+		var o = new AuditLogWriter(this::sink, 1000, 1000L, dir.resolve("audit.spill"));
+		o.close();
+
+		assertThat(o.getMetrics().keySet()).containsOnly(
+			"app.allclear.platform.dao.AuditLogWriter.depth",
+			"app.allclear.platform.dao.AuditLogWriter.written",
+			"app.allclear.platform.dao.AuditLogWriter.spilled",
+			"app.allclear.platform.dao.AuditLogWriter.dropped",
+			"app.allclear.platform.dao.AuditLogWriter.batches");
+	}
+}
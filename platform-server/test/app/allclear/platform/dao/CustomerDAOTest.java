@@ -128,6 +128,29 @@ public class CustomerDAOTest
 		VALUE.lastAccessedAt = value.lastAccessedAt;
 	}
 
+	@Test
+	public void authenticate_cached() throws Exception
+	{
+		try (var cached = new CustomerDAO("test", ConfigTest.loadTest().admins, redis, 10, 60L * 60L * 1000L))	// Only flushed explicitly.
+		{
+			var accessCount = dao.findWithException(VALUE.id).getAccessCount();
+
+			var value = cached.access(VALUE.id);
+			assertThat(value.lastAccessedAt).as("lastAccessedAt").isNotNull().isAfter(VALUE.lastAccessedAt);
+			Assertions.assertNotNull(cached.access(VALUE.id), "Check again");
+			Assertions.assertEquals(VALUE.lastAccessedAt.getTime(), dao.findWithException(VALUE.id).getLastAccessedAt(), "Check before flush");
+
+			Assertions.assertEquals(1, cached.flush(), "Check flush");
+			Assertions.assertEquals(0, cached.flush(), "Check flush again");
+
+			var record = dao.findWithException(VALUE.id);
+			assertThat(record.getLastAccessedAt()).as("Check after flush").isGreaterThanOrEqualTo(value.lastAccessedAt.getTime());
+			Assertions.assertEquals(accessCount + 2L, record.getAccessCount(), "Check accessCount");
+
+			VALUE.lastAccessedAt = record.lastAccessedAt();
+		}
+	}
+
 	@Test
 	public void find()
 	{
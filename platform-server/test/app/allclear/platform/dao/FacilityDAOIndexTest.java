@@ -0,0 +1,241 @@
+package app.allclear.platform.dao;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
+
+import app.allclear.junit.hibernate.*;
+import app.allclear.common.geo.GeoIndex;
+import app.allclear.common.redis.FakeRedisClient;
+import app.allclear.platform.App;
+import app.allclear.platform.filter.FacilityFilter;
+import app.allclear.platform.filter.GeoFilter;
+import app.allclear.platform.value.FacilityValue;
+
+/** Functional test class that verifies the FacilityDAO distance search via the in-memory GEO index.
+ *  The H2 database does NOT support ST_DISTANCE_SPHERE so these searches must never reach the database.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+@ExtendWith(DropwizardExtensionsSupport.class)
+public class FacilityDAOIndexTest
+{
+	public static final HibernateRule DAO_RULE = new HibernateRule(App.ENTITIES);
+	public final HibernateTransactionRule transRule = new HibernateTransactionRule(DAO_RULE);
+
+	private static FacilityDAO dao = null;
+	private static FacilityDAO other = null;	// Another node that receives the GEO index changes via pub/sub.
+	private static final GeoIndex<Long> index = new GeoIndex<>();
+	private static final GeoIndex<Long> otherIndex = new GeoIndex<>();
+	private static FacilityValue VALUE = null;
+	private static FacilityValue VALUE_1 = null;
+	private static FacilityValue VALUE_2 = null;
+
+	private static BigDecimal bg(final String value) { return new BigDecimal(value); }
+	private static FacilityFilter filter(final int miles) { return filter(new FacilityFilter(), miles); }
+	private static FacilityFilter filter(final FacilityFilter filter, final int miles) { return filter.withActive(true).withFrom(new GeoFilter(bg("45.7"), bg("-35.42"), miles)); }
+
+	@BeforeAll
+	public static void up()
+	{
+		var redis = new FakeRedisClient();
+		dao = new FacilityDAO(DAO_RULE.getSessionFactory(), new TestAuditor(), index, redis);
+		other = new FacilityDAO(DAO_RULE.getSessionFactory(), new TestAuditor(), otherIndex, redis);
+	}
+
+	@AfterAll
+	public static void down()
+	{
+		dao.close();
+		other.close();
+	}
+
+	@Test
+	public void add()
+	{
+		VALUE = dao.add(new FacilityValue(1, "Miami", "FL", 45, -35, true), true);
+		VALUE_1 = dao.add(new FacilityValue(2, "Miami", "FL", 45, -35, true).withLatitude(bg("45.5")).withLongitude(bg("-35.5")), true);
+		VALUE_2 = dao.add(new FacilityValue(3, "Miami", "FL", 45, -35, false).withLatitude(bg("45.6")).withLongitude(bg("-35.4")), true);
+
+		Assertions.assertTrue(index.stale(), "Check stale");	// Not loaded until the first search.
+	}
+
+	public static Stream<Arguments> search()
+	{
+		return Stream.of(
+			arguments(filter(10), List.of()),
+			arguments(filter(50), List.of("Test Center 2")),
+			arguments(filter(100), List.of("Test Center 2", "Test Center 1")),
+			arguments(filter(100).withName("Center 1"), List.of("Test Center 1")),
+			arguments(filter(100).withName("Center 3"), List.of()),
+			arguments(filter(100).withDriveThru(true), List.of()),
+			arguments(filter(100).withDriveThru(false), List.of("Test Center 2", "Test Center 1")));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void search(final FacilityFilter filter, final List<String> expected)
+	{
+		var o = dao.search(filter, false);
+		Assertions.assertEquals((long) expected.size(), o.total, "Check total");
+		Assertions.assertEquals(expected, (null != o.records) ? o.records.stream().map(v -> v.name).collect(toList()) : List.of(), "Check records");
+		Assertions.assertEquals("meters", o.sortOn, "Check sortOn");
+		if (null != o.records) o.records.forEach(v -> Assertions.assertNotNull(v.meters, "Check meters: " + v.name));
+
+		Assertions.assertEquals((long) expected.size(), dao.count(filter, false), "Check count");
+		Assertions.assertFalse(index.stale(), "Check stale");
+	}
+
+	@Test
+	public void search_meters()
+	{
+		var o = dao.search(filter(100), false).records;
+		Assertions.assertEquals(23093L, o.get(0).meters, "Check meters: 0");
+		Assertions.assertEquals(84473L, o.get(1).meters, "Check meters: 1");
+	}
+
+	@Test
+	public void search_page()
+	{
+		var o = dao.search(filter(new FacilityFilter(2, 1), 100), false);
+		Assertions.assertEquals(2L, o.total, "Check total");
+		Assertions.assertEquals(2, o.pages, "Check pages");
+		Assertions.assertEquals(List.of("Test Center 1"), o.records.stream().map(v -> v.name).collect(toList()), "Check records");
+	}
+
+	@Test
+	public void testIndex()
+	{
+		Assertions.assertEquals(2, index.size(), "Check size");
+		Assertions.assertTrue(index.contains(VALUE.id), "Check VALUE");
+		Assertions.assertTrue(index.contains(VALUE_1.id), "Check VALUE_1");
+		Assertions.assertFalse(index.contains(VALUE_2.id), "Check VALUE_2");
+	}
+
+	@Test
+	public void testIndex_other()
+	{
+		Assertions.assertTrue(otherIndex.stale(), "Check stale");	// Never loaded so only holds the published changes.
+		Assertions.assertEquals(2, otherIndex.size(), "Check size");
+		Assertions.assertTrue(otherIndex.contains(VALUE.id), "Check VALUE");
+		Assertions.assertTrue(otherIndex.contains(VALUE_1.id), "Check VALUE_1");
+		Assertions.assertFalse(otherIndex.contains(VALUE_2.id), "Check VALUE_2");
+	}
+
+	@Test
+	public void testIndexed()
+	{
+		var o = new GeoIndex<Long>();
+		var node = new FacilityDAO(DAO_RULE.getSessionFactory(), new TestAuditor(), o);
+
+		node.indexed("1000,45.5,-35.5");
+		Assertions.assertEquals(45.5d, o.get(1000L).latitude, "Check latitude");
+		Assertions.assertEquals(-35.5d, o.get(1000L).longitude, "Check longitude");
+
+		node.indexed("1000,45.6,-35.4");
+		Assertions.assertEquals(45.6d, o.get(1000L).latitude, "Check moved latitude");
+		Assertions.assertEquals(-35.4d, o.get(1000L).longitude, "Check moved longitude");
+
+		node.indexed("invalid");
+		node.indexed("1000,invalid,-35.4");
+		Assertions.assertTrue(o.contains(1000L), "Check invalid");
+
+		node.indexed("1000");
+		Assertions.assertFalse(o.contains(1000L), "Check removed");
+	}
+
+	@Test
+	public void testModify()
+	{
+		dao.update(dao.getById(VALUE_1.id, true).withActive(false), true);
+		dao.update(dao.getById(VALUE_2.id, true).withActive(true), true);
+	}
+
+	@Test
+	public void testModify_check()
+	{
+		Assertions.assertEquals(2, index.size(), "Check size");
+		Assertions.assertFalse(index.contains(VALUE_1.id), "Check VALUE_1");
+		Assertions.assertTrue(index.contains(VALUE_2.id), "Check VALUE_2");
+		Assertions.assertEquals(List.of("Test Center 3", "Test Center 1"), dao.search(filter(100), false).records.stream().map(v -> v.name).collect(toList()));
+
+		Assertions.assertEquals(2, otherIndex.size(), "Check other size");
+		Assertions.assertFalse(otherIndex.contains(VALUE_1.id), "Check other VALUE_1");
+		Assertions.assertTrue(otherIndex.contains(VALUE_2.id), "Check other VALUE_2");
+	}
+
+	@Test
+	public void testRemove()
+	{
+		Assertions.assertTrue(dao.remove(VALUE_2.id), "Check remove");
+	}
+
+	@Test
+	public void testRemove_check()
+	{
+		Assertions.assertEquals(1, index.size(), "Check size");
+		Assertions.assertEquals(List.of("Test Center 1"), dao.search(filter(100), false).records.stream().map(v -> v.name).collect(toList()));
+
+		Assertions.assertEquals(1, otherIndex.size(), "Check other size");
+		Assertions.assertFalse(otherIndex.contains(VALUE_2.id), "Check other VALUE_2");
+	}
+
+	@Test
+	public void testStale()	// Deactivated by another node so this node's index is not updated.
+	{
+		Assertions.assertEquals(1, DAO_RULE.getSessionFactory().getCurrentSession()
+			.createQuery("UPDATE Facility o SET o.active = false WHERE o.id = :id").setParameter("id", VALUE.id).executeUpdate(), "Check update");
+	}
+
+	@Test
+	public void testStale_check()
+	{
+		Assertions.assertTrue(index.contains(VALUE.id), "Check index: before");
+		for (var f : List.of(filter(100), filter(100).withName("Center 1")))
+		{
+			var o = dao.search(f, false);
+			Assertions.assertEquals(0L, o.total, "Check total: " + f);
+			Assertions.assertEquals(0, o.pages, "Check pages: " + f);
+			Assertions.assertTrue((null == o.records) || o.records.isEmpty(), "Check records: " + f);
+		}
+		Assertions.assertFalse(index.contains(VALUE.id), "Check index: after");	// The stale page reloaded the index.
+	}
+
+	@Test
+	public void testStale_refill()	// Deactivates the closest facility without publishing the change.
+	{
+		var o = dao.add(new FacilityValue(4, "Miami", "FL", 45, -35, true).withLatitude(bg("45.68")).withLongitude(bg("-35.42")), true);
+		dao.add(new FacilityValue(5, "Miami", "FL", 45, -35, true).withLatitude(bg("45.65")).withLongitude(bg("-35.42")), true);
+
+		Assertions.assertEquals(1, DAO_RULE.getSessionFactory().getCurrentSession()
+			.createQuery("UPDATE Facility o SET o.active = false WHERE o.id = :id").setParameter("id", o.id).executeUpdate(), "Check update");
+	}
+
+	@Test
+	public void testStale_refill_check()
+	{
+		Assertions.assertEquals(2, index.size(), "Check index: before");
+
+		var o = dao.search(filter(new FacilityFilter(1, 1), 100), false);
+		Assertions.assertEquals(1L, o.total, "Check total");
+		Assertions.assertEquals(1, o.pages, "Check pages");
+		Assertions.assertEquals(List.of("Test Center 5"), o.records.stream().map(v -> v.name).collect(toList()), "Check records");
+		Assertions.assertEquals(1, index.size(), "Check index: after");
+	}
+}
@@ -187,6 +187,20 @@ public class PeopleDAOFieldTest
 		search(dao.search(filter), healthWorkerStatus, condition, exposure, symptom);
 	}
 
+	@ParameterizedTest
+	@MethodSource("search")
+	public void search_includeChildren(final PeopleFilter filter,
+			final HealthWorkerStatus healthWorkerStatus,
+			final Condition condition,
+			final Exposure exposure,
+			final Symptom symptom)
+	{
+		var results = dao.search(filter.withIncludeChildren(true));
+		Assertions.assertEquals(1L, results.total, "Check total");
+
+		get(results.records.get(0), healthWorkerStatus, condition, exposure, symptom);
+	}
+
 	public static Stream<Arguments> search_via_resource()
 	{
 		return Stream.of(
@@ -1658,6 +1658,30 @@ public class PeopleDAOTest
 		count(new PeopleFilter().withExcludeSymptoms(NAUSEA_VOMITING.id, SHORTNESS_OF_BREATH.id, SORE_THROAT.id), 2L - second);
 	}
 
+	@Test
+	public void z_30_updateAlerted()
+	{
+		Assertions.assertNotNull(VALUE = dao.add(new PeopleValue("alerted", "+18885550030", true)));
+	}
+
+	@Test
+	public void z_30_updateAlerted_00()
+	{
+		var cache = DAO_RULE.getSessionFactory().getCache();
+		Assertions.assertNull(dao.getById(VALUE.id).alertedOf, "Check alertedOf: before");
+		Assertions.assertTrue(cache.containsEntity(People.class, VALUE.id), "Check cached: before");
+
+		Assertions.assertEquals(1, dao.updateAlerted(List.of(new PeopleDAO.Alerted(VALUE.id, 7, new Date()))), "Check updated");
+		Assertions.assertTrue(cache.containsEntity(People.class, VALUE.id), "Check cached: NOT evicted before the commit");
+	}
+
+	@Test
+	public void z_30_updateAlerted_01()
+	{
+		Assertions.assertFalse(DAO_RULE.getSessionFactory().getCache().containsEntity(People.class, VALUE.id), "Check cached: evicted after the commit");
+		Assertions.assertEquals(7, dao.getById(VALUE.id).alertedOf, "Check alertedOf: after");
+	}
+
 	/** Helper method - calls the DAO count call and compares the expected total value.
 	 *
 	 * @param filter
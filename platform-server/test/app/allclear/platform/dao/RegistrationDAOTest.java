@@ -28,6 +28,7 @@ import app.allclear.platform.model.StartResponse;
 import app.allclear.platform.value.PeopleValue;
 import app.allclear.platform.value.RegistrationValue;
 import app.allclear.twilio.client.TwilioClient;
+import app.allclear.twilio.client.TwilioException;
 import app.allclear.twilio.model.*;
 
 /** Functional test class that verifies RegistrationDAO component.
@@ -166,6 +167,13 @@ public class RegistrationDAOTest
 			.containsAll(VALUES.values().stream().filter(v -> !v.phone.equals("+18885551008")).collect(Collectors.toList()));
 	}
 
+	@Test
+	public void search_without_cursor()
+	{
+		assertThat(Assertions.assertThrows(ValidationException.class, () -> dao.search(new RegistrationFilter(2, 3))))
+			.hasMessage("Page 2 requires the cursor from the prior page.");
+	}
+
 	public static Stream<Arguments> start_invalid()
 	{
 		return Stream.of(
@@ -235,4 +243,32 @@ public class RegistrationDAOTest
 		assertThat(Assertions.assertThrows(ValidationException.class, () -> dao.start(new StartRequest("+18885551003", false, false))))
 			.hasMessage("Too many registration requests for phone number '+18885551003'");
 	}
+
+	@Test
+	public void z_00_start_with_max_retries_expired()
+	{
+		var phone = "+18885551003";
+		Assertions.assertEquals((long) RegistrationDAO.EXPIRATION, redis.ttl(dao.limiter().key(phone)), "Check limiter expires with the codes");
+
+		// Expire the codes and their counter as Redis would after ten minutes.
+		redis.keys(dao.key(phone, "")).forEach(redis::remove);
+		redis.remove(dao.limiter().key(phone));
+
+		Assertions.assertEquals(0L, dao.count(phone), "Check count: before");
+		Assertions.assertNotNull(dao.start(new PeopleValue("fourth", phone, false)));
+		Assertions.assertEquals(1L, dao.count(phone), "Check count: after");
+	}
+
+	@Test
+	public void z_01_start_sendFails()
+	{
+		var phone = "+18885551009";
+		doThrow(new TwilioException(500, "Unavailable")).when(twilio).send(argThat(r -> phone.equals(r.to)));
+
+		for (int i = 0; i <= RegistrationDAO.MAX_TRIES; i++)	// Unsent codes do NOT count against the tries.
+			assertThat(Assertions.assertThrows(TwilioException.class, () -> dao.start(new PeopleValue("fifth", phone, false)))).hasMessage("Unavailable");
+
+		Assertions.assertEquals(0L, dao.count(phone), "Check count");
+		Assertions.assertFalse(redis.containsKey(dao.limiter().key(phone)), "Check limiter");
+	}
 }
@@ -0,0 +1,65 @@
+package app.allclear.platform.dao;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.common.redis.*;
+import app.allclear.platform.type.*;
+import app.allclear.platform.value.*;
+
+/** JMH micro-benchmark that compares the legacy JSON session encoding with the versioned Smile codec.
+ *  Run with "gradle :platform-server:jmh -Pbench=SessionCodec". The encoded sizes are printed at setup.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class SessionCodecBenchmark
+{
+	private final ObjectMapper mapper = JacksonUtils.createMapper();
+	private final RedisCodec<SessionValue> codec = new SmileCodec<>(SessionValue.class);
+
+	private SessionValue value;
+	private String json;
+	private byte[] smile;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		value = new SessionValue(true, new PeopleValue("benchmark", "+18885551000", "benchmark@allclear.app", "First", "Last", null,
+			PeopleStatus.HEALTHY.id, Stature.INFLUENCER.id, Sex.FEMALE.id, HealthWorkerStatus.NEITHER.id,
+			new BigDecimal("40.7128"), new BigDecimal("-74.0060"), "New York, NY", true, true)
+				.withConditions(Condition.LIST.toArray(new Condition[0]))
+				.withExposures(Exposure.LIST.toArray(new Exposure[0]))
+				.withSymptoms(Symptom.LIST.toArray(new Symptom[0])));
+		json = mapper.writeValueAsString(value);
+		smile = codec.encode(value);
+
+		System.out.printf("%nSession sizes: JSON %d bytes, Smile %d bytes%n", json.getBytes().length, smile.length);
+	}
+
+	@Benchmark
+	public String encode_json() throws Exception { return mapper.writeValueAsString(value); }
+
+	@Benchmark
+	public byte[] encode_smile() { return codec.encode(value); }
+
+	@Benchmark
+	public SessionValue decode_json() throws Exception { return mapper.readValue(json, SessionValue.class); }
+
+	@Benchmark
+	public SessionValue decode_smile() { return codec.decode(smile); }
+}
@@ -0,0 +1,116 @@
+package app.allclear.platform.dao;
+
+import org.junit.jupiter.api.*;
+
+import app.allclear.common.errors.NotAuthenticatedException;
+import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.common.redis.FakeRedisClient;
+import app.allclear.platform.ConfigTest;
+import app.allclear.platform.value.*;
+
+/** Functional test class that verifies the SessionDAO near-cache and its invalidation across nodes.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+public class SessionDAOCacheTest
+{
+	private static final FakeRedisClient redis = new FakeRedisClient();
+	private static final SessionDAO dao = new SessionDAO(redis, null, ConfigTest.loadTest(), 10);
+	private static final SessionDAO other = new SessionDAO(redis, null, ConfigTest.loadTest(), 10);	// Another API node.
+
+	private static SessionValue ADMIN;
+	private static SessionValue ADMIN_1;
+
+	@Test
+	public void add()
+	{
+		ADMIN = dao.add(new SessionValue(false, new AdminValue("admin")));
+		ADMIN_1 = dao.add(new SessionValue(false, new AdminValue("admin1")));
+	}
+
+	@Test
+	public void get()
+	{
+		Assertions.assertEquals("admin", dao.get(ADMIN.id).admin.id, "Check ADMIN");
+		Assertions.assertEquals("admin1", dao.get(ADMIN_1.id).admin.id, "Check ADMIN_1");
+		Assertions.assertEquals(30L * 60L, redis.ttl(SessionDAO.key(ADMIN.id)), "Check expiration");
+	}
+
+	@Test
+	public void get_copies() throws Exception
+	{
+		var a = dao.get(ADMIN.id);
+		var b = dao.get(ADMIN.id);
+		Assertions.assertNotSame(a, b, "Check separate copies");
+		Assertions.assertNotSame(a.lastAccessedAt, b.lastAccessedAt, "Check separate lastAccessedAt");
+		Assertions.assertNotSame(a.expiresAt, b.expiresAt, "Check separate expiresAt");
+
+		var lastAccessedAt = a.lastAccessedAt.getTime();
+		Thread.sleep(5L);
+		dao.get(ADMIN.id);
+		Assertions.assertEquals(lastAccessedAt, a.lastAccessedAt.getTime(), "Check earlier copy NOT mutated by a later access");
+	}
+
+	@Test
+	public void get_coalesced()
+	{
+		redis.expire(SessionDAO.key(ADMIN_1.id), 5);
+
+		Assertions.assertEquals("admin1", dao.get(ADMIN_1.id).admin.id, "Check ADMIN_1");
+		Assertions.assertEquals(5L, redis.ttl(SessionDAO.key(ADMIN_1.id)), "Check expiration NOT extended within the interval");
+	}
+
+	@Test
+	public void get_legacy() throws Exception
+	{
+		var v = new SessionValue(false, new AdminValue("legacy"));
+		redis.put(SessionDAO.key(v.id), JacksonUtils.createMapper().writeValueAsString(v), v.seconds());	// Written before the binary codec.
+
+		Assertions.assertEquals("legacy", dao.get(v.id).admin.id, "Check cached");
+		Assertions.assertEquals("legacy", other.find(v.id).admin.id, "Check find");
+	}
+
+	@Test
+	public void get_stale()
+	{
+		redis.remove(SessionDAO.key(ADMIN.id));	// Bypasses the invalidation.
+
+		Assertions.assertEquals("admin", dao.get(ADMIN.id).admin.id, "Check cached");
+		Assertions.assertThrows(NotAuthenticatedException.class, () -> other.get(ADMIN.id), "Check NOT cached");
+	}
+
+	@Test
+	public void remove()
+	{
+		Assertions.assertEquals("admin1", other.get(ADMIN_1.id).admin.id, "Check other");
+
+		other.remove(ADMIN_1.id);
+	}
+
+	@Test
+	public void remove_afterClose()
+	{
+		var v = dao.add(new SessionValue(false, new AdminValue("closed")));
+		var closed = new SessionDAO(redis, null, ConfigTest.loadTest(), 10);
+		Assertions.assertEquals("closed", closed.get(v.id).admin.id, "Check cached");
+		Assertions.assertEquals("closed", dao.get(v.id).admin.id, "Check cached: open");
+
+		closed.close();
+		other.remove(v.id);
+
+		Assertions.assertEquals("closed", closed.get(v.id).admin.id, "Check NOT invalidated after close");
+		Assertions.assertThrows(NotAuthenticatedException.class, () -> dao.get(v.id), "Check invalidated");
+	}
+
+	@Test
+	public void remove_check()
+	{
+		Assertions.assertThrows(NotAuthenticatedException.class, () -> dao.get(ADMIN_1.id), "Check invalidated");
+		Assertions.assertThrows(NotAuthenticatedException.class, () -> other.get(ADMIN_1.id), "Check other");
+	}
+}
@@ -7,6 +7,7 @@ import static app.allclear.testing.TestingUtils.utc;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -23,6 +24,7 @@ import app.allclear.platform.filter.SessionFilter;
 import app.allclear.platform.model.StartRequest;
 import app.allclear.platform.value.*;
 import app.allclear.twilio.client.TwilioClient;
+import app.allclear.twilio.client.TwilioException;
 import app.allclear.twilio.model.SMSRequest;
 import app.allclear.twilio.model.SMSResponse;
 
@@ -59,6 +61,7 @@ public class SessionDAOTest
 	public static void up()
 	{
 		when(twilio.send(any(SMSRequest.class))).thenAnswer(a -> LAST_RESPONSE = new SMSResponse(((SMSRequest) a.getArgument(0))));
+		when(twilio.sendBatch(any(SMSRequest.class))).thenAnswer(a -> LAST_RESPONSE = new SMSResponse(((SMSRequest) a.getArgument(0))));	// Alerts.
 	}
 
 	@Test
@@ -213,6 +216,19 @@ public class SessionDAOTest
 		Assertions.assertFalse(redis.containsKey(SessionDAO.authKey("888-555-0011", token)), "Check redis: after");
 	}
 
+	@Test
+	public void auth_sendFails()
+	{
+		var phone = "888-555-0013";
+		doThrow(new TwilioException(500, "Unavailable")).when(twilio).send(argThat(r -> phone.equals(r.to)));
+
+		for (int i = 0; i <= SessionDAO.MAX_TRIES; i++)	// Unsent tokens do NOT count against the tries.
+			assertThat(Assertions.assertThrows(TwilioException.class, () -> dao.auth(phone))).hasMessage("Unavailable");
+
+		Assertions.assertEquals(0L, dao.count(phone), "Check count");
+		Assertions.assertFalse(redis.containsKey(dao.limiter().key(phone)), "Check limiter");
+	}
+
 	@Test
 	public void auth_too_many()
 	{
@@ -230,6 +246,21 @@ public class SessionDAOTest
 			.hasMessage("Too many authentication requests for phone number '888-555-0012'");
 	}
 
+	@Test
+	public void auth_too_many_expired()
+	{
+		var phone = "888-555-0012";
+		Assertions.assertEquals(5L * 60L, redis.ttl(dao.limiter().key(phone)), "Check limiter expires with the tokens");
+
+		// Expire the tokens and their counter as Redis would after five minutes.
+		redis.keys(SessionDAO.authKey(phone, "")).forEach(redis::remove);
+		redis.remove(dao.limiter().key(phone));
+
+		Assertions.assertEquals(0L, dao.count(phone), "Check count: before");
+		Assertions.assertNotNull(dao.auth(phone));
+		Assertions.assertEquals(1L, dao.count(phone), "Check count: after");
+	}
+
 	public static Stream<Arguments> checkAdmin()
 	{
 		return Stream.of(
@@ -398,11 +429,11 @@ public class SessionDAOTest
 	@Test
 	public void current_customer()
 	{
-		Assertions.assertEquals(10, redis.size(), "Before");
+		Assertions.assertEquals(11, redis.size(), "Before");	// Includes the rate limiter counter of auth_too_many.
 
 		dao.current(new CustomerValue("Wesley"));
 
-		Assertions.assertEquals(10, redis.size(), "After");	// No change because it doesn't get pushed to Redis. It's just for the current instance.
+		Assertions.assertEquals(11, redis.size(), "After");	// No change because it doesn't get pushed to Redis. It's just for the current instance.
 
 		dao.clear();
 	}
@@ -441,6 +472,31 @@ public class SessionDAOTest
 		assertThat(results.records).as("Check records").hasSize(7).containsOnly(ADMIN, EDITOR, PERSON, PERSON_1, START, START_1, SUPER);
 	}
 
+	@Test
+	public void find_cursor()
+	{
+		var filter = new SessionFilter(1, 3);
+		var records = new ArrayList<SessionValue>();
+		for (int i = 1; i <= 5; i++)
+		{
+			var results = dao.search(filter);
+			assertThat(results.records).as("Check records: " + i).isNotNull().hasSizeLessThanOrEqualTo(3);
+			records.addAll(results.records);
+			if (null == (filter.cursor = results.cursor)) break;
+
+			Assertions.assertTrue(results.more, "Check more: " + i);
+			filter.page = i + 1;
+		}
+
+		Assertions.assertNull(filter.cursor, "Check cursor");
+		assertThat(records).as("Check records").hasSize(7).containsOnly(ADMIN, EDITOR, PERSON, PERSON_1, START, START_1, SUPER);
+		var invalid = new SessionFilter();
+		invalid.cursor = "abc";
+		assertThat(Assertions.assertThrows(ValidationException.class, () -> dao.search(invalid))).hasMessage("The cursor 'abc' is invalid.");
+		assertThat(Assertions.assertThrows(ValidationException.class, () -> dao.search(new SessionFilter(2, 3))))
+			.hasMessage("Page 2 requires the cursor from the prior page.");
+	}
+
 	@Test
 	public void find_invalid()
 	{
@@ -0,0 +1,250 @@
+package app.allclear.platform.dao;
+
+import static java.util.stream.Collectors.toList;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static com.microsoft.azure.storage.table.TableQuery.*;
+import static com.microsoft.azure.storage.table.TableQuery.QueryComparisons.*;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.*;
+
+import com.microsoft.azure.storage.CloudStorageAccount;
+import com.microsoft.azure.storage.table.*;
+
+import app.allclear.common.dao.QueryResults;
+import app.allclear.platform.ConfigTest;
+import app.allclear.platform.entity.Customer;
+import app.allclear.platform.filter.CustomerFilter;
+import app.allclear.platform.value.CustomerValue;
+
+/** Functional test class that verifies the TablePager against the Customer table.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+@Disabled
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+public class TablePagerTest
+{
+	public static final String ENV = "pager";
+	public static final int SIZE = 25;
+	public static final int PAGE_SIZE = 10;
+
+	private static CloudTable table = null;
+	private static TablePager<Customer> pager = null;
+	private static TableQuery<Customer> query = null;
+
+	@BeforeAll
+	public static void up() throws Exception
+	{
+		(table = CloudStorageAccount.parse(ConfigTest.loadTest().admins).createCloudTableClient().getTableReference(CustomerDAO.TABLE)).createIfNotExists();
+		pager = new TablePager<>(table);
+		query = from(Customer.class).where(generateFilterCondition("PartitionKey", EQUAL, ENV));
+	}
+
+	@Test
+	public void add() throws Exception
+	{
+		for (int i = 1; i <= SIZE; i++) table.execute(TableOperation.insert(customer(i)));
+	}
+
+	@Test
+	public void count()
+	{
+		assertThat(pager.count(query)).as("Check count").isEqualTo((long) SIZE);
+	}
+
+	@Test
+	public void search_01()
+	{
+		check(search(pager, 1, PAGE_SIZE), SIZE, 1, 3, 1, 10);
+	}
+
+	@Test
+	public void search_02()
+	{
+		check(search(pager, 2, PAGE_SIZE), SIZE, 2, 3, 11, 20);	// Cached token from the first page.
+	}
+
+	@Test
+	public void search_03()
+	{
+		check(search(pager, 3, PAGE_SIZE), SIZE, 3, 3, 21, 25);	// Cached token from the second page.
+	}
+
+	@Test
+	public void search_jump_01()
+	{
+		check(search(new TablePager<>(table), 3, PAGE_SIZE), SIZE, 3, 3, 21, 25);	// Skips both preceding pages without any cached tokens.
+	}
+
+	@Test
+	public void search_jump_02()
+	{
+		var o = new TablePager<>(table);
+		check(search(o, 1, 5), SIZE, 1, 5, 1, 5);
+		check(search(o, 4, 5), SIZE, 4, 5, 16, 20);	// Skips from the cached token of the second page.
+		check(search(o, 3, 5), SIZE, 3, 5, 11, 15);	// Also skips from the cached token of the second page.
+		check(search(o, 5, 5), SIZE, 5, 5, 21, 25);	// Cached by the fourth page.
+	}
+
+	@Test
+	public void search_jump_03()
+	{
+		check(search(pager, 3, 7), SIZE, 3, 4, 15, 21);	// Different page size does not reuse the other tokens.
+		check(search(pager, 4, 7), SIZE, 4, 4, 22, 25);
+	}
+
+	@Test
+	public void search_beyond()
+	{
+		check(search(new TablePager<>(table), 5, PAGE_SIZE), SIZE, 3, 3, 21, 25);	// The results move the page back to the last.
+	}
+
+	@Test
+	public void search_pageSize()
+	{
+		check(search(pager, 1, SIZE), SIZE, 1, 1, 1, 25);
+		check(search(pager, 1, SIZE + 1), SIZE, 1, 1, 1, 25);
+		check(search(pager, 1, TablePager.TOP_MAX + 1), SIZE, 1, 1, 1, 25);
+	}
+
+	@Test
+	public void search_skipCount()
+	{
+		var o = new TablePager<>(table);
+		checkMore(skipCount(o, 1, PAGE_SIZE), true, 1, 2, 1, 10);
+		checkMore(skipCount(o, 2, PAGE_SIZE), true, 2, 3, 11, 20);
+		checkMore(skipCount(o, 3, PAGE_SIZE), false, 3, 3, 21, 25);
+		checkMore(skipCount(o, 1, SIZE), false, 1, 1, 1, 25);	// The extra entity probed beyond the page does not exist.
+		checkMore(skipCount(o, 1, SIZE - 1), true, 1, 2, 1, 24);	// The extra entity is the last one and is not returned.
+		checkMore(skipCount(o, 2, SIZE - 1), false, 2, 2, 25, 25);
+	}
+
+	@Test
+	public void search_skipCount_beyond()
+	{
+		var o = skipCount(new TablePager<>(table), 4, PAGE_SIZE);
+		assertThat(o.more).as("Check more").isFalse();
+		assertThat(o.page).as("Check page").isEqualTo(4);
+		assertThat(o.pages).as("Check pages").isEqualTo(0);
+		assertThat(o.records).as("Check records").isNull();
+	}
+
+	@Test
+	public void search_all()
+	{
+		var o = new TablePager<>(table, TablePager.PAGE_SIZE_ALL);
+		check(o.search(query, new CustomerFilter(), v -> v.id()), SIZE, 1, 1, 1, 25);
+		check(search(o, 2, PAGE_SIZE), SIZE, 2, 3, 11, 20);	// Pages when the filter supplies a page size.
+	}
+
+	@Test
+	public void testAdd() throws Exception
+	{
+		table.execute(TableOperation.insert(customer(SIZE + 1)));	// Without clearing the pager.
+	}
+
+	@Test
+	public void testAdd_search_01()
+	{
+		check(search(pager, 1, PAGE_SIZE), SIZE, 1, 3, 1, 10);	// The cached total is stale.
+	}
+
+	@Test
+	public void testAdd_search_02()
+	{
+		check(search(pager, 3, PAGE_SIZE), SIZE, 3, 3, 21, 26);	// Reaching the end sets the exact total.
+	}
+
+	@Test
+	public void testAdd_search_03()
+	{
+		check(search(pager, 1, PAGE_SIZE), SIZE + 1, 1, 3, 1, 10);
+	}
+
+	@Test
+	public void testRemove() throws Exception
+	{
+		table.execute(TableOperation.delete(customer(SIZE + 1)));
+		table.execute(TableOperation.delete(customer(SIZE)));
+		pager.clear();
+	}
+
+	@Test
+	public void testRemove_search_01()
+	{
+		check(search(pager, 1, PAGE_SIZE), SIZE - 1, 1, 3, 1, 10);	// Recounted after the clear.
+	}
+
+	@Test
+	public void testRemove_search_02()
+	{
+		check(search(pager, 3, PAGE_SIZE), SIZE - 1, 3, 3, 21, 24);
+	}
+
+	@Test
+	public void testRemove_search_03()
+	{
+		check(search(pager, 3, 12), SIZE - 1, 2, 2, 13, 24);	// Beyond the end with fewer entities.
+	}
+
+	@Test
+	public void zz_clean() throws Exception
+	{
+		for (var o : table.execute(query)) table.execute(TableOperation.delete(o));
+		pager.clear();
+
+		assertThat(pager.count(query)).as("Check count").isEqualTo(0L);
+		assertThat(search(pager, 1, PAGE_SIZE).records).as("Check records").isNull();
+	}
+
+	private Customer customer(final int i)
+	{
+		var o = new Customer(ENV, new CustomerValue("Pager " + i, 0, true).withId(id(i)));
+		o.setEtag("*");
+
+		return o;
+	}
+
+	private String id(final int i) { return String.format("%03d", i); }
+
+	private QueryResults<String, CustomerFilter> search(final TablePager<Customer> pager, final int page, final int pageSize)
+	{
+		return pager.search(query, new CustomerFilter(page, pageSize), o -> o.id());
+	}
+
+	private QueryResults<String, CustomerFilter> skipCount(final TablePager<Customer> pager, final int page, final int pageSize)
+	{
+		var filter = new CustomerFilter(page, pageSize);
+		filter.skipCount = true;
+
+		return pager.search(query, filter, o -> o.id());
+	}
+
+	private List<String> ids(final int first, final int last)
+	{
+		return IntStream.rangeClosed(first, last).mapToObj(i -> id(i)).collect(toList());
+	}
+
+	private void check(final QueryResults<String, CustomerFilter> results, final long total, final int page, final int pages, final int first, final int last)
+	{
+		assertThat(results.total).as("Check total").isEqualTo(total);
+		assertThat(results.page).as("Check page").isEqualTo(page);
+		assertThat(results.pages).as("Check pages").isEqualTo(pages);
+		assertThat(results.records).as("Check records").isEqualTo(ids(first, last));
+	}
+
+	private void checkMore(final QueryResults<String, CustomerFilter> results, final boolean more, final int page, final int pages, final int first, final int last)
+	{
+		assertThat(results.more).as("Check more").isEqualTo(more);
+		assertThat(results.page).as("Check page").isEqualTo(page);
+		assertThat(results.pages).as("Check pages").isEqualTo(pages);
+		assertThat(results.records).as("Check records").isEqualTo(ids(first, last));
+	}
+}
@@ -0,0 +1,77 @@
+package app.allclear.platform.fcc;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static app.allclear.testing.TestingUtils.*;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.*;
+
+import com.codahale.metrics.Meter;
+
+import app.allclear.redis.FakeJedisPool;
+
+/** Unit test class that verifies the GeoClient cache tiers without calling the FCC.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class GeoClientTest
+{
+	private final FakeJedisPool pool = new FakeJedisPool();
+
+	private long count(final GeoClient o, final String name)
+	{
+		return ((Meter) o.getMetrics().get("app.allclear.platform.fcc.GeoClient.find." + name)).getCount();
+	}
+
+	@Test
+	public void find() throws Exception
+	{
+		var expected = loadObject("/fcc/block-galveston.json", GeoResponse.class);
+		try (var j = pool.getResource()) { j.set("block:29.3067,-94.797", jsonMapper.writeValueAsString(expected)); }	// Seeds the Redis tier at the snapped point.
+
+		try (var o = new GeoClient(pool, 4, 10))
+		{
+			Assertions.assertEquals(expected, o.find(new BigDecimal("29.3066829"), new BigDecimal("-94.7970101")), "Check find: Redis");
+			Assertions.assertEquals(expected, o.find(new BigDecimal("29.30671"), new BigDecimal("-94.79695")), "Check find: local");	// Same grid cell.
+
+			Assertions.assertEquals(1L, count(o, "local.hits"), "Check local.hits");
+			Assertions.assertEquals(1L, count(o, "local.misses"), "Check local.misses");
+			Assertions.assertEquals(1L, count(o, "redis.hits"), "Check redis.hits");
+			Assertions.assertEquals(0L, count(o, "redis.misses"), "Check redis.misses");
+		}
+	}
+
+	@Test
+	public void snap()
+	{
+		try (var o = new GeoClient(null, 4, 0); var exact = new GeoClient())
+		{
+			Assertions.assertEquals(new BigDecimal("29.3067"), o.snap(new BigDecimal("29.3066829")), "Check snap");
+			Assertions.assertEquals(new BigDecimal("-94.7970"), o.snap(new BigDecimal("-94.7970101")), "Check snap: negative");
+			Assertions.assertEquals(new BigDecimal("29.3066829"), exact.snap(new BigDecimal("29.3066829")), "Check snap: exact");
+			Assertions.assertNull(o.snap(null), "Check snap: null");
+		}
+
+		Assertions.assertEquals("29.3067,-94.797", GeoClient.key(new BigDecimal("29.3067"), new BigDecimal("-94.7970")), "Check key");
+		Assertions.assertEquals("29.3067,-94.797", GeoClient.key(new BigDecimal("29.30670"), new BigDecimal("-94.797")), "Check key: scale");
+	}
+
+	@Test
+	public void testMetrics()
+	{
+		try (var o = new GeoClient())
+		{
+			assertThat(o.getMetrics().keySet()).containsOnly(
+				"app.allclear.platform.fcc.GeoClient.find.local.hits",
+				"app.allclear.platform.fcc.GeoClient.find.local.misses",
+				"app.allclear.platform.fcc.GeoClient.find.redis.hits",
+				"app.allclear.platform.fcc.GeoClient.find.redis.misses",
+				"app.allclear.platform.fcc.GeoClient.find.shared");
+		}
+	}
+}
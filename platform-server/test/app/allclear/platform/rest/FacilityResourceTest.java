@@ -8,6 +8,7 @@ import static app.allclear.platform.type.TestType.*;
 import static app.allclear.testing.TestingUtils.*;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Stream;
 import javax.ws.rs.client.*;
@@ -16,6 +17,7 @@ import javax.ws.rs.core.Response;
 
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -26,6 +28,7 @@ import io.dropwizard.testing.junit5.ResourceExtension;
 import app.allclear.junit.hibernate.*;
 import app.allclear.common.dao.QueryResults;
 import app.allclear.common.errors.*;
+import app.allclear.common.geo.RegionIndex;
 import app.allclear.common.mediatype.UTF8MediaType;
 import app.allclear.common.redis.FakeRedisClient;
 import app.allclear.common.value.Constants;
@@ -601,6 +604,31 @@ public class FacilityResourceTest
 		Assertions.assertEquals(bg("3.14"), v.longitude, "Check longitude");
 	}
 
+	@Test
+	public void populate_with_counties(@TempDir final Path dir) throws Exception
+	{
+		var file = dir.resolve("counties.idx");
+		RegionIndex.write(file, List.of(new RegionIndex.Shape(new RegionIndex.Region("34017", "Hudson", "NJ", "New Jersey"),
+			List.of(new double[] { 40.65d, -74.17d, 40.83d, -74.10d, 40.70d, -73.98d }))));
+		var o = new FacilityResource(dao, sessionDao, map, RegionIndex.open(file));
+
+		var v = o.populate(new FacilityValue().withAddress("56 First Street"));
+		Assertions.assertEquals("Hoboken", v.city, "Check city");
+		Assertions.assertEquals("New Jersey", v.state, "Check state");
+		Assertions.assertEquals("34017", v.countyId, "Check countyId");
+		Assertions.assertEquals("Hudson", v.countyName, "Check countyName");
+
+		v = o.populate(new FacilityValue().withLatitude(bg("40.7487855")).withLongitude(bg("-74.0315385")));	// No address so resolved offline only.
+		Assertions.assertNull(v.city, "Check city: offline");
+		Assertions.assertEquals("New Jersey", v.state, "Check state: offline");
+		Assertions.assertEquals("34017", v.countyId, "Check countyId: offline");
+		Assertions.assertEquals("Hudson", v.countyName, "Check countyName: offline");
+
+		v = o.populate(new FacilityValue().withLatitude(bg("29.3066829")).withLongitude(bg("-94.7970101")));
+		Assertions.assertNull(v.state, "Check state: outside");
+		Assertions.assertNull(v.countyId, "Check countyId: outside");
+	}
+
 	@Test
 	public void remove_noAuth_as_anonymous()
 	{
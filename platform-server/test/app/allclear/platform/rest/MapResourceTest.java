@@ -7,11 +7,14 @@ import static org.mockito.Mockito.when;
 import static app.allclear.testing.TestingUtils.*;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.stream.Stream;
 import javax.ws.rs.client.*;
 
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.*;
 
@@ -21,9 +24,11 @@ import io.dropwizard.testing.junit5.ResourceExtension;
 import app.allclear.common.errors.ErrorInfo;
 import app.allclear.common.errors.NotFoundExceptionMapper;
 import app.allclear.common.errors.ValidationExceptionMapper;
+import app.allclear.common.geo.RegionIndex;
 import app.allclear.common.mediatype.UTF8MediaType;
 import app.allclear.google.client.MapClient;
 import app.allclear.google.model.GeocodeResponse;
+import app.allclear.platform.fcc.GeoClient;
 import app.allclear.platform.fcc.GeoResponse;
 import app.allclear.platform.model.GeocodedResponse;
 
@@ -42,11 +47,15 @@ import app.allclear.platform.model.GeocodedResponse;
 public class MapResourceTest
 {
 	private static MapClient map = mock(MapClient.class);
+	private static RegionIndex counties = null;
+
+	@TempDir
+	public static Path dir;
 
 	public final ResourceExtension RULE = ResourceExtension.builder()
 		.addResource(new NotFoundExceptionMapper())
 		.addResource(new ValidationExceptionMapper())
-		.addResource(new MapResource(map)).build();
+		.addResource(new MapResource(map, new GeoClient(), counties)).build();
 
 	/** Primary URI to test. */
 	private static final String TARGET = "/maps";
@@ -57,6 +66,11 @@ public class MapResourceTest
 		when(map.geocode(contains("Street"))).thenReturn(loadObject("/google/map/geocode.json", GeocodeResponse.class));
 		when(map.geocode(contains("Avenue"))).thenReturn(loadObject("/google/map/geocode-requestDenied.json", GeocodeResponse.class));
 		when(map.geocode(contains("Lane"))).thenReturn(loadObject("/google/map/geocode-zeroResults.json", GeocodeResponse.class));
+
+		var file = dir.resolve("counties.idx");
+		RegionIndex.write(file, List.of(new RegionIndex.Shape(new RegionIndex.Region("48167", "Galveston", "TX", "Texas"),
+			List.of(new double[] { 29.0d, -95.5d, 29.0d, -94.5d, 29.6d, -94.5d, 29.6d, -95.5d }))));
+		counties = RegionIndex.open(file);
 	}
 
 	@ParameterizedTest
@@ -87,6 +101,33 @@ public class MapResourceTest
 		Assertions.assertEquals(message, error.message, "Check message");
 	}
 
+	@Test
+	public void county()
+	{
+		var response = request(target().path("county").queryParam("latitude", "29.3066829").queryParam("longitude", "-94.7970101")).get();
+		Assertions.assertEquals(HTTP_STATUS_OK, response.getStatus(), "Status");
+
+		var value = response.readEntity(GeoResponse.class);
+		Assertions.assertNotNull(value, "Exists");
+		Assertions.assertTrue(value.ok(), "Check ok");
+		Assertions.assertNull(value.block, "Check block");
+		Assertions.assertEquals(new GeoResponse.County("48167", "Galveston"), value.county, "Check county");
+		Assertions.assertEquals(new GeoResponse.State("48", "TX", "Texas"), value.state, "Check state");
+	}
+
+	@ParameterizedTest
+	@CsvSource({"90.3066829,-94.7970101,422,Latitude '90.3066829' is greater than the accepted value of 90.",
+	            "40.7342964,-74.056983,404,'No county contains the location 40.7342964, -74.056983.'"})
+	public void county_fail(final String latitude, final String longitude, final int status, final String message)
+	{
+		var response = request(target().path("county").queryParam("latitude", latitude).queryParam("longitude", longitude)).get();
+		Assertions.assertEquals(status, response.getStatus(), "Status");
+
+		var error = response.readEntity(ErrorInfo.class);
+		Assertions.assertNotNull(error, "Exists");
+		Assertions.assertEquals(message, error.message, "Check message");
+	}
+
 	@Test
 	public void geocode()
 	{
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.*;
@@ -46,13 +47,16 @@ public class AlertInitTaskTest
 	private static AlertInitTask task;
 	private static final QueueClient queue = mock(QueueClient.class);
 
-	private static List<String> sent = new LinkedList<>();
+	private static final int BATCH_SIZE = 5;
+	private static List<String> sent = Collections.synchronizedList(new LinkedList<>());	// Messages are sent concurrently.
 	private static List<String> processed = new LinkedList<>();
 
 	private void processed(final String... personIds)
 	{
-		for (var personId : personIds)
-			processed.add(String.format("{\"personId\":\"%s\"}", personId));
+		for (int i = 0; i < personIds.length; i+= BATCH_SIZE)
+			processed.add(Arrays.stream(personIds, i, Math.min(i + BATCH_SIZE, personIds.length))
+				.map(v -> "\"" + v + "\"")
+				.collect(Collectors.joining(",", "{\"personIds\":[", "]}")));
 	}
 
 	@BeforeAll
@@ -60,7 +64,7 @@ public class AlertInitTaskTest
 	{
 		var factory = DAO_RULE.getSessionFactory();
 		dao = new PeopleDAO(factory);
-		task = new AlertInitTask(factory, dao, queue);
+		task = new AlertInitTask(factory, dao, queue, BATCH_SIZE);
 
 		when(queue.sendMessage(any(String.class))).thenAnswer(a -> { sent.add(a.getArgument(0, String.class)); return null; });
 	}
@@ -68,7 +72,7 @@ public class AlertInitTaskTest
 	@AfterEach
 	public void afterEach()
 	{
-		assertThat(sent).as("Check sent").isEqualTo(processed);
+		assertThat(sent).as("Check sent").hasSize(processed.size()).containsOnly(processed.toArray());
 	}
 
 	@ParameterizedTest
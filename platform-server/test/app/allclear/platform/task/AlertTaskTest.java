@@ -7,12 +7,14 @@ import static app.allclear.testing.TestingUtils.*;
 
 import java.math.BigDecimal;
 import java.util.Date;
+import java.util.List;
 
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 
+import app.allclear.common.errors.ObjectNotFoundException;
 import app.allclear.common.hibernate.DualSessionFactory;
 import app.allclear.common.redis.FakeRedisClient;
 import app.allclear.junit.hibernate.HibernateRule;
@@ -62,7 +64,7 @@ public class AlertTaskTest
 		dao = new PeopleDAO(factory);
 		task = new AlertTask(new DualSessionFactory(factory), dao, facilityDao, sessionDao);
 
-		when(twilio.send(any(SMSRequest.class))).thenAnswer(a -> LAST_SMS_RESPONSE = new SMSResponse(a.getArgument(0, SMSRequest.class)));
+		when(twilio.sendBatch(any(SMSRequest.class))).thenAnswer(a -> LAST_SMS_RESPONSE = new SMSResponse(a.getArgument(0, SMSRequest.class)));
 	}
 
 	@Test
@@ -167,6 +169,49 @@ public class AlertTaskTest
 		});
 	}
 
+	@Test
+	public void process_03() throws Exception
+	{
+		changeCount(2L);
+		LAST_SMS_RESPONSE = null;
+
+		Assertions.assertTrue(task.process(new AlertRequest(List.of("invalid", PERSON.id))), "Check skips the invalid person");
+		Assertions.assertNotNull(LAST_SMS_RESPONSE, "Check LAST_SMS_RESPONSE: after");
+	}
+
+	@Test
+	public void process_03_check() throws Exception
+	{
+		doTrans(DAO_RULE, s -> {
+			var v = dao.getById(PERSON.id);
+			Assertions.assertEquals(2, v.alertedOf, "Check alertedOf");
+			assertThat(v.alertedAt).as("Check alertedAt").isNotNull().isCloseTo(new Date(), 1000L).isAfter(LAST_ALERTED_AT);
+
+			LAST_ALERTED_AT = v.alertedAt;
+		});
+	}
+
+	@Test
+	public void process_04() throws Exception
+	{
+		Assertions.assertThrows(ObjectNotFoundException.class, () -> task.process(new AlertRequest("invalid")), "Check single request still fails");
+	}
+
+	@Test
+	public void process_05() throws Exception
+	{
+		LAST_SMS_RESPONSE = null;
+
+		Assertions.assertTrue(task.process(new AlertRequest(List.of("invalid", "invalid_1"))), "Check skips all the invalid people");
+		Assertions.assertNull(LAST_SMS_RESPONSE, "Check LAST_SMS_RESPONSE: after");
+	}
+
+	@Test
+	public void process_05_check() throws Exception
+	{
+		doTrans(DAO_RULE, s -> Assertions.assertEquals(LAST_ALERTED_AT, dao.getById(PERSON.id).alertedAt, "Check alertedAt"));
+	}
+
 	private String token()
 	{
 		var body = LAST_SMS_RESPONSE.body;
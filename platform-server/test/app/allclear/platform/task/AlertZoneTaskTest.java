@@ -0,0 +1,224 @@
+package app.allclear.platform.task;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static app.allclear.junit.hibernate.HibernateTransactionRule.doTrans;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
+
+import com.azure.storage.queue.QueueClient;
+
+import app.allclear.common.azure.QueueManager;
+import app.allclear.common.errors.AbortException;
+import app.allclear.common.hibernate.DualSessionFactory;
+import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.common.redis.FakeRedisClient;
+import app.allclear.common.task.TaskOperator;
+import app.allclear.junit.hibernate.HibernateRule;
+import app.allclear.platform.App;
+import app.allclear.platform.ConfigTest;
+import app.allclear.platform.dao.*;
+import app.allclear.platform.entity.People;
+import app.allclear.platform.model.AlertInitRequest;
+import app.allclear.platform.type.Timezone;
+import app.allclear.twilio.client.TwilioClient;
+import app.allclear.twilio.model.*;
+
+/** Functional test class that verifies the AlertZoneTask queue callback.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)
+@ExtendWith(DropwizardExtensionsSupport.class)
+public class AlertZoneTaskTest
+{
+	public static final HibernateRule DAO_RULE = new HibernateRule(App.ENTITIES);
+
+	private static final FakeRedisClient redis = new FakeRedisClient();
+	private static final TwilioClient twilio = mock(TwilioClient.class);
+	private static final FacilityDAO facilityDao = mock(FacilityDAO.class);	// Avoids the facility entity setup. The query is plain JPQL.
+	private static final QueueClient queue = mock(QueueClient.class);
+	private static final SessionDAO sessionDao = new SessionDAO(redis, twilio, ConfigTest.loadTest());
+	private static AlertZoneTask task;
+	private static PeopleDAO dao;
+
+	private static final List<String> sent = new LinkedList<>();
+	private static final List<String> continued = new LinkedList<>();	// Messages that continue a timezone.
+	private static final Date DAY_AGO = new Date(System.currentTimeMillis() - (24L * 60L * 60L * 1000L));
+	private static final Date TWO_DAYS_AGO = new Date(System.currentTimeMillis() - (2L * 24L * 60L * 60L * 1000L));
+	private static final Date WEEK_AGO = new Date(System.currentTimeMillis() - (7L * 24L * 60L * 60L * 1000L));
+
+	private static Object[] facility(final long id, final String latitude, final String longitude, final Date activatedAt)
+	{
+		return new Object[] { id, new BigDecimal(latitude), new BigDecimal(longitude), activatedAt };
+	}
+
+	private static People person(final String id, final String latitude, final String longitude, final Date alertedAt)
+	{
+		var o = new People(id, new BigDecimal(latitude), new BigDecimal(longitude), true, true);
+		o.setAlertedAt(alertedAt);
+
+		return o;
+	}
+
+	@BeforeAll
+	public static void up()
+	{
+		var factory = DAO_RULE.getSessionFactory();
+		dao = new PeopleDAO(factory);
+		task = new AlertZoneTask(new DualSessionFactory(factory), dao, facilityDao, sessionDao, 2, AlertZoneTask.BUDGET * 1000L).withQueue(queue);	// Small pages to exercise the paging.
+
+		when(queue.sendMessage(any(String.class))).thenAnswer(a -> { continued.add(a.getArgument(0, String.class)); return null; });
+		when(twilio.sendBatch(any(SMSRequest.class))).thenAnswer(a -> { var o = a.getArgument(0, SMSRequest.class); sent.add(o.to); return new SMSResponse(o); });
+		when(facilityDao.getActivatedPoints()).thenReturn(List.of(
+			facility(1L, "40.01", "-75.01", DAY_AGO),
+			facility(2L, "40.5", "-75.0", WEEK_AGO),
+			facility(3L, "35.0", "-110.0", DAY_AGO)));	// Outside the EST band.
+	}
+
+	@Test
+	public void add()
+	{
+		doTrans(DAO_RULE, s -> {
+			s.persist(person("near", "40", "-75", TWO_DAYS_AGO));
+			s.persist(person("near_auth", "40.02", "-75.02", null));	// Never alerted & never authenticated.
+			s.persist(person("near_recent", "40", "-75", new Date()));	// Already alerted since the activation.
+			s.persist(person("far", "40", "-80", TWO_DAYS_AGO));	// Over 100 miles away.
+			s.persist(person("west", "35", "-110", TWO_DAYS_AGO));	// Different timezone.
+		});
+	}
+
+	@Test
+	public void getEarliestAlertedAtByLongitude()
+	{
+		doTrans(DAO_RULE, s -> {
+			assertThat(dao.getEarliestAlertedAtByLongitude(Timezone.EST)).as("Check EST").isCloseTo(TWO_DAYS_AGO, 1000L);
+			Assertions.assertNull(dao.getEarliestAlertedAtByLongitude(Timezone.CST), "Check CST");
+		});
+	}
+
+	@Test
+	public void process() throws Exception
+	{
+		Assertions.assertTrue(task.process(new AlertInitRequest(Timezone.EST.id)));
+		assertThat(sent).as("Check sent").containsExactly("near");
+		assertThat(continued).as("Check continued").isEmpty();	// Within the budget.
+	}
+
+	@Test
+	public void process_check()
+	{
+		doTrans(DAO_RULE, s -> {
+			var near = dao.getById("near");
+			Assertions.assertEquals(1, near.alertedOf, "Check near.alertedOf");
+			assertThat(near.alertedAt).as("Check near.alertedAt").isCloseTo(new Date(), 5000L);
+			Assertions.assertEquals(near.alertedAt, near.updatedAt, "Check near.updatedAt");
+
+			Assertions.assertEquals(0, dao.getById("near_auth").alertedOf, "Check near_auth.alertedOf");
+			Assertions.assertEquals(0, dao.getById("near_recent").alertedOf, "Check near_recent.alertedOf");
+			Assertions.assertEquals(0, dao.getById("far").alertedOf, "Check far.alertedOf");
+
+			var west = dao.getById("west");
+			Assertions.assertNull(west.alertedOf, "Check west.alertedOf");
+			assertThat(west.alertedAt).as("Check west.alertedAt").isCloseTo(TWO_DAYS_AGO, 1000L);
+		});
+	}
+
+	@Test
+	public void process_check_again() throws Exception
+	{
+		sent.clear();
+
+		Assertions.assertTrue(task.process(new AlertInitRequest(Timezone.EST.id)));
+		assertThat(sent).as("Check sent").isEmpty();	// Everyone has been alerted since the activation.
+		assertThat(continued).as("Check continued").isEmpty();
+	}
+
+	@Test
+	public void process_continue() throws Exception
+	{
+		doTrans(DAO_RULE, s -> {
+			s.persist(person("near_a", "40", "-75", TWO_DAYS_AGO));
+			s.persist(person("near_z", "40", "-75", TWO_DAYS_AGO));
+		});
+
+		sent.clear();
+
+		// An expired budget evaluates a single person per message & continues the timezone after that person.
+		var o = new AlertZoneTask(new DualSessionFactory(DAO_RULE.getSessionFactory()), dao, facilityDao, sessionDao, 2, 0L).withQueue(queue);
+		var mapper = JacksonUtils.createMapperAzure();
+		var cursors = new LinkedList<String>();
+		var request = new AlertInitRequest(Timezone.EST.id);
+		for (int i = 0; i < 10; i++)	// Guard against an endless chain.
+		{
+			Assertions.assertTrue(o.process(request), "Check process: " + i);
+			if (continued.isEmpty()) break;
+
+			request = mapper.readValue(continued.remove(0), AlertInitRequest.class);
+			assertThat(continued).as("Check single continuation: " + i).isEmpty();
+			Assertions.assertEquals(Timezone.EST.id, request.timezoneId, "Check timezoneId: " + i);
+			cursors.add(request.lastId);
+		}
+
+		assertThat(cursors).as("Check cursors").containsExactly("far", "near", "near_a", "near_auth", "near_recent");
+		assertThat(sent).as("Check sent").containsExactly("near_a", "near_z");	// Each once.
+	}
+
+	@Test
+	public void process_continue_check()
+	{
+		doTrans(DAO_RULE, s -> {
+			Assertions.assertEquals(1, dao.getById("near_a").alertedOf, "Check near_a.alertedOf");
+			Assertions.assertEquals(1, dao.getById("near_z").alertedOf, "Check near_z.alertedOf");
+		});
+	}
+
+	@Test
+	public void process_continue_withoutQueue()
+	{
+		var o = new AlertZoneTask(new DualSessionFactory(DAO_RULE.getSessionFactory()), dao, facilityDao, sessionDao, 2, 0L);
+		assertThat(Assertions.assertThrows(IllegalStateException.class, () -> o.process(new AlertInitRequest(Timezone.EST.id))))
+			.hasMessage("The queue for the remainder of the timezone is not set.");
+	}
+
+	@Test
+	public void process_error()
+	{
+		assertThat(Assertions.assertThrows(AbortException.class, () -> task.process(new AlertInitRequest("INVALID"))))
+			.hasMessage("The timezone 'INVALID' does not receive alerts.");
+	}
+
+	@Test
+	public void testVisibility()
+	{
+		var op = new TaskOperator<>(App.QUEUE_ALERT_ZONE, task, AlertInitRequest.class, 10, App.QUEUE_ALERT_ZONE_TIMEOUT, 60, 3600);	// Same as App.
+
+		assertThat(AlertZoneTask.RUN_MAX).as("Check timeout").isLessThanOrEqualTo((long) App.QUEUE_ALERT_ZONE_TIMEOUT);
+		assertThat(QueueManager.visibility(op, 0).getSeconds()).as("Check visibility").isGreaterThanOrEqualTo(AlertZoneTask.RUN_MAX);
+		assertThat(AlertZoneTask.OVERRUN).as("Check overrun").isGreaterThan(2L * TwilioClient.TIMEOUT);	// Covers an SMS send started just before the budget elapsed.
+	}
+
+	@Test
+	public void testFacilities_closest()
+	{
+		var rows = new ArrayList<Object[]>();
+		for (int i = 0; i < AlertTask.PAGE_SIZE; i++) rows.add(facility(i, "40.0" + i, "-75", WEEK_AGO));
+		rows.add(facility(100L, "40.5", "-75", DAY_AGO));	// Newer but farther than the closest PAGE_SIZE.
+
+		var o = new AlertZoneTask.Facilities(rows, TWO_DAYS_AGO);
+		Assertions.assertEquals(0, o.count(40d, -75d, TWO_DAYS_AGO), "Check beyond the closest");
+		Assertions.assertEquals(AlertTask.PAGE_SIZE, o.count(40d, -75d, new Date(WEEK_AGO.getTime() - 1000L)), "Check all closest");
+		Assertions.assertEquals(1, o.count(40.5d, -75d, TWO_DAYS_AGO), "Check nearer the newer facility");
+		Assertions.assertEquals(0, o.count(40d, -75d, null), "Check never alerted");
+	}
+}
@@ -3,6 +3,8 @@ package app.allclear.platform.task;
 import static org.mockito.Mockito.*;
 
 import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.*;
 
@@ -11,6 +13,7 @@ import app.allclear.platform.dao.AdminDAO;
 import app.allclear.platform.type.Originator;
 import app.allclear.platform.value.FacilitateValue;
 import app.allclear.twilio.client.TwilioClient;
+import app.allclear.twilio.client.TwilioException;
 import app.allclear.twilio.model.SMSRequest;
 import app.allclear.twilio.model.SMSResponse;
 
@@ -30,7 +33,7 @@ public class FacilitateTaskTest
 	private static final TwilioClient twilio = mock(TwilioClient.class);
 
 	private static int sends = 0;
-	private static int sends_ = 0;
+	private static final AtomicInteger sends_ = new AtomicInteger();	// Incremented by concurrent sends.
 	private static String lastMessage = null;
 	private static String lastMessage_ = null;
 
@@ -39,20 +42,20 @@ public class FacilitateTaskTest
 	{
 		task = new FacilitateTask(adminDao, twilio, ConfigTest.loadTest());
 
-		when(twilio.send(any(SMSRequest.class))).thenAnswer(a -> {
+		when(twilio.sendAsync(any(SMSRequest.class))).thenAnswer(a -> {
 			var req = a.getArgument(0, SMSRequest.class);
 
-			sends_++;
+			sends_.incrementAndGet();
 			lastMessage_ = req.body;
 
-			return new SMSResponse(req);
+			return CompletableFuture.completedFuture(new SMSResponse(req));
 		});
 	}
 
 	@AfterEach
 	public void afterEach()
 	{
-		Assertions.assertEquals(sends, sends_, "Check sends");
+		Assertions.assertEquals(sends, sends_.get(), "Check sends");
 		Assertions.assertEquals(lastMessage, lastMessage_, "Check lastMessage");
 	}
 
@@ -116,11 +119,47 @@ public class FacilitateTaskTest
 		lastMessage = "A Facility Change Request has been added by a Provider. Click here to view all change requests - https://api-test.allclear.app/manager/index.html.";
 	}
 
+	@Test
+	public void process_03_concurrent() throws Exception
+	{
+		var phones = Set.of("+18885552012", "+18885552013", "+18885552014", "+18885552015");
+		var adminDao_ = mock(AdminDAO.class);
+		var twilio_ = mock(TwilioClient.class);
+		var latch = new CountDownLatch(phones.size());
+		var together = new AtomicInteger();
+		when(adminDao_.getAlertablePhoneNumbers()).thenReturn(phones);
+		var executor = Executors.newCachedThreadPool();
+		when(twilio_.sendAsync(any(SMSRequest.class))).thenAnswer(a -> CompletableFuture.supplyAsync(() -> {
+			latch.countDown();
+			try { if (latch.await(5L, TimeUnit.SECONDS)) together.incrementAndGet(); }	// Only succeeds if all the sends are in flight at once.
+			catch (final InterruptedException ex) { throw new CompletionException(ex); }
+
+			return new SMSResponse(a.getArgument(0, SMSRequest.class));
+		}, executor));
+
+		try
+		{
+			Assertions.assertTrue(new FacilitateTask(adminDao_, twilio_, ConfigTest.loadTest()).process(new FacilitateValue().withChange(false).withOriginator(Originator.CITIZEN)));
+		}
+		finally { executor.shutdown(); }
+
+		Assertions.assertEquals(phones.size(), together.get(), "Check concurrent sends");
+	}
+
+	@Test
+	public void process_99_failed() throws Exception
+	{
+		when(adminDao.getAlertablePhoneNumbers()).thenReturn(Set.of("+18885552011", "+18885552012"));
+		when(twilio.sendAsync(any(SMSRequest.class))).thenReturn(CompletableFuture.failedFuture(new TwilioException(500, "Unavailable")));
+
+		Assertions.assertTrue(task.process(new FacilitateValue().withChange(false).withOriginator(Originator.CITIZEN)));
+	}
+
 	@Test
 	public void process_99_throws() throws Exception
 	{
 		when(adminDao.getAlertablePhoneNumbers()).thenReturn(Set.of("+18885552011"));
-		when(twilio.send(any(SMSRequest.class))).thenThrow(RuntimeException.class);
+		when(twilio.sendAsync(any(SMSRequest.class))).thenThrow(RuntimeException.class);
 
 		Assertions.assertTrue(task.process(new FacilitateValue().withChange(false).withOriginator(Originator.CITIZEN)));
 	}
@@ -0,0 +1,66 @@
+package app.allclear.platform.task;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.*;
+
+import app.allclear.common.task.*;
+import app.allclear.platform.model.AlertRequest;
+
+/** JMH micro-benchmark that compares the legacy Java serialized task entries with the EnvelopeTaskCodec. The "id"
+ *  benchmarks represent the per-entry cost of RedisQueue.removeRequest. Run with "gradle :platform-server:jmh -Pbench=TaskCodec".
+ *  The encoded sizes are printed at setup.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class TaskCodecBenchmark
+{
+	private final TaskCodec java = new JavaTaskCodec();
+	private final TaskCodec envelope = new EnvelopeTaskCodec();
+
+	private TaskRequest<AlertRequest> value;
+	private String javaValue;
+	private String envelopeValue;
+
+	@Setup
+	public void setup()
+	{
+		value = new TaskRequest<>(new AlertRequest(IntStream.range(0, 100).mapToObj(i -> UUID.randomUUID().toString()).collect(Collectors.toList())))	// A batched alert.
+			.withNextRunAt(System.currentTimeMillis());
+		javaValue = java.encode(value);
+		envelopeValue = envelope.encode(value);
+
+		System.out.printf("%nTask sizes: Java %d chars, Envelope %d chars%n", javaValue.length(), envelopeValue.length());
+	}
+
+	@Benchmark
+	public String encode_java() { return java.encode(value); }
+
+	@Benchmark
+	public String encode_envelope() { return envelope.encode(value); }
+
+	@Benchmark
+	public TaskRequest<AlertRequest> decode_java() { return java.decode(javaValue, AlertRequest.class); }
+
+	@Benchmark
+	public TaskRequest<AlertRequest> decode_envelope() { return envelope.decode(envelopeValue, AlertRequest.class); }
+
+	@Benchmark
+	public String id_java() { return java.id(javaValue); }
+
+	@Benchmark
+	public String id_envelope() { return envelope.id(envelopeValue); }
+}
@@ -7,6 +7,7 @@ import org.slf4j.*;
 import com.azure.storage.queue.QueueClient;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import app.allclear.common.azure.QueueProducer;
 import app.allclear.common.errors.AbortException;
 import app.allclear.common.task.TaskCallback;
 import app.allclear.common.time.StopWatch;
@@ -27,17 +28,23 @@ public class AlertInitTask implements TaskCallback<AlertInitRequest>
 {
 	private static final Logger log = LoggerFactory.getLogger(AlertInitTask.class);
 
-	private static final int PAGE_SIZE = 100;
+	public static final int PAGE_SIZE = 1000;
+	public static final int BATCH_SIZE = 100;	// Number of people per Alert request message.
 
 	private final PeopleJDBi dao;
-	private final QueueClient queue;
-	private final ObjectMapper mapper;
+	private final int batchSize;
+	private final QueueProducer producer;
 
 	public AlertInitTask(final ObjectMapper mapper, final PeopleJDBi dao, final QueueClient queue)
+	{
+		this(mapper, dao, queue, BATCH_SIZE);
+	}
+
+	public AlertInitTask(final ObjectMapper mapper, final PeopleJDBi dao, final QueueClient queue, final int batchSize)
 	{
 		this.dao = dao;
-		this.queue = queue;
-		this.mapper = mapper;
+		this.batchSize = batchSize;
+		this.producer = new QueueProducer(queue, mapper);
 
 		log.info("INITIALIZED");
 	}
@@ -56,17 +63,21 @@ public class AlertInitTask implements TaskCallback<AlertInitRequest>
 		List<String> ids = null;
 		int count = 0, batches = 0;
 		var timer = new StopWatch();
+		var messages = producer.batch();
 		while (!(ids = dao.getActiveAlertableIds(lastId, zone, PAGE_SIZE)).isEmpty())
 		{
-			for (var id : ids)
-				queue.sendMessage(mapper.writeValueAsString(new AlertRequest(lastId = id)));
-
 			int size = ids.size();
+			for (int i = 0; i < size; i+= batchSize)
+				messages.send(new AlertRequest(List.copyOf(ids.subList(i, Math.min(i + batchSize, size)))));
+
+			lastId = ids.get(size - 1);
 			count+= size;
-			log.info("BATCH ({}): {} - {} out of {} in {} - {}", zone, ++batches, size, count, timer.split(), ids);
+			log.info("BATCH ({}): {} - {} out of {} in {}", zone, ++batches, size, count, timer.split());
 		}
 
-		log.info("PROCESSED ({}): {} in {}", zone, count, timer.total());
+		messages.flush();
+
+		log.info("PROCESSED ({}): {} in {} messages in {}", zone, count, messages.count(), timer.total());
 
 		return true;
 	}
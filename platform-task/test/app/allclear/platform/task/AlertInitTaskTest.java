@@ -5,6 +5,7 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.*;
 
 import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.*;
@@ -44,20 +45,23 @@ public class AlertInitTaskTest
 	private static final QueueClient queue = mock(QueueClient.class);
 	private static final ObjectMapper mapper = JacksonUtils.createMapperAzure();
 
-	private static List<String> sent = new LinkedList<>();
+	private static final int BATCH_SIZE = 5;
+	private static List<String> sent = Collections.synchronizedList(new LinkedList<>());	// Messages are sent concurrently.
 	private static List<String> processed = new LinkedList<>();
 
 	private void processed(final String... personIds)
 	{
-		for (var personId : personIds)
-			processed.add(String.format("{\"personId\":\"%s\"}", personId));
+		for (int i = 0; i < personIds.length; i+= BATCH_SIZE)
+			processed.add(Arrays.stream(personIds, i, Math.min(i + BATCH_SIZE, personIds.length))
+				.map(v -> "\"" + v + "\"")
+				.collect(Collectors.joining(",", "{\"personIds\":[", "]}")));
 	}
 
 	@BeforeAll
 	public static void up()
 	{
 		dao = RULE.dbi().onDemand(PeopleJDBi.class);
-		task = new AlertInitTask(mapper, dao, queue);
+		task = new AlertInitTask(mapper, dao, queue, BATCH_SIZE);
 
 		when(queue.sendMessage(any(String.class))).thenAnswer(a -> { sent.add(a.getArgument(0, String.class)); return null; });
 	}
@@ -65,7 +69,7 @@ public class AlertInitTaskTest
 	@AfterEach
 	public void afterEach()
 	{
-		assertThat(sent).as("Check sent").isEqualTo(processed);
+		assertThat(sent).as("Check sent").hasSize(processed.size()).containsOnly(processed.toArray());
 	}
 
 	@Test
@@ -1,11 +1,15 @@
 package app.allclear.twilio.client;
 
 import java.text.SimpleDateFormat;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 
 import javax.ws.rs.client.*;
 import javax.ws.rs.core.MediaType;
 
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.*;
+import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
 import org.glassfish.jersey.internal.util.collection.MultivaluedStringMap;
 
@@ -17,6 +21,12 @@ import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 import app.allclear.twilio.model.*;
 
 /** Jersey HTTP client to access the Twilio API.
+ *  
+ *  Requests run on pooled Apache connectors. Interactive sends (send), e.g. logins & registrations, have their own
+ *  connection pool so that they are never queued behind batch sends. Batch sends (sendAsync & sendBatch), e.g. alerts
+ *  & notifications, share a separate pool that bounds the number of in-flight requests to the configured concurrency
+ *  and optionally paces the requests of the account to a maximum rate. A send waits at most the lease timeout for a
+ *  pooled connection.
  * 
  * @author smalleyd
  * @version 1.0.0
@@ -33,34 +43,130 @@ public class TwilioClient implements AutoCloseable
 		.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
 		.setDateFormat(FORMAT_DATE);
 
+	public static final long TIMEOUT = 20L;	// Seconds
+
 	public final String FIELD_TO = "To";
 	public final String FIELD_BODY = "Body";
 	public final String FIELD_FROM = "From";
 	public final String FIELD_MESSAGE_SERVICE_SID = "MessagingServiceSid";
 
+	public final int concurrency;
+	public final int interactive;
+	public final int rate;
+	public final long leaseTimeout;
+
 	private final Client client;
-	private final Invocation.Builder message;
+	private final Client batch;
+	private final WebTarget messages;
+	private final WebTarget batchMessages;
+	private final ExecutorService senders;
+	private final long interval;	// Nanoseconds between paced requests.
+	private long next = 0L;	// Nanosecond time of the next available paced slot.
+
+	/** Populator.
+	 * 
+	 * @param conf
+	 * @throws IllegalArgumentException if the concurrency, interactive connections, or lease timeout is not positive or the rate is negative.
+	 */
+	public TwilioClient(final TwilioConfig conf) throws IllegalArgumentException
+	{
+		if (0 >= conf.concurrency) throw new IllegalArgumentException("The concurrency must be greater than zero.");
+		if (0 >= conf.interactive) throw new IllegalArgumentException("The interactive connections must be greater than zero.");
+		if (0 > conf.rate) throw new IllegalArgumentException("The rate cannot be negative.");
+		if (0L >= conf.leaseTimeout) throw new IllegalArgumentException("The lease timeout must be greater than zero.");
+
+		this.rate = conf.rate;
+		this.concurrency = conf.concurrency;
+		this.interactive = conf.interactive;
+		this.leaseTimeout = conf.leaseTimeout;
+		this.interval = (0 < rate) ? (TimeUnit.SECONDS.toNanos(1L) / rate) : 0L;
+
+		this.client = client(conf, interactive, leaseTimeout);
+		this.batch = client(conf, concurrency, leaseTimeout);
+		this.messages = messages(client, conf);
+		this.batchMessages = messages(batch, conf);
+		this.senders = Executors.newFixedThreadPool(concurrency, r -> {
+			var t = new Thread(r, "TwilioClient-sender");
+			t.setDaemon(true);
+			return t;
+		});
+	}
 
-	public TwilioClient(final TwilioConfig conf)
+	/** Helper method - creates a client with its own pool of connections.
+	 * 
+	 * @param conf
+	 * @param connections maximum number of pooled connections.
+	 * @param leaseTimeout milliseconds to wait for a pooled connection.
+	 * @return never NULL.
+	 */
+	private static Client client(final TwilioConfig conf, final int connections, final long leaseTimeout)
 	{
-		this.client = ClientBuilder.newBuilder()
-			.connectTimeout(20L, TimeUnit.SECONDS)	
-			.readTimeout(20L, TimeUnit.SECONDS)	
+		var pool = new PoolingHttpClientConnectionManager();
+		pool.setMaxTotal(connections);
+		pool.setDefaultMaxPerRoute(connections);	// Every request goes to the same host.
+
+		return ClientBuilder.newBuilder()
+			.withConfig(new ClientConfig()
+				.connectorProvider(new ApacheConnectorProvider())
+				.property(ApacheClientProperties.CONNECTION_MANAGER, pool)
+				.property(ApacheClientProperties.REQUEST_CONFIG, RequestConfig.custom().setConnectionRequestTimeout((int) leaseTimeout).build()))
+			.connectTimeout(TIMEOUT, TimeUnit.SECONDS)	
+			.readTimeout(TIMEOUT, TimeUnit.SECONDS)	
 			.build()
 			.register(new JacksonJsonProvider(mapper))
 			.register(HttpAuthenticationFeature.basic(conf.accountId, conf.authToken));
+	}
 
-		var home = this.client.target(conf.baseUrl).path("Accounts").path(conf.accountId);
-		this.message = home.path("Messages.json").request(MediaType.APPLICATION_JSON_TYPE);
+	/** Helper method - gets the Messages resource of the account. */
+	private static WebTarget messages(final Client client, final TwilioConfig conf)
+	{
+		return client.target(conf.baseUrl).path("Accounts").path(conf.accountId).path("Messages.json");
 	}
 
-	/** Sends an SMS message.
+	/** Sends a batch SMS message without blocking the caller. Requests beyond the concurrency wait in line and, when paced,
+	 *  each request reserves its slot on the sender thread just before it is sent. Slots are NOT reserved up front
+	 *  because requests held back by a busy pool would then be released together as a burst.
+	 * 
+	 * @param request
+	 * @return never NULL. Completes exceptionally with a TwilioException if the message is rejected.
+	 */
+	public CompletableFuture<SMSResponse> sendAsync(final SMSRequest request)
+	{
+		return CompletableFuture.supplyAsync(() -> {
+			await();
+			return send(batchMessages, request);
+		}, senders);
+	}
+
+	/** Sends a batch SMS message. Blocks the caller until Twilio responds but takes its turn with the other batch sends.
+	 * 
+	 * @param request
+	 * @return never NULL
+	 * @throws TwilioException
+	 */
+	public SMSResponse sendBatch(final SMSRequest request) throws TwilioException
+	{
+		try { return sendAsync(request).join(); }
+		catch (final CompletionException ex)
+		{
+			if (ex.getCause() instanceof RuntimeException) throw (RuntimeException) ex.getCause();
+			throw ex;
+		}
+	}
+
+	/** Sends an interactive SMS message on the reserved connections. Blocks the caller until Twilio responds.
 	 * 
 	 * @param request
 	 * @return never NULL
 	 * @throws TwilioException
 	 */
 	public SMSResponse send(final SMSRequest request) throws TwilioException
+	{
+		return send(messages, request);
+	}
+
+	/** Helper method - posts an SMS message to the Messages resource. */
+	private SMSResponse send(final WebTarget messages, final SMSRequest request) throws TwilioException
 	{
 		var params = new MultivaluedStringMap(3);
 		if (request.hasMessagingServiceSid())
@@ -70,7 +176,7 @@ public class TwilioClient implements AutoCloseable
 		params.add(FIELD_BODY, request.body);
 		params.add(FIELD_TO, request.to);
 
-		var response = message.post(Entity.form(params));
+		var response = messages.request(MediaType.APPLICATION_JSON_TYPE).post(Entity.form(params));
 		var status = response.getStatus();
 		if (400 <= status) throw new TwilioException(status, response.readEntity(String.class));
 
@@ -80,9 +186,40 @@ public class TwilioClient implements AutoCloseable
 		return o;
 	}
 
+	/** Helper method - waits for the next paced slot on the current thread. */
+	private void await()
+	{
+		var delay = pace();
+		if (0L >= delay) return;
+
+		try { TimeUnit.NANOSECONDS.sleep(delay); }
+		catch (final InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new CompletionException(ex);
+		}
+	}
+
+	/** Helper method - reserves the next paced slot.
+	 * 
+	 * @return nanoseconds to wait for the slot. Zero if requests are NOT paced or the slot is available now.
+	 */
+	private synchronized long pace()
+	{
+		if (0L == interval) return 0L;
+
+		var now = System.nanoTime();
+		var slot = Math.max(now, next);
+		next = slot + interval;
+
+		return slot - now;
+	}
+
 	@Override
 	public void close()
 	{
+		senders.shutdown();
+		batch.close();
 		client.close();
 	}
 }
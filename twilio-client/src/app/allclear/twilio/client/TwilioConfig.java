@@ -20,10 +20,18 @@ public class TwilioConfig implements Serializable
 	private static final long serialVersionUID = 1L;
 
 	public static final String BASE_URL = "https://api.twilio.com/2010-04-01";
+	public static final int CONCURRENCY_DEFAULT = 20;	// Maximum in-flight batch sends & pooled batch connections.
+	public static final int INTERACTIVE_DEFAULT = 10;	// Pooled connections reserved for the interactive sends.
+	public static final int RATE_DEFAULT = 0;	// Batch sends per second per account. Zero does NOT pace the sends.
+	public static final long LEASE_TIMEOUT_DEFAULT = 5000L;	// Milliseconds to wait for a pooled connection.
 
 	public final String baseUrl;
 	public final String accountId;
 	public final String authToken;
+	public final int concurrency;
+	public final int interactive;
+	public final int rate;
+	public final long leaseTimeout;
 
 	public static String env(final String name, final String defaultValue)
 	{
@@ -36,14 +44,27 @@ public class TwilioConfig implements Serializable
 		return new TwilioConfig(BASE_URL, env("TWILIO_ACCOUNT_ID", "123"), env("TWILIO_AUTH_TOKEN", "token"));
 	}
 
+	public TwilioConfig(final String baseUrl, final String accountId, final String authToken)
+	{
+		this(baseUrl, accountId, authToken, null, null, null, null);
+	}
+
 	public TwilioConfig(
 		@JsonProperty("baseUrl") final String baseUrl,
 		@JsonProperty("accountId") final String accountId,
-		@JsonProperty("authToken") final String authToken)
+		@JsonProperty("authToken") final String authToken,
+		@JsonProperty("concurrency") final Integer concurrency,
+		@JsonProperty("interactive") final Integer interactive,
+		@JsonProperty("rate") final Integer rate,
+		@JsonProperty("leaseTimeout") final Long leaseTimeout)
 	{
 		this.baseUrl = baseUrl;
 		this.accountId = accountId;
 		this.authToken = authToken;
+		this.concurrency = (null != concurrency) ? concurrency : CONCURRENCY_DEFAULT;
+		this.interactive = (null != interactive) ? interactive : INTERACTIVE_DEFAULT;
+		this.rate = (null != rate) ? rate : RATE_DEFAULT;
+		this.leaseTimeout = (null != leaseTimeout) ? leaseTimeout : LEASE_TIMEOUT_DEFAULT;
 	}
 
 	@Override
@@ -54,7 +75,11 @@ public class TwilioConfig implements Serializable
 		var v = (TwilioConfig) o;
 		return Objects.equals(baseUrl, v.baseUrl) &&
 			Objects.equals(accountId, v.accountId) &&
-			Objects.equals(authToken, v.authToken);
+			Objects.equals(authToken, v.authToken) &&
+			(concurrency == v.concurrency) &&
+			(interactive == v.interactive) &&
+			(rate == v.rate) &&
+			(leaseTimeout == v.leaseTimeout);
 	}
 
 	@Override
@@ -63,6 +88,10 @@ public class TwilioConfig implements Serializable
 		return new StringBuilder("{ baseUrl: ").append(baseUrl)
 			.append(", accountId: ").append(accountId)
 			.append(", authToken: ").append(authToken)
+			.append(", concurrency: ").append(concurrency)
+			.append(", interactive: ").append(interactive)
+			.append(", rate: ").append(rate)
+			.append(", leaseTimeout: ").append(leaseTimeout)
 			.append(" }").toString();
 	}
 }
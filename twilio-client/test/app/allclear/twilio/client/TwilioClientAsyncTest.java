@@ -0,0 +1,171 @@
+package app.allclear.twilio.client;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.concurrent.*;
+
+import javax.ws.rs.ProcessingException;
+
+import org.junit.jupiter.api.*;
+
+import app.allclear.twilio.model.*;
+
+/** Functional test class that verifies the asynchronous TwilioClient API against the local stub.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class TwilioClientAsyncTest
+{
+	private static SMSRequest request(final int i)
+	{
+		return new SMSRequest(null, "+18885550000", "Message " + i, String.format("+1888555%04d", i));
+	}
+
+	@Test
+	public void send() throws Exception
+	{
+		try (var stub = new TwilioStub(); var client = new TwilioClient(stub.conf()))
+		{
+			var response = client.send(new SMSRequest("MG123", null, "Hello \"world\"", "+18885550001"));
+
+			Assertions.assertEquals("queued", response.status, "Check status");
+			Assertions.assertEquals("+18885550001", response.to, "Check to");
+			Assertions.assertEquals("Hello \"world\"", response.body, "Check body");
+			Assertions.assertEquals("MG123", stub.requests.get(0).get("MessagingServiceSid"), "Check MessagingServiceSid");
+			Assertions.assertNull(stub.requests.get(0).get("From"), "Check From");
+		}
+	}
+
+	@Test
+	public void sendAsync() throws Exception
+	{
+		try (var stub = new TwilioStub(200L); var client = new TwilioClient(stub.conf(4, 0)))
+		{
+			var futures = new ArrayList<CompletableFuture<SMSResponse>>();
+			for (int i = 0; i < 8; i++) futures.add(client.sendAsync(request(i)));
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10L, TimeUnit.SECONDS);
+
+			for (int i = 0; i < 8; i++) Assertions.assertEquals(request(i).to, futures.get(i).get().to, "Check to " + i);
+			Assertions.assertEquals(8, stub.requests.size(), "Check requests");
+			assertThat(stub.maxInFlight()).as("Check concurrency").isGreaterThan(1).isLessThanOrEqualTo(4);
+		}
+	}
+
+	@Test
+	public void sendAsync_error() throws Exception
+	{
+		try (var stub = new TwilioStub(); var client = new TwilioClient(stub.conf()))
+		{
+			var ex = Assertions.assertThrows(ExecutionException.class, () -> client.sendAsync(new SMSRequest(null, "+18885550000", "Bad", "+15550000000")).get(10L, TimeUnit.SECONDS));
+			assertThat(ex.getCause()).isInstanceOf(TwilioException.class);
+			Assertions.assertEquals(400, ((TwilioException) ex.getCause()).status, "Check status");
+		}
+	}
+
+	@Test
+	public void sendAsync_paced() throws Exception
+	{
+		try (var stub = new TwilioStub(); var client = new TwilioClient(stub.conf(4, 10)))
+		{
+			var futures = new ArrayList<CompletableFuture<SMSResponse>>();
+			for (int i = 0; i < 5; i++) futures.add(client.sendAsync(request(i)));
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10L, TimeUnit.SECONDS);
+
+			var times = new ArrayList<>(stub.receivedAt);
+			times.sort(null);
+			var elapsed = TimeUnit.NANOSECONDS.toMillis(times.get(times.size() - 1) - times.get(0));
+			assertThat(elapsed).as("Check pacing").isGreaterThanOrEqualTo(350L);	// Four intervals of 100ms less some scheduling slack.
+		}
+	}
+
+	@Test
+	public void sendAsync_paced_busy() throws Exception
+	{
+		// The first two requests hold both senders until about the same time. The queued requests must still be spaced by the interval instead of sent together.
+		try (var stub = new TwilioStub(i -> (0 == i) ? 500L : (1 == i) ? 400L : 0L); var client = new TwilioClient(stub.conf(2, 10)))
+		{
+			var futures = new ArrayList<CompletableFuture<SMSResponse>>();
+			for (int i = 0; i < 6; i++) futures.add(client.sendAsync(request(i)));
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10L, TimeUnit.SECONDS);
+
+			var times = new ArrayList<>(stub.receivedAt);
+			times.sort(null);
+			Assertions.assertEquals(6, times.size(), "Check requests");
+			for (int i = 1; i < times.size(); i++)
+				assertThat(TimeUnit.NANOSECONDS.toMillis(times.get(i) - times.get(i - 1))).as("Check gap " + i).isGreaterThanOrEqualTo(80L);	// Interval of 100ms less some scheduling slack.
+		}
+	}
+
+	@Test
+	public void sendBatch() throws Exception
+	{
+		try (var stub = new TwilioStub(); var client = new TwilioClient(stub.conf(2, 10)))
+		{
+			Assertions.assertEquals(request(1).to, client.sendBatch(request(1)).to, "Check to");
+
+			var ex = Assertions.assertThrows(TwilioException.class, () -> client.sendBatch(new SMSRequest(null, "+18885550000", "Bad", "+15550000000")));
+			Assertions.assertEquals(400, ex.status, "Check status");
+		}
+	}
+
+	@Test
+	public void send_interactive() throws Exception
+	{
+		// Both batch connections are busy. The interactive send uses its own connection instead of waiting behind them.
+		try (var stub = new TwilioStub(i -> (2 > i) ? 1000L : 0L); var client = new TwilioClient(stub.conf(2, 0)))
+		{
+			var futures = new ArrayList<CompletableFuture<SMSResponse>>();
+			for (int i = 0; i < 4; i++) futures.add(client.sendAsync(request(i)));
+			for (int i = 0; (i < 100) && (2 > stub.requests.size()); i++) Thread.sleep(10L);
+
+			var start = System.nanoTime();
+			Assertions.assertEquals(request(9).to, client.send(request(9)).to, "Check to");
+			assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).as("Check elapsed").isLessThan(500L);
+			assertThat(stub.maxInFlight()).as("Check in flight").isEqualTo(3);
+
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10L, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void send_leaseTimeout() throws Exception
+	{
+		// The only interactive connection is held by a slow send. The next send gives up after the lease timeout.
+		try (var stub = new TwilioStub(i -> (0 == i) ? 1000L : 0L); var client = new TwilioClient(stub.conf(2, 1, 0, 100L)))
+		{
+			var slow = CompletableFuture.supplyAsync(() -> client.send(request(0)));
+			for (int i = 0; (i < 100) && stub.requests.isEmpty(); i++) Thread.sleep(10L);
+
+			var start = System.nanoTime();
+			Assertions.assertThrows(ProcessingException.class, () -> client.send(request(1)));
+			assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).as("Check elapsed").isLessThan(800L);
+
+			Assertions.assertEquals(request(0).to, slow.get(10L, TimeUnit.SECONDS).to, "Check slow");
+		}
+	}
+
+	@Test
+	public void testInvalid()
+	{
+		var conf = TwilioConfig.test();
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new TwilioClient(new TwilioConfig(conf.baseUrl, conf.accountId, conf.authToken, 0, 1, 0, 1000L)));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new TwilioClient(new TwilioConfig(conf.baseUrl, conf.accountId, conf.authToken, 1, 0, 0, 1000L)));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new TwilioClient(new TwilioConfig(conf.baseUrl, conf.accountId, conf.authToken, 1, 1, -1, 1000L)));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new TwilioClient(new TwilioConfig(conf.baseUrl, conf.accountId, conf.authToken, 1, 1, 0, 0L)));
+	}
+
+	@Test
+	public void testConfig()
+	{
+		var o = TwilioConfig.test();
+		Assertions.assertEquals(TwilioConfig.CONCURRENCY_DEFAULT, o.concurrency, "Check concurrency");
+		Assertions.assertEquals(TwilioConfig.INTERACTIVE_DEFAULT, o.interactive, "Check interactive");
+		Assertions.assertEquals(TwilioConfig.RATE_DEFAULT, o.rate, "Check rate");
+		Assertions.assertEquals(TwilioConfig.LEASE_TIMEOUT_DEFAULT, o.leaseTimeout, "Check leaseTimeout");
+	}
+}
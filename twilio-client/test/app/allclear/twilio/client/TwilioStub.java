@@ -0,0 +1,125 @@
+package app.allclear.twilio.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntToLongFunction;
+
+import com.sun.net.httpserver.*;
+
+/** Local stub of the Twilio Messages API for tests. Accepts every message after an optional delay and records the
+ *  requests along with the maximum number of requests in flight at once.
+ *
+ * @author smalleyd
+ * @version 1.1.156
+ * @since 10/18/2026
+ *
+ */
+
+public class TwilioStub implements AutoCloseable
+{
+	public static final String HOST = "127.0.0.1";
+	public static final String ACCOUNT_ID = "stub";
+	public static final String AUTH_TOKEN = "token";
+	private static final String RESPONSE = "{\"sid\":\"SM%d\",\"account_sid\":\"%s\",\"from\":%s,\"messaging_service_sid\":%s,\"to\":%s,\"body\":%s,\"status\":\"queued\"}";
+	private static final String ERROR = "{\"code\":21211,\"message\":\"The 'To' number is not a valid phone number.\",\"status\":400}";
+
+	public final IntToLongFunction delay;	// Milliseconds before each response by the zero-based order of arrival.
+	public final List<Map<String, String>> requests = new CopyOnWriteArrayList<>();
+	public final List<Long> receivedAt = new CopyOnWriteArrayList<>();	// Nanosecond times the requests arrived.
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	public TwilioStub() throws IOException { this(0L); }
+	public TwilioStub(final long delay) throws IOException { this(i -> delay); }
+	public TwilioStub(final IntToLongFunction delay) throws IOException
+	{
+		this.delay = delay;
+
+		server = HttpServer.create(new InetSocketAddress(HOST, 0), 0);
+		server.createContext("/Accounts/" + ACCOUNT_ID + "/Messages.json", this::handle);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/** Gets the client configuration that targets this stub. */
+	public TwilioConfig conf()
+	{
+		return new TwilioConfig("http://" + HOST + ":" + server.getAddress().getPort(), ACCOUNT_ID, AUTH_TOKEN);
+	}
+
+	/** Gets the client configuration that targets this stub with specific batch concurrency and rate. */
+	public TwilioConfig conf(final int concurrency, final int rate)
+	{
+		return conf(concurrency, TwilioConfig.INTERACTIVE_DEFAULT, rate, TwilioConfig.LEASE_TIMEOUT_DEFAULT);
+	}
+
+	/** Gets the client configuration that targets this stub with specific pools, rate, and lease timeout. */
+	public TwilioConfig conf(final int concurrency, final int interactive, final int rate, final long leaseTimeout)
+	{
+		return new TwilioConfig("http://" + HOST + ":" + server.getAddress().getPort(), ACCOUNT_ID, AUTH_TOKEN, concurrency, interactive, rate, leaseTimeout);
+	}
+
+	/** Gets the maximum number of requests in flight at once. */
+	public int maxInFlight() { return maxInFlight.get(); }
+
+	/** Helper method - records the request and responds with a queued message. Numbers that start with "+1555" are rejected. */
+	private void handle(final HttpExchange x) throws IOException
+	{
+		receivedAt.add(System.nanoTime());
+		maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		try
+		{
+			var params = parse(new String(x.getRequestBody().readAllBytes(), UTF_8));
+			int i;
+			synchronized (requests) { requests.add(params); i = requests.size() - 1; }
+
+			var wait = delay.applyAsLong(i);
+			if (0L < wait) Thread.sleep(wait);
+
+			var to = params.get("To");
+			var status = ((null != to) && to.startsWith("+1555")) ? 400 : 201;
+			var body = ((400 == status) ? ERROR : String.format(RESPONSE, requests.size(), ACCOUNT_ID,
+				quote(params.get("From")), quote(params.get("MessagingServiceSid")), quote(to), quote(params.get("Body")))).getBytes(UTF_8);
+
+			x.getResponseHeaders().add("Content-Type", "application/json");
+			x.sendResponseHeaders(status, body.length);
+			try (var out = x.getResponseBody()) { out.write(body); }
+		}
+		catch (final InterruptedException ex) { Thread.currentThread().interrupt(); x.sendResponseHeaders(503, -1L); }
+		finally { inFlight.decrementAndGet(); x.close(); }
+	}
+
+	/** Helper method - parses a URL encoded form. */
+	private static Map<String, String> parse(final String form)
+	{
+		var o = new HashMap<String, String>();
+		for (var pair : form.split("&"))
+		{
+			var i = pair.indexOf('=');
+			if (0 < i) o.put(URLDecoder.decode(pair.substring(0, i), UTF_8), URLDecoder.decode(pair.substring(i + 1), UTF_8));
+		}
+
+		return o;
+	}
+
+	/** Helper method - converts a value to a JSON string literal. */
+	private static String quote(final String value)
+	{
+		return (null != value) ? "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"" : "null";
+	}
+
+	@Override
+	public void close()
+	{
+		server.stop(0);
+		executor.shutdownNow();
+	}
+}